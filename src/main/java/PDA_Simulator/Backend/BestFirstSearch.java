@@ -0,0 +1,239 @@
+package PDA_Simulator.Backend;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.TreeSet;
+
+/**
+ * This class searches for the accepting computations of a PDA in a best-first manner rather than
+ * depth-first. Configurations waiting to be explored are kept in a frontier ordered by the length
+ * of the computation leading to them plus an estimate from a SearchHeuristic of how many more
+ * steps are needed to accept, so the search always continues from the most promising
+ * configuration instead of committing to one branch until it runs out. This is an A* search, and
+ * with a heuristic that never overestimates, accepting computations are found in order of
+ * increasing length.
+ * <p>
+ * The frontier can be limited in size. Whenever it grows past the limit, the least promising
+ * configuration is dropped, which turns the search into a beam search that uses a bounded amount
+ * of memory but may miss accepting computations. If any configuration was dropped, the search is
+ * treated as having been cut short, in the same way as reaching the total step limit.
+ */
+
+public class BestFirstSearch implements ComputationEngine {
+    // The PDA being run
+    private final PDA pda;
+    // The heuristic used to order the frontier
+    private final SearchHeuristic heuristic;
+    // The maximum number of configurations in the frontier
+    private final int frontierSize;
+    // The number of nodes created during the current search. This is used to break ties between
+    // nodes with the same priority in the order they were created.
+    private long nodeCount;
+
+    /**
+     * A configuration in the frontier along with how it was reached.
+     */
+    private static class Node {
+        // The configuration of this node
+        private final PDAConfiguration configuration;
+        // The node this node was reached from, or null for the initial configuration
+        private final Node parent;
+        // The transition applied to the configuration of the parent to reach this node, or null
+        // for the initial configuration
+        private final PDATransition transition;
+        // The number of transitions applied to reach this node
+        private final int depth;
+        // The depth plus the estimate of the heuristic. Lower values are explored first.
+        private final long priority;
+        // The order in which this node was created
+        private final long id;
+
+        private Node(PDAConfiguration configuration, Node parent, PDATransition transition,
+                     int depth, long priority, long id) {
+            this.configuration = configuration;
+            this.parent = parent;
+            this.transition = transition;
+            this.depth = depth;
+            this.priority = priority;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Creates a best-first search with an unbounded frontier.
+     *
+     * @param pda       The PDA to run.
+     * @param heuristic The heuristic used to choose which configuration to explore next.
+     */
+    public BestFirstSearch(PDA pda, SearchHeuristic heuristic) {
+        this(pda, heuristic, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a best-first search whose frontier holds at most frontierSize configurations.
+     *
+     * @param pda          The PDA to run.
+     * @param heuristic    The heuristic used to choose which configuration to explore next.
+     * @param frontierSize The maximum number of configurations waiting to be explored.
+     */
+    public BestFirstSearch(PDA pda, SearchHeuristic heuristic, int frontierSize) {
+        if (frontierSize < 1) {
+            throw new IllegalArgumentException("The frontier size must be at least 1");
+        }
+        this.pda = pda;
+        this.heuristic = heuristic;
+        this.frontierSize = frontierSize;
+    }
+
+    /**
+     * Searches for all accepting computations that contain at most maxSteps configurations. Each
+     * configuration that is taken from the frontier counts as one step towards maxTotalSteps.
+     *
+     * @param inputString   The input string the automaton is being run on.
+     * @param maxSteps      The maximum number of steps the computations are allowed to go on for.
+     * @param maxTotalSteps The maximum number of total steps across all computations.
+     * @return A pair where the first element is an ArrayList of all accepting computations found,
+     * shortest first, and the second is null if no limit was reached, true if the step limit was
+     * reached or false if the total step limit was reached or the frontier overflowed. If no
+     * accepting computations were found without reaching a limit, then null is returned.
+     */
+    @Override
+    public Pair<ArrayList<Computation>, Boolean> getAcceptingComputations(
+            String inputString, int maxSteps, int maxTotalSteps) {
+        ArrayList<Computation> acceptingComputations = new ArrayList<>();
+        Boolean limit = search(inputString, maxSteps, maxTotalSteps, acceptingComputations, false);
+        if (limit == null && acceptingComputations.isEmpty()) {
+            return null;
+        }
+        acceptingComputations.sort(Comparator.comparingInt(Computation::size));
+        return new Pair<>(acceptingComputations, limit);
+    }
+
+    /**
+     * Searches for a single accepting computation, stopping as soon as one is found. Configurations
+     * that have already been explored are not explored again. If the heuristic never
+     * overestimates, the computation returned is a shortest accepting computation.
+     *
+     * @param inputString   The input string the automaton is being run on.
+     * @param maxSteps      The maximum number of steps the computation is allowed to go on for.
+     * @param maxTotalSteps The maximum number of total steps across all computations.
+     * @return The first accepting computation found, or null if none was found within the limits.
+     */
+    public Computation getFirstAcceptingComputation(String inputString, int maxSteps,
+                                                    int maxTotalSteps) {
+        ArrayList<Computation> acceptingComputations = new ArrayList<>();
+        search(inputString, maxSteps, maxTotalSteps, acceptingComputations, true);
+        if (acceptingComputations.isEmpty()) {
+            return null;
+        }
+        return acceptingComputations.get(0);
+    }
+
+    /**
+     * Runs the best-first search and adds every accepting computation found to the given list.
+     *
+     * @param inputString           The input string the automaton is being run on.
+     * @param maxSteps              The maximum number of steps a computation can go on for.
+     * @param maxTotalSteps         The maximum number of configurations taken from the frontier.
+     * @param acceptingComputations The list the accepting computations are added to.
+     * @param stopAtFirstAccept     Whether to stop as soon as an accepting computation is found
+     *                              and skip configurations that have already been explored.
+     * @return Null if the search finished without reaching a limit, true if the step limit was
+     * reached or false if the total step limit was reached or configurations were dropped from the
+     * frontier.
+     */
+    private Boolean search(String inputString, int maxSteps, int maxTotalSteps,
+                           ArrayList<Computation> acceptingComputations,
+                           boolean stopAtFirstAccept) {
+        PDAConfiguration initialConfiguration = pda.getInitialConfiguration(inputString);
+        if (!pda.mayAccept(inputString)) {
+            return null;
+        }
+        TreeSet<Node> frontier = new TreeSet<>(
+                Comparator.comparingLong((Node node) -> node.priority).thenComparingLong(
+                        node -> node.id));
+        // The configurations that have been explored, only used when stopping at the first
+        // accepting computation
+        HashSet<PDAConfiguration> explored = new HashSet<>();
+        nodeCount = 0;
+        boolean hitMaxSteps = false;
+        boolean droppedNodes = addNode(frontier, initialConfiguration, null, null);
+        int totalSteps = 0;
+
+        while (!frontier.isEmpty()) {
+            Node node = frontier.pollFirst();
+            if (stopAtFirstAccept && !explored.add(node.configuration)) {
+                continue;
+            }
+            totalSteps++;
+            // The same limits as the depth-first search of the PDA class apply
+            if (node.depth == maxSteps) {
+                hitMaxSteps = true;
+                continue;
+            }
+            if (totalSteps >= maxTotalSteps) {
+                return false;
+            }
+            if (pda.isAcceptingConfiguration(node.configuration)) {
+                acceptingComputations.add(getComputation(node));
+                if (stopAtFirstAccept) {
+                    return null;
+                }
+            }
+            for (PDATransition transition : pda.getApplicableTransitions(node.configuration)) {
+                PDAConfiguration child = pda.applyTransition(node.configuration, transition);
+                droppedNodes |= addNode(frontier, child, node, transition);
+            }
+        }
+        if (droppedNodes) {
+            return false;
+        }
+        if (hitMaxSteps) {
+            return true;
+        }
+        return null;
+    }
+
+    /**
+     * Adds a configuration to the frontier unless the heuristic says it cannot lead to acceptance.
+     * If the frontier is then too large, the least promising configuration is dropped.
+     *
+     * @param frontier      The frontier.
+     * @param configuration The configuration to add.
+     * @param parent        The node the configuration was reached from, or null.
+     * @param transition    The transition applied to reach the configuration, or null.
+     * @return True if a configuration had to be dropped from the frontier and false otherwise.
+     */
+    private boolean addNode(TreeSet<Node> frontier, PDAConfiguration configuration, Node parent,
+                            PDATransition transition) {
+        int estimate = heuristic.estimate(configuration);
+        if (estimate == SearchHeuristic.UNREACHABLE) {
+            return false;
+        }
+        int depth = parent == null ? 0 : parent.depth + 1;
+        frontier.add(new Node(configuration, parent, transition, depth,
+                (long) depth + estimate, nodeCount++));
+        if (frontier.size() > frontierSize) {
+            frontier.pollLast();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Creates the computation leading to a node by following the parents of the node back to the
+     * initial configuration and collecting the transitions along the way.
+     *
+     * @param node The last node of the computation.
+     * @return The computation.
+     */
+    private Computation getComputation(Node node) {
+        PDATransition[] transitions = new PDATransition[node.depth];
+        while (node.parent != null) {
+            transitions[node.depth - 1] = node.transition;
+            node = node.parent;
+        }
+        return new Computation(node.configuration, transitions);
+    }
+}
@@ -0,0 +1,119 @@
+package PDA_Simulator.Backend;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class stores a computation of a PDA compactly as its initial configuration and the
+ * transitions applied to it, rather than as a full copy of every configuration. A computation of
+ * length n with a stack of depth d therefore takes O(n + d) space instead of O(n * d).
+ * Configurations are only reconstructed when they are asked for, by replaying the transitions
+ * from the initial configuration. The most recently reconstructed configuration is remembered, so
+ * going through the computation from start to finish (for example, when it is displayed) only
+ * applies each transition once.
+ * <p>
+ * A Computation is a read-only List of PDAConfigurations, so it can be used anywhere a computation
+ * stored as a list of configurations is expected, and it is equal to any list that contains the
+ * same configurations in the same order.
+ */
+
+public class Computation extends AbstractList<PDAConfiguration> {
+    // The first configuration of the computation
+    private final PDAConfiguration initialConfiguration;
+    // The transitions applied at each step of the computation
+    private final PDATransition[] transitions;
+    // The position of the most recently reconstructed configuration
+    private int cachedIndex = 0;
+    // The most recently reconstructed configuration
+    private PDAConfiguration cachedConfiguration;
+
+    /**
+     * Creates a computation from its initial configuration and the transitions applied to it. The
+     * transitions must each be applicable to the configuration they are applied to.
+     *
+     * @param initialConfiguration The first configuration of the computation.
+     * @param transitions          The transitions applied at each step, in order.
+     */
+    public Computation(PDAConfiguration initialConfiguration, List<PDATransition> transitions) {
+        this(initialConfiguration, transitions.toArray(new PDATransition[0]));
+    }
+
+    /**
+     * Creates a computation from its initial configuration and an array of transitions that is
+     * not copied.
+     *
+     * @param initialConfiguration The first configuration of the computation.
+     * @param transitions          The transitions applied at each step, in order.
+     */
+    Computation(PDAConfiguration initialConfiguration, PDATransition[] transitions) {
+        this.initialConfiguration = initialConfiguration;
+        this.transitions = transitions;
+        cachedConfiguration = initialConfiguration;
+    }
+
+    /**
+     * Gets a configuration of this computation, reconstructing it if necessary.
+     *
+     * @param index The position of the configuration, starting at 0 for the initial configuration.
+     * @return The configuration at that position.
+     */
+    @Override
+    public PDAConfiguration get(int index) {
+        if (index < 0 || index > transitions.length) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for a " +
+                    "computation of size " + size());
+        }
+        // Replay from the initial configuration if the configuration asked for comes before the
+        // most recently reconstructed one
+        if (index < cachedIndex) {
+            cachedIndex = 0;
+            cachedConfiguration = initialConfiguration;
+        }
+        while (cachedIndex < index) {
+            cachedConfiguration = cachedConfiguration.applyTransition(transitions[cachedIndex]);
+            cachedIndex++;
+        }
+        return cachedConfiguration;
+    }
+
+    /**
+     * Gets the number of configurations in this computation, which is one more than the number of
+     * transitions.
+     *
+     * @return The number of configurations.
+     */
+    @Override
+    public int size() {
+        return transitions.length + 1;
+    }
+
+    /**
+     * Gets the first configuration of this computation.
+     *
+     * @return The initial configuration.
+     */
+    public PDAConfiguration getInitialConfiguration() {
+        return initialConfiguration;
+    }
+
+    /**
+     * Gets the transitions applied at each step of this computation.
+     *
+     * @return A read-only list of the transitions, in the order they were applied.
+     */
+    public List<PDATransition> getTransitions() {
+        return Collections.unmodifiableList(Arrays.asList(transitions));
+    }
+
+    /**
+     * Gets the transition applied at one step of this computation.
+     *
+     * @param step The step, starting at 0 for the transition applied to the initial configuration.
+     * @return The transition applied at that step.
+     */
+    public PDATransition getTransition(int step) {
+        return transitions[step];
+    }
+}
@@ -0,0 +1,27 @@
+package PDA_Simulator.Backend;
+
+import java.util.ArrayList;
+
+/**
+ * Interface for the different ways of searching for the accepting computations of a PDA on an
+ * input string. The PDA class itself performs a depth-first search over computations, but other
+ * engines can be used in its place as long as they report their results in the same way.
+ */
+
+public interface ComputationEngine {
+    /**
+     * Searches for accepting computations of the PDA on the given input string.
+     *
+     * @param inputString   The input string the automaton is being run on.
+     * @param maxSteps      The maximum number of configurations an accepting computation may
+     *                      contain.
+     * @param maxTotalSteps The maximum number of total steps the search may take. Engines that
+     *                      are guaranteed to terminate may ignore this.
+     * @return A pair where the first element is an ArrayList of the accepting computations found
+     * (shortest first) and the second is null if no limit was reached, true if the step limit was
+     * reached or false if the total step limit was reached. If the input string is definitely
+     * rejected, null is returned instead.
+     */
+    Pair<ArrayList<Computation>, Boolean> getAcceptingComputations(
+            String inputString, int maxSteps, int maxTotalSteps);
+}
@@ -0,0 +1,580 @@
+package PDA_Simulator.Backend;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class is a depth-first search for the accepting computations of a PDA on an input string
+ * that can be paused and resumed. When the search reaches the total step limit, it stops where it
+ * is, and running it again with a larger total step limit carries on from that point rather than
+ * starting over. When a computation reaches the step limit, the configuration at the end of it is
+ * remembered, and running the search again with a larger step limit only explores the parts of
+ * the computation tree below those configurations. The accepting computations found so far are
+ * kept between runs.
+ * <p>
+ * The search moves a single MutableConfiguration forwards by applying transitions and backwards by
+ * undoing them. The applicable transitions of each configuration along the current computation
+ * are kept in lists that are reused between branches. Children are explored starting from the
+ * last applicable transition, which is the same order in which they would be popped from a stack
+ * of computations. If transition statistics are attached to the PDA, the applicable transitions
+ * are first sorted so that the transition most likely to lead to acceptance is explored first,
+ * and the statistics are updated as the search goes on. See subsection 4.9.2 of the report for
+ * further details about the depth-first search.
+ * <p>
+ * A search can be run on a background thread. It can then be cancelled from any thread, and it
+ * can report its progress to a SearchProgressListener while it runs. A cancelled search stops in
+ * the same way as when it reaches the total step limit, so it keeps the accepting computations
+ * found so far and can be resumed by running it again.
+ * <p>
+ * The PDA must not be modified while a search is in progress.
+ */
+
+public class ComputationSearch {
+    // The number of configurations explored between progress updates and checks for cancellation.
+    // This is a power of two so that the check is cheap.
+    private static final int PROGRESS_INTERVAL = 1024;
+    // The PDA being run
+    private final PDA pda;
+    // The input string the PDA is being run on
+    private final String inputString;
+    // Whether the configurations cut off by the step limit are remembered so that the search can
+    // be resumed with a larger step limit
+    private final boolean resumable;
+    // The configuration that is moved around the computation tree
+    private final MutableConfiguration configuration;
+    // The accepting computations found so far, in the order they were found
+    private final ArrayList<Computation> acceptingComputations = new ArrayList<>();
+    // The accepting computations found so far, sorted by length (with computations of the same
+    // length in the order they were found). The computations found since this was last needed
+    // are merged into it when it is next needed, rather than sorting them all again.
+    private final ArrayList<Computation> sortedComputations = new ArrayList<>();
+    // The roots of the subtrees that still need to be explored
+    private final ArrayDeque<PathNode> pendingRoots = new ArrayDeque<>();
+    // The configurations that were cut off by the current step limit
+    private final ArrayList<PathNode> deferredNodes = new ArrayList<>();
+    // The root of the subtree currently being explored, or null if there is none
+    private PathNode currentRoot = null;
+    // The applicable transitions of each configuration on the current computation, indexed by the
+    // position of the configuration in the computation
+    private final ArrayList<ArrayList<PDATransition>> applicableTransitions = new ArrayList<>();
+    // The number of applicable transitions of each configuration on the current computation that
+    // are still to be explored
+    private int[] remainingTransitions = new int[16];
+    // Whether an accepting configuration has been found at or below each configuration on the
+    // current computation. This is only needed to update the transition statistics.
+    private boolean[] acceptedBelow = new boolean[16];
+    // The path nodes for the prefixes of the current computation, created only when needed
+    private PathNode[] pathNodes = new PathNode[16];
+    // Whether the current configuration has just been reached (rather than returned to by undoing)
+    private boolean newConfiguration = false;
+    // The number of configurations explored so far across all runs
+    private int totalSteps = 0;
+    // The step limit of the most recent run
+    private int maxSteps = 0;
+    // Whether a computation has reached the current step limit
+    private boolean hitMaxSteps = false;
+    // The listener given progress updates while the search runs, or null if there is none
+    private SearchProgressListener progressListener = null;
+    // Whether cancel has been called since the search last stopped because of it. This is set
+    // from other threads.
+    private volatile boolean cancelRequested = false;
+    // Whether the most recent run stopped because it was cancelled
+    private boolean cancelled = false;
+
+    /**
+     * A configuration in the computation tree, represented by the transitions that lead to it from
+     * the initial configuration. Path nodes share their prefixes, so remembering many
+     * configurations that are close together in the tree takes little memory.
+     */
+    private static class PathNode {
+        // The node of the configuration before this one, or null for the initial configuration
+        private final PathNode parent;
+        // The transition applied to the configuration of the parent to reach this configuration
+        private final PDATransition transition;
+        // The number of transitions from the initial configuration to this configuration
+        private final int depth;
+
+        private PathNode(PathNode parent, PDATransition transition) {
+            this.parent = parent;
+            this.transition = transition;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+    }
+
+    /**
+     * Creates a search for the accepting computations of the PDA on the given input string. The
+     * search does not start until it is run. If the over-approximation of the PDA rejects the
+     * input string, then there is nothing to search.
+     *
+     * @param pda         The PDA to run.
+     * @param inputString The input string the PDA is run on.
+     * @param resumable   Whether to remember the configurations cut off by the step limit so that
+     *                    the search can be resumed with a larger step limit.
+     */
+    ComputationSearch(PDA pda, String inputString, boolean resumable) {
+        this.pda = pda;
+        this.inputString = inputString;
+        this.resumable = resumable;
+        configuration = new MutableConfiguration(pda.getInitialConfiguration(inputString),
+                inputString);
+        if (pda.mayAccept(inputString)) {
+            pendingRoots.add(new PathNode(null, null));
+        }
+    }
+
+    /**
+     * Runs the search until it finishes or reaches the total step limit. The first time this is
+     * called, the search starts from the initial configuration. After that, each call carries on
+     * from where the previous one stopped. The total step limit counts the configurations explored
+     * across all runs, so it must be raised for the search to go any further. If the step limit is
+     * raised, then the computations that were cut off by the old step limit are explored further.
+     *
+     * @param maxSteps      The maximum number of configurations a computation can contain. This
+     *                      cannot be lower than in the previous run.
+     * @param maxTotalSteps The maximum number of configurations explored across all runs.
+     * @return A pair where the first element is an ArrayList of all accepting computations found so
+     * far (shortest first) and the second is null if no limit was reached, true if the step limit
+     * was reached or false if the total step limit was reached or the run was cancelled. If no
+     * accepting computations were found without reaching either limit, then null is returned.
+     */
+    public Pair<ArrayList<Computation>, Boolean> run(int maxSteps, int maxTotalSteps) {
+        return getResults(advance(maxSteps, maxTotalSteps));
+    }
+
+    /**
+     * Runs the search in the same way as run, but with the cost of the run bounded by a
+     * RunGovernor rather than a total step limit.
+     *
+     * @param maxSteps The maximum number of configurations a computation can contain. This cannot
+     *                 be lower than in the previous run.
+     * @param governor The governor bounding the cost of this run.
+     * @return A pair where the first element is an ArrayList of all accepting computations found so
+     * far (shortest first) and the second is null if no limit was reached, true if the step limit
+     * was reached or false if one of the budgets of the governor ran out or the run was cancelled.
+     * If no accepting computations were found without reaching any limit, then null is returned.
+     */
+    public Pair<ArrayList<Computation>, Boolean> run(int maxSteps, RunGovernor governor) {
+        return getResults(advance(maxSteps, governor));
+    }
+
+    /**
+     * Creates the result of a run from the accepting computations found so far.
+     *
+     * @param limitReached The value returned by advance for the run.
+     * @return The result of the run, as described for run.
+     */
+    private Pair<ArrayList<Computation>, Boolean> getResults(Boolean limitReached) {
+        if (limitReached == null && acceptingComputations.isEmpty()) {
+            return null;
+        }
+        // Sort the accepting computations so that the shortest computations are at the front
+        return new Pair<>(new ArrayList<>(getSortedComputations()), limitReached);
+    }
+
+    /**
+     * Runs the search in the same way as run, but without collecting and sorting the accepting
+     * computations found so far. They can be retrieved a page at a time afterwards using
+     * getAcceptingComputationPage, which only sorts the ones found since it was last called.
+     *
+     * @param maxSteps      The maximum number of configurations a computation can contain. This
+     *                      cannot be lower than in the previous run.
+     * @param maxTotalSteps The maximum number of configurations explored across all runs.
+     * @return Null if no limit was reached, true if the step limit was reached or false if the
+     * total step limit was reached or the run was cancelled.
+     */
+    public Boolean advance(int maxSteps, int maxTotalSteps) {
+        return advance(maxSteps, RunGovernor.ofConfigurations((long) maxTotalSteps - totalSteps));
+    }
+
+    /**
+     * Runs the search in the same way as advance, but with the cost of the run bounded by a
+     * RunGovernor rather than a total step limit. The governor can limit the time the run takes,
+     * how much memory it uses and how many configurations it explores, and afterwards it reports
+     * which of these budgets stopped the run, if any.
+     *
+     * @param maxSteps The maximum number of configurations a computation can contain. This cannot
+     *                 be lower than in the previous run.
+     * @param governor The governor bounding the cost of this run.
+     * @return Null if no limit was reached, true if the step limit was reached or false if one of
+     * the budgets of the governor ran out or the run was cancelled.
+     */
+    public Boolean advance(int maxSteps, RunGovernor governor) {
+        boolean hitMaxTotalSteps = explore(maxSteps, governor, false);
+        reportProgress();
+        if (hitMaxTotalSteps) {
+            return false;
+        }
+        if (hitMaxSteps) {
+            return true;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of accepting computations found so far.
+     *
+     * @return The number of accepting computations.
+     */
+    public int getAcceptingComputationCount() {
+        return acceptingComputations.size();
+    }
+
+    /**
+     * Gets the k shortest accepting computations found so far. Computations of the same length are
+     * in the order they were found.
+     *
+     * @param k The maximum number of computations to get.
+     * @return An ArrayList of at most k accepting computations, shortest first.
+     */
+    public ArrayList<Computation> getShortestAcceptingComputations(int k) {
+        return getAcceptingComputationPage(0, k);
+    }
+
+    /**
+     * Gets a page of the accepting computations found so far, as if they had all been sorted by
+     * length (with computations of the same length in the order they were found). The sorted
+     * order is kept between calls, and only the computations found since the previous call are
+     * sorted and merged into it, so paging through the computations does not sort them all again
+     * for every page.
+     *
+     * @param first The position in the sorted order of the first computation of the page.
+     * @param count The maximum number of computations on the page.
+     * @return An ArrayList of the computations on the page, shortest first. This is empty if first
+     * is not lower than the number of accepting computations.
+     */
+    public ArrayList<Computation> getAcceptingComputationPage(int first, int count) {
+        if (first < 0 || count < 0) {
+            throw new IllegalArgumentException("The first position and count cannot be negative");
+        }
+        int limit = (int) Math.min((long) first + count, acceptingComputations.size());
+        if (first >= limit) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(getSortedComputations().subList(first, limit));
+    }
+
+    /**
+     * Gets the accepting computations found so far, sorted by length (with computations of the
+     * same length in the order they were found). The computations found since the previous call
+     * are sorted on their own and then merged with the ones that were already sorted.
+     *
+     * @return The sorted accepting computations. This must not be modified.
+     */
+    private ArrayList<Computation> getSortedComputations() {
+        int sortedCount = sortedComputations.size();
+        if (sortedCount == acceptingComputations.size()) {
+            return sortedComputations;
+        }
+        // The sort is stable, so new computations of the same length stay in the order they were
+        // found
+        ArrayList<Computation> newComputations = new ArrayList<>(
+                acceptingComputations.subList(sortedCount, acceptingComputations.size()));
+        newComputations.sort(Comparator.comparingInt(Computation::size));
+
+        // Merge the two sorted lists from the back, so that the sorted computations only need to
+        // be moved once. On a tie the new computation goes after the old one, since it was found
+        // later.
+        int merged = acceptingComputations.size();
+        sortedComputations.addAll(newComputations);
+        int oldIndex = sortedCount - 1;
+        int newIndex = newComputations.size() - 1;
+        for (int position = merged - 1; newIndex >= 0; position--) {
+            if (oldIndex >= 0 && sortedComputations.get(oldIndex).size()
+                    > newComputations.get(newIndex).size()) {
+                sortedComputations.set(position, sortedComputations.get(oldIndex--));
+            } else {
+                sortedComputations.set(position, newComputations.get(newIndex--));
+            }
+        }
+        return sortedComputations;
+    }
+
+    /**
+     * Runs the search until the next accepting computation is found, the search finishes or the
+     * total step limit is reached.
+     *
+     * @param maxSteps      The maximum number of configurations a computation can contain. This
+     *                      cannot be lower than in the previous run.
+     * @param maxTotalSteps The maximum number of configurations explored across all runs.
+     * @return The accepting computation found, or null if none was found.
+     */
+    Computation runUntilAccepted(int maxSteps, int maxTotalSteps) {
+        int previousCount = acceptingComputations.size();
+        explore(maxSteps, RunGovernor.ofConfigurations((long) maxTotalSteps - totalSteps), true);
+        reportProgress();
+        if (acceptingComputations.size() > previousCount) {
+            return acceptingComputations.get(previousCount);
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the search has explored everything allowed by the step limit of the most
+     * recent run.
+     *
+     * @return True if the search has finished and false if it stopped at the total step limit.
+     */
+    public boolean isFinished() {
+        return currentRoot == null && pendingRoots.isEmpty();
+    }
+
+    /**
+     * Gets the number of configurations explored so far across all runs.
+     *
+     * @return The number of explored configurations.
+     */
+    public int getTotalSteps() {
+        return totalSteps;
+    }
+
+    /**
+     * Asks the search to stop. This can be called from any thread. A run in progress stops soon
+     * afterwards, keeping the accepting computations found so far. If no run is in progress, the
+     * next run stops as soon as it starts.
+     */
+    public void cancel() {
+        cancelRequested = true;
+    }
+
+    /**
+     * Checks whether the most recent run stopped because the search was cancelled.
+     *
+     * @return True if the most recent run was cancelled and false otherwise.
+     */
+    public boolean wasCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Sets the listener that is given progress updates while the search runs.
+     *
+     * @param progressListener The listener, or null to stop giving progress updates.
+     */
+    public void setProgressListener(SearchProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Gets the input string the PDA is being run on.
+     *
+     * @return The input string.
+     */
+    public String getInputString() {
+        return inputString;
+    }
+
+    /**
+     * Abandons the subtree currently being explored and undoes every transition applied to the
+     * configuration, so that any successes on the current computation are recorded in the
+     * transition statistics. The search cannot be resumed afterwards.
+     */
+    void abandon() {
+        while (currentRoot != null && configuration.getStepCount() > currentRoot.depth) {
+            backtrack();
+        }
+        currentRoot = null;
+        pendingRoots.clear();
+        deferredNodes.clear();
+    }
+
+    /**
+     * Explores the computation tree until there is nothing left to explore or one of the budgets
+     * of the governor runs out.
+     *
+     * @param newMaxSteps       The step limit.
+     * @param governor          The governor bounding the cost of this run.
+     * @param stopAtFirstAccept Whether to also stop as soon as an accepting computation is found.
+     * @return True if a budget ran out or the run was cancelled and false otherwise.
+     */
+    private boolean explore(int newMaxSteps, RunGovernor governor, boolean stopAtFirstAccept) {
+        if (newMaxSteps < maxSteps) {
+            throw new IllegalArgumentException("The step limit cannot be lowered");
+        }
+        // The configurations at the end of computations that were cut off by the old step limit
+        // can now be explored further
+        if (newMaxSteps > maxSteps) {
+            pendingRoots.addAll(deferredNodes);
+            deferredNodes.clear();
+            hitMaxSteps = false;
+        }
+        maxSteps = newMaxSteps;
+        cancelled = false;
+        governor.start();
+        // The number of explored configurations at which the configuration budget runs out
+        long maxTotalSteps = totalSteps + governor.getConfigurationLimit();
+        if (maxTotalSteps < totalSteps) {
+            maxTotalSteps = Long.MAX_VALUE;
+        }
+        TransitionStatistics transitionStatistics = pda.getTransitionStatistics();
+
+        while (true) {
+            if (currentRoot == null) {
+                currentRoot = pendingRoots.poll();
+                if (currentRoot == null) {
+                    return false;
+                }
+                moveTo(currentRoot);
+                newConfiguration = true;
+            }
+
+            int depth = configuration.getStepCount();
+            if (newConfiguration) {
+                totalSteps++;
+                if (depth == applicableTransitions.size()) {
+                    applicableTransitions.add(new ArrayList<>());
+                }
+                if (depth == remainingTransitions.length) {
+                    remainingTransitions = Arrays.copyOf(remainingTransitions, 2 * depth);
+                    acceptedBelow = Arrays.copyOf(acceptedBelow, 2 * depth);
+                    pathNodes = Arrays.copyOf(pathNodes, 2 * depth);
+                }
+                remainingTransitions[depth] = 0;
+                acceptedBelow[depth] = false;
+                // The path node of a new configuration is only created if it is needed, except
+                // for the root of the subtree, which already has one
+                pathNodes[depth] = depth == currentRoot.depth ? currentRoot : null;
+                newConfiguration = false;
+
+                // Periodically report progress and check whether the search has been cancelled
+                // or has run out of time or memory. The search then stops in the same way as when
+                // the total step limit is reached, so that it can be resumed.
+                if ((totalSteps & (PROGRESS_INTERVAL - 1)) == 0) {
+                    reportProgress();
+                    if (cancelRequested || governor.resourcesExhausted()) {
+                        if (cancelRequested) {
+                            cancelRequested = false;
+                            cancelled = true;
+                        }
+                        totalSteps--;
+                        newConfiguration = true;
+                        return true;
+                    }
+                }
+
+                // If the step limit for an individual computation has been reached, then do not
+                // continue running the PDA on this particular computation. The computation
+                // contains depth + 1 configurations, so this ensures that computations can
+                // contain the same number of configurations as the step limit but no more.
+                if (depth == maxSteps) {
+                    hitMaxSteps = true;
+                    if (resumable) {
+                        deferredNodes.add(getPathNode(depth));
+                    }
+                }
+                // If the total step limit across all runs is reached, stop immediately. The
+                // configuration has not been explored, so it is explored (and counted) again
+                // when the search is resumed.
+                else if (totalSteps >= maxTotalSteps) {
+                    governor.configurationLimitReached();
+                    totalSteps--;
+                    newConfiguration = true;
+                    return true;
+                } else {
+                    // Gather all applicable transitions for the current configuration
+                    ArrayList<PDATransition> transitions = applicableTransitions.get(depth);
+                    pda.getApplicableTransitions(configuration, transitions);
+                    if (transitionStatistics != null && transitions.size() > 1) {
+                        transitionStatistics.sortByLikelihood(transitions);
+                    }
+                    remainingTransitions[depth] = transitions.size();
+                    // If the current configuration is an accepting configuration according to
+                    // the acceptance criteria, then add the computation leading to it to
+                    // acceptingComputations.
+                    if (pda.isAcceptingConfiguration(configuration)) {
+                        acceptingComputations.add(configuration.getComputation());
+                        acceptedBelow[depth] = true;
+                        if (stopAtFirstAccept) {
+                            return false;
+                        }
+                    }
+                }
+            }
+
+            // Move to the next unexplored child of the current configuration, or go back to the
+            // previous configuration if there are none left.
+            if (remainingTransitions[depth] > 0) {
+                remainingTransitions[depth]--;
+                PDATransition transition =
+                        applicableTransitions.get(depth).get(remainingTransitions[depth]);
+                if (transitionStatistics != null) {
+                    transitionStatistics.recordAttempt(transition);
+                }
+                configuration.apply(transition);
+                newConfiguration = true;
+            } else if (depth == currentRoot.depth) {
+                // The whole subtree below the root has been explored
+                currentRoot = null;
+            } else {
+                backtrack();
+            }
+        }
+    }
+
+    /**
+     * Gives the progress listener, if there is one, the current progress of the search.
+     */
+    private void reportProgress() {
+        if (progressListener != null) {
+            progressListener.progressMade(totalSteps, acceptingComputations.size(),
+                    configuration.getStepCount());
+        }
+    }
+
+    /**
+     * Undoes the last transition applied to the configuration. If transition statistics are
+     * attached to the PDA and an accepting configuration was found after applying the transition,
+     * then the transition is recorded as a success.
+     */
+    private void backtrack() {
+        int depth = configuration.getStepCount();
+        PDATransition transition = configuration.undo();
+        if (acceptedBelow[depth]) {
+            acceptedBelow[depth - 1] = true;
+            TransitionStatistics transitionStatistics = pda.getTransitionStatistics();
+            if (transitionStatistics != null) {
+                transitionStatistics.recordSuccess(transition);
+            }
+        }
+    }
+
+    /**
+     * Moves the configuration to the one represented by the given path node by undoing every
+     * applied transition and then applying the transitions of the path.
+     *
+     * @param node The path node.
+     */
+    private void moveTo(PathNode node) {
+        while (configuration.getStepCount() > 0) {
+            configuration.undo();
+        }
+        PDATransition[] path = new PDATransition[node.depth];
+        for (PathNode current = node; current.parent != null; current = current.parent) {
+            path[current.depth - 1] = current.transition;
+        }
+        for (PDATransition transition : path) {
+            configuration.apply(transition);
+        }
+    }
+
+    /**
+     * Gets the path node for the current configuration, creating the path nodes of any prefixes of
+     * the current computation that do not have one yet.
+     *
+     * @param depth The number of transitions applied to reach the current configuration.
+     * @return The path node.
+     */
+    private PathNode getPathNode(int depth) {
+        // The path node of the root of the subtree being explored always exists
+        int known = depth;
+        while (pathNodes[known] == null) {
+            known--;
+        }
+        for (int i = known + 1; i <= depth; i++) {
+            pathNodes[i] = new PathNode(pathNodes[i - 1],
+                    configuration.getAppliedTransition(i - 1));
+        }
+        return pathNodes[depth];
+    }
+}
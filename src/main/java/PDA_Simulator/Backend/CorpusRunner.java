@@ -0,0 +1,219 @@
+package PDA_Simulator.Backend;
+
+import PDA_Simulator.Backend.FrontierSimulator.Frontier;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class decides whether a PDA accepts each input string of a corpus, simulating every prefix
+ * that the input strings share only once. The input strings are put into a trie, so that each
+ * node of the trie corresponds to a prefix of at least one input string. The set of
+ * configurations the PDA can be in after reading a prefix (including any epsilon transitions
+ * applied afterwards) only depends on the prefix, so it is computed once per node of the trie, by
+ * advancing the set of the parent node by one input symbol. The simulation only branches where
+ * the input strings diverge, and an input string is accepted if the set at its node contains an
+ * accepting configuration. A corpus such as aaab, aaabb and aaabbb therefore costs as much to run
+ * as aaabbb on its own.
+ * <p>
+ * The trie is walked depth first, so only the sets along the current path are kept in memory. A
+ * prefix that no configuration survives cannot be extended into an accepted input string, so the
+ * subtrie below it is rejected without being simulated. The frontiers are computed by a
+ * FrontierSimulator, which discards configurations whose stack is higher than a given limit, so
+ * every run terminates. Whether this happened for an input string can be checked with
+ * reachedStackLimit.
+ */
+
+public class CorpusRunner {
+    // The PDA being simulated
+    private final PDA pda;
+    // The highest the stack of a configuration can be before it is discarded
+    private final int maxStackHeight;
+    // The input strings of the most recent run whose simulation discarded a configuration
+    private final HashSet<String> stackLimitReached = new HashSet<>();
+    // The number of input symbols simulated by the most recent run
+    private int simulatedSymbols = 0;
+
+    /**
+     * A node of the input trie. The children are keyed by the input symbol that leads to them.
+     */
+    private static final class TrieNode {
+        // The child nodes of this node
+        private final HashMap<Character, TrieNode> children = new HashMap<>();
+        // The input string that ends at this node, or null if no input string ends here
+        private String inputString = null;
+    }
+
+    /**
+     * A node of the input trie waiting to be simulated, together with what it inherits from its
+     * parent node.
+     */
+    private static final class PendingNode {
+        // The node
+        private final TrieNode node;
+        // The input symbol leading to the node
+        private final char symbol;
+        // The configurations reachable after reading the prefix of the parent node
+        private final Frontier parentFrontier;
+
+        private PendingNode(TrieNode node, char symbol, Frontier parentFrontier) {
+            this.node = node;
+            this.symbol = symbol;
+            this.parentFrontier = parentFrontier;
+        }
+    }
+
+    /**
+     * Creates a corpus runner for the given PDA.
+     *
+     * @param pda            The PDA to simulate.
+     * @param maxStackHeight The highest the stack of a configuration can be before the
+     *                       configuration is discarded.
+     */
+    public CorpusRunner(PDA pda, int maxStackHeight) {
+        this.pda = pda;
+        this.maxStackHeight = maxStackHeight;
+    }
+
+    /**
+     * Checks which of the given input strings the PDA accepts. Each input string appears once in
+     * the result, even if it appears more than once in the corpus.
+     *
+     * @param inputStrings The input strings of the corpus.
+     * @return Whether each input string is accepted, in the order the input strings first appear
+     * in the corpus.
+     */
+    public LinkedHashMap<String, Boolean> run(Collection<String> inputStrings) {
+        LinkedHashMap<String, Boolean> verdicts = new LinkedHashMap<>();
+        stackLimitReached.clear();
+        simulatedSymbols = 0;
+        TrieNode root = new TrieNode();
+        for (String inputString : inputStrings) {
+            verdicts.put(inputString, false);
+            addInputString(root, inputString);
+        }
+        if (pda.getInitialState() == null) {
+            // A PDA without an initial state cannot be in any configuration
+            return verdicts;
+        }
+        FrontierSimulator simulator = new FrontierSimulator(pda, maxStackHeight);
+
+        Frontier initial = simulator.initial(null);
+        visit(root, initial, simulator, verdicts);
+
+        // The trie is walked with an explicit stack so that long input strings cannot overflow
+        // the call stack
+        ArrayDeque<PendingNode> pending = new ArrayDeque<>();
+        pushChildren(pending, root, initial);
+        while (!pending.isEmpty()) {
+            PendingNode next = pending.pop();
+            simulatedSymbols++;
+            Frontier frontier = simulator.advance(next.parentFrontier, next.symbol, null);
+            visit(next.node, frontier, simulator, verdicts);
+            if (!frontier.isEmpty()) {
+                pushChildren(pending, next.node, frontier);
+            } else if (frontier.isDiscarded()) {
+                // Nothing survived this prefix, but only because configurations were discarded,
+                // so the input strings below it may actually be accepted
+                markStackLimitReached(next.node);
+            }
+        }
+        return verdicts;
+    }
+
+    /**
+     * Checks whether any configuration was discarded for having a stack higher than the limit
+     * while simulating the given input string in the most recent run. If so, the input string
+     * may be accepted even if it was reported as rejected.
+     *
+     * @param inputString The input string.
+     * @return True if a configuration was discarded and false otherwise.
+     */
+    public boolean reachedStackLimit(String inputString) {
+        return stackLimitReached.contains(inputString);
+    }
+
+    /**
+     * Gets the number of input symbols that the most recent run simulated. Each distinct non-empty
+     * prefix of the input strings is simulated at most once, whereas running every input string
+     * separately would simulate the sum of their lengths.
+     *
+     * @return The number of simulated input symbols.
+     */
+    public int getSimulatedSymbols() {
+        return simulatedSymbols;
+    }
+
+    /**
+     * Adds an input string to the trie, creating any nodes along the way that do not exist yet.
+     *
+     * @param root        The root node of the trie.
+     * @param inputString The input string.
+     */
+    private static void addInputString(TrieNode root, String inputString) {
+        TrieNode node = root;
+        for (int i = 0; i < inputString.length(); i++) {
+            node = node.children.computeIfAbsent(inputString.charAt(i), key -> new TrieNode());
+        }
+        node.inputString = inputString;
+    }
+
+    /**
+     * Records the verdict of the input string ending at a node of the trie, if there is one.
+     *
+     * @param node      The node.
+     * @param frontier  The configurations reachable after reading the prefix of the node.
+     * @param simulator The simulator of the PDA.
+     * @param verdicts  The verdicts of the input strings.
+     */
+    private void visit(TrieNode node, Frontier frontier, FrontierSimulator simulator,
+                       LinkedHashMap<String, Boolean> verdicts) {
+        if (node.inputString == null) {
+            return;
+        }
+        if (simulator.hasAcceptingConfiguration(frontier)) {
+            verdicts.put(node.inputString, true);
+        }
+        if (frontier.isDiscarded()) {
+            stackLimitReached.add(node.inputString);
+        }
+    }
+
+    /**
+     * Adds the children of a node of the trie to the nodes waiting to be simulated.
+     *
+     * @param pending  The nodes waiting to be simulated.
+     * @param node     The node.
+     * @param frontier The configurations reachable after reading the prefix of the node.
+     */
+    private static void pushChildren(ArrayDeque<PendingNode> pending, TrieNode node,
+                                     Frontier frontier) {
+        for (Map.Entry<Character, TrieNode> child : node.children.entrySet()) {
+            pending.push(new PendingNode(child.getValue(), child.getKey(), frontier));
+        }
+    }
+
+    /**
+     * Records that configurations were discarded for every input string ending at or below a
+     * node of the trie.
+     *
+     * @param node The node.
+     */
+    private void markStackLimitReached(TrieNode node) {
+        ArrayDeque<TrieNode> nodes = new ArrayDeque<>();
+        nodes.push(node);
+        while (!nodes.isEmpty()) {
+            TrieNode next = nodes.pop();
+            if (next.inputString != null) {
+                stackLimitReached.add(next.inputString);
+            }
+            for (TrieNode child : next.children.values()) {
+                nodes.push(child);
+            }
+        }
+    }
+}
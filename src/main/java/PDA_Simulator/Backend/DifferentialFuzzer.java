@@ -0,0 +1,430 @@
+package PDA_Simulator.Backend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class compares two PDAs by running them on random input strings over their combined input
+ * alphabet, which scales to input strings far longer than an EquivalenceChecker can enumerate.
+ * Every input string that only one of the PDAs accepts is shrunk by delta debugging: parts of it
+ * are removed for as long as the PDAs still disagree on what is left, which usually leaves a
+ * counterexample only a few symbols long. The report of a campaign lists the distinct shrunk
+ * counterexamples, the throughput in input strings per second and which transitions of each PDA
+ * were applied while running the input strings, so that a campaign can be left running for a set
+ * time and checked afterwards.
+ * <p>
+ * The input strings are generated from the seed and their number in the campaign, so a campaign
+ * limited by the number of input strings runs the same input strings and finds the same
+ * counterexamples every time, whichever threads they end up running on. Input strings are run
+ * with a FrontierSimulator on snapshots of the PDAs, so the verdicts are exact and the PDAs can
+ * be edited while a campaign is running.
+ */
+
+public class DifferentialFuzzer {
+    // The most distinct counterexamples kept in a report, the shortest first
+    private static final int MAX_COUNTEREXAMPLES = 100;
+    // Orders counterexamples by length and then alphabetically
+    private static final Comparator<String> SHORTEST_FIRST =
+            Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+    // The first PDA
+    private final PDA first;
+    // The second PDA
+    private final PDA second;
+    // The highest the stack of a configuration can be before the input string it is reached on
+    // is run by a SaturationEngine instead
+    private final int maxStackHeight;
+    // The number of threads input strings are run on
+    private final int threads;
+
+    /**
+     * The result of a fuzzing campaign.
+     */
+    public static final class Report {
+        // The number of input strings run on both PDAs
+        private final long inputs;
+        // The number of input strings that only one of the PDAs accepted
+        private final long disagreements;
+        // The distinct shrunk counterexamples, the shortest first
+        private final List<String> counterexamples;
+        // The transitions of the first PDA applied while running the input strings
+        private final Set<PDATransition> firstCoverage;
+        // The transitions of the second PDA applied while running the input strings
+        private final Set<PDATransition> secondCoverage;
+        // The number of transitions of the first PDA
+        private final int firstTransitions;
+        // The number of transitions of the second PDA
+        private final int secondTransitions;
+        // How long the campaign took in nanoseconds
+        private final long time;
+
+        /**
+         * Creates the report of a campaign.
+         *
+         * @param inputs            The number of input strings run on both PDAs.
+         * @param disagreements     The number of input strings only one of the PDAs accepted.
+         * @param counterexamples   The distinct shrunk counterexamples, the shortest first.
+         * @param firstCoverage     The transitions of the first PDA that were applied.
+         * @param secondCoverage    The transitions of the second PDA that were applied.
+         * @param firstTransitions  The number of transitions of the first PDA.
+         * @param secondTransitions The number of transitions of the second PDA.
+         * @param time              How long the campaign took in nanoseconds.
+         */
+        private Report(long inputs, long disagreements, List<String> counterexamples,
+                       Set<PDATransition> firstCoverage, Set<PDATransition> secondCoverage,
+                       int firstTransitions, int secondTransitions, long time) {
+            this.inputs = inputs;
+            this.disagreements = disagreements;
+            this.counterexamples = Collections.unmodifiableList(counterexamples);
+            this.firstCoverage = Collections.unmodifiableSet(firstCoverage);
+            this.secondCoverage = Collections.unmodifiableSet(secondCoverage);
+            this.firstTransitions = firstTransitions;
+            this.secondTransitions = secondTransitions;
+            this.time = time;
+        }
+
+        /**
+         * Gets the number of input strings that were run on both PDAs.
+         *
+         * @return The number of input strings.
+         */
+        public long getInputs() {
+            return inputs;
+        }
+
+        /**
+         * Gets the number of input strings that only one of the PDAs accepted, before shrinking.
+         *
+         * @return The number of disagreements.
+         */
+        public long getDisagreements() {
+            return disagreements;
+        }
+
+        /**
+         * Gets the distinct counterexamples left after shrinking the input strings the PDAs
+         * disagreed on. Only the shortest 100 are kept.
+         *
+         * @return A read-only list of the counterexamples, ordered by length and then
+         * alphabetically.
+         */
+        public List<String> getCounterexamples() {
+            return counterexamples;
+        }
+
+        /**
+         * Gets the transitions of the first PDA that were applied while running the input
+         * strings.
+         *
+         * @return A read-only set of the applied transitions.
+         */
+        public Set<PDATransition> getFirstCoverage() {
+            return firstCoverage;
+        }
+
+        /**
+         * Gets the transitions of the second PDA that were applied while running the input
+         * strings.
+         *
+         * @return A read-only set of the applied transitions.
+         */
+        public Set<PDATransition> getSecondCoverage() {
+            return secondCoverage;
+        }
+
+        /**
+         * Gets the percentage of the transitions of the first PDA that were applied.
+         *
+         * @return The percentage, or 100 if the PDA has no transitions.
+         */
+        public double getFirstCoverageRatio() {
+            return firstTransitions == 0 ? 100 : 100.0 * firstCoverage.size() / firstTransitions;
+        }
+
+        /**
+         * Gets the percentage of the transitions of the second PDA that were applied.
+         *
+         * @return The percentage, or 100 if the PDA has no transitions.
+         */
+        public double getSecondCoverageRatio() {
+            return secondTransitions == 0 ? 100 :
+                    100.0 * secondCoverage.size() / secondTransitions;
+        }
+
+        /**
+         * Gets how long the campaign took.
+         *
+         * @return The time in nanoseconds.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * Gets the number of input strings run on both PDAs per second across all threads.
+         *
+         * @return The throughput.
+         */
+        public double getThroughput() {
+            return time == 0 ? 0 : inputs / (time / 1e9);
+        }
+    }
+
+    /**
+     * The state of a campaign shared by the threads running it.
+     */
+    private final class Campaign {
+        // The seed the input strings are generated from
+        private final long seed;
+        // The length of the longest input strings generated
+        private final int maxLength;
+        // The number of input strings to run
+        private final long maxInputs;
+        // The time by which the campaign stops, as given by System.nanoTime
+        private final long deadline;
+        // The combined input alphabet of the PDAs
+        private final List<Character> alphabet;
+        // The simulator of the first PDA
+        private final FrontierSimulator firstSimulator;
+        // The simulator of the second PDA
+        private final FrontierSimulator secondSimulator;
+        // The number of the next input string to be generated
+        private final AtomicLong nextInput = new AtomicLong();
+        // The number of input strings run on both PDAs
+        private final AtomicLong inputs = new AtomicLong();
+        // The number of input strings only one of the PDAs accepted
+        private final AtomicLong disagreements = new AtomicLong();
+        // The distinct shrunk counterexamples, the shortest first
+        private final TreeSet<String> counterexamples = new TreeSet<>(SHORTEST_FIRST);
+        // The transitions of the first PDA applied by any thread
+        private final HashSet<PDATransition> firstCoverage = new HashSet<>();
+        // The transitions of the second PDA applied by any thread
+        private final HashSet<PDATransition> secondCoverage = new HashSet<>();
+
+        /**
+         * Creates a campaign.
+         *
+         * @param seed      The seed the input strings are generated from.
+         * @param maxLength The length of the longest input strings generated.
+         * @param maxInputs The number of input strings to run.
+         * @param deadline  The time by which the campaign stops, as given by System.nanoTime.
+         */
+        private Campaign(long seed, int maxLength, long maxInputs, long deadline) {
+            this.seed = seed;
+            this.maxLength = maxLength;
+            this.maxInputs = maxInputs;
+            this.deadline = deadline;
+            alphabet = getAlphabet();
+            firstSimulator = new FrontierSimulator(first, maxStackHeight);
+            secondSimulator = new FrontierSimulator(second, maxStackHeight);
+        }
+
+        /**
+         * Runs input strings on both PDAs until the campaign has run enough input strings or its
+         * time is up. The transitions applied are gathered by each thread on its own and added to
+         * the coverage of the campaign at the end.
+         */
+        private void fuzz() {
+            HashSet<PDATransition> firstApplied = new HashSet<>();
+            HashSet<PDATransition> secondApplied = new HashSet<>();
+            long number;
+            while (System.nanoTime() - deadline < 0 &&
+                    (number = nextInput.getAndIncrement()) < maxInputs) {
+                String inputString = generate(number);
+                boolean firstAccepts = firstSimulator.accepts(inputString, firstApplied);
+                boolean secondAccepts = secondSimulator.accepts(inputString, secondApplied);
+                inputs.incrementAndGet();
+                if (firstAccepts != secondAccepts) {
+                    disagreements.incrementAndGet();
+                    recordCounterexample(shrink(inputString));
+                }
+            }
+            synchronized (this) {
+                firstCoverage.addAll(firstApplied);
+                secondCoverage.addAll(secondApplied);
+            }
+        }
+
+        /**
+         * Generates an input string from the seed of the campaign and its number in the
+         * campaign. The length is chosen uniformly up to the maximum length, and each input
+         * symbol uniformly from the alphabet.
+         *
+         * @param number The number of the input string.
+         * @return The input string.
+         */
+        private String generate(long number) {
+            SplittableRandom random = new SplittableRandom(seed ^ (number * 0x9E3779B97F4A7C15L));
+            int length = alphabet.isEmpty() ? 0 : random.nextInt(maxLength + 1);
+            StringBuilder inputString = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                inputString.append(alphabet.get(random.nextInt(alphabet.size())));
+            }
+            return inputString.toString();
+        }
+
+        /**
+         * Checks whether the PDAs disagree on an input string.
+         *
+         * @param inputString The input string.
+         * @return True if exactly one of the PDAs accepts it and false otherwise.
+         */
+        private boolean disagree(String inputString) {
+            return firstSimulator.accepts(inputString, null) !=
+                    secondSimulator.accepts(inputString, null);
+        }
+
+        /**
+         * Shrinks an input string the PDAs disagree on by delta debugging. The input string is
+         * split into n parts, starting with 2. If the PDAs disagree on one of the parts, or on
+         * the input string without one of the parts, that becomes the input string. Otherwise,
+         * the input string is split into twice as many parts, until the parts are single
+         * symbols. The result is an input string the PDAs disagree on from which no single input
+         * symbol can be removed without them agreeing.
+         *
+         * @param inputString The input string the PDAs disagree on.
+         * @return A shrunk input string the PDAs still disagree on.
+         */
+        private String shrink(String inputString) {
+            if (disagree("")) {
+                return "";
+            }
+            String current = inputString;
+            int parts = 2;
+            while (current.length() >= 2) {
+                int partLength = (current.length() + parts - 1) / parts;
+                String reduced = null;
+                // Try keeping only one of the parts
+                for (int start = 0; start < current.length() && reduced == null;
+                     start += partLength) {
+                    String part = current.substring(start,
+                            Math.min(start + partLength, current.length()));
+                    if (disagree(part)) {
+                        reduced = part;
+                        parts = 2;
+                    }
+                }
+                // Try removing one of the parts
+                for (int start = 0; start < current.length() && reduced == null && parts > 2;
+                     start += partLength) {
+                    String complement = current.substring(0, start) +
+                            current.substring(Math.min(start + partLength, current.length()));
+                    if (disagree(complement)) {
+                        reduced = complement;
+                        parts = Math.max(parts - 1, 2);
+                    }
+                }
+                if (reduced != null) {
+                    current = reduced;
+                } else if (parts >= current.length()) {
+                    break;
+                } else {
+                    parts = Math.min(parts * 2, current.length());
+                }
+            }
+            return current;
+        }
+
+        /**
+         * Records a shrunk counterexample, keeping only the shortest ones.
+         *
+         * @param counterexample The counterexample.
+         */
+        private synchronized void recordCounterexample(String counterexample) {
+            counterexamples.add(counterexample);
+            if (counterexamples.size() > MAX_COUNTEREXAMPLES) {
+                counterexamples.pollLast();
+            }
+        }
+    }
+
+    /**
+     * Creates a fuzzer for the given PDAs. Snapshots of the PDAs are taken, so they can be changed
+     * afterwards without affecting the campaigns.
+     *
+     * @param first          The first PDA.
+     * @param second         The second PDA.
+     * @param maxStackHeight The highest the stack of a configuration can be before the input
+     *                       string it is reached on is run by a SaturationEngine instead.
+     * @param threads        The number of threads input strings are run on.
+     */
+    public DifferentialFuzzer(PDA first, PDA second, int maxStackHeight, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be at least 1");
+        }
+        this.first = first.snapshot();
+        this.second = second.snapshot();
+        this.maxStackHeight = maxStackHeight;
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the combined input alphabet of the PDAs, which is every input symbol read by a
+     * transition of either of them.
+     *
+     * @return The input symbols in alphabetical order.
+     */
+    public List<Character> getAlphabet() {
+        return FrontierSimulator.getInputAlphabet(first, second);
+    }
+
+    /**
+     * Runs a fuzzing campaign, which stops once the given number of input strings have been run
+     * or the time limit is reached, whichever comes first.
+     *
+     * @param seed      The seed the input strings are generated from.
+     * @param maxLength The length of the longest input strings generated.
+     * @param maxInputs The number of input strings to run.
+     * @param timeLimit The most milliseconds the campaign may run for.
+     * @return The report of the campaign.
+     */
+    public Report fuzz(long seed, int maxLength, long maxInputs, long timeLimit) {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("The maximum length cannot be negative");
+        }
+        if (maxInputs < 0 || timeLimit < 0) {
+            throw new IllegalArgumentException("The limits cannot be negative");
+        }
+        long start = System.nanoTime();
+        // Time limits so long that the deadline would overflow are treated as no limit
+        long deadline = start + Math.min(timeLimit, Long.MAX_VALUE / 2_000_000) * 1_000_000;
+        Campaign campaign = new Campaign(seed, maxLength, maxInputs, deadline);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Differential fuzzer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            ArrayList<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(campaign::fuzz));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new Report(campaign.inputs.get(), campaign.disagreements.get(),
+                new ArrayList<>(campaign.counterexamples), campaign.firstCoverage,
+                campaign.secondCoverage, new HashSet<>(first.getTransitions()).size(),
+                new HashSet<>(second.getTransitions()).size(), System.nanoTime() - start);
+    }
+}
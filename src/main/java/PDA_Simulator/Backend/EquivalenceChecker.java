@@ -0,0 +1,348 @@
+package PDA_Simulator.Backend;
+
+import PDA_Simulator.Backend.FrontierSimulator.Frontier;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class checks whether two PDAs accept the same input strings up to a given length. Every
+ * input string over the combined input alphabet of the two PDAs, up to the given length, is run
+ * on both PDAs, and the shortest input string that only one of them accepts is reported as a
+ * counterexample. If there are several shortest counterexamples, the first one in alphabetical
+ * order is reported, so the result does not depend on the order in which the threads finish.
+ * <p>
+ * The input strings form a tree in which each input string is the parent of the input strings
+ * one symbol longer. The tree is checked one length at a time by iterative deepening, so the check
+ * stops as soon as it finishes the first length that has a counterexample, without running any
+ * longer input strings. Within a length, the input strings below each of a set of short prefixes
+ * are walked depth first in parallel, and the configurations each PDA can be in after reading a
+ * prefix are computed by advancing those of its parent by one input symbol. A prefix after which
+ * neither PDA can be in any configuration cannot be extended into an input string either PDA
+ * accepts, so the subtree below it is skipped.
+ * <p>
+ * Configurations whose stack is higher than a given limit are discarded to keep the frontiers
+ * finite, but the verdict of any input string whose simulation discarded a configuration is
+ * decided by a SaturationEngine instead, so the result is always exact.
+ */
+
+public class EquivalenceChecker {
+    // The first PDA
+    private final PDA first;
+    // The second PDA
+    private final PDA second;
+    // The highest the stack of a configuration can be before it is discarded
+    private final int maxStackHeight;
+    // The number of roots checked at once
+    private final int threads;
+    // The number of input strings run on both PDAs by the current check
+    private final AtomicLong checkedStrings = new AtomicLong();
+
+    /**
+     * The result of a check.
+     */
+    public static final class Result {
+        // The shortest input string accepted by exactly one of the PDAs, or null if there is none
+        private final String counterexample;
+        // Whether the first PDA accepts the counterexample
+        private final boolean acceptedByFirst;
+        // The length up to which the PDAs were compared
+        private final int maxLength;
+        // The number of input strings that were run on both PDAs
+        private final long checkedStrings;
+
+        /**
+         * Creates the result of a check.
+         *
+         * @param counterexample  The shortest counterexample, or null if there is none.
+         * @param acceptedByFirst Whether the first PDA accepts the counterexample.
+         * @param maxLength       The length up to which the PDAs were compared.
+         * @param checkedStrings  The number of input strings that were run on both PDAs.
+         */
+        private Result(String counterexample, boolean acceptedByFirst, int maxLength,
+                       long checkedStrings) {
+            this.counterexample = counterexample;
+            this.acceptedByFirst = acceptedByFirst;
+            this.maxLength = maxLength;
+            this.checkedStrings = checkedStrings;
+        }
+
+        /**
+         * Checks whether the PDAs accept the same input strings up to the maximum length.
+         *
+         * @return True if no counterexample was found and false otherwise.
+         */
+        public boolean isEquivalent() {
+            return counterexample == null;
+        }
+
+        /**
+         * Gets the shortest input string that exactly one of the PDAs accepts.
+         *
+         * @return The counterexample, or null if the PDAs are equivalent up to the maximum length.
+         */
+        public String getCounterexample() {
+            return counterexample;
+        }
+
+        /**
+         * Checks which of the PDAs accepts the counterexample.
+         *
+         * @return True if the first PDA accepts it and the second rejects it, and false if it is
+         * the other way around or there is no counterexample.
+         */
+        public boolean isAcceptedByFirst() {
+            return acceptedByFirst;
+        }
+
+        /**
+         * Gets the length up to which the PDAs were compared.
+         *
+         * @return The maximum length.
+         */
+        public int getMaxLength() {
+            return maxLength;
+        }
+
+        /**
+         * Gets the number of input strings that were run on both PDAs. This is less than the
+         * number of input strings up to the maximum length if subtrees were skipped or a
+         * counterexample was found.
+         *
+         * @return The number of checked input strings.
+         */
+        public long getCheckedStrings() {
+            return checkedStrings;
+        }
+    }
+
+    /**
+     * A prefix together with the frontiers of both PDAs after reading it.
+     */
+    private static final class Prefix {
+        // The prefix
+        private final String prefix;
+        // The frontier of the first PDA
+        private final Frontier firstFrontier;
+        // The frontier of the second PDA
+        private final Frontier secondFrontier;
+
+        private Prefix(String prefix, Frontier firstFrontier, Frontier secondFrontier) {
+            this.prefix = prefix;
+            this.firstFrontier = firstFrontier;
+            this.secondFrontier = secondFrontier;
+        }
+
+        /**
+         * Checks whether neither PDA can be in any configuration after reading the prefix, in
+         * which case no extension of it is accepted by either PDA.
+         *
+         * @return True if both frontiers are dead and false otherwise.
+         */
+        private boolean isDead() {
+            return firstFrontier.isDead() && secondFrontier.isDead();
+        }
+    }
+
+    /**
+     * Creates an equivalence checker for the given PDAs. Snapshots of the PDAs are taken, so they
+     * can be changed afterwards without affecting the checks.
+     *
+     * @param first          The first PDA.
+     * @param second         The second PDA.
+     * @param maxStackHeight The highest the stack of a configuration can be before the input
+     *                       strings it is reached on are run by a SaturationEngine instead.
+     * @param threads        The number of threads the input strings of each length are checked
+     *                       on.
+     */
+    public EquivalenceChecker(PDA first, PDA second, int maxStackHeight, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be at least 1");
+        }
+        this.first = first.snapshot();
+        this.second = second.snapshot();
+        this.maxStackHeight = maxStackHeight;
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the combined input alphabet of the PDAs, which is every input symbol read by a
+     * transition of either of them.
+     *
+     * @return The input symbols in alphabetical order.
+     */
+    public List<Character> getAlphabet() {
+        return FrontierSimulator.getInputAlphabet(first, second);
+    }
+
+    /**
+     * Compares the PDAs on every input string over their combined input alphabet up to the given
+     * length, and finds the shortest input string that only one of them accepts.
+     *
+     * @param maxLength The length of the longest input strings to compare the PDAs on.
+     * @return The result of the check.
+     */
+    public synchronized Result check(int maxLength) {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("The maximum length cannot be negative");
+        }
+        checkedStrings.set(1);
+        FrontierSimulator firstSimulator = new FrontierSimulator(first, maxStackHeight);
+        FrontierSimulator secondSimulator = new FrontierSimulator(second, maxStackHeight);
+        Prefix empty = new Prefix("", firstSimulator.initial(null),
+                secondSimulator.initial(null));
+        boolean firstAccepts = firstSimulator.accepts(empty.firstFrontier, "");
+        if (firstAccepts != secondSimulator.accepts(empty.secondFrontier, "")) {
+            return new Result("", firstAccepts, maxLength, checkedStrings.get());
+        }
+
+        List<Character> alphabet = getAlphabet();
+        String shortest = null;
+        if (maxLength > 0 && !alphabet.isEmpty() && !empty.isDead()) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "Equivalence checker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                shortest = checkLevels(maxLength, alphabet, firstSimulator, secondSimulator,
+                        empty, executor);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        boolean acceptedByFirst = shortest != null &&
+                new SaturationEngine(first).getShortestAcceptingTransitions(shortest) != null;
+        return new Result(shortest, acceptedByFirst, maxLength, checkedStrings.get());
+    }
+
+    /**
+     * Checks the input strings one length at a time, starting with the input strings of length 1,
+     * and stops at the first length that has a counterexample. The input strings of each length
+     * are split between the roots, which are the prefixes of some shorter length that either PDA
+     * survives, and the roots are checked in parallel. While there are too few roots to keep the
+     * threads busy, the surviving input strings of each length become the roots of the next.
+     *
+     * @param maxLength       The length of the longest input strings to check.
+     * @param alphabet        The input alphabet in alphabetical order.
+     * @param firstSimulator  The simulator of the first PDA.
+     * @param secondSimulator The simulator of the second PDA.
+     * @param empty           The empty input string.
+     * @param executor        The executor the roots are checked on.
+     * @return The first counterexample of the shortest length in alphabetical order, or null if
+     * there is none up to the maximum length.
+     * @throws InterruptedException If the thread is interrupted while waiting for the roots.
+     * @throws ExecutionException   If checking a root fails.
+     */
+    private String checkLevels(int maxLength, List<Character> alphabet,
+                               FrontierSimulator firstSimulator,
+                               FrontierSimulator secondSimulator, Prefix empty,
+                               ExecutorService executor)
+            throws InterruptedException, ExecutionException {
+        List<Prefix> roots = List.of(empty);
+        int rootLength = 0;
+        for (int length = 1; length <= maxLength && !roots.isEmpty(); length++) {
+            boolean collect = rootLength == length - 1 && roots.size() < threads * 4;
+            // The index of the first root known to have a counterexample of this length, so that
+            // the roots after it can stop
+            AtomicInteger firstFound = new AtomicInteger(Integer.MAX_VALUE);
+            ArrayList<List<Prefix>> survivors = new ArrayList<>();
+            ArrayList<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < roots.size(); i++) {
+                int index = i;
+                Prefix root = roots.get(i);
+                ArrayList<Prefix> rootSurvivors = collect ? new ArrayList<>() : null;
+                survivors.add(rootSurvivors);
+                int targetLength = length;
+                results.add(executor.submit(() -> walk(root, index, targetLength, alphabet,
+                        firstSimulator, secondSimulator, firstFound, rootSurvivors)));
+            }
+            // The roots are in alphabetical order, so the counterexample of the first root that
+            // has one is the first in alphabetical order
+            for (Future<String> result : results) {
+                String found = result.get();
+                if (found != null) {
+                    return found;
+                }
+            }
+            if (collect) {
+                ArrayList<Prefix> next = new ArrayList<>();
+                for (List<Prefix> rootSurvivors : survivors) {
+                    next.addAll(rootSurvivors);
+                }
+                roots = next;
+                rootLength = length;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Walks the input strings of the given length that start with a root depth first, in
+     * alphabetical order, and stops at the first counterexample. Shorter input strings were
+     * checked at earlier lengths, so they are only advanced through and not checked again.
+     *
+     * @param root            The root.
+     * @param index           The index of the root among the roots of the length.
+     * @param length          The length of the input strings to check.
+     * @param alphabet        The input alphabet in alphabetical order.
+     * @param firstSimulator  The simulator of the first PDA.
+     * @param secondSimulator The simulator of the second PDA.
+     * @param firstFound      The index of the first root known to have a counterexample.
+     * @param survivors       The list the input strings of the length that either PDA survives
+     *                        are added to, or null.
+     * @return The first counterexample below the root in alphabetical order, or null if there is
+     * none or an earlier root has one.
+     */
+    private String walk(Prefix root, int index, int length, List<Character> alphabet,
+                        FrontierSimulator firstSimulator, FrontierSimulator secondSimulator,
+                        AtomicInteger firstFound, List<Prefix> survivors) {
+        // The tree is walked with an explicit stack so that long input strings cannot overflow
+        // the call stack
+        ArrayDeque<Prefix> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            if (firstFound.get() < index) {
+                return null;
+            }
+            Prefix next = pending.pop();
+            String prefix = next.prefix;
+            if (prefix.length() == length) {
+                checkedStrings.incrementAndGet();
+                if (firstSimulator.accepts(next.firstFrontier, prefix) !=
+                        secondSimulator.accepts(next.secondFrontier, prefix)) {
+                    firstFound.accumulateAndGet(index, Math::min);
+                    return prefix;
+                }
+                if (survivors != null && !next.isDead()) {
+                    survivors.add(next);
+                }
+                continue;
+            }
+            // Push the children in reverse so that they are popped in alphabetical order
+            for (int i = alphabet.size() - 1; i >= 0; i--) {
+                char symbol = alphabet.get(i);
+                Prefix child = new Prefix(prefix + symbol,
+                        firstSimulator.advance(next.firstFrontier, symbol, null),
+                        secondSimulator.advance(next.secondFrontier, symbol, null));
+                if (child.prefix.length() == length || !child.isDead()) {
+                    pending.push(child);
+                }
+            }
+        }
+        return null;
+    }
+}
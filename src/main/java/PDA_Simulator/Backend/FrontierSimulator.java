@@ -0,0 +1,350 @@
+package PDA_Simulator.Backend;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * This class runs a PDA on input strings by keeping the frontier of configurations the PDA can be
+ * in after reading each prefix (including any epsilon transitions applied afterwards) and
+ * advancing it one input symbol at a time. A frontier only depends on its prefix, so callers that
+ * walk many input strings sharing prefixes can keep the frontiers of the prefixes and advance
+ * them, rather than running every input string from the start.
+ * <p>
+ * Configurations whose stack is higher than a given limit are discarded to keep the frontiers
+ * finite. A frontier remembers whether this happened, in which case the verdict of its input
+ * string is decided by a SaturationEngine instead, so verdicts are always exact. The PDA must not
+ * change while it is being simulated, so a snapshot should be used if it is run on several threads
+ * at once.
+ */
+
+class FrontierSimulator {
+    // The PDA being simulated
+    private final PDA pda;
+    // The highest the stack of a configuration can be before it is discarded
+    private final int maxStackHeight;
+    // The moves from each state that read an input symbol
+    private final HashMap<String, ArrayList<Move>> readingMoves = new HashMap<>();
+    // The moves from each state that do not read an input symbol
+    private final HashMap<String, ArrayList<Move>> epsilonMoves = new HashMap<>();
+
+    /**
+     * A configuration of the PDA without its position in the input string. The stack is stored as
+     * a string with the top of the stack at the end. This is also used by the other simulators
+     * that keep sets of configurations, such as the CorpusRunner and the IncrementalSimulator.
+     */
+    static final class Configuration {
+        // The state of the PDA
+        final String state;
+        // The stack contents, bottom first
+        final String stack;
+
+        Configuration(String state, String stack) {
+            this.state = state;
+            this.stack = stack;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Configuration)) {
+                return false;
+            }
+            Configuration configuration = (Configuration) other;
+            return state.equals(configuration.state) && stack.equals(configuration.stack);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(state, stack);
+        }
+    }
+
+    /**
+     * A transition of the PDA with its pop and push strings reversed, so that they can be matched
+     * against and appended to the end of a stack string directly.
+     */
+    static final class Move {
+        // The transition this move makes
+        final PDATransition transition;
+        // The pop string as it appears at the end of the stack string
+        private final String pop;
+        // The push string as it appears at the end of the stack string
+        private final String push;
+
+        Move(PDATransition transition) {
+            this.transition = transition;
+            this.pop = new StringBuilder(transition.getPopString()).reverse().toString();
+            this.push = new StringBuilder(transition.getPushString()).reverse().toString();
+        }
+    }
+
+    /**
+     * The configurations the PDA can be in after reading a prefix.
+     */
+    static final class Frontier {
+        // The configurations
+        private final HashSet<Configuration> configurations;
+        // Whether a configuration was discarded while simulating the prefix, in which case the
+        // configurations may be incomplete
+        private final boolean discarded;
+
+        private Frontier(HashSet<Configuration> configurations, boolean discarded) {
+            this.configurations = configurations;
+            this.discarded = discarded;
+        }
+
+        /**
+         * Checks whether the PDA certainly cannot be in any configuration, in which case no
+         * extension of the prefix is accepted.
+         *
+         * @return True if there are no configurations and none were discarded.
+         */
+        boolean isDead() {
+            return configurations.isEmpty() && !discarded;
+        }
+
+        /**
+         * Checks whether no configuration survived the prefix, either because the PDA cannot be
+         * in any configuration or because every configuration was discarded.
+         *
+         * @return True if there are no configurations and false otherwise.
+         */
+        boolean isEmpty() {
+            return configurations.isEmpty();
+        }
+
+        /**
+         * Checks whether a configuration was discarded for having a stack higher than the limit
+         * while simulating the prefix, in which case the configurations may be incomplete.
+         *
+         * @return True if a configuration was discarded and false otherwise.
+         */
+        boolean isDiscarded() {
+            return discarded;
+        }
+    }
+
+    /**
+     * Creates a simulator for the given PDA.
+     *
+     * @param pda            The PDA to simulate, which must not change while it is simulated.
+     * @param maxStackHeight The highest the stack of a configuration can be before it is
+     *                       discarded.
+     */
+    FrontierSimulator(PDA pda, int maxStackHeight) {
+        this.pda = pda;
+        this.maxStackHeight = maxStackHeight;
+        for (PDATransition transition : pda.getTransitions()) {
+            HashMap<String, ArrayList<Move>> moves =
+                    transition.getInputSymbol().isEmpty() ? epsilonMoves : readingMoves;
+            moves.computeIfAbsent(transition.getCurrentState(), key -> new ArrayList<>())
+                    .add(new Move(transition));
+        }
+    }
+
+    /**
+     * Gets the combined input alphabet of the given PDAs, which is every input symbol read by a
+     * transition of any of them.
+     *
+     * @param pdas The PDAs.
+     * @return The input symbols in alphabetical order.
+     */
+    static List<Character> getInputAlphabet(PDA... pdas) {
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (PDA pda : pdas) {
+            for (PDATransition transition : pda.getTransitions()) {
+                if (transition.getInputSymbol().length() == 1) {
+                    alphabet.add(transition.getInputSymbol().charAt(0));
+                }
+            }
+        }
+        return new ArrayList<>(alphabet);
+    }
+
+    /**
+     * Gets the configurations the PDA can be in before reading any input symbols.
+     *
+     * @param applied The set the transitions applied are added to, or null.
+     * @return The frontier of the empty input string.
+     */
+    Frontier initial(Set<PDATransition> applied) {
+        HashSet<Configuration> configurations = new HashSet<>();
+        if (pda.getInitialState() == null) {
+            // A PDA without an initial state cannot be in any configuration
+            return new Frontier(configurations, false);
+        }
+        String stack = pda.getInitialStackSymbol() == null ? "" : pda.getInitialStackSymbol();
+        configurations.add(new Configuration(pda.getInitialState(), stack));
+        return new Frontier(configurations, close(configurations, applied));
+    }
+
+    /**
+     * Gets the configurations the PDA can be in after reading one more input symbol.
+     *
+     * @param frontier The configurations the PDA can be in before reading the symbol.
+     * @param symbol   The input symbol.
+     * @param applied  The set the transitions applied are added to, or null.
+     * @return The frontier after reading the symbol.
+     */
+    Frontier advance(Frontier frontier, char symbol, Set<PDATransition> applied) {
+        HashSet<Configuration> configurations = new HashSet<>();
+        boolean discarded = frontier.discarded;
+        for (Configuration configuration : frontier.configurations) {
+            for (Move move : readingMoves.getOrDefault(configuration.state, new ArrayList<>())) {
+                String inputSymbol = move.transition.getInputSymbol();
+                if (inputSymbol.length() != 1 || inputSymbol.charAt(0) != symbol) {
+                    continue;
+                }
+                Configuration next = apply(configuration, move);
+                if (next == null) {
+                    continue;
+                }
+                if (next.stack.length() > maxStackHeight) {
+                    discarded = true;
+                } else {
+                    configurations.add(next);
+                    record(move, applied);
+                }
+            }
+        }
+        discarded = close(configurations, applied) || discarded;
+        return new Frontier(configurations, discarded);
+    }
+
+    /**
+     * Checks whether the PDA accepts an input string, given the configurations it can be in after
+     * reading it. If a configuration was discarded while simulating the input string, the input
+     * string is run by a SaturationEngine instead.
+     *
+     * @param frontier    The frontier of the input string.
+     * @param inputString The input string.
+     * @return True if the PDA accepts the input string and false otherwise.
+     */
+    boolean accepts(Frontier frontier, String inputString) {
+        return accepts(frontier, inputString, null);
+    }
+
+    /**
+     * Checks whether the PDA accepts an input string, given the configurations it can be in after
+     * reading it. If a configuration was discarded while simulating the input string, the input
+     * string is run by a SaturationEngine instead, and the transitions of the shortest accepting
+     * computation it finds are added to the applied transitions, since the transitions applied to
+     * discarded configurations are not.
+     *
+     * @param frontier    The frontier of the input string.
+     * @param inputString The input string.
+     * @param applied     The set the transitions applied are added to, or null.
+     * @return True if the PDA accepts the input string and false otherwise.
+     */
+    private boolean accepts(Frontier frontier, String inputString, Set<PDATransition> applied) {
+        if (frontier.discarded) {
+            List<PDATransition> witness =
+                    new SaturationEngine(pda).getShortestAcceptingTransitions(inputString);
+            if (witness != null && applied != null) {
+                applied.addAll(witness);
+            }
+            return witness != null;
+        }
+        return hasAcceptingConfiguration(frontier);
+    }
+
+    /**
+     * Checks whether a frontier contains an accepting configuration, without falling back to a
+     * SaturationEngine if a configuration was discarded.
+     *
+     * @param frontier The frontier.
+     * @return True if any of its configurations is accepting and false otherwise.
+     */
+    boolean hasAcceptingConfiguration(Frontier frontier) {
+        for (Configuration configuration : frontier.configurations) {
+            if (pda.isAccepting(configuration.state, configuration.stack.isEmpty())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the PDA accepts an input string by advancing the frontier of the empty input
+     * string over the whole input string. The run stops early if the PDA cannot be in any
+     * configuration.
+     *
+     * @param inputString The input string.
+     * @param applied     The set the transitions applied are added to, or null.
+     * @return True if the PDA accepts the input string and false otherwise.
+     */
+    boolean accepts(String inputString, Set<PDATransition> applied) {
+        Frontier frontier = initial(applied);
+        for (int i = 0; i < inputString.length() && !frontier.isDead(); i++) {
+            frontier = advance(frontier, inputString.charAt(i), applied);
+        }
+        return !frontier.isDead() && accepts(frontier, inputString, applied);
+    }
+
+    /**
+     * Adds every configuration reachable from the given configurations by applying epsilon
+     * transitions to the set.
+     *
+     * @param configurations The configurations, which the closure is added to.
+     * @param applied        The set the transitions applied are added to, or null.
+     * @return True if a configuration was discarded for having a stack that is too high and false
+     * otherwise.
+     */
+    private boolean close(HashSet<Configuration> configurations, Set<PDATransition> applied) {
+        boolean discarded = false;
+        ArrayDeque<Configuration> worklist = new ArrayDeque<>(configurations);
+        while (!worklist.isEmpty()) {
+            Configuration configuration = worklist.poll();
+            for (Move move : epsilonMoves.getOrDefault(configuration.state, new ArrayList<>())) {
+                Configuration next = apply(configuration, move);
+                if (next == null) {
+                    continue;
+                }
+                if (next.stack.length() > maxStackHeight) {
+                    discarded = true;
+                    continue;
+                }
+                record(move, applied);
+                if (configurations.add(next)) {
+                    worklist.add(next);
+                }
+            }
+        }
+        return discarded;
+    }
+
+    /**
+     * Adds the transition of a move to the applied transitions. This is only done for moves that
+     * lead to a configuration that is kept, so that transitions only ever applied to discarded
+     * configurations are not counted.
+     *
+     * @param move    The move.
+     * @param applied The set the transition is added to, or null.
+     */
+    private static void record(Move move, Set<PDATransition> applied) {
+        if (applied != null) {
+            applied.add(move.transition);
+        }
+    }
+
+    /**
+     * Applies a move to a configuration, ignoring the input symbol it reads.
+     *
+     * @param configuration The configuration.
+     * @param move          The move.
+     * @return The resulting configuration, or null if the move cannot pop its pop string.
+     */
+    static Configuration apply(Configuration configuration, Move move) {
+        String stack = configuration.stack;
+        if (!stack.endsWith(move.pop)) {
+            return null;
+        }
+        String newStack = stack.substring(0, stack.length() - move.pop.length()) + move.push;
+        return new Configuration(move.transition.getNewState(), newStack);
+    }
+}
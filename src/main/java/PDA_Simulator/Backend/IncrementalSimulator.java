@@ -0,0 +1,593 @@
+package PDA_Simulator.Backend;
+
+import PDA_Simulator.Backend.FrontierSimulator.Configuration;
+import PDA_Simulator.Backend.FrontierSimulator.Move;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+
+/**
+ * This class decides whether a PDA accepts input strings by simulating every computation at once,
+ * one input symbol at a time, and remembers its work between input strings. For each position i
+ * in the input string, it keeps the frontier of configurations that the PDA can be in after
+ * reading exactly the first i input symbols (including any epsilon transitions applied
+ * afterwards). The frontier at position i only depends on the first i input symbols, so when the
+ * next input string shares a prefix with the previous one, the frontiers for that prefix are kept
+ * and the simulation resumes from the end of the prefix. Appending symbols to the input string
+ * therefore only simulates the new symbols, and editing the input string in the middle only
+ * simulates the symbols from the edit onwards.
+ * <p>
+ * The frontiers are kept as a graph whose edges are the transitions applied between
+ * configurations, which also makes changes to the transitions of the PDA cheap to take into
+ * account. When a transition is added, it is only applied to the configurations it applies to,
+ * and only the configurations that become reachable because of it are explored. When a transition
+ * is removed, only the configurations reachable from the ones it led to are checked again, and
+ * those that can no longer be reached any other way are removed. Re-checking an input string
+ * after a small change to the transitions therefore costs roughly as much as the part of the
+ * graph that the change affects, rather than a full simulation.
+ * <p>
+ * A cycle of epsilon transitions that pushes to the stack can reach infinitely many
+ * configurations, so configurations whose stack is higher than a given limit are discarded. If
+ * this happens, then an input string reported as rejected may actually be accepted, which can be
+ * checked with reachedStackLimit. The number of configurations in the graph can also be limited,
+ * since a PDA that can push several different symbols in a cycle of epsilon transitions can reach
+ * exponentially many configurations below the stack limit. A run that reaches that limit stops
+ * exploring, which can likewise be checked with reachedConfigurationLimit. Apart from that, the
+ * graph is only rebuilt from scratch if the initial state or initial stack symbol of the PDA
+ * change. The acceptance criteria and accepting states are only used to check the final
+ * frontier, so changing them does not affect the graph at all.
+ * <p>
+ * The PDA can be replaced by a snapshot of a later version of it with setPDA, and the graph is
+ * then brought up to date with the differences on the next run, so the simulator can run
+ * successive snapshots of a PDA that is being edited on another thread. A run can be cancelled
+ * from another thread, in which case the graph is rebuilt from scratch on the next run if the
+ * cancelled run had started changing it.
+ */
+
+public class IncrementalSimulator {
+    // The PDA being simulated
+    private PDA pda;
+    // The highest the stack of a configuration can be before the configuration is discarded
+    private final int maxStackHeight;
+    // The most configurations the graph can hold before a run stops exploring
+    private final int maxConfigurations;
+    // The nodes of the configurations reachable after reading each prefix of the input string,
+    // indexed by the length of the prefix
+    private final ArrayList<HashMap<Configuration, Node>> frontiers = new ArrayList<>();
+    // Every node of the graph, keyed by the state of its configuration
+    private final HashMap<String, HashSet<Node>> nodesByState = new HashMap<>();
+    // The moves of the PDA, keyed by the state they can be made from
+    private final HashMap<String, ArrayList<Move>> movesByState = new HashMap<>();
+    // The nodes that have been created but whose successors have not been found yet
+    private final ArrayDeque<Node> worklist = new ArrayDeque<>();
+    // The node of the initial configuration, or null if the PDA has no initial state
+    private Node root = null;
+    // The input string the graph was built for
+    private String inputString = "";
+    // The transitions of the PDA that the graph was built with
+    private ArrayList<PDATransition> transitions = new ArrayList<>();
+    // The initial state of the PDA when the graph was built
+    private String initialState = null;
+    // The initial stack symbol of the PDA when the graph was built
+    private String initialStackSymbol = null;
+    // The number of moves in the graph that were discarded for making the stack too high
+    private int discardedMoves = 0;
+    // The number of nodes in the graph
+    private int nodeCount = 0;
+    // Whether the most recent run stopped exploring because the graph held too many nodes
+    private boolean configurationLimitReached = false;
+    // The number of frontiers computed by the most recent run
+    private int simulatedPositions = 0;
+    // The number of configurations explored or checked again by the most recent run
+    private int exploredConfigurations = 0;
+    // Whether the graph matches the input string and transitions recorded for it. This is false
+    // while a run is changing the graph, so a run that stops part of the way through leaves the
+    // graph to be rebuilt.
+    private boolean upToDate = false;
+    // Whether cancel has been called since a run last stopped because of it. This is set from
+    // other threads.
+    private volatile boolean cancelRequested = false;
+
+    /**
+     * A configuration in the graph at a particular position in the input string, together with
+     * the edges into and out of it.
+     */
+    private static final class Node {
+        // The number of input symbols read to reach this configuration
+        private final int position;
+        // The configuration
+        private final Configuration configuration;
+        // The edges to the configurations reached by applying one transition
+        private final ArrayList<Edge> successors = new ArrayList<>();
+        // The source of every edge into this node (once per edge)
+        private final ArrayList<Node> predecessors = new ArrayList<>();
+        // The moves from this configuration that were discarded for making the stack too high
+        private final ArrayList<Move> discarded = new ArrayList<>();
+
+        private Node(int position, Configuration configuration) {
+            this.position = position;
+            this.configuration = configuration;
+        }
+    }
+
+    /**
+     * An edge of the graph, labelled with the move that was applied.
+     */
+    private static final class Edge {
+        // The move that was applied
+        private final Move move;
+        // The node reached
+        private final Node target;
+
+        private Edge(Move move, Node target) {
+            this.move = move;
+            this.target = target;
+        }
+    }
+
+    /**
+     * Creates a simulator for the given PDA. Nothing is simulated until an input string is run.
+     *
+     * @param pda            The PDA to simulate.
+     * @param maxStackHeight The highest the stack of a configuration can be before the
+     *                       configuration is discarded.
+     */
+    public IncrementalSimulator(PDA pda, int maxStackHeight) {
+        this(pda, maxStackHeight, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a simulator for the given PDA that stops exploring once the graph holds a given
+     * number of configurations. Nothing is simulated until an input string is run.
+     *
+     * @param pda               The PDA to simulate.
+     * @param maxStackHeight    The highest the stack of a configuration can be before the
+     *                          configuration is discarded.
+     * @param maxConfigurations The most configurations the graph can hold before a run stops
+     *                          exploring.
+     */
+    public IncrementalSimulator(PDA pda, int maxStackHeight, int maxConfigurations) {
+        this.pda = pda;
+        this.maxStackHeight = maxStackHeight;
+        this.maxConfigurations = maxConfigurations;
+    }
+
+    /**
+     * Checks if the PDA accepts the given input string, reusing the frontiers for the longest
+     * prefix it shares with the previous input string and updating the graph for any changes to
+     * the transitions since the previous run.
+     *
+     * @param inputString The input string the automaton is being run on.
+     * @return True if an accepting configuration is reachable and false otherwise.
+     * @throws CancellationException If the run is cancelled.
+     */
+    public boolean accepts(String inputString) {
+        for (Configuration configuration : simulate(inputString).keySet()) {
+            if (pda.isAccepting(configuration.state, configuration.stack.isEmpty())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the PDA being simulated, which is normally a snapshot of a later version of the
+     * same PDA. The graph is kept, and the next run brings it up to date with any transitions that
+     * differ between the two.
+     *
+     * @param pda The PDA to simulate from now on.
+     */
+    public void setPDA(PDA pda) {
+        this.pda = pda;
+    }
+
+    /**
+     * Asks the simulator to stop the run in progress, which then throws a CancellationException.
+     * This can be called from any thread. If no run is in progress, the next run is stopped as
+     * soon as it starts.
+     */
+    public void cancel() {
+        cancelRequested = true;
+    }
+
+    /**
+     * Checks whether any configuration was discarded for having a stack higher than the limit
+     * while simulating the most recent input string. If so, a rejected input string may actually
+     * be accepted.
+     *
+     * @return True if a configuration was discarded and false otherwise.
+     */
+    public boolean reachedStackLimit() {
+        return discardedMoves > 0;
+    }
+
+    /**
+     * Checks whether the most recent run stopped exploring because the graph held as many
+     * configurations as it can. If so, a rejected input string may actually be accepted, and the
+     * graph is rebuilt by the next run.
+     *
+     * @return True if the configuration limit was reached and false otherwise.
+     */
+    public boolean reachedConfigurationLimit() {
+        return configurationLimitReached;
+    }
+
+    /**
+     * Gets the number of frontiers that had to be computed by the most recent run because the
+     * input string changed, rather than being reused from the run before it.
+     *
+     * @return The number of computed frontiers.
+     */
+    public int getSimulatedPositions() {
+        return simulatedPositions;
+    }
+
+    /**
+     * Gets the number of configurations that the most recent run explored, or checked again
+     * because of a change to the transitions.
+     *
+     * @return The number of explored configurations.
+     */
+    public int getExploredConfigurations() {
+        return exploredConfigurations;
+    }
+
+    /**
+     * Gets the number of configurations the PDA can be in after reading some prefix of the most
+     * recent input string.
+     *
+     * @param position The length of the prefix.
+     * @return The number of configurations in the frontier at that position.
+     */
+    public int getFrontierSize(int position) {
+        return frontiers.get(position).size();
+    }
+
+    /**
+     * Brings the graph up to date for the given input string and the current PDA and returns the
+     * last frontier.
+     *
+     * @param newInputString The input string the automaton is being run on.
+     * @return The nodes of the configurations reachable after reading the whole input string.
+     */
+    private HashMap<Configuration, Node> simulate(String newInputString) {
+        simulatedPositions = 0;
+        exploredConfigurations = 0;
+        configurationLimitReached = false;
+        checkCancelled();
+        boolean rebuildNeeded = !upToDate ||
+                !Objects.equals(initialState, pda.getInitialState()) ||
+                !Objects.equals(initialStackSymbol, pda.getInitialStackSymbol());
+        upToDate = false;
+        if (rebuildNeeded) {
+            rebuild();
+        } else {
+            // The graph is brought up to date with the transitions for the previous input string
+            // first, so that it is consistent before the input string is changed
+            updateTransitions();
+        }
+
+        int length = newInputString.length();
+        if (frontiers.isEmpty()) {
+            inputString = newInputString;
+            while (frontiers.size() <= length) {
+                frontiers.add(new HashMap<>());
+            }
+            // A PDA without an initial state cannot be in any configuration
+            if (initialState != null) {
+                String stack = initialStackSymbol == null ? "" : initialStackSymbol;
+                root = addNode(0, new Configuration(initialState, stack));
+            }
+            simulatedPositions = length + 1;
+        } else {
+            // Keep the frontiers for the prefix shared with the previous input string
+            int shared = 0;
+            int limit = Math.min(inputString.length(), length);
+            while (shared < limit && inputString.charAt(shared) == newInputString.charAt(shared)) {
+                shared++;
+            }
+            removeFrontiersAfter(shared);
+            inputString = newInputString;
+            while (frontiers.size() <= length) {
+                frontiers.add(new HashMap<>());
+            }
+            simulatedPositions = length - shared;
+            // The configurations at the end of the shared prefix can now read the next symbol
+            if (shared < length) {
+                for (Node node : frontiers.get(shared).values()) {
+                    for (Move move : getMoves(node.configuration.state)) {
+                        if (!move.transition.getInputSymbol().isEmpty()) {
+                            applyMove(node, move);
+                        }
+                    }
+                }
+            }
+        }
+        explore();
+        // A graph that was not explored completely cannot be brought up to date by later runs
+        upToDate = !configurationLimitReached;
+        return frontiers.get(length);
+    }
+
+    /**
+     * Discards the whole graph and records the current transitions, initial state and initial
+     * stack symbol of the PDA.
+     */
+    private void rebuild() {
+        frontiers.clear();
+        nodesByState.clear();
+        worklist.clear();
+        root = null;
+        discardedMoves = 0;
+        nodeCount = 0;
+        inputString = "";
+        initialState = pda.getInitialState();
+        initialStackSymbol = pda.getInitialStackSymbol();
+        transitions = new ArrayList<>(pda.getTransitions());
+        movesByState.clear();
+        for (PDATransition transition : transitions) {
+            getMoves(transition.getCurrentState()).add(new Move(transition));
+        }
+    }
+
+    /**
+     * Updates the graph for any transitions that have been added to or removed from the PDA since
+     * the graph was last brought up to date. A transition that is edited counts as the old
+     * transition being removed and the new one being added.
+     */
+    private void updateTransitions() {
+        if (transitions.equals(pda.getTransitions())) {
+            return;
+        }
+        HashSet<PDATransition> previous = new HashSet<>(transitions);
+        HashSet<PDATransition> current = new HashSet<>(pda.getTransitions());
+        transitions = new ArrayList<>(pda.getTransitions());
+        for (PDATransition transition : previous) {
+            if (!current.contains(transition)) {
+                removeTransition(transition);
+            }
+        }
+        for (PDATransition transition : current) {
+            if (!previous.contains(transition)) {
+                addTransition(transition);
+            }
+        }
+        explore();
+    }
+
+    /**
+     * Applies a new transition to every configuration in the graph it can be applied to. The
+     * configurations that this makes reachable are explored afterwards by explore.
+     *
+     * @param transition The new transition.
+     */
+    private void addTransition(PDATransition transition) {
+        Move move = new Move(transition);
+        getMoves(transition.getCurrentState()).add(move);
+        // Copy the nodes since applying the move can add nodes for the same state
+        for (Node node : new ArrayList<>(getNodes(transition.getCurrentState()))) {
+            exploredConfigurations++;
+            applyMove(node, move);
+        }
+    }
+
+    /**
+     * Removes a transition from the graph along with every configuration that can no longer be
+     * reached without it. Every configuration reachable from one the transition led to is a
+     * suspect. The suspects that can still be reached from a configuration that is not a suspect
+     * are kept and the rest are removed.
+     *
+     * @param transition The removed transition.
+     */
+    private void removeTransition(PDATransition transition) {
+        ArrayList<Move> moves = getMoves(transition.getCurrentState());
+        Move move = null;
+        for (Move candidate : moves) {
+            if (candidate.transition.equals(transition)) {
+                move = candidate;
+            }
+        }
+        if (move == null) {
+            return;
+        }
+        moves.remove(move);
+
+        // Remove the edges made by the move and remember where they led
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        for (Node node : getNodes(transition.getCurrentState())) {
+            exploredConfigurations++;
+            for (int i = node.successors.size() - 1; i >= 0; i--) {
+                Edge edge = node.successors.get(i);
+                if (edge.move == move) {
+                    node.successors.remove(i);
+                    edge.target.predecessors.remove(node);
+                    queue.add(edge.target);
+                }
+            }
+            if (node.discarded.remove(move)) {
+                discardedMoves--;
+            }
+        }
+
+        // Everything reachable from where the removed edges led might now be unreachable
+        HashSet<Node> suspects = new HashSet<>();
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            if (suspects.add(node)) {
+                for (Edge edge : node.successors) {
+                    queue.add(edge.target);
+                }
+            }
+        }
+        exploredConfigurations += suspects.size();
+
+        // Keep the suspects that can still be reached from outside the suspects
+        HashSet<Node> reachable = new HashSet<>();
+        for (Node node : suspects) {
+            if (node == root || !suspects.containsAll(node.predecessors)) {
+                reachable.add(node);
+                queue.add(node);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Edge edge : node.successors) {
+                if (suspects.contains(edge.target) && reachable.add(edge.target)) {
+                    queue.add(edge.target);
+                }
+            }
+        }
+        for (Node node : suspects) {
+            if (!reachable.contains(node)) {
+                removeNode(node);
+            }
+        }
+    }
+
+    /**
+     * Removes every frontier after the given position, along with the edges leading to them, as
+     * they depend on input symbols that have changed.
+     *
+     * @param position The position of the last frontier to keep.
+     */
+    private void removeFrontiersAfter(int position) {
+        if (frontiers.size() <= position + 1) {
+            return;
+        }
+        while (frontiers.size() > position + 1) {
+            HashMap<Configuration, Node> frontier = frontiers.remove(frontiers.size() - 1);
+            nodeCount -= frontier.size();
+            for (Node node : frontier.values()) {
+                getNodes(node.configuration.state).remove(node);
+                discardedMoves -= node.discarded.size();
+            }
+        }
+        for (Node node : frontiers.get(position).values()) {
+            node.successors.removeIf(edge -> edge.target.position > position);
+            int before = node.discarded.size();
+            node.discarded.removeIf(move -> !move.transition.getInputSymbol().isEmpty());
+            discardedMoves -= before - node.discarded.size();
+        }
+    }
+
+    /**
+     * Finds the successors of every node in the worklist, which adds any new nodes to the
+     * worklist, until the worklist is empty.
+     */
+    private void explore() {
+        while (!worklist.isEmpty()) {
+            checkCancelled();
+            if (nodeCount >= maxConfigurations) {
+                configurationLimitReached = true;
+                worklist.clear();
+                return;
+            }
+            Node node = worklist.poll();
+            exploredConfigurations++;
+            for (Move move : getMoves(node.configuration.state)) {
+                applyMove(node, move);
+            }
+        }
+    }
+
+    /**
+     * Stops the run in progress if cancel has been called since a run last stopped because of it.
+     *
+     * @throws CancellationException If the run has been cancelled.
+     */
+    private void checkCancelled() {
+        if (cancelRequested) {
+            cancelRequested = false;
+            throw new CancellationException("The run was cancelled");
+        }
+    }
+
+    /**
+     * Applies a move to the configuration of a node if possible, adding an edge to the node of
+     * the resulting configuration and creating that node if it does not exist yet.
+     *
+     * @param node The node.
+     * @param move The move.
+     */
+    private void applyMove(Node node, Move move) {
+        int position = node.position;
+        String inputSymbol = move.transition.getInputSymbol();
+        if (!inputSymbol.isEmpty()) {
+            if (position == inputString.length() || inputSymbol.length() != 1 ||
+                    inputString.charAt(position) != inputSymbol.charAt(0)) {
+                return;
+            }
+            position++;
+        }
+        Configuration next = FrontierSimulator.apply(node.configuration, move);
+        if (next == null) {
+            return;
+        }
+        if (next.stack.length() > maxStackHeight) {
+            node.discarded.add(move);
+            discardedMoves++;
+            return;
+        }
+        Node target = frontiers.get(position).get(next);
+        if (target == null) {
+            target = addNode(position, next);
+        }
+        node.successors.add(new Edge(move, target));
+        target.predecessors.add(node);
+    }
+
+    /**
+     * Creates a node and adds it to the graph and the worklist.
+     *
+     * @param position      The number of input symbols read to reach the configuration.
+     * @param configuration The configuration.
+     * @return The new node.
+     */
+    private Node addNode(int position, Configuration configuration) {
+        Node node = new Node(position, configuration);
+        nodeCount++;
+        frontiers.get(position).put(configuration, node);
+        getNodes(configuration.state).add(node);
+        worklist.add(node);
+        return node;
+    }
+
+    /**
+     * Removes a node from the graph, along with the edges out of it.
+     *
+     * @param node The node.
+     */
+    private void removeNode(Node node) {
+        nodeCount--;
+        frontiers.get(node.position).remove(node.configuration);
+        getNodes(node.configuration.state).remove(node);
+        discardedMoves -= node.discarded.size();
+        for (Edge edge : node.successors) {
+            edge.target.predecessors.remove(node);
+        }
+    }
+
+    /**
+     * Gets the moves that can be made from a state.
+     *
+     * @param state The state.
+     * @return The moves from that state.
+     */
+    private ArrayList<Move> getMoves(String state) {
+        return movesByState.computeIfAbsent(state, key -> new ArrayList<>());
+    }
+
+    /**
+     * Gets the nodes in the graph whose configuration has the given state.
+     *
+     * @param state The state.
+     * @return The nodes with that state.
+     */
+    private HashSet<Node> getNodes(String state) {
+        return nodesByState.computeIfAbsent(state, key -> new HashSet<>());
+    }
+}
@@ -0,0 +1,218 @@
+package PDA_Simulator.Backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Stack;
+
+/**
+ * This class is a reusable, mutable PDA configuration intended for code that runs the PDA. Unlike
+ * PDAConfiguration, applying a transition modifies this configuration in place rather than
+ * creating a new configuration with a copy of the stack. Every transition that is applied is
+ * recorded so that it can later be undone, which makes it possible to backtrack during a
+ * depth-first search. Undoing a transition only needs the transition itself: the symbols it pushed
+ * are removed and the symbols of its pop string (which must have been on the top of the stack for
+ * it to be applicable) are pushed back. Once the internal buffers are large enough, neither
+ * applying nor undoing a transition allocates any objects.
+ */
+
+public class MutableConfiguration {
+    // The stack of this configuration. The top of the stack is the last element.
+    private final ArrayList<String> stack = new ArrayList<>();
+    // A read-only view of the stack that can be handed out without copying it
+    private final List<String> stackView = Collections.unmodifiableList(stack);
+    // The input string the PDA is being run on
+    private final String inputString;
+    // Each symbol of the input string as a separate String
+    private final String[] inputSymbols;
+    // The current state of this configuration
+    private String state;
+    // The index of the current input symbol of this configuration
+    private int index;
+    // The transitions that have been applied so far, in the order they were applied. Only the
+    // first appliedTransitionsCount elements are in use.
+    private PDATransition[] appliedTransitions = new PDATransition[16];
+    // The number of transitions that have been applied and not undone
+    private int appliedTransitionsCount = 0;
+    // A copy of the configuration this configuration started off as. It is the initial
+    // configuration of every computation created from this configuration.
+    private final PDAConfiguration startConfiguration;
+
+    /**
+     * Creates a MutableConfiguration that starts off as a copy of the given configuration.
+     *
+     * @param configuration The configuration to copy.
+     * @param inputString   The input string the PDA is being run on.
+     */
+    public MutableConfiguration(PDAConfiguration configuration, String inputString) {
+        this.inputString = inputString;
+        inputSymbols = PDAConfiguration.splitIntoSymbols(inputString);
+        stack.addAll(configuration.getStack());
+        state = configuration.getState();
+        index = configuration.getIndex();
+        startConfiguration = toPDAConfiguration();
+    }
+
+    /**
+     * Applies the given transition to this configuration. The transition must be applicable,
+     * i.e. it must belong to the current state, read either nothing or the current input symbol
+     * and its pop string must be on the top of the stack.
+     *
+     * @param transition The transition to apply.
+     */
+    public void apply(PDATransition transition) {
+        // Remove the pop string from the top of the stack
+        int popLength = transition.getPopSymbols().length;
+        for (int i = 0; i < popLength; i++) {
+            stack.remove(stack.size() - 1);
+        }
+        // Push the push string in reverse order so that its first symbol ends up on the top
+        String[] pushSymbols = transition.getPushSymbols();
+        for (int i = pushSymbols.length - 1; i >= 0; i--) {
+            stack.add(pushSymbols[i]);
+        }
+        if (!transition.getInputSymbol().isEmpty()) {
+            index++;
+        }
+        state = transition.getNewState();
+
+        if (appliedTransitionsCount == appliedTransitions.length) {
+            appliedTransitions = Arrays.copyOf(appliedTransitions, 2 * appliedTransitionsCount);
+        }
+        appliedTransitions[appliedTransitionsCount++] = transition;
+    }
+
+    /**
+     * Undoes the most recently applied transition that has not already been undone, restoring
+     * this configuration to what it was before that transition was applied.
+     *
+     * @return The transition that was undone.
+     * @throws IllegalStateException If no transitions have been applied.
+     */
+    public PDATransition undo() {
+        if (appliedTransitionsCount == 0) {
+            throw new IllegalStateException("There are no transitions to undo");
+        }
+        PDATransition transition = appliedTransitions[--appliedTransitionsCount];
+        revert(transition);
+        return transition;
+    }
+
+    /**
+     * Reverts the effect of a transition on the stack, the state and the index without changing
+     * the record of applied transitions.
+     *
+     * @param transition The transition to revert.
+     */
+    private void revert(PDATransition transition) {
+        int pushLength = transition.getPushSymbols().length;
+        for (int i = 0; i < pushLength; i++) {
+            stack.remove(stack.size() - 1);
+        }
+        String[] popSymbols = transition.getPopSymbols();
+        for (int i = popSymbols.length - 1; i >= 0; i--) {
+            stack.add(popSymbols[i]);
+        }
+        if (!transition.getInputSymbol().isEmpty()) {
+            index--;
+        }
+        state = transition.getCurrentState();
+    }
+
+    /**
+     * Gets the current state of this configuration.
+     *
+     * @return The current state of this configuration.
+     */
+    public String getState() {
+        return state;
+    }
+
+    /**
+     * Gets the index of the current input symbol of this configuration.
+     *
+     * @return The index of the current input symbol.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the current input symbol of this configuration.
+     *
+     * @return The current input symbol or null if the input string has been exhausted.
+     */
+    public String getInputSymbol() {
+        if (index < inputSymbols.length) {
+            return inputSymbols[index];
+        }
+        return null;
+    }
+
+    /**
+     * Gets the input string the PDA is being run on.
+     *
+     * @return The input string.
+     */
+    public String getInputString() {
+        return inputString;
+    }
+
+    /**
+     * Gets a read-only view of the stack of this configuration. The top of the stack is the last
+     * element of the list. The view reflects any later changes to this configuration.
+     *
+     * @return The stack of this configuration.
+     */
+    public List<String> getStack() {
+        return stackView;
+    }
+
+    /**
+     * Gets the number of transitions that have been applied and not undone, i.e. the number of
+     * steps between the starting configuration and this configuration.
+     *
+     * @return The number of applied transitions.
+     */
+    public int getStepCount() {
+        return appliedTransitionsCount;
+    }
+
+    /**
+     * Gets one of the transitions that has been applied.
+     *
+     * @param step The step of the transition, starting at 0 for the first applied transition.
+     * @return The transition applied at the given step.
+     */
+    public PDATransition getAppliedTransition(int step) {
+        if (step < 0 || step >= appliedTransitionsCount) {
+            throw new IndexOutOfBoundsException("Step " + step + " has not been applied");
+        }
+        return appliedTransitions[step];
+    }
+
+    /**
+     * Creates an immutable PDAConfiguration equal to this configuration.
+     *
+     * @return A PDAConfiguration with a copy of the stack, the state and the index.
+     */
+    public PDAConfiguration toPDAConfiguration() {
+        Stack<String> stackCopy = new Stack<>();
+        stackCopy.addAll(stack);
+        return new PDAConfiguration(stackCopy, state, index, inputString);
+    }
+
+    /**
+     * Creates the computation that leads from the starting configuration to this configuration.
+     * The computation only stores the starting configuration and the applied transitions, so
+     * creating it does not copy the stack of any configuration along the way. This configuration
+     * is left unchanged.
+     *
+     * @return The computation.
+     */
+    public Computation getComputation() {
+        return new Computation(startConfiguration,
+                Arrays.copyOf(appliedTransitions, appliedTransitionsCount));
+    }
+}
@@ -1,14 +1,7 @@
 package PDA_Simulator.Backend;
 
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.value.ChangeListener;
-import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
-import javafx.collections.ObservableList;
-import javafx.util.Pair;
-
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * This class contains all the necessary functionality of the PDA object. Note that this class
@@ -21,53 +14,264 @@ import java.util.*;
  * <p>
  * States of the PDA are simply modelled as strings while transitions have a dedicated class
  * (PDATransition). There is also a class that represents PDA configurations which are used when the
- * pushdown automaton is run. A computation is a sequence of PDA configurations and this is just
- * represented as an ArrayList of PDAConfiguration objects.
+ * pushdown automaton is run. A computation is a sequence of PDA configurations. Accepting
+ * computations are represented by the Computation class, which stores the initial configuration
+ * and the applied transitions and reconstructs the other configurations when they are needed.
+ * <p>
+ * This class only uses plain Java collections, so it can be used without JavaFX. Changes to the
+ * PDA are reported to PDAListeners, which the frontend uses to keep its observable lists and
+ * properties up to date.
+ * <p>
+ * A PDA is not thread-safe, since it builds its pop string tries lazily and can be changed at any
+ * time. To run a PDA on other threads while it keeps being edited, take a snapshot of it. A
+ * snapshot is an immutable copy of the PDA with its tries and over-approximation already built,
+ * so it can be shared by any number of runs on any number of threads. Snapshots are cheap to take
+ * and the same snapshot is returned until the PDA changes.
  *
  * @author Savraj Bassi
  */
 
-public class PDA {
-    // A boolean Property to monitor whether the PDA is deterministic or not
-    private final SimpleBooleanProperty deterministic = new SimpleBooleanProperty(true);
+public class PDA implements ComputationEngine {
+    // Whether the PDA is deterministic or not
+    private boolean deterministic = true;
     // The initial stack symbol of the PDA (null if the stack starts off empty)
     private String initialStackSymbol = null;
-    // The PDATransitions of this PDA. Observable so changes can be detected automatically in the
-    // controller
-    private final ObservableList<PDATransition> transitions = FXCollections.observableArrayList();
-    // The states of this PDA. Observable so changes can be detected automatically in the controller
-    private final ObservableList<String> states = FXCollections.observableArrayList();
-    // A String property that contains the initial state of the PDA
-    private final SimpleStringProperty initialState = new SimpleStringProperty(null);
+    // The PDATransitions of this PDA
+    private final ArrayList<PDATransition> transitions = new ArrayList<>();
+    // The states of this PDA
+    private final ArrayList<String> states = new ArrayList<>();
+    // The initial state of the PDA (null if there is none)
+    private String initialState = null;
     // The set of accepting states of this PDA
     private final ArrayList<String> acceptingStates = new ArrayList<>();
     // A counter used to generate distinct state names automatically
     private int counter = -1;
     // The acceptance criterion of the PDA. Default acceptance criteria is accepting state.
     private AcceptanceCriteria acceptanceCriteria = AcceptanceCriteria.ACCEPTING_STATE;
-    // A list to store all the accepting computations that are found when running the PDA on an
-    // input string
-    private final ArrayList<ArrayList<PDAConfiguration>> acceptingComputations = new ArrayList<>();
-    // A boolean to indicate whether the computation step limit was reached for any individual
-    // computation when searching for accepting computations
-    private boolean hitMaxSteps = false;
-    // A boolean to indicate whether the maximum number of total steps across all computations was
-    // reached when searching for accepting computations.
-    private boolean hitMaxTotalSteps = false;
     // The set of transitions that cause nondeterminism.
     private final HashSet<PDATransition> nondeterministicTransitions = new HashSet<>();
+    // A trie over the pop strings of the transitions of each state. The tries are built lazily
+    // when the PDA is run and are discarded whenever the transitions change.
+    private final HashMap<String, PopStringTrie> popStringTries = new HashMap<>();
+    // The finite-state over-approximation of this PDA used to quickly reject input strings. Like
+    // the pop string tries, it is built lazily and discarded whenever the transitions change.
+    private StackTopAbstraction stackTopAbstraction = null;
+    // The statistics used to order the transitions explored by the depth-first search, or null if
+    // transitions are explored in the order they were defined in
+    private TransitionStatistics transitionStatistics = null;
+    // A 64-bit fingerprint of the structure of this PDA. It is the sum of a hash of every state,
+    // transition and accepting state plus a hash of each of the other fields, so it does not
+    // depend on the order anything was added in and is updated as each change is made.
+    private long fingerprint;
+    // The listeners notified whenever this PDA changes
+    private final ArrayList<PDAListener> listeners = new ArrayList<>();
+    // Whether this PDA is an immutable snapshot of another PDA
+    private final boolean snapshot;
+    // The most recent snapshot of this PDA, or null if the PDA has changed since it was taken
+    private PDA latestSnapshot = null;
 
     /**
-     * Creates a new PDA and adds a listener to the transitions ObservableList.
+     * Creates a new PDA without any states or transitions.
      */
     public PDA() {
-        // Whenever any changes are made to the ObservableList of transitions, check if the
-        // determinism changes
-        transitions.addListener((ListChangeListener<PDATransition>) change -> checkDeterminism());
+        snapshot = false;
+        fingerprint = hashValue("initialState", null) + hashValue("initialStackSymbol", null) +
+                hashValue("acceptanceCriteria", acceptanceCriteria.name());
+    }
+
+    /**
+     * Creates an immutable snapshot of the given PDA. The pop string tries of every state and the
+     * over-approximation are built straight away, so running the snapshot never changes it.
+     *
+     * @param original The PDA being copied.
+     */
+    private PDA(PDA original) {
+        snapshot = true;
+        deterministic = original.deterministic;
+        initialStackSymbol = original.initialStackSymbol;
+        transitions.addAll(original.transitions);
+        states.addAll(original.states);
+        initialState = original.initialState;
+        acceptingStates.addAll(original.acceptingStates);
+        counter = original.counter;
+        acceptanceCriteria = original.acceptanceCriteria;
+        nondeterministicTransitions.addAll(original.nondeterministicTransitions);
+        fingerprint = original.fingerprint;
+        transitionStatistics = original.transitionStatistics;
+        for (String state : states) {
+            popStringTries.put(state, new PopStringTrie(getTransitionsForState(state)));
+        }
+        stackTopAbstraction = new StackTopAbstraction(transitions);
+    }
+
+    /**
+     * Gets an immutable snapshot of this PDA that can be run on any number of threads at once
+     * while this PDA keeps being changed. The snapshot is equal to this PDA at the time it was
+     * taken and has the same fingerprint, but it has no listeners, and every method that would
+     * change it throws an IllegalStateException. It shares the transition statistics of this PDA,
+     * so searches on the snapshot both use and update them. The same snapshot is
+     * returned until this PDA changes, so taking a snapshot before every run costs nothing when
+     * the PDA has not been edited in between. This must be called on the thread that changes
+     * this PDA.
+     *
+     * @return The snapshot, which is this PDA itself if it is already a snapshot.
+     */
+    public PDA snapshot() {
+        if (snapshot) {
+            return this;
+        }
+        if (latestSnapshot == null) {
+            latestSnapshot = new PDA(this);
+        }
+        return latestSnapshot;
+    }
+
+    /**
+     * Checks if this PDA is an immutable snapshot of another PDA.
+     *
+     * @return True if this PDA is a snapshot and false otherwise.
+     */
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Called before this PDA is changed. Throws an exception if this PDA is a snapshot and
+     * otherwise discards the latest snapshot since it will no longer be equal to this PDA.
+     */
+    private void beforeChange() {
+        if (snapshot) {
+            throw new IllegalStateException("A snapshot of a PDA cannot be changed");
+        }
+        latestSnapshot = null;
+    }
+
+    /**
+     * Adds a listener that is notified whenever this PDA changes.
+     *
+     * @param listener The listener to be added.
+     */
+    public void addListener(PDAListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener so that it is no longer notified of changes to this PDA.
+     *
+     * @param listener The listener to be removed.
+     */
+    public void removeListener(PDAListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Adds a transition at the given position in the list of transitions and notifies the
+     * listeners.
+     *
+     * @param index      The position the transition is added at.
+     * @param transition The transition being added.
+     */
+    private void insertTransition(int index, PDATransition transition) {
+        beforeChange();
+        transitions.add(index, transition);
+        fingerprint += hashTransition(transition);
+        transitionsChanged();
+        for (PDAListener listener : new ArrayList<>(listeners)) {
+            listener.transitionAdded(index, transition);
+        }
+    }
+
+    /**
+     * Removes every transition matching the given condition and then notifies the listeners of
+     * each removal.
+     *
+     * @param condition The condition the removed transitions match.
+     */
+    private void removeTransitions(Predicate<PDATransition> condition) {
+        ArrayList<Integer> indices = new ArrayList<>();
+        ArrayList<PDATransition> removed = new ArrayList<>();
+        for (int i = 0; i < transitions.size(); i++) {
+            PDATransition transition = transitions.get(i);
+            if (condition.test(transition)) {
+                // The index once the transitions before this one have been removed
+                indices.add(i - removed.size());
+                removed.add(transition);
+                fingerprint -= hashTransition(transition);
+            }
+        }
+        if (removed.isEmpty()) {
+            return;
+        }
+        transitions.removeIf(condition);
+        transitionsChanged();
+        for (int i = 0; i < removed.size(); i++) {
+            for (PDAListener listener : new ArrayList<>(listeners)) {
+                listener.transitionRemoved(indices.get(i), removed.get(i));
+            }
+        }
+    }
+
+    /**
+     * Removes the transition at the given position in the list of transitions and notifies the
+     * listeners.
+     *
+     * @param index The position of the transition being removed.
+     * @return The removed transition.
+     */
+    private PDATransition removeTransition(int index) {
+        beforeChange();
+        PDATransition transition = transitions.remove(index);
+        fingerprint -= hashTransition(transition);
+        transitionsChanged();
+        for (PDAListener listener : new ArrayList<>(listeners)) {
+            listener.transitionRemoved(index, transition);
+        }
+        return transition;
+    }
+
+    /**
+     * Discards the pop string tries and the over-approximation since they may now be out of date
+     * and checks if the determinism changes. This is done whenever the transitions change.
+     */
+    private void transitionsChanged() {
+        popStringTries.clear();
+        stackTopAbstraction = null;
+        checkDeterminism();
+    }
+
+    /**
+     * Adds a state to the end of the list of states and notifies the listeners.
+     *
+     * @param state The name of the state being added.
+     */
+    private void insertState(String state) {
+        states.add(state);
+        fingerprint += hashValue("state", state);
+        for (PDAListener listener : new ArrayList<>(listeners)) {
+            listener.stateAdded(states.size() - 1, state);
+        }
     }
 
     /**
-     * Checks if the PDA is deterministic or not and updates the SimpleBooleanProperty, if
+     * Sets the initial state and notifies the listeners if it changed.
+     *
+     * @param newInitialState The new initial state, or null if there is none.
+     */
+    private void setInitialState(String newInitialState) {
+        String oldInitialState = initialState;
+        if (Objects.equals(oldInitialState, newInitialState)) {
+            return;
+        }
+        initialState = newInitialState;
+        fingerprint += hashValue("initialState", newInitialState) -
+                hashValue("initialState", oldInitialState);
+        for (PDAListener listener : new ArrayList<>(listeners)) {
+            listener.initialStateChanged(oldInitialState, newInitialState);
+        }
+    }
+
+    /**
+     * Checks if the PDA is deterministic or not and updates the deterministic field, if
      * necessary. Nondeterminism can only be possible if there is at least one state with several
      * transitions. Therefore, iterate through all states and obtain all the transitions that
      * belong to that state. If there is more than just one transition, check for nondeterminism.
@@ -147,7 +351,7 @@ public class PDA {
             }
 
         }
-        if (nonDeterministic == deterministic.get()) {
+        if (nonDeterministic == deterministic) {
             updateDeterminism();
         }
     }
@@ -168,10 +372,14 @@ public class PDA {
     }
 
     /**
-     * Changes the deterministic SimpleBooleanProperty to the negation of its current value.
+     * Changes the deterministic field to the negation of its current value and notifies the
+     * listeners.
      */
     private void updateDeterminism() {
-        deterministic.set(!deterministic.get());
+        deterministic = !deterministic;
+        for (PDAListener listener : new ArrayList<>(listeners)) {
+            listener.deterministicChanged(deterministic);
+        }
     }
 
     /**
@@ -180,7 +388,8 @@ public class PDA {
      * @param newInitialState The new initial state of the PDA.
      */
     public void changeInitialState(String newInitialState) {
-        initialState.set(newInitialState);
+        beforeChange();
+        setInitialState(newInitialState);
     }
 
     /**
@@ -189,6 +398,7 @@ public class PDA {
      * @param pda The string representation of the PDA.
      */
     public void loadPDAFromString(String pda) {
+        beforeChange();
         int endOfStatesList = pda.indexOf("]");
         String statesString = pda.substring(9, endOfStatesList);
         String[] states = statesString.split(", ");
@@ -219,9 +429,9 @@ public class PDA {
         // "null" cannot be used in the frontend to prevent ambiguity about whether there is an
         // initial state called null or there is just no initial state.
         if (initialStateString.equals("null")) {
-            initialState.set(null);
+            setInitialState(null);
         } else {
-            initialState.set(initialStateString);
+            setInitialState(initialStateString);
         }
 
         int openSquareParenthesisIndex = rest.indexOf("[");
@@ -249,7 +459,8 @@ public class PDA {
         rest = rest.substring(equalsIndex + 1);
 
         // Convert the string that contains the acceptance criteria to an AcceptanceCriteria enum.
-        acceptanceCriteria = AcceptanceCriteria.valueOf(rest.substring(0, rest.length() - 1));
+        changeAcceptanceCriteria(
+                AcceptanceCriteria.valueOf(rest.substring(0, rest.length() - 1)));
     }
 
     /**
@@ -258,29 +469,30 @@ public class PDA {
      * @param state The name of the state to be created/
      */
     private void addState(String state) {
-        states.add(state);
+        insertState(state);
     }
 
     /**
      * Create a new PDA state with an automatically generated name using the counter.
      */
     public void addState() {
+        beforeChange();
         counter++;
         // If the next name is already in use, find the next available name
         if (states.contains("q" + counter)) {
             // Increment the counter until a fresh name can be generated.
             for (int i = counter + 1; i < Integer.MAX_VALUE; i++) {
                 if (!states.contains("q" + i)) {
-                    states.add("q" + i);
+                    insertState("q" + i);
                     return;
                 }
             }
         }
         // If the next name is not in use, then use that.
-        states.add("q" + counter);
+        insertState("q" + counter);
         // If there was no initial state, make this newly created state the initial state
-        if (initialState.get() == null) {
-            initialState.set("q" + counter);
+        if (initialState == null) {
+            setInitialState("q" + counter);
         }
     }
 
@@ -291,17 +503,26 @@ public class PDA {
      * @param state The state that is being deleted.
      */
     public void deleteState(String state) {
+        beforeChange();
         // Delete all transitions involving the deleted state, whether they were transitioning to
         // or from that state.
-        transitions.removeIf(t ->
+        removeTransitions(t ->
                 t.getCurrentState().equals(state) || t.getNewState().equals(state));
 
-        states.remove(state);
-        acceptingStates.remove(state);
-        // If the state being deleted is the initial state, set the initialState Property's value
-        // to null.
-        if (state.equals(initialState.get())) {
-            initialState.set(null);
+        int index = states.indexOf(state);
+        if (index != -1) {
+            states.remove(index);
+            fingerprint -= hashValue("state", state);
+            for (PDAListener listener : new ArrayList<>(listeners)) {
+                listener.stateRemoved(index, state);
+            }
+        }
+        if (acceptingStates.remove(state)) {
+            fingerprint -= hashValue("acceptingState", state);
+        }
+        // If the state being deleted is the initial state, set the initial state to null.
+        if (state.equals(initialState)) {
+            setInitialState(null);
         }
     }
 
@@ -316,6 +537,7 @@ public class PDA {
      * @return True if the renaming was successful and false otherwise.
      */
     public boolean renameState(String state, String newName) {
+        beforeChange();
         // If the state is renamed to its original name, change nothing and return true since
         // this is fine
         if (state.equals(newName)) {
@@ -330,16 +552,22 @@ public class PDA {
             // in the list of states.
             int index = states.indexOf(state);
             states.set(index, newName);
+            fingerprint += hashValue("state", newName) - hashValue("state", state);
+            for (PDAListener listener : new ArrayList<>(listeners)) {
+                listener.stateRenamed(index, state, newName);
+            }
             // It is necessary to first check whether the given state is an accepting state
             // before attempting to set the element at the specified index to the newName since not
             // every state is an accepting state.
             index = acceptingStates.indexOf(state);
             if (index != -1) {
                 acceptingStates.set(index, newName);
+                fingerprint += hashValue("acceptingState", newName) -
+                        hashValue("acceptingState", state);
             }
             // Rename the initial state if necessary
-            if (state.equals(initialState.get())) {
-                initialState.set(newName);
+            if (state.equals(initialState)) {
+                setInitialState(newName);
             }
 
             // Find all the transitions using the old name of the state as these are no longer valid
@@ -353,7 +581,7 @@ public class PDA {
                 }
             }
             // Delete the transitions with the old state name
-            transitions.removeIf(invalidTransitions::contains);
+            removeTransitions(invalidTransitions::contains);
 
             // Add transitions with the new state name
             for (PDATransition transition : invalidTransitions) {
@@ -371,8 +599,8 @@ public class PDA {
                 String popString = transition.getPopString();
                 String pushString = transition.getPushString();
 
-                transitions.add(new PDATransition(currentState, inputSymbol, popString, pushString,
-                        newState));
+                insertTransition(transitions.size(), new PDATransition(currentState, inputSymbol,
+                        popString, pushString, newState));
             }
 
             return true;
@@ -385,6 +613,9 @@ public class PDA {
      * @param symbol The new initial stack symbol or null if the PDA will start with an empty stack.
      */
     public void setInitialStackSymbol(String symbol) {
+        beforeChange();
+        fingerprint += hashValue("initialStackSymbol", symbol) -
+                hashValue("initialStackSymbol", initialStackSymbol);
         initialStackSymbol = symbol;
     }
 
@@ -396,12 +627,15 @@ public class PDA {
      * @param state The state that is being changed.
      */
     public void changeAcceptingState(String state) {
+        beforeChange();
         int index = acceptingStates.indexOf(state);
         // If state was not already an accepting state, make it an accepting state
         if (index == -1) {
             acceptingStates.add(state);
+            fingerprint += hashValue("acceptingState", state);
         } else {
             acceptingStates.remove(state);
+            fingerprint -= hashValue("acceptingState", state);
         }
     }
 
@@ -412,10 +646,11 @@ public class PDA {
      * @return True if the transition was successfully added and false otherwise.
      */
     public boolean addTransition(PDATransition transition) {
+        beforeChange();
         if (!hasTransition(transition)) {
             // Create new PDA states if the transition specifies states that do not already exist
             createTransitionStates(transition);
-            transitions.add(transition);
+            insertTransition(transitions.size(), transition);
             return true;
         }
         // Do not add duplicate transitions. Return false if the transition already exists.
@@ -424,7 +659,7 @@ public class PDA {
 
     /**
      * Add a PDATransition at a specific index. This is to preserve the ordering of the transitions
-     * ObservableList when a transition is edited.
+     * list of transitions when a transition is edited.
      *
      * @param transition The transition being added.
      * @param index      The index the transition is being added at.
@@ -434,7 +669,7 @@ public class PDA {
         if (!hasTransition(transition)) {
             // Create new PDA states if the transition specifies states that do not already exist
             createTransitionStates(transition);
-            transitions.add(index, transition);
+            insertTransition(index, transition);
         }
     }
 
@@ -481,7 +716,8 @@ public class PDA {
      * @param transition The transition that needs to be deleted.
      */
     public void deleteTransition(PDATransition transition) {
-        transitions.remove(transition);
+        beforeChange();
+        removeTransitions(transition::equals);
     }
 
     /**
@@ -492,6 +728,7 @@ public class PDA {
      * @return True if the edit was successful and false otherwise.
      */
     public boolean editTransition(PDATransition oldTransition, PDATransition newTransition) {
+        beforeChange();
         // If the transition is edited into itself, change nothing and return true since this is
         // fine to do.
         if (oldTransition.equals(newTransition)) {
@@ -516,133 +753,192 @@ public class PDA {
      * @param newAcceptanceCriteria The new acceptance criteria.
      */
     public void changeAcceptanceCriteria(AcceptanceCriteria newAcceptanceCriteria) {
+        beforeChange();
+        fingerprint += hashValue("acceptanceCriteria", newAcceptanceCriteria.name()) -
+                hashValue("acceptanceCriteria", acceptanceCriteria.name());
         acceptanceCriteria = newAcceptanceCriteria;
     }
 
     /**
-     * Adds a listener to the deterministic SimpleBooleanProperty.
+     * Gets the PDATransitions of this PDA, in the order they were defined in. The list reflects
+     * later changes to the PDA, and changes made to the list are made to the PDA, so the
+     * listeners are notified of them just as if addTransition or deleteTransition had been used.
      *
-     * @param listener The listener to be added.
+     * @return The transitions of this PDA.
      */
-    public void addDeterministicPropertyListener(ChangeListener<Boolean> listener) {
-        deterministic.addListener(listener);
+    public List<PDATransition> getTransitions() {
+        return new AbstractList<>() {
+            @Override
+            public PDATransition get(int index) {
+                return transitions.get(index);
+            }
+
+            @Override
+            public int size() {
+                return transitions.size();
+            }
+
+            @Override
+            public void add(int index, PDATransition transition) {
+                insertTransition(index, transition);
+            }
+
+            @Override
+            public PDATransition remove(int index) {
+                return removeTransition(index);
+            }
+
+            @Override
+            public PDATransition set(int index, PDATransition transition) {
+                PDATransition old = removeTransition(index);
+                insertTransition(index, transition);
+                return old;
+            }
+        };
     }
 
     /**
-     * Adds a listener to the deterministic SimpleStringProperty.
+     * Gets the states of this PDA, in the order they were created in. The list cannot be
+     * modified directly, but it reflects later changes to the PDA.
      *
-     * @param listener The listener to be added.
+     * @return The states of this PDA.
      */
-    public void addInitialStatePropertyListener(ChangeListener<String> listener) {
-        initialState.addListener(listener);
+    public List<String> getStates() {
+        return Collections.unmodifiableList(states);
     }
 
     /**
-     * Gets the ObservableList of PDATransitions of this PDA object.
+     * Returns whether the PDA is deterministic. Only necessary for testing purposes since
+     * MainController is notified of changes to this through a PDAListener and so never needs to
+     * access the value.
      *
-     * @return The transitions (PDATransitions) ObservableList.
+     * @return True if the PDA is deterministic and false otherwise.
      */
-    public ObservableList<PDATransition> getTransitions() {
-        return transitions;
+    public boolean getDeterministic() {
+        return deterministic;
     }
 
     /**
-     * Adds a listener to the transitions ObservableList.
+     * Generates all possible accepting computations (a computation is a list of
+     * PDAConfigurations) for the given input string which contain a number of configurations (or
+     * steps) less than or equal to maxSteps. If the max total step limit is reached, then the
+     * computation terminates prematurely. The return value of this method is a pair consisting of
+     * the acceptingComputations ArrayList as well as a Boolean. If there cannot be any accepting
+     * computations regardless of the length limit, then returns null instead. See subsection 4.9.1
+     * of the report for further details.
      *
-     * @param listener The listener to be added.
+     * @param inputString   The input string the automaton is being run on.
+     * @param maxSteps      The maximum number of steps the computations are allowed to go on for.
+     * @param maxTotalSteps The maximum number of total steps across all computations.
+     * @return A pair where the first element is an ArrayList of all accepting computations and the
+     * second is a Boolean indicating whether the step limit or total step limit was reached. If no
+     * accepting computations were found without reaching either limit, then null is returned.
      */
-    public void addTransitionsListener(ListChangeListener<PDATransition> listener) {
-        transitions.addListener(listener);
+    @Override
+    public Pair<ArrayList<Computation>, Boolean> getAcceptingComputations(
+            String inputString, int maxSteps, int maxTotalSteps) {
+        // Run a depth-first search that does not need to be resumed afterwards. If even the
+        // over-approximation of this PDA rejects the input string, then the search has nothing
+        // to explore and null is returned straight away.
+        ComputationSearch search = new ComputationSearch(this, inputString, false);
+        Pair<ArrayList<Computation>, Boolean> pair =
+                search.run(maxSteps, maxTotalSteps);
+        // If the search stopped at the total step limit, this records any successes on the
+        // computation it stopped on in the transition statistics
+        search.abandon();
+        return pair;
     }
 
     /**
-     * Gets the ObservableList of states of this PDA object.
+     * Generates the accepting computations for the given input string in the same way as the
+     * other getAcceptingComputations method, but with the cost of the search bounded by a
+     * RunGovernor rather than a total step limit. The governor can bound the search by time,
+     * memory and the number of configurations explored, and reports which budget stopped it.
      *
-     * @return The states (Strings) ObservableList.
+     * @param inputString The input string the automaton is being run on.
+     * @param maxSteps    The maximum number of steps the computations are allowed to go on for.
+     * @param governor    The governor bounding the cost of the search.
+     * @return A pair where the first element is an ArrayList of all accepting computations found
+     * and the second is a Boolean indicating whether the step limit was reached (true) or one of
+     * the budgets of the governor ran out (false). If no accepting computations were found without
+     * reaching any limit, then null is returned.
      */
-    public ObservableList<String> getStates() {
-        return states;
+    public Pair<ArrayList<Computation>, Boolean> getAcceptingComputations(
+            String inputString, int maxSteps, RunGovernor governor) {
+        ComputationSearch search = new ComputationSearch(this, inputString, false);
+        Pair<ArrayList<Computation>, Boolean> pair = search.run(maxSteps, governor);
+        search.abandon();
+        return pair;
     }
 
     /**
-     * Adds a listener to the state ObservableList.
+     * Starts a depth-first search for the accepting computations for the given input string that
+     * can be resumed with larger limits. See the ComputationSearch class for further details.
      *
-     * @param listener The listener to be added.
+     * @param inputString The input string the automaton is being run on.
+     * @return The search, which does not start until it is run.
      */
-    public void addStatesListener(ListChangeListener<String> listener) {
-        states.addListener(listener);
+    public ComputationSearch startSearch(String inputString) {
+        return new ComputationSearch(this, inputString, true);
     }
 
     /**
-     * Returns the value of the SimpleBooleanProperty deterministic. Only necessary for testing
-     * purposes since MainController adds a listener to this SimpleBooleanProperty and so never
-     * needs to access the value.
+     * Searches for a single accepting computation for the given input string, stopping as soon as
+     * one is found. Unlike getAcceptingComputations, the computation returned is not necessarily
+     * the shortest one. If transition statistics are attached to this PDA, the transitions that
+     * have most often led to acceptance in the past are tried first, which tends to find an
+     * accepting computation much sooner on large nondeterministic PDAs.
      *
-     * @return True if the PDA is deterministic and false otherwise.
+     * @param inputString   The input string the automaton is being run on.
+     * @param maxSteps      The maximum number of steps the computation is allowed to go on for.
+     * @param maxTotalSteps The maximum number of total steps across all computations.
+     * @return The first accepting computation found, or null if none was found within the limits.
      */
-    public boolean getDeterministic() {
-        return deterministic.get();
+    public Computation getFirstAcceptingComputation(String inputString, int maxSteps,
+                                                    int maxTotalSteps) {
+        ComputationSearch search = new ComputationSearch(this, inputString, false);
+        Computation computation = search.runUntilAccepted(maxSteps, maxTotalSteps);
+        search.abandon();
+        return computation;
     }
 
     /**
-     * Generates all possible accepting computations (a computation is an ArrayList of
-     * PDAConfigurations) for the given input string which contain a number of configurations (or
-     * steps) less than or equal to maxSteps. If the max total step limit is reached, then the
-     * computation terminates prematurely. The return value of this method is a pair consisting of
-     * the acceptingComputations ArrayList as well as a Boolean. If there cannot be any accepting
-     * computations regardless of the length limit, then returns null instead. See subsection 4.9.1
-     * of the report for further details.
+     * Checks whether this PDA could possibly accept the given input string using a finite-state
+     * over-approximation of the PDA that only keeps track of the top of the stack. This takes
+     * linear time in the length of the input string. If this returns false, then the PDA
+     * definitely rejects the input string, but if it returns true, then the PDA may or may not
+     * accept it.
      *
-     * @param inputString   The input string the automaton is being run on.
-     * @param maxSteps      The maximum number of steps the computations are allowed to go on for.
-     * @param maxTotalSteps The maximum number of total steps across all computations.
-     * @return A pair where the first element is an ArrayList of all accepting computations and the
-     * second is a Boolean indicating whether the step limit or total step limit was reached. If no
-     * accepting computations were found without reaching either limit, then null is returned.
+     * @param inputString The input string the automaton is going to be run on.
+     * @return False if this PDA definitely rejects the input string and true otherwise.
      */
-    public Pair<ArrayList<ArrayList<PDAConfiguration>>, Boolean> getAcceptingComputations(
-            String inputString, int maxSteps, int maxTotalSteps) {
-        // Start by clearing the previous acceptingComputations and resetting the booleans
-        acceptingComputations.clear();
-        hitMaxSteps = false;
-        hitMaxTotalSteps = false;
-        // Get the initial configuration of this PDA. This is the configuration that all
-        // computations start with.
-        PDAConfiguration initialConfiguration = getInitialConfiguration(inputString);
-        // Create a computation consisting of just the initial configuration
-        ArrayList<PDAConfiguration> computation = new ArrayList<>();
-        computation.add(initialConfiguration);
-        // Run the PDA with the initial computation and the step limit. This will add all
-        // accepting computations that are discovered to the acceptingComputations ArrayList.
-        runPDAOnInputString(computation, maxSteps, maxTotalSteps);
-        // If the PDA has at least one accepting computation or hit either the individual
-        // computation length limit or the total step limit, then return a Pair consisting of any
-        // discovered accepting computations as well as a Boolean that indicates which of the two
-        // limits was reached (if any). If a limit was reached, then it could be the case that there
-        // are accepting computations but none were found with the step limit.
-        if (hitMaxSteps || hitMaxTotalSteps || !acceptingComputations.isEmpty()) {
-            // Sort the accepting computations so that the shortest computations are at the front
-            Comparator<ArrayList<PDAConfiguration>> computationComparator =
-                    Comparator.comparingInt(ArrayList::size);
-            acceptingComputations.sort(computationComparator);
-            // If hitMaxTotalSteps is true, return false as the second element of the pair so that
-            // the calling method knows the total step limit was reached.
-            if (hitMaxTotalSteps) {
-                return new Pair<>(acceptingComputations, false);
-            }
-            // If hitMaxSteps is true, return true as the second element of the pair so that the
-            // calling method knows the individual computation step limit was reached for at least
-            // one computation.
-            if (hitMaxSteps) {
-                return new Pair<>(acceptingComputations, true);
-            }
-            return new Pair<>(acceptingComputations, null);
+    public boolean mayAccept(String inputString) {
+        if (stackTopAbstraction == null) {
+            stackTopAbstraction = new StackTopAbstraction(transitions);
         }
-        // If the PDA did not hit the maximum number of steps for any individual computation or the
-        // maximum number of total steps across all computations, and did not find an accepting
-        // computation, then that means the PDA had no more applicable transitions for all
-        // computations. Therefore, return null to indicate that the PDA rejects the input string.
-        return null;
+        return stackTopAbstraction.mayAccept(this, inputString);
+    }
+
+    /**
+     * Attaches transition statistics to this PDA. While attached, every search for accepting
+     * computations updates the statistics and explores the transitions that have most often led
+     * to acceptance first.
+     *
+     * @param transitionStatistics The statistics to attach, or null to go back to exploring
+     *                             transitions in the order they were defined in.
+     */
+    public void setTransitionStatistics(TransitionStatistics transitionStatistics) {
+        beforeChange();
+        this.transitionStatistics = transitionStatistics;
+    }
+
+    /**
+     * Gets the transition statistics attached to this PDA.
+     *
+     * @return The attached statistics, or null if there are none.
+     */
+    public TransitionStatistics getTransitionStatistics() {
+        return transitionStatistics;
     }
 
     /**
@@ -653,82 +949,14 @@ public class PDA {
      * @return The initial PDAConfiguration
      */
     public PDAConfiguration getInitialConfiguration(String inputString) {
-        // Set the static variable of the PDAConfiguration class to the inputString. This allows
-        // all instances of the PDAConfiguration class to share the same string while only a single
-        // copy of it is stored.
-        PDAConfiguration.setInputString(inputString);
         Stack<String> stack = new Stack<>();
         if (initialStackSymbol != null) {
             stack.push(initialStackSymbol);
         }
         // The returned configuration has the correct stack, the initial state and an index of 0
         // to denote that the input symbol this PDAConfiguration is currently at is the first one
-        // of the input string.
-        return new PDAConfiguration(stack, initialState.get(), 0);
-    }
-
-    /**
-     * Run the PDA in a depth-first search manner up to the limit of maxSteps and add any
-     * discovered accepting computations to the acceptingComputations field. Stop if the total step
-     * limit is reached. See subsection 4.9.2 of the report for further details.
-     *
-     * @param computation   The initial computation the PDA starts with, containing just the
-     *                      initial configuration
-     * @param maxSteps      The step limit which this depth-first search can explore up to.
-     * @param maxTotalSteps The total step limit across all computations
-     */
-    private void runPDAOnInputString(ArrayList<PDAConfiguration> computation, int maxSteps,
-                                     int maxTotalSteps) {
-        // Maintain a stack of computations for the depth-first search
-        Stack<ArrayList<PDAConfiguration>> openList = new Stack<>();
-        openList.push(computation);
-        int totalSteps = 0;
-
-        while (!openList.isEmpty()) {
-            totalSteps++;
-            ArrayList<PDAConfiguration> current = openList.pop();
-            // Extract the last configuration of the computation as the current configuration
-            PDAConfiguration currentConfiguration = current.get(current.size() - 1);
-
-            // If the step limit for an individual computation has been reached, then set th
-            // hitMaxSteps boolean to true and do not continue running the PDA on this particular
-            // computation. Add 1 to maxSteps before comparing to ensure that computations can
-            // contain the same number of configurations as the step limit. For example, if
-            // maxSteps = 5, without the + 1, the longest computations would have a length of 4
-            // configurations rather than 5.
-            if (current.size() == maxSteps + 1) {
-                hitMaxSteps = true;
-            }
-            // If the total step limit across all computations is reached, set the hitMaxTotalSteps
-            // boolean to true and stop immediately.
-            else if (totalSteps >= maxTotalSteps) {
-                hitMaxTotalSteps = true;
-                return;
-            }
-            else {
-                // If the current configuration (at the end of the current computation) is an
-                // accepting configuration according to the acceptance criteria, then add this
-                // computation to acceptingComputations.
-                if (isAcceptingConfiguration(currentConfiguration)) {
-                    acceptingComputations.add(current);
-                }
-
-                // Gather all applicable transitions for the current configuration
-                ArrayList<PDATransition> applicableTransitions =
-                        getApplicableTransitions(currentConfiguration);
-
-                // For each applicable transition, generate a new configuration from applying the
-                // transition and a new computation that ends with the new configuration. Then,
-                // add this new computation to the open list.
-                for (PDATransition transition : applicableTransitions) {
-                    PDAConfiguration newConfiguration = applyTransition(currentConfiguration,
-                            transition);
-                    ArrayList<PDAConfiguration> newComputation = new ArrayList<>(current);
-                    newComputation.add(newConfiguration);
-                    openList.push(newComputation);
-                }
-            }
-        }
+        // of the input string. Every configuration reached from it shares the same input string.
+        return new PDAConfiguration(stack, initialState, 0, inputString);
     }
 
     /**
@@ -741,26 +969,54 @@ public class PDA {
      */
     public ArrayList<PDATransition> getApplicableTransitions(PDAConfiguration configuration) {
         ArrayList<PDATransition> applicableTransitions = new ArrayList<>();
-        // Only need to consider the transitions for the current state of the configuration
-        List<PDATransition> stateTransitions = getTransitionsForState(configuration.getState());
-        for (PDATransition transition : stateTransitions) {
-            String inputSymbol = configuration.getInputSymbol();
-            Stack<String> stack = configuration.getStack();
-            // Check if the input symbol matches - it can match either if it is empty or if they
-            // are equal. If inputSymbol is null (due to the entire string being consumed or the
-            // input string being the empty string), then a transition is only potentially
-            // applicable if its input symbol is empty.
-            if (transition.getInputSymbol().isEmpty() ||
-                    transition.getInputSymbol().equals(inputSymbol)) {
-                String popString = transition.getPopString();
-                // Check if the current stack has the pop string of the transition
-                if (stackHasPopString(stack, popString)) {
-                    applicableTransitions.add(transition);
-                }
+        collectApplicableTransitions(configuration.getState(), configuration.getStack(),
+                configuration.getInputSymbol(), applicableTransitions);
+        return applicableTransitions;
+    }
+
+    /**
+     * Stores all PDATransitions that can be applied given a state, a stack and an input symbol in
+     * the provided list. Only the transitions for the given state need to be considered and these
+     * are looked up in the pop string trie for that state, which finds every transition whose pop
+     * string is on the top of the stack with a single walk down the stack. The trie is built the
+     * first time the state is looked up after the transitions change.
+     *
+     * @param state                 The current state.
+     * @param stack                 The stack, with the top of the stack at the end of the list.
+     * @param inputSymbol           The current input symbol, or null if the input string has been
+     *                              exhausted.
+     * @param applicableTransitions The list to store the applicable transitions in, in the order
+     *                              they were defined in. Any previous contents are cleared.
+     */
+    void collectApplicableTransitions(String state, List<String> stack, String inputSymbol,
+                                      ArrayList<PDATransition> applicableTransitions) {
+        PopStringTrie popStringTrie = popStringTries.get(state);
+        if (popStringTrie == null) {
+            // A snapshot already has a trie for each of its states, so the state has no
+            // transitions. Nothing is cached so that the snapshot is never changed.
+            if (snapshot) {
+                applicableTransitions.clear();
+                return;
             }
+            popStringTrie = new PopStringTrie(getTransitionsForState(state));
+            popStringTries.put(state, popStringTrie);
         }
+        popStringTrie.collectApplicableTransitions(stack, inputSymbol, applicableTransitions);
+    }
 
-        return applicableTransitions;
+    /**
+     * Stores all PDATransitions that can be applied from a given MutableConfiguration in the
+     * provided list. The list is cleared first and can be reused between calls, so this does not
+     * create any new objects once the pop string trie for the state has been built.
+     *
+     * @param configuration         The configuration for which we are generating the applicable
+     *                              transitions.
+     * @param applicableTransitions The list to store the applicable transitions in.
+     */
+    public void getApplicableTransitions(MutableConfiguration configuration,
+                                         ArrayList<PDATransition> applicableTransitions) {
+        collectApplicableTransitions(configuration.getState(), configuration.getStack(),
+                configuration.getInputSymbol(), applicableTransitions);
     }
 
     /**
@@ -773,31 +1029,7 @@ public class PDA {
      */
     public PDAConfiguration applyTransition(PDAConfiguration configuration,
                                             PDATransition transition) {
-        String newState = transition.getNewState();
-        int newIndex = configuration.getIndex();
-        // Use a copy of the stack to prevent modifying the actual stack of the configuration
-        Stack<String> newStack = (Stack<String>) configuration.getStack().clone();
-
-        // If this transition consumes an input symbol from the tape, then increase the index of
-        // the new configuration to point to the next input symbol
-        if (!transition.getInputSymbol().isEmpty()) {
-            newIndex += 1;
-        }
-        // If the transition pops a non-empty string from the stack, pop the string from the stack
-        if (!transition.getPopString().isEmpty()) {
-            for (int i = 0; i < transition.getPopString().length(); i++) {
-                newStack.pop();
-            }
-        }
-        // If the transition pushes a non-empty string to the stack, push the string to the stack
-        // in reverse order
-        if (!transition.getPushString().isEmpty()) {
-            for (int i = transition.getPushString().length() - 1; i >= 0; i--) {
-                newStack.push(String.valueOf(transition.getPushString().charAt(i)));
-            }
-        }
-
-        return new PDAConfiguration(newStack, newState, newIndex);
+        return configuration.applyTransition(transition);
     }
 
     /**
@@ -816,63 +1048,53 @@ public class PDA {
     public boolean isAcceptingConfiguration(PDAConfiguration configuration) {
         // If the input string has not been exhausted, then this cannot possibly be an accepting
         // configuration
-        if (configuration.getIndex() < PDAConfiguration.getInputString().length()) {
+        if (configuration.getRemainingInputLength() > 0) {
             return false;
         }
 
+        return isAccepting(configuration.getState(), configuration.getStack().isEmpty());
+    }
+
+    /**
+     * Checks if a MutableConfiguration is an accepting configuration. The rules are the same as
+     * for a PDAConfiguration.
+     *
+     * @param configuration The configuration being checked
+     * @return True if the configuration is an accepting configuration and false otherwise.
+     */
+    public boolean isAcceptingConfiguration(MutableConfiguration configuration) {
+        if (configuration.getIndex() < configuration.getInputString().length()) {
+            return false;
+        }
+        return isAccepting(configuration.getState(), configuration.getStack().isEmpty());
+    }
+
+    /**
+     * Checks whether a configuration that has consumed all of the input string is accepting
+     * according to the acceptance criteria.
+     *
+     * @param state      The state of the configuration.
+     * @param stackEmpty Whether the stack of the configuration is empty.
+     * @return True if such a configuration is accepting and false otherwise.
+     */
+    boolean isAccepting(String state, boolean stackEmpty) {
         if (acceptanceCriteria == AcceptanceCriteria.ACCEPTING_STATE) {
-            if (acceptingStates.contains(configuration.getState())) {
+            if (acceptingStates.contains(state)) {
                 return true;
             }
         }
         if (acceptanceCriteria == AcceptanceCriteria.EMPTY_STACK) {
-            if (configuration.getStack().isEmpty()) {
+            if (stackEmpty) {
                 return true;
             }
         }
         if (acceptanceCriteria == AcceptanceCriteria.BOTH) {
-            return acceptingStates.contains(configuration.getState()) &&
-                    configuration.getStack().isEmpty();
+            return acceptingStates.contains(state) && stackEmpty;
         }
 
         return false;
     }
 
-    /**
-     * Checks if a stack contains a given string (the string to be popped from the stack). If the
-     * pop string is "abc" for example, then the stack contains that pop string if the top of the
-     * stack is "a", the second element of the stack is "b" and the third element is "c". When "abc"
-     * would have been pushed to the stack, it would have been pushed in reverse order.
-     *
-     * @param stack     The stack
-     * @param popString The string that needs to be popped from the stack
-     * @return True if and only if the stack contains the pop string
-     */
-    private boolean stackHasPopString(Stack<String> stack, String popString) {
-        // The contents of the stack are irrelevant if the pop string is empty
-        if (popString.isEmpty()) {
-            return true;
-        }
-        // Work on a copy of the stack to ensure the original stack is not altered
-        Stack<String> copy = (Stack<String>) stack.clone();
-        StringBuilder stackTopString = new StringBuilder();
-
-        // The stack cannot possibly contain the pop string if it contains fewer elements than
-        // the string's length
-        if (copy.size() < popString.length()) {
-            return false;
-        }
-
-        // Iterate through the pop string and build up the corresponding string of stack symbols
-        // at the top of the stack
-        for (int i = 0; i < popString.length(); i++) {
-            String top = copy.pop();
-            stackTopString.append(top);
-        }
-
-        return stackTopString.toString().equals(popString);
-    }
-
     /**
      * Generates a random computation for a given input string. It works by repeatedly applying
      * applicable transitions for the current configuration until there are no more applicable
@@ -971,14 +1193,16 @@ public class PDA {
     @Override
     public String toString() {
         return "{states=" + states + ", transitions=" + transitions + ", initialState=" +
-                initialState.get() + ", acceptingStates=" + acceptingStates +
+                initialState + ", acceptingStates=" + acceptingStates +
                 ", initialStackSymbol=" + initialStackSymbol +
                 ", acceptanceCriteria=" + acceptanceCriteria + '}';
     }
 
     /**
      * Checks if this PDA is equal to the given object. Checks all the relevant pieces of
-     * information (those used in the toString() method).
+     * information (those used in the toString() method). Equal PDAs always have the same
+     * fingerprint, so PDAs with different fingerprints are told apart without comparing anything
+     * else.
      *
      * @param other The other object being checked for equality.
      * @return True if the given object is an identical PDA and false otherwise.
@@ -992,32 +1216,100 @@ public class PDA {
             return false;
         }
         PDA pda = (PDA) other;
+        if (fingerprint != pda.fingerprint) {
+            return false;
+        }
 
         return Objects.equals(initialStackSymbol, pda.initialStackSymbol) &&
                 transitions.equals(pda.transitions) && states.equals(pda.states) &&
-                Objects.equals(initialState.get(), pda.initialState.get()) &&
+                Objects.equals(initialState, pda.initialState) &&
                 acceptingStates.equals(pda.acceptingStates) &&
                 acceptanceCriteria.equals(pda.acceptanceCriteria);
     }
 
     /**
-     * Uses the relevant parts of this PDA to generate the hash code.
+     * Generates the hash code of this PDA from its fingerprint, which is kept up to date as the
+     * PDA changes, so nothing needs to be hashed.
      *
      * @return The hash code for this PDA object.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(initialStackSymbol, transitions, states, initialState,
-                acceptingStates, acceptanceCriteria);
+        return Long.hashCode(fingerprint);
+    }
+
+    /**
+     * Gets a 64-bit fingerprint of the structure of this PDA, covering the same information as
+     * the toString() method except for the order the states, transitions and accepting states
+     * were added in. The fingerprint is updated whenever the PDA changes, so getting it takes
+     * constant time, and a PDA that is changed and then changed back gets its old fingerprint
+     * back. PDAs with different fingerprints are never equal, while PDAs with the same fingerprint
+     * are equal apart from the order of their states, transitions and accepting states, except in
+     * the rare case of a hash collision.
+     *
+     * @return The fingerprint.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Hashes a transition for the fingerprint.
+     *
+     * @param transition The transition.
+     * @return The hash of the transition.
+     */
+    private static long hashTransition(PDATransition transition) {
+        return hash64("transition", transition.getCurrentState(), transition.getInputSymbol(),
+                transition.getPopString(), transition.getPushString(), transition.getNewState());
+    }
+
+    /**
+     * Hashes a part of the PDA with a single value for the fingerprint.
+     *
+     * @param kind  The kind of part being hashed.
+     * @param value The value of the part, which can be null.
+     * @return The hash.
+     */
+    private static long hashValue(String kind, String value) {
+        return hash64(kind, new String[]{value});
+    }
+
+    /**
+     * Hashes a part of the PDA for the fingerprint. The kind of part is hashed along with its
+     * values, so that, for example, a state and an accepting state with the same name have
+     * different hashes. The values are hashed with 64-bit FNV-1a and the result is mixed with the
+     * SplitMix64 finaliser, so that summing the hashes of the parts does not cancel out bits.
+     *
+     * @param kind   The kind of part being hashed.
+     * @param values The values of the part, any of which can be null.
+     * @return The hash.
+     */
+    private static long hash64(String kind, String... values) {
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ kind.hashCode()) * 0x100000001b3L;
+        for (String value : values) {
+            // Separate the values so that moving characters between them changes the hash, and
+            // hash null differently from every string
+            hash = (hash ^ (value == null ? 0x10000 : 0x10001)) * 0x100000001b3L;
+            if (value != null) {
+                for (int i = 0; i < value.length(); i++) {
+                    hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+                }
+            }
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
     }
 
     /**
-     * Gets the initial state of this PDA from the SimpleStringProperty initialState.
+     * Gets the initial state of this PDA.
      *
      * @return The initial state of this PDA.
      */
     public String getInitialState() {
-        return initialState.get();
+        return initialState;
     }
 
     /**
@@ -1031,12 +1323,13 @@ public class PDA {
     }
 
     /**
-     * Gets the list of accepting states of this PDA.
+     * Gets the list of accepting states of this PDA. The list cannot be modified directly, but it
+     * reflects later changes to the PDA.
      *
      * @return The list of accepting states of this PDA.
      */
-    public ArrayList<String> getAcceptingStates() {
-        return acceptingStates;
+    public List<String> getAcceptingStates() {
+        return Collections.unmodifiableList(acceptingStates);
     }
 
     /**
@@ -1049,11 +1342,12 @@ public class PDA {
     }
 
     /**
-     * Gets the transitions that cause nondeterminism.
+     * Gets the transitions that cause nondeterminism. The set cannot be modified directly, but it
+     * reflects later changes to the PDA.
      *
      * @return The set of transitions that cause nondeterminism.
      */
-    public HashSet<PDATransition> getNondeterministicTransitions() {
-        return nondeterministicTransitions;
+    public Set<PDATransition> getNondeterministicTransitions() {
+        return Collections.unmodifiableSet(nondeterministicTransitions);
     }
 }
@@ -7,6 +7,11 @@ import java.util.Stack;
  * This class represents a configuration of a PDA. It contains the current state, the current stack,
  * the full input string the PDA is being run on and an index into the input string to indicate the
  * current input symbol of the configuration.
+ * <p>
+ * Every configuration holds a reference to the input string of its run, and the configurations
+ * created from it by applying transitions share that reference, so configurations for different
+ * input strings can be used on different threads at once. The static input string is only used as
+ * the input string of configurations created without one.
  *
  * @author Savraj Bassi
  */
@@ -17,21 +22,56 @@ public class PDAConfiguration {
     private final String state;
     // The index of the current input symbol of this PDA configuration
     private final int index;
-    // Static variable holding the inputString so that all PDAConfiguration objects can share the
-    // same string
-    private static String inputString;
+    // The input string of the run this configuration belongs to
+    private final String inputString;
+    // Each symbol of the inputString as a separate String so that looking up the current input
+    // symbol does not create a new String every time. Shared by every configuration of the run.
+    private final String[] inputSymbols;
+    // The input string used by configurations that are created without one
+    private static String defaultInputString;
+    // Each symbol of the default input string as a separate String
+    private static String[] defaultInputSymbols;
 
     /**
-     * Creates a PDAConfiguration given the stack, state and index.
+     * Creates a PDAConfiguration given the stack, state and index. The input string is the one
+     * most recently set with setInputString.
      *
      * @param stack The stack for this configuration.
      * @param state The state for this configuration.
      * @param index The index for this configuration.
      */
     public PDAConfiguration(Stack<String> stack, String state, int index) {
+        this(stack, state, index, defaultInputString, defaultInputSymbols);
+    }
+
+    /**
+     * Creates a PDAConfiguration given the stack, state, index and the input string of its run.
+     *
+     * @param stack       The stack for this configuration.
+     * @param state       The state for this configuration.
+     * @param index       The index for this configuration.
+     * @param inputString The input string the PDA is being run on.
+     */
+    public PDAConfiguration(Stack<String> stack, String state, int index, String inputString) {
+        this(stack, state, index, inputString, splitIntoSymbols(inputString));
+    }
+
+    /**
+     * Creates a PDAConfiguration that shares the split input string of another configuration.
+     *
+     * @param stack        The stack for this configuration.
+     * @param state        The state for this configuration.
+     * @param index        The index for this configuration.
+     * @param inputString  The input string the PDA is being run on.
+     * @param inputSymbols Each symbol of the input string as a separate String.
+     */
+    private PDAConfiguration(Stack<String> stack, String state, int index, String inputString,
+                             String[] inputSymbols) {
         this.stack = stack;
         this.state = state;
         this.index = index;
+        this.inputString = inputString;
+        this.inputSymbols = inputSymbols;
     }
 
     /**
@@ -62,15 +102,15 @@ public class PDAConfiguration {
     }
 
     /**
-     * Gets the current input symbol of this configuration by using the index and the static
-     * inputString field.
+     * Gets the current input symbol of this configuration by using the index and the input string
+     * of this configuration.
      *
      * @return The current input symbol of the input string or null if the string has been
      * exhausted.
      */
     public String getInputSymbol() {
-        if (index < inputString.length()) {
-            return String.valueOf(inputString.charAt(index));
+        if (inputString != null && index < inputString.length()) {
+            return inputSymbols[index];
         }
         // If the index is not less than the length of the input string, the entire input string
         // has been consumed (and so there is no current input symbol) or the input string is the
@@ -81,21 +121,90 @@ public class PDAConfiguration {
     }
 
     /**
-     * Sets the static inputString field so all PDAConfigurations can use it.
+     * Gets the number of input symbols this configuration still has to read.
+     *
+     * @return The number of unread input symbols.
+     */
+    public int getRemainingInputLength() {
+        return inputString == null ? 0 : Math.max(0, inputString.length() - index);
+    }
+
+    /**
+     * Gets the full input string of the run this configuration belongs to.
+     *
+     * @return The input string the PDA is being run on.
+     */
+    public String getFullInputString() {
+        return inputString;
+    }
+
+    /**
+     * Sets the input string used by PDAConfigurations that are created without one.
      *
      * @param inputString The input string the PDA is to be run on.
      */
     public static void setInputString(String inputString) {
-        PDAConfiguration.inputString = inputString;
+        PDAConfiguration.defaultInputString = inputString;
+        PDAConfiguration.defaultInputSymbols = splitIntoSymbols(inputString);
+    }
+
+    /**
+     * Returns the PDAConfiguration obtained by applying the given transition to this
+     * configuration. This configuration is left unchanged.
+     *
+     * @param transition The transition that is being applied
+     * @return The new PDAConfiguration
+     */
+    PDAConfiguration applyTransition(PDATransition transition) {
+        String newState = transition.getNewState();
+        int newIndex = index;
+        // Use a copy of the stack to prevent modifying the actual stack of this configuration
+        Stack<String> newStack = (Stack<String>) stack.clone();
+
+        // If the transition consumes an input symbol from the tape, then increase the index of
+        // the new configuration to point to the next input symbol
+        if (!transition.getInputSymbol().isEmpty()) {
+            newIndex += 1;
+        }
+        // If the transition pops a non-empty string from the stack, pop the string from the stack
+        for (int i = 0; i < transition.getPopSymbols().length; i++) {
+            newStack.pop();
+        }
+        // If the transition pushes a non-empty string to the stack, push the string to the stack
+        // in reverse order
+        String[] pushSymbols = transition.getPushSymbols();
+        for (int i = pushSymbols.length - 1; i >= 0; i--) {
+            newStack.push(pushSymbols[i]);
+        }
+
+        return new PDAConfiguration(newStack, newState, newIndex, inputString, inputSymbols);
+    }
+
+    /**
+     * Splits a string of input symbols or stack symbols into an array of its individual symbols.
+     *
+     * @param string The string (which can be null).
+     * @return An array containing each symbol of the string as a separate String, or null if the
+     * string is null.
+     */
+    static String[] splitIntoSymbols(String string) {
+        if (string == null) {
+            return null;
+        }
+        String[] symbols = new String[string.length()];
+        for (int i = 0; i < string.length(); i++) {
+            symbols[i] = String.valueOf(string.charAt(i));
+        }
+        return symbols;
     }
 
     /**
-     * Gets the input string the PDA is to be run on.
+     * Gets the input string used by PDAConfigurations that are created without one.
      *
      * @return The input string the PDA is to be run on.
      */
     public static String getInputString() {
-        return inputString;
+        return defaultInputString;
     }
 
     /**
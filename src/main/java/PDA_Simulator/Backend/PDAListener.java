@@ -0,0 +1,75 @@
+package PDA_Simulator.Backend;
+
+/**
+ * Interface for receiving notifications of changes to a PDA. Every method does nothing by
+ * default, so a listener only needs to override the methods for the changes it is interested in.
+ * Listeners are notified on the thread that changed the PDA, after the change has been made. When
+ * several transitions are removed at once (for example, when a state is deleted), listeners are
+ * notified of each removal in turn once all of them have been made, with the index each
+ * transition had after the transitions before it were removed.
+ */
+
+public interface PDAListener {
+    /**
+     * Called when a state is added.
+     *
+     * @param index The position of the new state in the list of states.
+     * @param state The name of the new state.
+     */
+    default void stateAdded(int index, String state) {
+    }
+
+    /**
+     * Called when a state is removed.
+     *
+     * @param index The position the state had in the list of states.
+     * @param state The name of the removed state.
+     */
+    default void stateRemoved(int index, String state) {
+    }
+
+    /**
+     * Called when a state is renamed. The transitions of the state are replaced separately.
+     *
+     * @param index   The position of the state in the list of states.
+     * @param oldName The old name of the state.
+     * @param newName The new name of the state.
+     */
+    default void stateRenamed(int index, String oldName, String newName) {
+    }
+
+    /**
+     * Called when a transition is added.
+     *
+     * @param index      The position of the new transition in the list of transitions.
+     * @param transition The new transition.
+     */
+    default void transitionAdded(int index, PDATransition transition) {
+    }
+
+    /**
+     * Called when a transition is removed.
+     *
+     * @param index      The position the transition had in the list of transitions.
+     * @param transition The removed transition.
+     */
+    default void transitionRemoved(int index, PDATransition transition) {
+    }
+
+    /**
+     * Called when the initial state changes.
+     *
+     * @param oldState The old initial state, or null if there was none.
+     * @param newState The new initial state, or null if there is none.
+     */
+    default void initialStateChanged(String oldState, String newState) {
+    }
+
+    /**
+     * Called when the PDA becomes deterministic or nondeterministic.
+     *
+     * @param deterministic Whether the PDA is now deterministic.
+     */
+    default void deterministicChanged(boolean deterministic) {
+    }
+}
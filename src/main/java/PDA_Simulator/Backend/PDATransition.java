@@ -17,6 +17,10 @@ public class PDATransition {
     private final String popString;
     private final String pushString;
     private final String newState;
+    // The individual stack symbols of the pop string and the push string. These are worked out
+    // once so that running the PDA does not need to create a new String for every symbol.
+    private final String[] popSymbols;
+    private final String[] pushSymbols;
 
     /**
      * Creates a PDATransition given the values of the five fields.
@@ -34,6 +38,8 @@ public class PDATransition {
         this.popString = popString;
         this.pushString = pushString;
         this.newState = newState;
+        popSymbols = PDAConfiguration.splitIntoSymbols(popString);
+        pushSymbols = PDAConfiguration.splitIntoSymbols(pushString);
     }
 
     /**
@@ -74,6 +80,8 @@ public class PDATransition {
 
         // What is left is the new state part of the string.
         newState = transition.toString();
+        popSymbols = PDAConfiguration.splitIntoSymbols(popString);
+        pushSymbols = PDAConfiguration.splitIntoSymbols(pushString);
     }
 
     /**
@@ -121,6 +129,26 @@ public class PDATransition {
         return newState;
     }
 
+    /**
+     * Gets the individual symbols of the pop string of this PDATransition, with the symbol that
+     * must be on the top of the stack first. The returned array must not be modified.
+     *
+     * @return The symbols of the pop string.
+     */
+    String[] getPopSymbols() {
+        return popSymbols;
+    }
+
+    /**
+     * Gets the individual symbols of the push string of this PDATransition, with the symbol that
+     * ends up on the top of the stack first. The returned array must not be modified.
+     *
+     * @return The symbols of the push string.
+     */
+    String[] getPushSymbols() {
+        return pushSymbols;
+    }
+
     /**
      * Generates a string representing the PDATransition. An example of a string is:
      * "{(q0,,A) -> (,q1)}".
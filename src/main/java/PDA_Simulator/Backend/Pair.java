@@ -0,0 +1,87 @@
+package PDA_Simulator.Backend;
+
+import java.util.Objects;
+
+/**
+ * A pair of values. This is used to return two values from a method, in the same way as the Pair
+ * class of JavaFX, so that the backend does not depend on JavaFX.
+ *
+ * @param <K> The type of the first value.
+ * @param <V> The type of the second value.
+ */
+
+public class Pair<K, V> {
+    // The first value
+    private final K key;
+    // The second value
+    private final V value;
+
+    /**
+     * Creates a pair.
+     *
+     * @param key   The first value.
+     * @param value The second value.
+     */
+    public Pair(K key, V value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * Gets the first value of this pair.
+     *
+     * @return The first value.
+     */
+    public K getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the second value of this pair.
+     *
+     * @return The second value.
+     */
+    public V getValue() {
+        return value;
+    }
+
+    /**
+     * Generates a string representing this pair in the same format as the Pair class of JavaFX,
+     * for example "key=value".
+     *
+     * @return A string representation of this pair.
+     */
+    @Override
+    public String toString() {
+        return key + "=" + value;
+    }
+
+    /**
+     * Checks if this pair is equal to another object, which requires the other object to be a
+     * pair with equal values.
+     *
+     * @param other The other object being checked for equality.
+     * @return True if the given object is an equal pair and false otherwise.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        Pair<?, ?> pair = (Pair<?, ?>) other;
+        return Objects.equals(key, pair.key) && Objects.equals(value, pair.value);
+    }
+
+    /**
+     * Uses both values to generate the hash code.
+     *
+     * @return The hash code for this pair.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, value);
+    }
+}
@@ -0,0 +1,119 @@
+package PDA_Simulator.Backend;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This class organises the transitions belonging to a single state into a trie over their pop
+ * strings. Each node of the trie corresponds to a string of stack symbols and stores the
+ * transitions whose pop string is exactly that string, so the root node stores the transitions
+ * that do not pop anything. Walking down the trie from the root while reading the stack from the
+ * top downwards therefore finds every transition whose pop string is on the top of the stack in a
+ * single pass, without copying the stack or building up any strings.
+ */
+
+class PopStringTrie {
+    // The root node of the trie. It holds the transitions with an empty pop string.
+    private final Node root = new Node();
+    // The position of each transition in the list of transitions of the state. This is used to
+    // return applicable transitions in the same order that they were defined in.
+    private final HashMap<PDATransition, Integer> definitionIndices = new HashMap<>();
+    // Compares transitions by the position they were defined in
+    private final Comparator<PDATransition> definitionOrder;
+
+    /**
+     * A node of the trie. The children are keyed by the stack symbol that leads to them.
+     */
+    private static class Node {
+        // The child nodes of this node
+        private final HashMap<String, Node> children = new HashMap<>();
+        // The transitions whose pop string leads from the root to this node
+        private final ArrayList<PDATransition> transitions = new ArrayList<>();
+    }
+
+    /**
+     * Creates a PopStringTrie from the transitions of a single state.
+     *
+     * @param stateTransitions The transitions of the state, in the order they were defined in.
+     */
+    PopStringTrie(List<PDATransition> stateTransitions) {
+        for (int i = 0; i < stateTransitions.size(); i++) {
+            PDATransition transition = stateTransitions.get(i);
+            definitionIndices.put(transition, i);
+            addTransition(transition);
+        }
+        definitionOrder = Comparator.comparingInt(definitionIndices::get);
+    }
+
+    /**
+     * Adds a transition to the node that corresponds to its pop string, creating any nodes along
+     * the way that do not exist yet.
+     *
+     * @param transition The transition being added.
+     */
+    private void addTransition(PDATransition transition) {
+        String popString = transition.getPopString();
+        Node node = root;
+        for (int i = 0; i < popString.length(); i++) {
+            String symbol = String.valueOf(popString.charAt(i));
+            Node child = node.children.get(symbol);
+            if (child == null) {
+                child = new Node();
+                node.children.put(symbol, child);
+            }
+            node = child;
+        }
+        node.transitions.add(transition);
+    }
+
+    /**
+     * Finds every transition in this trie that can be applied given the stack and the current
+     * input symbol, and stores them in the given list in the order they were defined in. The
+     * stack is read from the top (the last element of the list) downwards, one trie level per
+     * stack symbol, stopping as soon as there is no child for the next symbol.
+     *
+     * @param stack                 The stack, with the top of the stack at the end of the list.
+     * @param inputSymbol           The current input symbol, or null if the input has been
+     *                              exhausted.
+     * @param applicableTransitions The list the applicable transitions are stored in. Any
+     *                              previous contents are cleared.
+     */
+    void collectApplicableTransitions(List<String> stack, String inputSymbol,
+                                      ArrayList<PDATransition> applicableTransitions) {
+        applicableTransitions.clear();
+        // The number of nodes that contributed at least one transition. If this is more than one,
+        // the transitions need to be put back into the order they were defined in.
+        int matchingNodes = 0;
+        Node node = root;
+        int stackIndex = stack.size();
+
+        while (node != null) {
+            int previousSize = applicableTransitions.size();
+            // Use an index rather than an iterator so that no objects are allocated
+            for (int i = 0; i < node.transitions.size(); i++) {
+                PDATransition transition = node.transitions.get(i);
+                // The pop string is known to be on the top of the stack, so the transition is
+                // applicable as long as the input symbol matches.
+                if (transition.getInputSymbol().isEmpty() ||
+                        transition.getInputSymbol().equals(inputSymbol)) {
+                    applicableTransitions.add(transition);
+                }
+            }
+            if (applicableTransitions.size() > previousSize) {
+                matchingNodes++;
+            }
+            // Stop once the bottom of the stack is reached
+            if (stackIndex == 0) {
+                break;
+            }
+            stackIndex--;
+            node = node.children.get(stack.get(stackIndex));
+        }
+
+        if (matchingNodes > 1) {
+            applicableTransitions.sort(definitionOrder);
+        }
+    }
+}
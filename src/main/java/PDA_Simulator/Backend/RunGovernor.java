@@ -0,0 +1,164 @@
+package PDA_Simulator.Backend;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * This class bounds how much a run of a ComputationSearch is allowed to cost. Rather than only
+ * counting configurations, a run can also be bounded by a wall-clock time limit and by how much
+ * the used heap grows while it runs, since the same number of configurations can take very
+ * different amounts of time and memory depending on how deep the stack gets and how much the
+ * computation tree branches. When one of the budgets runs out, the search stops in the same way
+ * as when it reaches the total step limit, so it keeps the accepting computations found so far
+ * (rather than running out of memory) and can be resumed. The budget that ran out can be checked
+ * afterwards with getExhaustedBudget.
+ * <p>
+ * Every limit applies to a single run, starting from when the run starts. The time and memory
+ * budgets are only checked every so often, so a run can go slightly over them. The used heap is
+ * sampled from the MemoryMXBean and includes garbage that has not been collected yet, so the
+ * memory budget is a conservative one.
+ */
+
+public class RunGovernor {
+    /**
+     * The budgets that can stop a run.
+     */
+    public enum Budget {
+        TIME,
+        MEMORY,
+        CONFIGURATIONS
+    }
+
+    // The bean the used heap is sampled from
+    private static final MemoryMXBean MEMORY_BEAN = ManagementFactory.getMemoryMXBean();
+    // The longest a run can take in milliseconds
+    private long timeLimit = Long.MAX_VALUE;
+    // The most the used heap can grow by during a run, in bytes
+    private long memoryLimit = Long.MAX_VALUE;
+    // The most configurations a run can explore
+    private long configurationLimit = Long.MAX_VALUE;
+    // The time the current run started, as given by System.nanoTime
+    private long startTime = 0;
+    // The used heap when the current run started, in bytes
+    private long startMemory = 0;
+    // The budget that stopped the most recent run, or null if none did
+    private Budget exhaustedBudget = null;
+
+    /**
+     * Creates a governor with no limits.
+     */
+    public RunGovernor() {
+    }
+
+    /**
+     * Creates a governor that only limits the number of configurations a run can explore, which is
+     * how runs were bounded before time and memory budgets were available.
+     *
+     * @param configurationLimit The most configurations a run can explore.
+     * @return The governor.
+     */
+    public static RunGovernor ofConfigurations(long configurationLimit) {
+        RunGovernor governor = new RunGovernor();
+        governor.setConfigurationLimit(configurationLimit);
+        return governor;
+    }
+
+    /**
+     * Sets the longest a run can take.
+     *
+     * @param timeLimit The time limit in milliseconds.
+     */
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * Gets the longest a run can take.
+     *
+     * @return The time limit in milliseconds, or Long.MAX_VALUE if there is no limit.
+     */
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * Sets the most the used heap can grow by during a run.
+     *
+     * @param memoryLimit The memory limit in bytes.
+     */
+    public void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * Gets the most the used heap can grow by during a run.
+     *
+     * @return The memory limit in bytes, or Long.MAX_VALUE if there is no limit.
+     */
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    /**
+     * Sets the most configurations a run can explore.
+     *
+     * @param configurationLimit The configuration limit.
+     */
+    public void setConfigurationLimit(long configurationLimit) {
+        this.configurationLimit = configurationLimit;
+    }
+
+    /**
+     * Gets the most configurations a run can explore.
+     *
+     * @return The configuration limit, or Long.MAX_VALUE if there is no limit.
+     */
+    public long getConfigurationLimit() {
+        return configurationLimit;
+    }
+
+    /**
+     * Gets the budget that stopped the most recent run.
+     *
+     * @return The budget that ran out, or null if the run was not stopped by any of them.
+     */
+    public Budget getExhaustedBudget() {
+        return exhaustedBudget;
+    }
+
+    /**
+     * Records the time and used heap at the start of a run.
+     */
+    void start() {
+        startTime = System.nanoTime();
+        startMemory = MEMORY_BEAN.getHeapMemoryUsage().getUsed();
+        exhaustedBudget = null;
+    }
+
+    /**
+     * Records that the configuration budget stopped the run.
+     */
+    void configurationLimitReached() {
+        exhaustedBudget = Budget.CONFIGURATIONS;
+    }
+
+    /**
+     * Checks whether the time or memory budget has run out, recording it as the budget that
+     * stopped the run if so.
+     *
+     * @return True if the time or memory budget has run out and false otherwise.
+     */
+    boolean resourcesExhausted() {
+        if (timeLimit != Long.MAX_VALUE &&
+                (System.nanoTime() - startTime) / 1_000_000 >= timeLimit) {
+            exhaustedBudget = Budget.TIME;
+            return true;
+        }
+        if (memoryLimit != Long.MAX_VALUE &&
+                MEMORY_BEAN.getHeapMemoryUsage().getUsed() - startMemory >= memoryLimit) {
+            exhaustedBudget = Budget.MEMORY;
+            return true;
+        }
+        return false;
+    }
+}
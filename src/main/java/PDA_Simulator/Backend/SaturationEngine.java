@@ -0,0 +1,665 @@
+package PDA_Simulator.Backend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+
+/**
+ * This class decides whether a PDA accepts an input string by treating the PDA as a pushdown
+ * system rather than by exploring its computations one at a time. The position in the input string
+ * is encoded in the control state, so the control state (q, i) means that the PDA is in state q and
+ * has consumed the first i input symbols. The set of configurations reachable from the initial
+ * configuration is infinite in general (e.g. when there is a cycle of epsilon transitions that
+ * pushes to the stack), but it is always regular and can be represented by a finite automaton over
+ * the stack contents. That automaton is computed by the post* saturation procedure, which only
+ * ever adds transitions to a finite set of states and therefore always terminates, in time
+ * polynomial in the size of the PDA and the length of the input string.
+ * <p>
+ * Saturation works on rules that replace the symbol on the top of the stack with at most two
+ * symbols, so each PDATransition is first broken down into a chain of such rules. A bottom of stack
+ * marker is placed underneath the initial stack so that transitions that pop nothing and the empty
+ * stack acceptance criteria can be handled as well. Every automaton transition is weighted by the
+ * number of PDATransitions needed to reach it and transitions are added in order of increasing
+ * weight, so the first accepting configuration found is reached by a shortest computation. Each
+ * automaton transition remembers how it was created, which is used to reconstruct that shortest
+ * computation afterwards.
+ */
+
+public class SaturationEngine implements ComputationEngine {
+    // The symbol used for epsilon transitions of the automaton
+    private static final int EPSILON = -1;
+    // The different ways an automaton transition can be created
+    private static final int INITIAL = 0;
+    private static final int RULE = 1;
+    private static final int PUSH_HEAD = 2;
+    private static final int PUSH_TAIL = 3;
+    private static final int COMBINE = 4;
+    // The number of bits given to an automaton state and to a stack symbol in the keys of the
+    // automaton transitions and rules. The key of an automaton transition holds two states and a
+    // symbol, so together they take up all 64 bits of a long.
+    private static final int STATE_BITS = 26;
+    private static final int SYMBOL_BITS = 12;
+    // The most automaton states there can be, so that every state fits in STATE_BITS bits
+    private static final int MAX_STATES = 1 << STATE_BITS;
+    // The most stack symbols there can be, so that every symbol including the bottom of stack
+    // marker and EPSILON fits in SYMBOL_BITS bits once one is added to it
+    private static final int MAX_STACK_SYMBOLS = (1 << SYMBOL_BITS) - 2;
+
+    // The PDA being run
+    private final PDA pda;
+    // The stack symbols of the PDA mapped to consecutive integers. The bottom of stack marker is
+    // given the integer after all of these.
+    private final HashMap<String, Integer> stackSymbols = new HashMap<>();
+    // The states of the PDA mapped to consecutive integers
+    private final HashMap<String, Integer> stateNumbers = new HashMap<>();
+    // The rules of the pushdown system, keyed by their control state and top of stack symbol
+    private final HashMap<Long, List<Rule>> rules = new HashMap<>();
+    // The transitions of the automaton that have been finalised, keyed by their three components
+    private final HashMap<Long, Edge> edges = new HashMap<>();
+    // The finalised non-epsilon transitions leaving each automaton state
+    private final HashMap<Integer, List<Edge>> outgoingEdges = new HashMap<>();
+    // The finalised epsilon transitions entering each automaton state
+    private final HashMap<Integer, List<Edge>> incomingEpsilonEdges = new HashMap<>();
+    // The automaton transitions waiting to be finalised, lightest first
+    private final PriorityQueue<Edge> worklist = new PriorityQueue<>(
+            Comparator.comparingInt((Edge edge) -> edge.weight).thenComparingInt(edge -> edge.id));
+    // The symbols of the input string being run
+    private String[] inputSymbols;
+    // The integer given to the bottom of stack marker
+    private int bottomOfStack;
+    // The number of automaton states created so far
+    private int stateCount;
+    // The number of automaton transitions created so far
+    private int edgeCount;
+    // The final state of the automaton
+    private int finalState;
+    // Whether cancel has been called since a run last stopped because of it. This is set from
+    // other threads.
+    private volatile boolean cancelRequested = false;
+
+    /**
+     * A rule of the pushdown system. When the control state is fromState and the top of the stack
+     * is fromSymbol, the rule replaces the top of the stack with the symbols in push (the first of
+     * which ends up on the top) and moves to toState.
+     */
+    private static class Rule {
+        private final int fromState;
+        private final int fromSymbol;
+        private final int toState;
+        private final int[] push;
+        // The PDATransition this rule starts simulating, or null if the rule continues simulating
+        // a PDATransition that was started by an earlier rule
+        private final PDATransition transition;
+        // The automaton state used for the second symbol when two symbols are pushed
+        private int middleState = -1;
+
+        private Rule(int fromState, int fromSymbol, int toState, int[] push,
+                     PDATransition transition) {
+            this.fromState = fromState;
+            this.fromSymbol = fromSymbol;
+            this.toState = toState;
+            this.push = push;
+            this.transition = transition;
+        }
+
+        /**
+         * Gets the number of PDATransitions that applying this rule counts as.
+         *
+         * @return 1 if this rule starts a PDATransition and 0 otherwise.
+         */
+        private int weight() {
+            return transition == null ? 0 : 1;
+        }
+    }
+
+    /**
+     * A transition of the automaton, together with the information about how it was created.
+     */
+    private static class Edge {
+        private final int from;
+        private final int symbol;
+        private final int to;
+        // The number of PDATransitions on a shortest computation that this transition is part of
+        private final int weight;
+        // A unique number so that transitions of equal weight are finalised in creation order
+        private final int id;
+        // How this transition was created and what from
+        private final int origin;
+        private final Rule rule;
+        private final Edge first;
+        private final Edge second;
+
+        private Edge(int from, int symbol, int to, int weight, int id, int origin, Rule rule,
+                     Edge first, Edge second) {
+            this.from = from;
+            this.symbol = symbol;
+            this.to = to;
+            this.weight = weight;
+            this.id = id;
+            this.origin = origin;
+            this.rule = rule;
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    /**
+     * Creates a SaturationEngine for the given PDA. The PDA is read every time an input string is
+     * run, so later changes to the PDA are taken into account.
+     *
+     * @param pda The PDA to run.
+     */
+    public SaturationEngine(PDA pda) {
+        this.pda = pda;
+    }
+
+    /**
+     * Checks if the PDA has any accepting computations at all on the given input string. If so,
+     * the shortest accepting computation is returned as a single element list.
+     *
+     * @param inputString   The input string the automaton is being run on.
+     * @param maxSteps      The maximum number of configurations the accepting computation may
+     *                      contain.
+     * @param maxTotalSteps Ignored since saturation always terminates.
+     * @return Null if the input string is rejected. Otherwise, a pair containing the shortest
+     * accepting computation and null if it is within the step limit or an empty list and true if
+     * the shortest accepting computation is longer than the step limit.
+     */
+    @Override
+    public Pair<ArrayList<Computation>, Boolean> getAcceptingComputations(
+            String inputString, int maxSteps, int maxTotalSteps) {
+        Computation computation = getShortestAcceptingComputation(inputString);
+        if (computation == null) {
+            return null;
+        }
+        ArrayList<Computation> acceptingComputations = new ArrayList<>();
+        if (computation.size() > maxSteps) {
+            return new Pair<>(acceptingComputations, true);
+        }
+        acceptingComputations.add(computation);
+        return new Pair<>(acceptingComputations, null);
+    }
+
+    /**
+     * Finds a shortest accepting computation of the PDA on the given input string.
+     *
+     * @param inputString The input string the automaton is being run on.
+     * @return A shortest accepting computation, or null if the input string is rejected.
+     */
+    public Computation getShortestAcceptingComputation(String inputString) {
+        List<PDATransition> transitions = getShortestAcceptingTransitions(inputString);
+        if (transitions == null) {
+            return null;
+        }
+        return new Computation(pda.getInitialConfiguration(inputString), transitions);
+    }
+
+    /**
+     * Checks if the PDA accepts the given input string.
+     *
+     * @param inputString The input string the automaton is being run on.
+     * @return True if the PDA has at least one accepting computation and false otherwise.
+     */
+    public boolean accepts(String inputString) {
+        return getShortestAcceptingTransitions(inputString) != null;
+    }
+
+    /**
+     * Asks the engine to stop the run in progress, which then throws a CancellationException. This
+     * can be called from any thread. If no run is in progress, the next run is stopped as soon as
+     * it starts.
+     */
+    public void cancel() {
+        cancelRequested = true;
+    }
+
+    /**
+     * Saturates the automaton for the given input string and finds the transitions applied by a
+     * shortest accepting computation. Unlike getShortestAcceptingComputation, this does not create
+     * any PDAConfigurations, which share the input string they are for, so it can be used by
+     * several engines on different threads at once.
+     *
+     * @param inputString The input string the automaton is being run on.
+     * @return The transitions applied by a shortest accepting computation in order, or null if
+     * there are no accepting computations.
+     * @throws IllegalArgumentException If the PDA has too many stack symbols, or the PDA and
+     *                                  input string need too many automaton states, for the
+     *                                  automaton transitions to be keyed by a long.
+     */
+    public List<PDATransition> getShortestAcceptingTransitions(String inputString) {
+        initialise(inputString);
+        saturate();
+        ArrayList<Edge> path = findAcceptingPath();
+        if (path == null) {
+            return null;
+        }
+        return reconstructTransitions(path);
+    }
+
+    /**
+     * Clears everything left over from a previous run and sets up the rules of the pushdown system
+     * and the initial automaton for the given input string.
+     *
+     * @param inputString The input string the automaton is being run on.
+     */
+    private void initialise(String inputString) {
+        stackSymbols.clear();
+        stateNumbers.clear();
+        rules.clear();
+        edges.clear();
+        outgoingEdges.clear();
+        incomingEpsilonEdges.clear();
+        worklist.clear();
+        edgeCount = 0;
+        inputSymbols = PDAConfiguration.splitIntoSymbols(inputString);
+
+        // Number all states and stack symbols that appear anywhere in the PDA
+        addState(pda.getInitialState());
+        for (String state : pda.getStates()) {
+            addState(state);
+        }
+        if (pda.getInitialStackSymbol() != null) {
+            addStackSymbol(pda.getInitialStackSymbol());
+        }
+        for (PDATransition transition : pda.getTransitions()) {
+            addState(transition.getCurrentState());
+            addState(transition.getNewState());
+            for (String symbol : transition.getPopSymbols()) {
+                addStackSymbol(symbol);
+            }
+            for (String symbol : transition.getPushSymbols()) {
+                addStackSymbol(symbol);
+            }
+        }
+        if (stackSymbols.size() > MAX_STACK_SYMBOLS) {
+            throw new IllegalArgumentException("The PDA has more than " + MAX_STACK_SYMBOLS +
+                    " stack symbols");
+        }
+        bottomOfStack = stackSymbols.size();
+        // The control states (q, i) take up the first automaton states
+        long controlStates = (long) stateNumbers.size() * (inputSymbols.length + 1);
+        if (controlStates > MAX_STATES) {
+            throw new IllegalArgumentException("The PDA has too many states for an input " +
+                    "string of length " + inputSymbols.length);
+        }
+        stateCount = (int) controlStates;
+
+        for (PDATransition transition : pda.getTransitions()) {
+            for (int i = 0; i <= inputSymbols.length; i++) {
+                addRules(transition, i);
+            }
+        }
+
+        // The initial automaton accepts just the initial stack followed by the bottom of stack
+        // marker from the initial control state
+        int initialState = controlState(pda.getInitialState(), 0);
+        finalState = newState();
+        if (pda.getInitialStackSymbol() != null) {
+            int middle = newState();
+            addEdge(initialState, stackSymbols.get(pda.getInitialStackSymbol()), middle, 0,
+                    INITIAL, null, null, null);
+            addEdge(middle, bottomOfStack, finalState, 0, INITIAL, null, null, null);
+        } else {
+            addEdge(initialState, bottomOfStack, finalState, 0, INITIAL, null, null, null);
+        }
+    }
+
+    /**
+     * Creates a new automaton state.
+     *
+     * @return The automaton state.
+     * @throws IllegalArgumentException If there are already as many automaton states as there can
+     *                                  be.
+     */
+    private int newState() {
+        if (stateCount == MAX_STATES) {
+            throw new IllegalArgumentException("The automaton needs more than " + MAX_STATES +
+                    " states");
+        }
+        return stateCount++;
+    }
+
+    /**
+     * Gives a number to a state if it does not already have one.
+     *
+     * @param state The state.
+     */
+    private void addState(String state) {
+        if (!stateNumbers.containsKey(state)) {
+            stateNumbers.put(state, stateNumbers.size());
+        }
+    }
+
+    /**
+     * Gives a number to a stack symbol if it does not already have one.
+     *
+     * @param symbol The stack symbol.
+     */
+    private void addStackSymbol(String symbol) {
+        if (!stackSymbols.containsKey(symbol)) {
+            stackSymbols.put(symbol, stackSymbols.size());
+        }
+    }
+
+    /**
+     * Gets the automaton state for the control state (q, i).
+     *
+     * @param state    The state q of the PDA.
+     * @param position The number of input symbols i that have been consumed.
+     * @return The automaton state.
+     */
+    private int controlState(String state, int position) {
+        return stateNumbers.get(state) * (inputSymbols.length + 1) + position;
+    }
+
+    /**
+     * Adds the rules that simulate the given transition when it is applied after consuming a
+     * given number of input symbols, provided the transition can be applied at that position.
+     * Transitions that pop a string of several symbols pop them one at a time through fresh
+     * intermediate control states. Transitions that pop nothing are simulated by one rule for
+     * every possible top of stack symbol (including the bottom of stack marker), each of which
+     * pushes the symbol back underneath the push string.
+     *
+     * @param transition The transition being simulated.
+     * @param position   The number of input symbols consumed before the transition is applied.
+     */
+    private void addRules(PDATransition transition, int position) {
+        int newPosition = position;
+        if (!transition.getInputSymbol().isEmpty()) {
+            if (position == inputSymbols.length ||
+                    !inputSymbols[position].equals(transition.getInputSymbol())) {
+                return;
+            }
+            newPosition++;
+        }
+        int from = controlState(transition.getCurrentState(), position);
+        int to = controlState(transition.getNewState(), newPosition);
+        int[] push = new int[transition.getPushSymbols().length];
+        for (int i = 0; i < push.length; i++) {
+            push[i] = stackSymbols.get(transition.getPushSymbols()[i]);
+        }
+
+        String[] popSymbols = transition.getPopSymbols();
+        if (popSymbols.length == 0) {
+            for (int symbol = 0; symbol <= bottomOfStack; symbol++) {
+                int[] replacement = new int[push.length + 1];
+                System.arraycopy(push, 0, replacement, 0, push.length);
+                replacement[push.length] = symbol;
+                addReplacementRules(from, symbol, replacement, to, transition);
+            }
+            return;
+        }
+
+        // Pop all but the last symbol of the pop string one at a time
+        PDATransition startedTransition = transition;
+        for (int i = 0; i < popSymbols.length - 1; i++) {
+            int intermediate = newState();
+            addRule(new Rule(from, stackSymbols.get(popSymbols[i]), intermediate, new int[0],
+                    startedTransition));
+            startedTransition = null;
+            from = intermediate;
+        }
+        // Replace the last symbol of the pop string with the push string
+        addReplacementRules(from, stackSymbols.get(popSymbols[popSymbols.length - 1]), push, to,
+                startedTransition);
+    }
+
+    /**
+     * Adds rules that replace a single symbol on the top of the stack with any number of symbols.
+     * Rules can only push up to two symbols, so longer replacements are pushed two at a time
+     * through fresh intermediate control states, starting from the bottom of the replacement.
+     *
+     * @param from        The control state the replacement starts from.
+     * @param symbol      The symbol on the top of the stack that is replaced.
+     * @param replacement The symbols that replace it, the first of which ends up on the top.
+     * @param to          The control state the replacement ends in.
+     * @param transition  The PDATransition the first rule starts simulating, if any.
+     */
+    private void addReplacementRules(int from, int symbol, int[] replacement, int to,
+                                     PDATransition transition) {
+        int length = replacement.length;
+        if (length <= 2) {
+            addRule(new Rule(from, symbol, to, replacement, transition));
+            return;
+        }
+        // Replace the symbol with the bottom two symbols of the replacement, then repeatedly
+        // replace the top symbol with the next symbol of the replacement and itself.
+        int intermediate = newState();
+        addRule(new Rule(from, symbol, intermediate,
+                new int[]{replacement[length - 2], replacement[length - 1]}, transition));
+        for (int i = length - 2; i > 1; i--) {
+            int next = newState();
+            addRule(new Rule(intermediate, replacement[i], next,
+                    new int[]{replacement[i - 1], replacement[i]}, null));
+            intermediate = next;
+        }
+        addRule(new Rule(intermediate, replacement[1], to,
+                new int[]{replacement[0], replacement[1]}, null));
+    }
+
+    /**
+     * Adds a rule to the pushdown system.
+     *
+     * @param rule The rule.
+     */
+    private void addRule(Rule rule) {
+        rules.computeIfAbsent(ruleKey(rule.fromState, rule.fromSymbol), key -> new ArrayList<>())
+                .add(rule);
+    }
+
+    /**
+     * Gets the key of the rules for a control state and top of stack symbol.
+     *
+     * @param state  The control state.
+     * @param symbol The top of stack symbol.
+     * @return The key.
+     */
+    private long ruleKey(int state, int symbol) {
+        return ((long) state << SYMBOL_BITS) | symbol;
+    }
+
+    /**
+     * Gets the key of an automaton transition.
+     *
+     * @param from   The state the transition leaves.
+     * @param symbol The symbol of the transition.
+     * @param to     The state the transition enters.
+     * @return The key.
+     */
+    private long edgeKey(int from, int symbol, int to) {
+        return ((long) from << (SYMBOL_BITS + STATE_BITS)) | ((long) (symbol + 1) << STATE_BITS)
+                | to;
+    }
+
+    /**
+     * Creates a new automaton transition and adds it to the worklist.
+     */
+    private void addEdge(int from, int symbol, int to, int weight, int origin, Rule rule,
+                         Edge first, Edge second) {
+        worklist.add(new Edge(from, symbol, to, weight, edgeCount++, origin, rule, first, second));
+    }
+
+    /**
+     * Repeatedly finalises the lightest automaton transition in the worklist until no new
+     * transitions can be created. When a transition (p, γ, q) is finalised, every rule for p and γ
+     * creates a new transition that leads to q, and epsilon transitions are combined with the
+     * transitions that follow them so that they never need to be followed afterwards.
+     */
+    private void saturate() {
+        while (!worklist.isEmpty()) {
+            if (cancelRequested) {
+                cancelRequested = false;
+                throw new CancellationException("The run was cancelled");
+            }
+            Edge edge = worklist.poll();
+            long key = edgeKey(edge.from, edge.symbol, edge.to);
+            // A transition is only finalised the first time it is taken from the worklist, at
+            // which point it has its lowest possible weight
+            if (edges.containsKey(key)) {
+                continue;
+            }
+            edges.put(key, edge);
+
+            if (edge.symbol == EPSILON) {
+                incomingEpsilonEdges.computeIfAbsent(edge.to, state -> new ArrayList<>())
+                        .add(edge);
+                for (Edge next : outgoingEdges.getOrDefault(edge.to, Collections.emptyList())) {
+                    addEdge(edge.from, next.symbol, next.to, edge.weight + next.weight,
+                            COMBINE, null, edge, next);
+                }
+                continue;
+            }
+
+            outgoingEdges.computeIfAbsent(edge.from, state -> new ArrayList<>()).add(edge);
+            for (Edge previous : incomingEpsilonEdges.getOrDefault(edge.from,
+                    Collections.emptyList())) {
+                addEdge(previous.from, edge.symbol, edge.to, previous.weight + edge.weight,
+                        COMBINE, null, previous, edge);
+            }
+
+            for (Rule rule : rules.getOrDefault(ruleKey(edge.from, edge.symbol),
+                    Collections.emptyList())) {
+                int weight = edge.weight + rule.weight();
+                if (rule.push.length == 0) {
+                    addEdge(rule.toState, EPSILON, edge.to, weight, RULE, rule, edge, null);
+                } else if (rule.push.length == 1) {
+                    addEdge(rule.toState, rule.push[0], edge.to, weight, RULE, rule, edge, null);
+                } else {
+                    // The first pushed symbol leads to a state that belongs to this rule, from
+                    // which the second pushed symbol leads to wherever the popped symbol led
+                    if (rule.middleState == -1) {
+                        rule.middleState = newState();
+                        addEdge(rule.toState, rule.push[0], rule.middleState, 0, PUSH_HEAD, rule,
+                                null, null);
+                    }
+                    addEdge(rule.middleState, rule.push[1], edge.to, weight, PUSH_TAIL, rule,
+                            edge, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the lightest path through the saturated automaton that corresponds to an accepting
+     * configuration, i.e. a control state (q, n) where n is the length of the input string,
+     * followed by a stack that satisfies the acceptance criteria. Every stack ends with the bottom
+     * of stack marker, which is the only symbol that enters the final state.
+     *
+     * @return The transitions of the path in order, or null if no accepting configuration is
+     * reachable.
+     */
+    private ArrayList<Edge> findAcceptingPath() {
+        int length = inputSymbols.length;
+        // The lightest known path from each automaton state to the final state, found by a search
+        // backwards from the final state
+        HashMap<Integer, Edge> bestEdge = new HashMap<>();
+        HashMap<Integer, Integer> distance = new HashMap<>();
+        HashMap<Integer, List<Edge>> incomingEdges = new HashMap<>();
+        for (Edge edge : edges.values()) {
+            if (edge.symbol != EPSILON) {
+                incomingEdges.computeIfAbsent(edge.to, state -> new ArrayList<>()).add(edge);
+            }
+        }
+        PriorityQueue<int[]> queue =
+                new PriorityQueue<>(Comparator.comparingInt(entry -> entry[1]));
+        distance.put(finalState, 0);
+        queue.add(new int[]{finalState, 0});
+        while (!queue.isEmpty()) {
+            int[] entry = queue.poll();
+            if (entry[1] > distance.get(entry[0])) {
+                continue;
+            }
+            for (Edge edge : incomingEdges.getOrDefault(entry[0], Collections.emptyList())) {
+                int newDistance = entry[1] + edge.weight;
+                Integer oldDistance = distance.get(edge.from);
+                if (oldDistance == null || newDistance < oldDistance) {
+                    distance.put(edge.from, newDistance);
+                    bestEdge.put(edge.from, edge);
+                    queue.add(new int[]{edge.from, newDistance});
+                }
+            }
+        }
+
+        ArrayList<Edge> bestPath = null;
+        int bestWeight = Integer.MAX_VALUE;
+        for (String state : stateNumbers.keySet()) {
+            int controlState = controlState(state, length);
+            ArrayList<Edge> path = null;
+            // A path that consists of just the bottom of stack marker means the stack is empty
+            Edge emptyStack = edges.get(edgeKey(controlState, bottomOfStack, finalState));
+            if (pda.isAccepting(state, true) && emptyStack != null) {
+                path = new ArrayList<>(Collections.singletonList(emptyStack));
+            }
+            if (pda.isAccepting(state, false) && distance.containsKey(controlState) &&
+                    (path == null || distance.get(controlState) < path.get(0).weight)) {
+                path = new ArrayList<>();
+                int current = controlState;
+                while (current != finalState) {
+                    Edge edge = bestEdge.get(current);
+                    path.add(edge);
+                    current = edge.to;
+                }
+            }
+            if (path != null) {
+                int weight = 0;
+                for (Edge edge : path) {
+                    weight += edge.weight;
+                }
+                if (weight < bestWeight) {
+                    bestWeight = weight;
+                    bestPath = path;
+                }
+            }
+        }
+        return bestPath;
+    }
+
+    /**
+     * Works out which PDATransitions lead from the initial configuration to the configuration
+     * given by a path through the saturated automaton. Starting from the accepting path, the first
+     * transition of the path is repeatedly replaced by the transitions it was created from. Each
+     * time this undoes a rule, the configuration of the path becomes the configuration before the
+     * rule was applied. Since transitions are always created from transitions that were created
+     * before them, this eventually reaches the path of the initial automaton.
+     *
+     * @param path The path through the saturated automaton.
+     * @return The applied PDATransitions in order.
+     */
+    private List<PDATransition> reconstructTransitions(ArrayList<Edge> path) {
+        ArrayList<PDATransition> transitions = new ArrayList<>();
+        // The path is stored in reverse so that its first transition can be replaced cheaply
+        Collections.reverse(path);
+        while (path.get(path.size() - 1).origin != INITIAL) {
+            Edge edge = path.remove(path.size() - 1);
+            Rule undoneRule = null;
+            switch (edge.origin) {
+                case COMBINE:
+                    path.add(edge.second);
+                    path.add(edge.first);
+                    break;
+                case RULE:
+                    path.add(edge.first);
+                    undoneRule = edge.rule;
+                    break;
+                case PUSH_HEAD:
+                    // The next transition leaves the middle state of the rule, so it was created
+                    // together with this one when the rule was applied
+                    Edge tail = path.remove(path.size() - 1);
+                    path.add(tail.first);
+                    undoneRule = edge.rule;
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected transition in accepting path");
+            }
+            if (undoneRule != null && undoneRule.transition != null) {
+                transitions.add(undoneRule.transition);
+            }
+        }
+        Collections.reverse(transitions);
+        return transitions;
+    }
+}
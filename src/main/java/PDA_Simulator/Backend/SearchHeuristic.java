@@ -0,0 +1,124 @@
+package PDA_Simulator.Backend;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+/**
+ * Interface for the heuristics that guide a best-first search over the configurations of a PDA. A
+ * heuristic estimates how many more steps are needed to get from a configuration to an accepting
+ * configuration, and the search explores the configurations with the lowest estimated total
+ * computation length first. If a heuristic never overestimates, then the first accepting
+ * computation found is also a shortest one.
+ */
+
+@FunctionalInterface
+public interface SearchHeuristic {
+    // The estimate that marks a configuration as one from which acceptance is impossible
+    int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * Estimates the number of steps needed to get from the configuration to an accepting
+     * configuration.
+     *
+     * @param configuration The configuration.
+     * @return The estimated number of steps, or UNREACHABLE if the configuration definitely
+     * cannot lead to an accepting configuration.
+     */
+    int estimate(PDAConfiguration configuration);
+
+    /**
+     * Gets the number of input symbols a configuration still has to read. Every transition reads
+     * at most one input symbol, so this never overestimates.
+     *
+     * @param configuration The configuration.
+     * @return The number of unread input symbols.
+     */
+    static int remainingInput(PDAConfiguration configuration) {
+        return configuration.getRemainingInputLength();
+    }
+
+    /**
+     * Creates a heuristic that estimates the remaining steps as the number of unread input
+     * symbols. This never overestimates.
+     *
+     * @return The heuristic.
+     */
+    static SearchHeuristic remainingInput() {
+        return SearchHeuristic::remainingInput;
+    }
+
+    /**
+     * Creates a heuristic that adds the height of the stack to the number of unread input symbols.
+     * This favours configurations with small stacks, which is useful for PDAs that accept by empty
+     * stack, but it can overestimate.
+     *
+     * @return The heuristic.
+     */
+    static SearchHeuristic remainingInputAndStackHeight() {
+        return configuration -> remainingInput(configuration) + configuration.getStack().size();
+    }
+
+    /**
+     * Creates a heuristic from a static analysis of the PDA which never overestimates. It uses the
+     * largest of three lower bounds: the number of unread input symbols, the fewest transitions
+     * needed to get from the current state to an accepting state (when the acceptance criteria
+     * require one) and the fewest transitions needed to pop everything off the stack (when the
+     * acceptance criteria require an empty stack). Configurations in states from which no
+     * accepting state can be reached, or whose stack can never be emptied, are UNREACHABLE. The
+     * analysis is done when the heuristic is created, so a new one is needed if the PDA changes.
+     *
+     * @param pda The PDA the heuristic is for.
+     * @return The heuristic.
+     */
+    static SearchHeuristic distanceToAcceptance(PDA pda) {
+        AcceptanceCriteria criteria = pda.getAcceptanceCriteria();
+        boolean needsAcceptingState = criteria != AcceptanceCriteria.EMPTY_STACK;
+        boolean needsEmptyStack = criteria != AcceptanceCriteria.ACCEPTING_STATE;
+
+        // The fewest transitions needed to reach an accepting state from each state, found with a
+        // breadth-first search backwards from the accepting states
+        HashMap<String, Integer> distances = new HashMap<>();
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        for (String state : pda.getAcceptingStates()) {
+            distances.put(state, 0);
+            queue.add(state);
+        }
+        // The most symbols any transition pops in one step
+        int maxPopLength = 0;
+        for (PDATransition transition : pda.getTransitions()) {
+            maxPopLength = Math.max(maxPopLength, transition.getPopString().length());
+        }
+        while (!queue.isEmpty()) {
+            String state = queue.poll();
+            for (PDATransition transition : pda.getTransitions()) {
+                if (transition.getNewState().equals(state) &&
+                        !distances.containsKey(transition.getCurrentState())) {
+                    distances.put(transition.getCurrentState(), distances.get(state) + 1);
+                    queue.add(transition.getCurrentState());
+                }
+            }
+        }
+
+        int finalMaxPopLength = maxPopLength;
+        return configuration -> {
+            int estimate = remainingInput(configuration);
+            if (needsAcceptingState) {
+                Integer distance = distances.get(configuration.getState());
+                if (distance == null) {
+                    return UNREACHABLE;
+                }
+                estimate = Math.max(estimate, distance);
+            }
+            int stackHeight = configuration.getStack().size();
+            if (needsEmptyStack && stackHeight > 0) {
+                if (finalMaxPopLength == 0) {
+                    return UNREACHABLE;
+                }
+                // Round up, since a partial pop still takes a whole step
+                estimate = Math.max(estimate,
+                        (stackHeight + finalMaxPopLength - 1) / finalMaxPopLength);
+            }
+            return estimate;
+        };
+    }
+}
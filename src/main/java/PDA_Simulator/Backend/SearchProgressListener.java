@@ -0,0 +1,20 @@
+package PDA_Simulator.Backend;
+
+/**
+ * Interface for receiving progress updates from a ComputationSearch while it runs. The updates are
+ * given on the thread running the search, so a listener that updates a user interface must pass
+ * them on to the thread that owns it.
+ */
+
+@FunctionalInterface
+public interface SearchProgressListener {
+    /**
+     * Called periodically while the search runs and once more when a run stops.
+     *
+     * @param totalSteps            The number of configurations explored so far across all runs.
+     * @param acceptingComputations The number of accepting computations found so far.
+     * @param depth                 The number of transitions applied to reach the configuration
+     *                              currently being explored.
+     */
+    void progressMade(int totalSteps, int acceptingComputations, int depth);
+}
@@ -0,0 +1,275 @@
+package PDA_Simulator.Backend;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This class is a finite-state over-approximation of a PDA which only remembers the symbol on the
+ * top of the stack rather than the whole stack. Each abstract configuration is a pair of a state
+ * and a stack top, where the stack top is either one of the stack symbols, a symbol that no
+ * transition mentions, the empty stack or unknown. The stack top becomes unknown when a transition
+ * pops symbols without pushing anything, since the symbol that ends up on the top depends on what
+ * was underneath.
+ * <p>
+ * Every computation of the PDA has a matching run of this abstraction, so if the abstraction
+ * cannot reach an accepting configuration after reading the input string, then the PDA definitely
+ * rejects the input string. The reverse does not hold: the abstraction may accept input strings
+ * that the PDA rejects. Since there are only finitely many abstract configurations, the input
+ * string is simulated one symbol at a time over the set of reachable abstract configurations,
+ * which takes linear time in the length of the input string regardless of any epsilon cycles.
+ */
+
+class StackTopAbstraction {
+    // The number of the stack top that represents a symbol which no transition mentions
+    private final int otherSymbol;
+    // The number of the stack top that represents the empty stack
+    private final int emptyStack;
+    // The number of the stack top that represents a stack whose top is not known. The stack may
+    // also be empty.
+    private final int unknownTop;
+    // The number of different stack tops
+    private final int topCount;
+    // The number given to each state that appears in a transition
+    private final HashMap<String, Integer> stateNumbers = new HashMap<>();
+    // The states in the order of their numbers
+    private final ArrayList<String> stateNames = new ArrayList<>();
+    // The number given to each stack symbol that appears in a transition
+    private final HashMap<String, Integer> symbolNumbers = new HashMap<>();
+    // The transitions that belong to each state, indexed by the state number
+    private final ArrayList<ArrayList<AbstractTransition>> stateTransitions = new ArrayList<>();
+
+    /**
+     * A transition of the PDA reduced to what the abstraction needs to know about it.
+     */
+    private static class AbstractTransition {
+        // The input symbol the transition reads, which is empty for epsilon transitions
+        private final String inputSymbol;
+        // The number of the first symbol of the pop string, or -1 if nothing is popped
+        private final int popTop;
+        // The number of the first symbol of the push string, or -1 if nothing is pushed
+        private final int pushTop;
+        // The number of the state the transition leads to
+        private final int newState;
+
+        private AbstractTransition(String inputSymbol, int popTop, int pushTop, int newState) {
+            this.inputSymbol = inputSymbol;
+            this.popTop = popTop;
+            this.pushTop = pushTop;
+            this.newState = newState;
+        }
+    }
+
+    /**
+     * Creates the abstraction of a PDA with the given transitions.
+     *
+     * @param transitions The transitions of the PDA.
+     */
+    StackTopAbstraction(List<PDATransition> transitions) {
+        for (PDATransition transition : transitions) {
+            numberState(transition.getCurrentState());
+            numberState(transition.getNewState());
+            numberSymbols(transition.getPopString());
+            numberSymbols(transition.getPushString());
+        }
+        otherSymbol = symbolNumbers.size();
+        emptyStack = otherSymbol + 1;
+        unknownTop = otherSymbol + 2;
+        topCount = otherSymbol + 3;
+
+        for (PDATransition transition : transitions) {
+            stateTransitions.get(stateNumbers.get(transition.getCurrentState())).add(
+                    new AbstractTransition(transition.getInputSymbol(),
+                            firstSymbol(transition.getPopString()),
+                            firstSymbol(transition.getPushString()),
+                            stateNumbers.get(transition.getNewState())));
+        }
+    }
+
+    /**
+     * Gives the state a number if it does not already have one.
+     *
+     * @param state The state to number.
+     */
+    private void numberState(String state) {
+        if (!stateNumbers.containsKey(state)) {
+            stateNumbers.put(state, stateNames.size());
+            stateNames.add(state);
+            stateTransitions.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Gives each symbol of the string a number if it does not already have one.
+     *
+     * @param symbols A pop or push string.
+     */
+    private void numberSymbols(String symbols) {
+        for (String symbol : PDAConfiguration.splitIntoSymbols(symbols)) {
+            if (!symbolNumbers.containsKey(symbol)) {
+                symbolNumbers.put(symbol, symbolNumbers.size());
+            }
+        }
+    }
+
+    /**
+     * Gets the number of the first symbol of a pop or push string. The first symbol is the one
+     * that is on the top of the stack.
+     *
+     * @param symbols A pop or push string.
+     * @return The number of the first symbol or -1 if the string is empty.
+     */
+    private int firstSymbol(String symbols) {
+        if (symbols.isEmpty()) {
+            return -1;
+        }
+        return symbolNumbers.get(String.valueOf(symbols.charAt(0)));
+    }
+
+    /**
+     * Checks whether the PDA could possibly accept the given input string. If this returns false,
+     * then the PDA definitely rejects the input string. The acceptance criteria, the accepting
+     * states, the initial state and the initial stack symbol are read from the PDA each time, so
+     * only changes to the transitions require a new abstraction to be created.
+     *
+     * @param pda         The PDA this abstraction was created from.
+     * @param inputString The input string the PDA is going to be run on.
+     * @return False if the PDA definitely rejects the input string and true otherwise.
+     */
+    boolean mayAccept(PDA pda, String inputString) {
+        String initialStackSymbol = pda.getInitialStackSymbol();
+        int initialTop = emptyStack;
+        if (initialStackSymbol != null) {
+            initialTop = symbolNumbers.getOrDefault(initialStackSymbol, otherSymbol);
+        }
+        Integer initialState = stateNumbers.get(pda.getInitialState());
+        // If no transition belongs to the initial state, then the initial configuration is the
+        // only configuration of the PDA
+        if (initialState == null) {
+            return inputString.isEmpty() && pda.isAccepting(pda.getInitialState(),
+                    initialTop == emptyStack);
+        }
+
+        // Whether each abstract configuration has been reached, indexed by the configuration
+        // number, for the current input symbol and the next one
+        boolean[] reached = new boolean[stateNames.size() * topCount];
+        boolean[] nextReached = new boolean[reached.length];
+        // The numbers of the abstract configurations that have been reached
+        ArrayList<Integer> current = new ArrayList<>();
+        ArrayList<Integer> next = new ArrayList<>();
+        mark(reached, current, initialState * topCount + initialTop);
+        String[] inputSymbols = PDAConfiguration.splitIntoSymbols(inputString);
+
+        for (int index = 0; ; index++) {
+            // Follow epsilon transitions until no new abstract configurations are reached. The
+            // list grows while it is being iterated over, so it also serves as the worklist.
+            for (int i = 0; i < current.size(); i++) {
+                step(current.get(i), "", reached, current);
+            }
+            if (index == inputSymbols.length) {
+                return anyAccepting(pda, current);
+            }
+            for (int configuration : current) {
+                step(configuration, inputSymbols[index], nextReached, next);
+            }
+            // If no abstract configuration can read the input symbol, then neither can the PDA
+            if (next.isEmpty()) {
+                return false;
+            }
+            // Swap the sets of reached configurations ready for the next input symbol
+            clear(reached, current);
+            boolean[] tempReached = reached;
+            reached = nextReached;
+            nextReached = tempReached;
+            ArrayList<Integer> temp = current;
+            current = next;
+            next = temp;
+        }
+    }
+
+    /**
+     * Applies every transition that reads the given input symbol to an abstract configuration and
+     * records any configurations that have not been reached before.
+     *
+     * @param configuration The number of the abstract configuration.
+     * @param inputSymbol   The input symbol being read, or the empty string for epsilon
+     *                      transitions.
+     * @param reachedSet    Whether each configuration has already been reached.
+     * @param reachedList   The configurations that have been reached, in the order they were
+     *                      reached.
+     */
+    private void step(int configuration, String inputSymbol, boolean[] reachedSet,
+                      ArrayList<Integer> reachedList) {
+        int state = configuration / topCount;
+        int top = configuration % topCount;
+        for (AbstractTransition transition : stateTransitions.get(state)) {
+            if (!transition.inputSymbol.equals(inputSymbol)) {
+                continue;
+            }
+            int newTop = top;
+            if (transition.popTop != -1) {
+                // The first symbol of the pop string must be able to be on the top of the stack
+                if (top != unknownTop && top != transition.popTop) {
+                    continue;
+                }
+                // Once symbols have been popped, the new top of the stack is not known
+                newTop = unknownTop;
+            }
+            if (transition.pushTop != -1) {
+                newTop = transition.pushTop;
+            }
+            mark(reachedSet, reachedList, transition.newState * topCount + newTop);
+        }
+    }
+
+    /**
+     * Records an abstract configuration as reached if it has not been reached already.
+     *
+     * @param reachedSet    Whether each configuration has already been reached.
+     * @param reachedList   The configurations that have been reached.
+     * @param configuration The number of the configuration being reached.
+     */
+    private void mark(boolean[] reachedSet, ArrayList<Integer> reachedList, int configuration) {
+        if (!reachedSet[configuration]) {
+            reachedSet[configuration] = true;
+            reachedList.add(configuration);
+        }
+    }
+
+    /**
+     * Resets the given set of reached configurations to be empty. Only the configurations in the
+     * list need to be reset, which is much cheaper than clearing the whole array.
+     *
+     * @param reachedSet  Whether each configuration has already been reached.
+     * @param reachedList The configurations that have been reached. This is cleared as well.
+     */
+    private void clear(boolean[] reachedSet, ArrayList<Integer> reachedList) {
+        for (int configuration : reachedList) {
+            reachedSet[configuration] = false;
+        }
+        reachedList.clear();
+    }
+
+    /**
+     * Checks if any of the given abstract configurations might be an accepting configuration once
+     * the whole input string has been read.
+     *
+     * @param pda            The PDA this abstraction was created from.
+     * @param configurations The numbers of the abstract configurations.
+     * @return True if any of the configurations might be accepting and false otherwise.
+     */
+    private boolean anyAccepting(PDA pda, ArrayList<Integer> configurations) {
+        for (int configuration : configurations) {
+            String state = stateNames.get(configuration / topCount);
+            int top = configuration % topCount;
+            // A stack with an unknown top might be empty or not
+            boolean mayBeEmpty = top == emptyStack || top == unknownTop;
+            boolean mayBeNonEmpty = top != emptyStack;
+            if ((mayBeEmpty && pda.isAccepting(state, true)) ||
+                    (mayBeNonEmpty && pda.isAccepting(state, false))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,117 @@
+package PDA_Simulator.Backend;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class records how often each transition of a PDA has been tried during a search and how
+ * often trying it led to an accepting configuration. Once attached to a PDA, the statistics are
+ * updated every time the PDA searches for accepting computations, and the depth-first search tries
+ * the transitions that have most often led to acceptance first. The statistics can be gathered
+ * over normal use of the PDA, or up front by training on a corpus of input strings.
+ * <p>
+ * Transitions are identified by their value rather than by identity, so the statistics remain
+ * valid if the PDA is reloaded from a string, as long as the transitions themselves are
+ * unchanged. Snapshots of a PDA share its statistics, and searches on several snapshots can
+ * update the statistics at once.
+ */
+
+public class TransitionStatistics {
+    // The number of times each transition has been applied during a search
+    private final ConcurrentHashMap<PDATransition, Integer> attempts = new ConcurrentHashMap<>();
+    // The number of times applying each transition led to at least one accepting configuration
+    private final ConcurrentHashMap<PDATransition, Integer> successes =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Records that a transition has been applied during a search.
+     *
+     * @param transition The transition that was applied.
+     */
+    void recordAttempt(PDATransition transition) {
+        attempts.merge(transition, 1, Integer::sum);
+    }
+
+    /**
+     * Records that applying a transition led to at least one accepting configuration.
+     *
+     * @param transition The transition that was applied.
+     */
+    void recordSuccess(PDATransition transition) {
+        successes.merge(transition, 1, Integer::sum);
+    }
+
+    /**
+     * Gets the number of times a transition has been applied during a search.
+     *
+     * @param transition The transition.
+     * @return The number of times it has been applied.
+     */
+    public int getAttempts(PDATransition transition) {
+        return attempts.getOrDefault(transition, 0);
+    }
+
+    /**
+     * Gets the number of times applying a transition led to at least one accepting configuration.
+     *
+     * @param transition The transition.
+     * @return The number of successful applications of the transition.
+     */
+    public int getSuccesses(PDATransition transition) {
+        return successes.getOrDefault(transition, 0);
+    }
+
+    /**
+     * Estimates the probability that applying a transition leads to an accepting configuration.
+     * One success and one failure are added to the recorded counts so that transitions which have
+     * never been tried get an estimate of one half rather than no estimate at all.
+     *
+     * @param transition The transition.
+     * @return The estimated probability, which is strictly between 0 and 1.
+     */
+    public double getSuccessRate(PDATransition transition) {
+        return (getSuccesses(transition) + 1.0) / (getAttempts(transition) + 2.0);
+    }
+
+    /**
+     * Sorts transitions from the least to the most likely to lead to acceptance. The depth-first
+     * search explores applicable transitions starting from the end of the list, so this makes it
+     * try the most likely transition first. The success rates are read once before sorting, so
+     * other searches can update the statistics while the transitions are being sorted.
+     *
+     * @param transitions The transitions to sort.
+     */
+    void sortByLikelihood(List<PDATransition> transitions) {
+        HashMap<PDATransition, Double> successRates = new HashMap<>();
+        for (PDATransition transition : transitions) {
+            successRates.put(transition, getSuccessRate(transition));
+        }
+        transitions.sort(Comparator.comparingDouble(successRates::get));
+    }
+
+    /**
+     * Trains these statistics by attaching them to the PDA and running it on every input string of
+     * the corpus. The statistics stay attached to the PDA afterwards.
+     *
+     * @param pda           The PDA to train the statistics for.
+     * @param corpus        The input strings to run the PDA on.
+     * @param maxSteps      The maximum number of steps each computation can go on for.
+     * @param maxTotalSteps The maximum number of total steps for each input string.
+     */
+    public void train(PDA pda, List<String> corpus, int maxSteps, int maxTotalSteps) {
+        pda.setTransitionStatistics(this);
+        for (String inputString : corpus) {
+            pda.getAcceptingComputations(inputString, maxSteps, maxTotalSteps);
+        }
+    }
+
+    /**
+     * Forgets all recorded attempts and successes.
+     */
+    public void clear() {
+        attempts.clear();
+        successes.clear();
+    }
+}
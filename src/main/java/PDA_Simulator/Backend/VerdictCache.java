@@ -0,0 +1,561 @@
+package PDA_Simulator.Backend;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * This class caches whether PDAs accept input strings, together with a shortest accepting
+ * computation as a witness, so that running the same PDA on the same input string again (as
+ * happens when grading or re-running a set of tests) does not simulate anything. Verdicts are
+ * keyed by a fingerprint of the structure of the PDA and the input string. The fingerprint covers
+ * everything that can change the verdict (the transitions, initial state, accepting states,
+ * initial stack symbol and acceptance criteria) but not the order the transitions and accepting
+ * states were defined in, or states that no transition uses, so equivalent PDAs that were built
+ * differently share their verdicts.
+ * <p>
+ * The most recently used verdicts are kept in memory, up to a given number of them, and the least
+ * recently used verdict is evicted when a new one is added. A cache can also be given a directory
+ * to persist its verdicts in, with one file for each PDA, so that verdicts evicted from memory or
+ * computed in an earlier session can still be found without simulating anything. The file of a
+ * PDA is only read into an index when one of its verdicts is first looked up, and the files
+ * that were used least recently are dropped from the index once it holds more verdicts than the
+ * memory tier can, so the index stays as small as the memory tier however many verdicts are on
+ * disk. New verdicts are appended to their files without holding the lock of the cache. Verdicts
+ * that are not cached are computed with a SaturationEngine, which gives an exact answer and finds
+ * the witness at no extra cost.
+ */
+
+public class VerdictCache {
+    // The hexadecimal digits used to write fingerprints
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    // The most fingerprints of recently used PDAs kept in memory
+    private static final int FINGERPRINT_CAPACITY = 64;
+    // The most verdicts kept in memory
+    private final int capacity;
+    // The directory the verdicts are persisted in, or null if they are only kept in memory
+    private final Path directory;
+    // The verdicts kept in memory, keyed by fingerprint and input string, from least to most
+    // recently used
+    private final LinkedHashMap<String, Verdict> verdicts;
+    // The fingerprints of the most recently used PDAs, keyed by snapshot. Snapshots cannot
+    // change and a PDA returns the same snapshot until it changes, so a PDA is only fingerprinted
+    // again after it has changed.
+    private final LinkedHashMap<PDA, String> fingerprints =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PDA, String> eldest) {
+                    return size() > FINGERPRINT_CAPACITY;
+                }
+            };
+    // The verdicts currently being computed, keyed like the verdicts in memory, which the threads
+    // that need them wait for
+    private final HashMap<String, CompletableFuture<Verdict>> computing = new HashMap<>();
+    // The witnesses of the verdicts persisted on disk (or "null" for rejected input strings) in
+    // the files that were read most recently, keyed by fingerprint and then by input string, from
+    // least to most recently used
+    private final LinkedHashMap<String, HashMap<String, String>> diskIndex =
+            new LinkedHashMap<>(16, 0.75f, true);
+    // The number of verdicts in the index of verdicts on disk
+    private int diskIndexSize = 0;
+    // The lock held while appending to a file on disk, so that the lines written by different
+    // threads are not interleaved
+    private final Object fileLock = new Object();
+    // The number of verdicts found in memory
+    private int memoryHits = 0;
+    // The number of verdicts found on disk
+    private int diskHits = 0;
+    // The number of verdicts that had to be computed
+    private int misses = 0;
+
+    /**
+     * Whether a PDA accepts an input string, and a shortest accepting computation if it does.
+     */
+    public static final class Verdict {
+        // Whether the input string is accepted
+        private final boolean accepted;
+        // The transitions of a shortest accepting computation, or null if the input string is
+        // rejected
+        private final List<PDATransition> witness;
+
+        /**
+         * Creates a verdict.
+         *
+         * @param accepted Whether the input string is accepted.
+         * @param witness  The transitions of a shortest accepting computation, or null if the
+         *                 input string is rejected.
+         */
+        public Verdict(boolean accepted, List<PDATransition> witness) {
+            this.accepted = accepted;
+            this.witness = witness == null ? null : Collections.unmodifiableList(witness);
+        }
+
+        /**
+         * Checks if the input string is accepted.
+         *
+         * @return True if the input string is accepted and false otherwise.
+         */
+        public boolean isAccepted() {
+            return accepted;
+        }
+
+        /**
+         * Gets the transitions of a shortest accepting computation.
+         *
+         * @return The transitions, or null if the input string is rejected.
+         */
+        public List<PDATransition> getWitnessTransitions() {
+            return witness;
+        }
+
+        /**
+         * Rebuilds the shortest accepting computation for the given PDA and input string.
+         *
+         * @param pda         The PDA the verdict is for.
+         * @param inputString The input string the verdict is for.
+         * @return The computation, or null if the input string is rejected.
+         */
+        public Computation getWitness(PDA pda, String inputString) {
+            if (witness == null) {
+                return null;
+            }
+            return new Computation(pda.getInitialConfiguration(inputString), witness);
+        }
+    }
+
+    /**
+     * Creates a cache that only keeps verdicts in memory.
+     *
+     * @param capacity The most verdicts kept in memory.
+     */
+    public VerdictCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.directory = null;
+        verdicts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Verdict> eldest) {
+                return size() > VerdictCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Creates a cache that keeps the most recently used verdicts in memory and persists every
+     * verdict in the given directory, which is created if it does not exist. The verdicts already
+     * in the directory are only read when they are looked up.
+     *
+     * @param capacity  The most verdicts kept in memory.
+     * @param directory The directory the verdicts are persisted in, or null if they should only
+     *                  be kept in memory.
+     * @throws IOException If the directory cannot be created.
+     */
+    public VerdictCache(int capacity, Path directory) throws IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.directory = directory;
+        verdicts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Verdict> eldest) {
+                return size() > VerdictCache.this.capacity;
+            }
+        };
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+    }
+
+    /**
+     * Gets whether the PDA accepts the given input string, computing the verdict only if it is
+     * neither in memory nor on disk. Verdicts are computed without holding the lock of the cache,
+     * so other threads can look up and compute other verdicts at the same time, while threads
+     * that need a verdict that is already being computed wait for it rather than computing it
+     * again.
+     *
+     * @param pda         The PDA.
+     * @param inputString The input string the automaton is being run on.
+     * @return The verdict.
+     * @throws IOException If the verdicts on disk cannot be read or written.
+     */
+    public Verdict getVerdict(PDA pda, String inputString) throws IOException {
+        PDA snapshot = pda.snapshot();
+        String fingerprint;
+        synchronized (fingerprints) {
+            fingerprint = fingerprints.get(snapshot);
+        }
+        if (fingerprint == null) {
+            fingerprint = fingerprint(snapshot);
+            synchronized (fingerprints) {
+                fingerprints.put(snapshot, fingerprint);
+            }
+        }
+        String key = fingerprint + inputString;
+
+        CompletableFuture<Verdict> future;
+        CompletableFuture<Verdict> otherComputation;
+        synchronized (this) {
+            Verdict verdict = verdicts.get(key);
+            if (verdict != null) {
+                memoryHits++;
+                return verdict;
+            }
+            verdict = readVerdict(fingerprint, inputString);
+            if (verdict != null) {
+                diskHits++;
+                verdicts.put(key, verdict);
+                return verdict;
+            }
+            otherComputation = computing.get(key);
+            if (otherComputation == null) {
+                misses++;
+                future = new CompletableFuture<>();
+                computing.put(key, future);
+            } else {
+                memoryHits++;
+                future = null;
+            }
+        }
+        if (otherComputation != null) {
+            // Another thread is computing the verdict, so wait for it without holding the lock
+            return awaitVerdict(otherComputation);
+        }
+
+        try {
+            Computation computation =
+                    new SaturationEngine(snapshot).getShortestAcceptingComputation(inputString);
+            Verdict verdict;
+            if (computation == null) {
+                verdict = new Verdict(false, null);
+            } else {
+                verdict = new Verdict(true, new ArrayList<>(computation.getTransitions()));
+            }
+            synchronized (this) {
+                computing.remove(key);
+                verdicts.put(key, verdict);
+                indexVerdict(fingerprint, inputString, verdict);
+            }
+            writeVerdict(fingerprint, inputString, verdict);
+            future.complete(verdict);
+            return verdict;
+        } catch (IOException | RuntimeException | Error e) {
+            synchronized (this) {
+                computing.remove(key);
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for a verdict that another thread is computing.
+     *
+     * @param future The future the verdict is completed with.
+     * @return The verdict.
+     * @throws IOException If the other thread could not write the verdict to disk.
+     */
+    private static Verdict awaitVerdict(CompletableFuture<Verdict> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a verdict", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new IOException(cause.getMessage(), cause);
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Checks if the PDA accepts the given input string, using the cached verdict if there is one.
+     *
+     * @param pda         The PDA.
+     * @param inputString The input string the automaton is being run on.
+     * @return True if the PDA accepts the input string and false otherwise.
+     * @throws IOException If the verdicts on disk cannot be read or written.
+     */
+    public boolean accepts(PDA pda, String inputString) throws IOException {
+        return getVerdict(pda, inputString).isAccepted();
+    }
+
+    /**
+     * Removes every verdict from memory. Verdicts persisted on disk are kept.
+     */
+    public synchronized void clearMemory() {
+        verdicts.clear();
+    }
+
+    /**
+     * Gets the number of verdicts currently kept in memory.
+     *
+     * @return The number of verdicts in memory.
+     */
+    public synchronized int getMemorySize() {
+        return verdicts.size();
+    }
+
+    /**
+     * Gets the number of verdicts that were found in memory.
+     *
+     * @return The number of memory hits.
+     */
+    public synchronized int getMemoryHits() {
+        return memoryHits;
+    }
+
+    /**
+     * Gets the number of verdicts that were not in memory but were found on disk.
+     *
+     * @return The number of disk hits.
+     */
+    public synchronized int getDiskHits() {
+        return diskHits;
+    }
+
+    /**
+     * Gets the number of verdicts that had to be computed.
+     *
+     * @return The number of misses.
+     */
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Computes a fingerprint of the structure of a PDA that does not depend on the order its
+     * transitions and accepting states were defined in. Two PDAs with the same fingerprint accept
+     * the same input strings with the same computations. The transitions are sorted and hashed
+     * with SHA-256 on every call, so the cache remembers the fingerprints of recently used PDAs.
+     *
+     * @param pda The PDA.
+     * @return The fingerprint as 64 hexadecimal digits.
+     */
+    public static String fingerprint(PDA pda) {
+        ArrayList<String> transitions = new ArrayList<>();
+        for (PDATransition transition : pda.getTransitions()) {
+            transitions.add(transition.toString());
+        }
+        Collections.sort(transitions);
+        ArrayList<String> acceptingStates = new ArrayList<>(pda.getAcceptingStates());
+        Collections.sort(acceptingStates);
+        String canonical = "transitions=" + transitions + ", initialState=" +
+                pda.getInitialState() + ", acceptingStates=" + acceptingStates +
+                ", initialStackSymbol=" + pda.getInitialStackSymbol() +
+                ", acceptanceCriteria=" + pda.getAcceptanceCriteria();
+
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+            hex[2 * i + 1] = HEX_DIGITS[digest[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Looks for a verdict in the index of verdicts on disk, reading the file of the PDA into the
+     * index first if it is not there.
+     *
+     * @param fingerprint The fingerprint of the PDA.
+     * @param inputString The input string.
+     * @return The verdict, or null if there is no disk tier or the verdict is not in it.
+     * @throws IOException If the file of the PDA cannot be read.
+     */
+    private Verdict readVerdict(String fingerprint, String inputString) throws IOException {
+        if (directory == null) {
+            return null;
+        }
+        HashMap<String, String> witnesses = diskIndex.get(fingerprint);
+        if (witnesses == null) {
+            witnesses = loadFile(fingerprint);
+            diskIndex.put(fingerprint, witnesses);
+            diskIndexSize += witnesses.size();
+            evictFiles();
+        }
+        String witness = witnesses.get(inputString);
+        return witness == null ? null : parseVerdict(witness);
+    }
+
+    /**
+     * Reads the file of a PDA on disk.
+     *
+     * @param fingerprint The fingerprint of the PDA.
+     * @return The witnesses in the file, keyed by input string, which is empty if the PDA has no
+     * file.
+     * @throws IOException If the file cannot be read.
+     */
+    private HashMap<String, String> loadFile(String fingerprint) throws IOException {
+        HashMap<String, String> witnesses = new HashMap<>();
+        Path file = directory.resolve(fingerprint + ".txt");
+        if (!Files.exists(file)) {
+            return witnesses;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Each line is the escaped input string, a tab and the witness (or "null" if the
+                // input string is rejected). The last line for an input string wins.
+                int tabIndex = line.indexOf('\t');
+                if (tabIndex != -1) {
+                    witnesses.put(unescape(line.substring(0, tabIndex)),
+                            line.substring(tabIndex + 1));
+                }
+            }
+        }
+        return witnesses;
+    }
+
+    /**
+     * Drops the files that were used least recently from the index of verdicts on disk until it
+     * holds no more verdicts than the memory tier, keeping at least the file used most recently.
+     */
+    private void evictFiles() {
+        Iterator<HashMap<String, String>> files = diskIndex.values().iterator();
+        while (diskIndexSize > capacity && diskIndex.size() > 1) {
+            diskIndexSize -= files.next().size();
+            files.remove();
+        }
+    }
+
+    /**
+     * Adds a new verdict to the index of verdicts on disk if the file of its PDA is in the index.
+     *
+     * @param fingerprint The fingerprint of the PDA.
+     * @param inputString The input string.
+     * @param verdict     The verdict.
+     */
+    private void indexVerdict(String fingerprint, String inputString, Verdict verdict) {
+        HashMap<String, String> witnesses = diskIndex.get(fingerprint);
+        if (witnesses != null && witnesses.put(inputString, witnessString(verdict)) == null) {
+            diskIndexSize++;
+            evictFiles();
+        }
+    }
+
+    /**
+     * Appends a verdict to the file of a PDA on disk, if there is a disk tier. This is called
+     * without holding the lock of the cache.
+     *
+     * @param fingerprint The fingerprint of the PDA.
+     * @param inputString The input string.
+     * @param verdict     The verdict.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeVerdict(String fingerprint, String inputString, Verdict verdict)
+            throws IOException {
+        if (directory == null) {
+            return;
+        }
+        Path file = directory.resolve(fingerprint + ".txt");
+        synchronized (fileLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(escape(inputString) + "\t" + witnessString(verdict));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Gets the witness of a verdict as it is written to disk.
+     *
+     * @param verdict The verdict.
+     * @return The string representation of the list of witness transitions, or "null" if the
+     * input string is rejected.
+     */
+    private static String witnessString(Verdict verdict) {
+        return verdict.witness == null ? "null" : verdict.witness.toString();
+    }
+
+    /**
+     * Reconstructs a verdict from the witness written to disk.
+     *
+     * @param witness The string representation of the list of witness transitions, or "null" if
+     *                the input string is rejected.
+     * @return The verdict.
+     */
+    private static Verdict parseVerdict(String witness) {
+        if (witness.equals("null")) {
+            return new Verdict(false, null);
+        }
+        ArrayList<PDATransition> transitions = new ArrayList<>();
+        String transitionsString = witness.substring(1, witness.length() - 1);
+        for (String transition : transitionsString.split(", ")) {
+            if (!transition.isEmpty()) {
+                transitions.add(new PDATransition(transition));
+            }
+        }
+        return new Verdict(true, transitions);
+    }
+
+    /**
+     * Escapes the backslashes, tabs and line breaks in an input string so that it fits on one
+     * line of a verdict file.
+     *
+     * @param inputString The input string.
+     * @return The escaped input string.
+     */
+    private static String escape(String inputString) {
+        return inputString.replace("\\", "\\\\").replace("\t", "\\t")
+                .replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    /**
+     * Reverses the escaping of an input string read from a verdict file.
+     *
+     * @param escapedInputString The escaped input string.
+     * @return The input string.
+     */
+    private static String unescape(String escapedInputString) {
+        StringBuilder inputString = new StringBuilder();
+        for (int i = 0; i < escapedInputString.length(); i++) {
+            char c = escapedInputString.charAt(i);
+            if (c == '\\' && i + 1 < escapedInputString.length()) {
+                i++;
+                char escaped = escapedInputString.charAt(i);
+                if (escaped == 't') {
+                    c = '\t';
+                } else if (escaped == 'n') {
+                    c = '\n';
+                } else if (escaped == 'r') {
+                    c = '\r';
+                } else {
+                    c = escaped;
+                }
+            }
+            inputString.append(c);
+        }
+        return inputString.toString();
+    }
+}
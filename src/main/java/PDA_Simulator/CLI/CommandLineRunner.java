@@ -0,0 +1,451 @@
+package PDA_Simulator.CLI;
+
+import PDA_Simulator.Backend.Computation;
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.Pair;
+import PDA_Simulator.Backend.RunGovernor;
+import PDA_Simulator.Backend.SaturationEngine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class runs a saved PDA on a file of input strings without a user interface, so that PDAs
+ * can be checked on machines without a display, such as CI and grading servers. The PDA is read
+ * from a file in the format the simulator saves PDAs in (the positions of the states and the
+ * transition function are ignored), and each line of the input file is one input string. The
+ * verdict for each input string, and how long it took, is written to standard output as it
+ * becomes available, as either JSON lines or CSV, in the same order as the input strings.
+ * <p>
+ * By default, input strings are run with a SaturationEngine, which always gives an exact answer.
+ * The depth-first search used by the quick run can be used instead, in which case the step limits
+ * of the quick run apply. Either way, a time limit can be set for each input string, and an input
+ * string whose run is stopped by a limit gets the verdict "unknown". Input strings are run in
+ * parallel, with every thread sharing an immutable snapshot of the PDA.
+ */
+
+public class CommandLineRunner {
+    // The default maximum number of steps a computation can go on for when searching
+    private static final int DEFAULT_MAX_STEPS = 50;
+    // The default maximum total number of steps when searching
+    private static final int DEFAULT_MAX_TOTAL_STEPS = 5000;
+    // The exit status when every input string was run
+    private static final int EXIT_SUCCESS = 0;
+    // The exit status when a file could not be read or did not contain a valid PDA
+    private static final int EXIT_FAILURE = 1;
+    // The exit status when the arguments were invalid
+    private static final int EXIT_USAGE = 2;
+    // The usage message
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: CommandLineRunner --pda FILE [options]",
+            "",
+            "Runs a saved PDA on every line of an input file and writes the verdicts to standard",
+            "output.",
+            "",
+            "Options:",
+            "  --pda FILE               The saved PDA to run.",
+            "  --inputs FILE            The file of input strings, one per line (default: standard",
+            "                           input).",
+            "  --format jsonl|csv       The output format (default: jsonl).",
+            "  --engine saturation|search",
+            "                           Run input strings exactly with saturation, or with the",
+            "                           depth-first search of the quick run (default: saturation).",
+            "  --max-steps N            The most steps a computation can take when searching",
+            "                           (default: " + DEFAULT_MAX_STEPS + ").",
+            "  --max-total-steps N      The most steps in total when searching (default: " +
+                    DEFAULT_MAX_TOTAL_STEPS + ").",
+            "  --time-limit MS          The most time each input string can take (default: none).",
+            "  --threads N              The number of input strings run at once (default: the",
+            "                           number of processors).",
+            "  --help                   Shows this message.");
+
+    // The file containing the PDA
+    private String pdaFile = null;
+    // The file containing the input strings, or null to read them from standard input
+    private String inputsFile = null;
+    // Whether to write CSV rather than JSON lines
+    private boolean csv = false;
+    // Whether to use the depth-first search rather than saturation
+    private boolean search = false;
+    // The maximum number of steps a computation can go on for when searching
+    private int maxSteps = DEFAULT_MAX_STEPS;
+    // The maximum total number of steps when searching
+    private int maxTotalSteps = DEFAULT_MAX_TOTAL_STEPS;
+    // The time limit for each input string in milliseconds, or 0 if there is none
+    private long timeLimit = 0;
+    // The number of input strings run at once
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The outcome of running the PDA on one input string.
+     */
+    private static final class Result {
+        // The input string
+        private final String inputString;
+        // Either "accepted", "rejected" or "unknown"
+        private final String verdict;
+        // The limit that stopped the run, or null if it was not stopped
+        private final String stoppedBy;
+        // How long the run took in nanoseconds
+        private final long time;
+
+        private Result(String inputString, String verdict, String stoppedBy, long time) {
+            this.inputString = inputString;
+            this.verdict = verdict;
+            this.stoppedBy = stoppedBy;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Runs the command line runner with the given arguments and exits with its exit status.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.in, System.out, System.err));
+    }
+
+    /**
+     * Runs the command line runner with the given arguments and streams.
+     *
+     * @param args The command line arguments.
+     * @param in   The stream the input strings are read from if no input file is given.
+     * @param out  The stream the verdicts are written to.
+     * @param err  The stream errors and the summary are written to.
+     * @return 0 if every input string was run, 1 if a file could not be read or did not contain a
+     * valid PDA and 2 if the arguments were invalid.
+     */
+    public static int run(String[] args, InputStream in, PrintStream out, PrintStream err) {
+        CommandLineRunner runner = new CommandLineRunner();
+        String error = runner.parseArguments(args);
+        if (error != null) {
+            if (!error.isEmpty()) {
+                err.println(error);
+            }
+            err.println(USAGE);
+            return error.isEmpty() ? EXIT_SUCCESS : EXIT_USAGE;
+        }
+
+        PDA pda;
+        try {
+            pda = loadPDA(new String(Files.readAllBytes(Paths.get(runner.pdaFile)),
+                    StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            err.println("Could not read " + runner.pdaFile + ": " + e.getMessage());
+            return EXIT_FAILURE;
+        } catch (IllegalArgumentException e) {
+            err.println(runner.pdaFile + " does not contain a valid PDA: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+
+        try (BufferedReader reader = runner.inputsFile == null ?
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)) :
+                Files.newBufferedReader(Paths.get(runner.inputsFile), StandardCharsets.UTF_8)) {
+            runner.runInputStrings(pda, reader, out, err);
+        } catch (IOException e) {
+            err.println("Could not read the input strings: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+        return EXIT_SUCCESS;
+    }
+
+    /**
+     * Reconstructs a PDA from the contents of a saved PDA file. The information only used by the
+     * user interface (the positions of the states and the transition function) is ignored.
+     *
+     * @param contents The contents of the file.
+     * @return The PDA.
+     * @throws IllegalArgumentException If the contents do not describe a PDA that can be run.
+     */
+    public static PDA loadPDA(String contents) {
+        contents = contents.trim();
+        int middle = contents.indexOf("}{");
+        String pdaString = middle == -1 ? contents : contents.substring(0, middle + 1);
+        PDA pda = new PDA();
+        try {
+            pda.loadPDAFromString(pdaString);
+        } catch (StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("the PDA could not be parsed");
+        }
+        if (pda.getInitialState() == null) {
+            throw new IllegalArgumentException("the PDA has no initial state");
+        }
+        return pda;
+    }
+
+    /**
+     * Reads the options from the command line arguments.
+     *
+     * @param args The command line arguments.
+     * @return Null if the arguments are valid, an empty string if the usage message was asked for
+     * or a description of what is wrong with the arguments otherwise.
+     */
+    private String parseArguments(String[] args) {
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help")) {
+                    return "";
+                }
+                if (i + 1 == args.length) {
+                    return "Missing value for " + option;
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--pda":
+                        pdaFile = value;
+                        break;
+                    case "--inputs":
+                        inputsFile = value.equals("-") ? null : value;
+                        break;
+                    case "--format":
+                        if (!value.equals("jsonl") && !value.equals("csv")) {
+                            return "Unknown format: " + value;
+                        }
+                        csv = value.equals("csv");
+                        break;
+                    case "--engine":
+                        if (!value.equals("saturation") && !value.equals("search")) {
+                            return "Unknown engine: " + value;
+                        }
+                        search = value.equals("search");
+                        break;
+                    case "--max-steps":
+                        maxSteps = parsePositive(value);
+                        break;
+                    case "--max-total-steps":
+                        maxTotalSteps = parsePositive(value);
+                        break;
+                    case "--time-limit":
+                        timeLimit = parsePositive(value);
+                        break;
+                    case "--threads":
+                        threads = parsePositive(value);
+                        break;
+                    default:
+                        return "Unknown option: " + option;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return e.getMessage();
+        }
+        if (pdaFile == null) {
+            return "No PDA file given";
+        }
+        return null;
+    }
+
+    /**
+     * Parses the value of an option that must be a positive integer.
+     *
+     * @param value The value.
+     * @return The integer.
+     * @throws NumberFormatException If the value is not a positive integer.
+     */
+    static int parsePositive(String value) {
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            number = 0;
+        }
+        if (number < 1) {
+            throw new NumberFormatException("Not a positive integer: " + value);
+        }
+        return number;
+    }
+
+    /**
+     * Runs the PDA on every input string read from the reader and writes each verdict as soon as
+     * the verdicts of the input strings before it have been written, followed by a summary on the
+     * error stream.
+     *
+     * @param pda    The PDA.
+     * @param reader The reader the input strings are read from.
+     * @param out    The stream the verdicts are written to.
+     * @param err    The stream the summary is written to.
+     * @throws IOException If the input strings cannot be read.
+     */
+    private void runInputStrings(PDA pda, BufferedReader reader, PrintStream out,
+                                 PrintStream err) throws IOException {
+        // The PDA builds caches lazily while it runs, so every thread runs the same immutable
+        // snapshot of it instead
+        PDA snapshot = pda.snapshot();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Input string runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Time limit");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (csv) {
+            out.println("input,verdict,stopped_by,time_ms");
+        }
+        long start = System.nanoTime();
+        int[] counts = new int[3];
+        // Only a few input strings per thread are queued up at once, so that the input file
+        // does not need to fit in memory
+        ArrayDeque<Future<Result>> pending = new ArrayDeque<>();
+        try {
+            String inputString;
+            while ((inputString = reader.readLine()) != null) {
+                String line = inputString;
+                pending.add(executor.submit(() -> runInputString(snapshot, line, timer)));
+                if (pending.size() >= threads * 4) {
+                    write(pending.poll(), out, counts);
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.poll(), out, counts);
+            }
+        } finally {
+            executor.shutdownNow();
+            timer.shutdownNow();
+        }
+        out.flush();
+        err.printf(Locale.ROOT, "%d input strings: %d accepted, %d rejected, %d unknown " +
+                        "(%.1f ms)%n", counts[0] + counts[1] + counts[2], counts[0], counts[1],
+                counts[2], (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Runs the PDA on a single input string.
+     *
+     * @param pda         The snapshot of the PDA shared by every thread.
+     * @param inputString The input string.
+     * @param timer       The executor used to stop runs that go over the time limit.
+     * @return The result of the run.
+     */
+    private Result runInputString(PDA pda, String inputString, ScheduledExecutorService timer) {
+        long start = System.nanoTime();
+        if (search) {
+            RunGovernor governor = RunGovernor.ofConfigurations(maxTotalSteps);
+            if (timeLimit > 0) {
+                governor.setTimeLimit(timeLimit);
+            }
+            Pair<ArrayList<Computation>, Boolean> result =
+                    pda.getAcceptingComputations(inputString, maxSteps, governor);
+            long time = System.nanoTime() - start;
+            if (result == null) {
+                return new Result(inputString, "rejected", null, time);
+            }
+            String stoppedBy = null;
+            if (result.getValue() != null) {
+                stoppedBy = result.getValue() ? "steps" :
+                        governor.getExhaustedBudget().name().toLowerCase(Locale.ROOT);
+            }
+            String verdict = result.getKey().isEmpty() ? "unknown" : "accepted";
+            return new Result(inputString, verdict, stoppedBy, time);
+        }
+
+        SaturationEngine engine = new SaturationEngine(pda);
+        ScheduledFuture<?> deadline = timeLimit > 0 ?
+                timer.schedule(engine::cancel, timeLimit, TimeUnit.MILLISECONDS) : null;
+        try {
+            boolean accepted = engine.accepts(inputString);
+            return new Result(inputString, accepted ? "accepted" : "rejected", null,
+                    System.nanoTime() - start);
+        } catch (CancellationException e) {
+            return new Result(inputString, "unknown", "time", System.nanoTime() - start);
+        } finally {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Waits for a result and writes it in the chosen format.
+     *
+     * @param future The result being waited for.
+     * @param out    The stream the result is written to.
+     * @param counts The number of input strings accepted, rejected and with an unknown verdict so
+     *               far, which is updated.
+     */
+    private void write(Future<Result> future, PrintStream out, int[] counts) {
+        Result result;
+        try {
+            result = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        if (result.verdict.equals("accepted")) {
+            counts[0]++;
+        } else if (result.verdict.equals("rejected")) {
+            counts[1]++;
+        } else {
+            counts[2]++;
+        }
+
+        String time = String.format(Locale.ROOT, "%.3f", result.time / 1e6);
+        if (csv) {
+            out.println(csvField(result.inputString) + "," + result.verdict + "," +
+                    (result.stoppedBy == null ? "" : result.stoppedBy) + "," + time);
+        } else {
+            out.println("{\"input\":" + jsonString(result.inputString) + ",\"verdict\":\"" +
+                    result.verdict + "\",\"stoppedBy\":" +
+                    (result.stoppedBy == null ? "null" : "\"" + result.stoppedBy + "\"") +
+                    ",\"timeMs\":" + time + "}");
+        }
+    }
+
+    /**
+     * Quotes a CSV field if it contains a comma, a quote or a line break.
+     *
+     * @param field The field.
+     * @return The field as it should be written.
+     */
+    static String csvField(String field) {
+        if (field.contains(",") || field.contains("\"") || field.contains("\n") ||
+                field.contains("\r")) {
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+        return field;
+    }
+
+    /**
+     * Writes a string as a JSON string literal.
+     *
+     * @param string The string.
+     * @return The JSON string literal.
+     */
+    static String jsonString(String string) {
+        StringBuilder json = new StringBuilder("\"");
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+}
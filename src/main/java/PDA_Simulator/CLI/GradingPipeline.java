@@ -0,0 +1,470 @@
+package PDA_Simulator.CLI;
+
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.SaturationEngine;
+import PDA_Simulator.Backend.VerdictCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class grades a directory of submitted PDA files against a reference PDA. Every submission
+ * is run on the same test suite of input strings, and its score is the number of input strings it
+ * gives the same verdict for as the reference. The verdicts of the reference are looked up in a
+ * VerdictCache, which can be kept on disk so that grading the same assignment again does not run
+ * the reference at all.
+ * <p>
+ * Each submission is loaded once as a snapshot and run with a SaturationEngine, which always gives
+ * an exact answer, and several submissions are graded at once. The report for each submission is
+ * written as soon as the reports of the submissions before it (in the order of their file names)
+ * have been written, and only a few submissions are in memory at any time, so memory use does not
+ * grow with the number of submissions. A submission that cannot be loaded, or that is too large
+ * for the engine to run, is reported as invalid with a score of 0, and the other submissions are
+ * still graded.
+ */
+
+public class GradingPipeline {
+    // The most input strings a submission gets wrong that are listed in its report
+    private static final int MAX_COUNTEREXAMPLES = 3;
+    // The exit status when every submission was graded
+    private static final int EXIT_SUCCESS = 0;
+    // The exit status when the reference, test suite or submissions could not be read
+    private static final int EXIT_FAILURE = 1;
+    // The exit status when the arguments were invalid
+    private static final int EXIT_USAGE = 2;
+    // The usage message
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: GradingPipeline --reference FILE --submissions DIR --tests FILE [options]",
+            "",
+            "Grades every PDA file in a directory against a reference PDA on a test suite of",
+            "input strings and writes a report for each submission to standard output.",
+            "",
+            "Options:",
+            "  --reference FILE         The saved reference PDA.",
+            "  --submissions DIR        The directory of saved PDAs to grade.",
+            "  --tests FILE             The test suite, one input string per line.",
+            "  --cache DIR              The directory the verdicts of the reference are kept in",
+            "                           between runs (default: none).",
+            "  --format jsonl|csv       The output format (default: jsonl).",
+            "  --threads N              The number of submissions graded at once (default: the",
+            "                           number of processors).",
+            "  --help                   Shows this message.");
+
+    // The test suite
+    private final List<String> testSuite;
+    // Whether the reference accepts each input string of the test suite
+    private final boolean[] expected;
+    // The number of submissions graded at once
+    private final int threads;
+
+    /**
+     * The result of grading one submission.
+     */
+    public static final class SubmissionReport {
+        // The name of the submission
+        private final String name;
+        // The number of input strings given the same verdict as the reference
+        private final int passed;
+        // The number of input strings in the test suite
+        private final int total;
+        // Some of the input strings given a different verdict to the reference
+        private final List<String> counterexamples;
+        // Why the submission could not be graded, or null if it was graded
+        private final String error;
+
+        /**
+         * Creates a report for a submission.
+         *
+         * @param name            The name of the submission.
+         * @param passed          The number of input strings given the same verdict as the
+         *                        reference.
+         * @param total           The number of input strings in the test suite.
+         * @param counterexamples Some of the input strings given a different verdict.
+         * @param error           Why the submission could not be graded, or null.
+         */
+        private SubmissionReport(String name, int passed, int total, List<String> counterexamples,
+                                 String error) {
+            this.name = name;
+            this.passed = passed;
+            this.total = total;
+            this.counterexamples = Collections.unmodifiableList(counterexamples);
+            this.error = error;
+        }
+
+        /**
+         * Gets the name of the submission.
+         *
+         * @return The name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the number of input strings the submission gives the same verdict for as the
+         * reference.
+         *
+         * @return The number of passed input strings, which is 0 if the submission is invalid.
+         */
+        public int getPassed() {
+            return passed;
+        }
+
+        /**
+         * Gets the number of input strings in the test suite.
+         *
+         * @return The number of input strings.
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * Gets the score of the submission as a percentage.
+         *
+         * @return The percentage of input strings passed, or 100 if the test suite is empty.
+         */
+        public double getScore() {
+            return total == 0 ? 100 : 100.0 * passed / total;
+        }
+
+        /**
+         * Gets some of the input strings the submission gives a different verdict for to the
+         * reference, in the order of the test suite.
+         *
+         * @return At most three input strings.
+         */
+        public List<String> getCounterexamples() {
+            return counterexamples;
+        }
+
+        /**
+         * Gets why the submission could not be graded.
+         *
+         * @return A description of the problem, or null if the submission was graded.
+         */
+        public String getError() {
+            return error;
+        }
+    }
+
+    /**
+     * Creates a pipeline that grades submissions against the given reference.
+     *
+     * @param reference      The reference PDA.
+     * @param testSuite      The input strings every submission is run on.
+     * @param referenceCache The cache the verdicts of the reference are looked up in.
+     * @param threads        The number of submissions graded at once.
+     * @throws IOException If the verdicts on disk cannot be read or written.
+     */
+    public GradingPipeline(PDA reference, List<String> testSuite, VerdictCache referenceCache,
+                           int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be at least 1");
+        }
+        this.testSuite = new ArrayList<>(testSuite);
+        this.threads = threads;
+        expected = new boolean[testSuite.size()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = referenceCache.accepts(reference, testSuite.get(i));
+        }
+    }
+
+    /**
+     * Runs the grading pipeline with the given arguments and exits with its exit status.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs the grading pipeline with the given arguments and streams.
+     *
+     * @param args The command line arguments.
+     * @param out  The stream the reports are written to.
+     * @param err  The stream errors and the summary are written to.
+     * @return 0 if every submission was graded, 1 if the reference, test suite or submissions
+     * could not be read and 2 if the arguments were invalid.
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        String referenceFile = null;
+        String submissionsDirectory = null;
+        String testsFile = null;
+        String cacheDirectory = null;
+        boolean csv = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String error = null;
+        try {
+            for (int i = 0; i < args.length && error == null; i++) {
+                if (args[i].equals("--help")) {
+                    err.println(USAGE);
+                    return EXIT_SUCCESS;
+                }
+                if (i + 1 == args.length) {
+                    error = "Missing value for " + args[i];
+                    break;
+                }
+                String value = args[++i];
+                switch (args[i - 1]) {
+                    case "--reference":
+                        referenceFile = value;
+                        break;
+                    case "--submissions":
+                        submissionsDirectory = value;
+                        break;
+                    case "--tests":
+                        testsFile = value;
+                        break;
+                    case "--cache":
+                        cacheDirectory = value;
+                        break;
+                    case "--format":
+                        if (!value.equals("jsonl") && !value.equals("csv")) {
+                            error = "Unknown format: " + value;
+                        }
+                        csv = value.equals("csv");
+                        break;
+                    case "--threads":
+                        threads = CommandLineRunner.parsePositive(value);
+                        break;
+                    default:
+                        error = "Unknown option: " + args[i - 1];
+                }
+            }
+        } catch (NumberFormatException e) {
+            error = e.getMessage();
+        }
+        if (error == null && (referenceFile == null || submissionsDirectory == null ||
+                testsFile == null)) {
+            error = "The reference, submissions and tests must all be given";
+        }
+        if (error != null) {
+            err.println(error);
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            PDA reference;
+            try {
+                reference = CommandLineRunner.loadPDA(new String(
+                        Files.readAllBytes(Paths.get(referenceFile)), StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                err.println(referenceFile + " does not contain a valid PDA: " + e.getMessage());
+                return EXIT_FAILURE;
+            }
+            List<String> testSuite = Files.readAllLines(Paths.get(testsFile),
+                    StandardCharsets.UTF_8);
+            VerdictCache cache = new VerdictCache(Math.max(1, testSuite.size()),
+                    cacheDirectory == null ? null : Paths.get(cacheDirectory));
+            GradingPipeline pipeline;
+            try {
+                pipeline = new GradingPipeline(reference, testSuite, cache, threads);
+            } catch (RuntimeException e) {
+                err.println(referenceFile + " could not be run: " + e.getMessage());
+                return EXIT_FAILURE;
+            }
+            pipeline.grade(Paths.get(submissionsDirectory), out, err, csv);
+        } catch (IOException e) {
+            err.println("Could not grade the submissions: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+        return EXIT_SUCCESS;
+    }
+
+    /**
+     * Grades every file in a directory and writes the report for each one as soon as the reports
+     * for the files before it have been written, followed by a summary on the error stream.
+     *
+     * @param submissions The directory of submissions.
+     * @param out         The stream the reports are written to.
+     * @param err         The stream the summary is written to.
+     * @param csv         Whether to write CSV rather than JSON lines.
+     * @throws IOException If the directory cannot be read.
+     */
+    public void grade(Path submissions, PrintStream out, PrintStream err, boolean csv)
+            throws IOException {
+        // Only the names of the submissions are kept for the whole run, so that they can be
+        // graded in a consistent order
+        ArrayList<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> directory = Files.newDirectoryStream(submissions)) {
+            for (Path file : directory) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        Collections.sort(files);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Submission grader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (csv) {
+            out.println("submission,passed,total,score,counterexamples,error");
+        }
+        int graded = 0;
+        int invalid = 0;
+        double totalScore = 0;
+        // Only a few submissions per thread are graded ahead of the one being written
+        ArrayDeque<Future<SubmissionReport>> pending = new ArrayDeque<>();
+        try {
+            for (int i = 0; i <= files.size(); i++) {
+                if (i < files.size()) {
+                    Path file = files.get(i);
+                    pending.add(executor.submit(() -> gradeFile(file)));
+                }
+                while (!pending.isEmpty() &&
+                        (pending.size() >= threads * 2 || i == files.size())) {
+                    SubmissionReport report = waitFor(pending.poll());
+                    write(report, out, csv);
+                    graded++;
+                    totalScore += report.getScore();
+                    if (report.getError() != null) {
+                        invalid++;
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        out.flush();
+        err.printf(Locale.ROOT, "%d submissions graded on %d input strings: mean score %.1f%%, " +
+                        "%d invalid%n", graded, testSuite.size(),
+                graded == 0 ? 0 : totalScore / graded, invalid);
+    }
+
+    /**
+     * Grades a submitted PDA against the reference.
+     *
+     * @param name     The name of the submission.
+     * @param contents The contents of the saved PDA file.
+     * @return The report for the submission.
+     */
+    public SubmissionReport gradeSubmission(String name, String contents) {
+        PDA submission;
+        try {
+            submission = CommandLineRunner.loadPDA(contents).snapshot();
+        } catch (IllegalArgumentException e) {
+            return new SubmissionReport(name, 0, testSuite.size(), new ArrayList<>(),
+                    "not a valid PDA: " + e.getMessage());
+        }
+        int passed = 0;
+        ArrayList<String> counterexamples = new ArrayList<>();
+        try {
+            for (int i = 0; i < testSuite.size(); i++) {
+                String inputString = testSuite.get(i);
+                if (new SaturationEngine(submission).accepts(inputString) == expected[i]) {
+                    passed++;
+                } else if (counterexamples.size() < MAX_COUNTEREXAMPLES) {
+                    counterexamples.add(inputString);
+                }
+            }
+        } catch (RuntimeException e) {
+            // The engine rejects PDAs it cannot run, which only makes this submission invalid
+            return new SubmissionReport(name, 0, testSuite.size(), new ArrayList<>(),
+                    "could not be run: " + e.getMessage());
+        }
+        return new SubmissionReport(name, passed, testSuite.size(), counterexamples, null);
+    }
+
+    /**
+     * Reads and grades a submitted PDA file.
+     *
+     * @param file The file.
+     * @return The report for the submission.
+     */
+    private SubmissionReport gradeFile(Path file) {
+        String name = file.getFileName().toString();
+        String contents;
+        try (InputStream in = Files.newInputStream(file)) {
+            contents = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return new SubmissionReport(name, 0, testSuite.size(), new ArrayList<>(),
+                    "could not be read: " + e.getMessage());
+        }
+        return gradeSubmission(name, contents);
+    }
+
+    /**
+     * Waits for a submission to be graded.
+     *
+     * @param future The report being waited for.
+     * @return The report.
+     */
+    private static SubmissionReport waitFor(Future<SubmissionReport> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Joins the counterexamples of a report with spaces for a CSV field, writing the empty input
+     * string as ε so that it can be seen.
+     *
+     * @param report The report.
+     * @return The counterexamples.
+     */
+    private static String csvCounterexamples(SubmissionReport report) {
+        ArrayList<String> counterexamples = new ArrayList<>();
+        for (String counterexample : report.getCounterexamples()) {
+            counterexamples.add(counterexample.isEmpty() ? "ε" : counterexample);
+        }
+        return String.join(" ", counterexamples);
+    }
+
+    /**
+     * Writes the report for a submission in the chosen format.
+     *
+     * @param report The report.
+     * @param out    The stream the report is written to.
+     * @param csv    Whether to write CSV rather than JSON lines.
+     */
+    private static void write(SubmissionReport report, PrintStream out, boolean csv) {
+        String score = String.format(Locale.ROOT, "%.1f", report.getScore());
+        if (csv) {
+            out.println(CommandLineRunner.csvField(report.getName()) + "," + report.getPassed() +
+                    "," + report.getTotal() + "," + score + "," +
+                    CommandLineRunner.csvField(csvCounterexamples(report)) +
+                    "," + (report.getError() == null ? "" :
+                    CommandLineRunner.csvField(report.getError())));
+            return;
+        }
+        StringBuilder counterexamples = new StringBuilder("[");
+        for (String counterexample : report.getCounterexamples()) {
+            if (counterexamples.length() > 1) {
+                counterexamples.append(',');
+            }
+            counterexamples.append(CommandLineRunner.jsonString(counterexample));
+        }
+        counterexamples.append(']');
+        out.println("{\"submission\":" + CommandLineRunner.jsonString(report.getName()) +
+                ",\"passed\":" + report.getPassed() + ",\"total\":" + report.getTotal() +
+                ",\"score\":" + score + ",\"counterexamples\":" + counterexamples +
+                ",\"error\":" + (report.getError() == null ? "null" :
+                CommandLineRunner.jsonString(report.getError())) + "}");
+    }
+}
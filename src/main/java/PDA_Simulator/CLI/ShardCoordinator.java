@@ -0,0 +1,915 @@
+package PDA_Simulator.CLI;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * This class runs a PDA on a large corpus of input strings by splitting the corpus into shards and
+ * running the shards on several workers at once. Each worker is normally a separate JVM, either
+ * started by the coordinator on the same machine or listening on a TCP port of another machine
+ * (see ShardWorker), so the corpus is not limited by the heap or the garbage collector of a single
+ * JVM. Workers can also run inside the coordinator's own JVM, which is mainly useful for testing.
+ * <p>
+ * Each worker loads the PDA once and then runs one shard at a time, taking the next shard that
+ * has not been run yet as soon as it finishes, so faster workers run more shards. If a worker
+ * crashes, replies with something unexpected or does not reply in time, it is stopped, its shard
+ * is put back to be run again and a new worker is started in its place. A shard that fails too
+ * many times fails the whole run. The verdicts are merged in the order of the corpus, whichever
+ * worker ran them, and the report of the run includes the overall throughput. The verdicts of
+ * each shard can also be received as soon as the shards before it have finished, which the
+ * command line entry point uses to write them out while the rest of the corpus is still running.
+ */
+
+public class ShardCoordinator {
+    // The default number of milliseconds a worker has to reply to a request before it is treated
+    // as failed
+    public static final long DEFAULT_REPLY_TIMEOUT = 5 * 60 * 1000;
+    // Stops the workers that do not reply in time
+    private static final ScheduledExecutorService WATCHDOG =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Shard worker watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+    // The verdict of an accepted input string
+    private static final String ACCEPTED = "accepted";
+    // The verdict of a rejected input string
+    private static final String REJECTED = "rejected";
+    // The default most input strings in each shard
+    private static final int DEFAULT_SHARD_SIZE = 1000;
+    // The default most times a shard is run again after its worker fails
+    private static final int DEFAULT_RETRIES = 2;
+    // The exit status when every input string was run
+    private static final int EXIT_SUCCESS = 0;
+    // The exit status when a file could not be read or the run failed
+    private static final int EXIT_FAILURE = 1;
+    // The exit status when the arguments were invalid
+    private static final int EXIT_USAGE = 2;
+    // The usage message
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: ShardCoordinator --pda FILE --corpus FILE [options]",
+            "",
+            "Runs a saved PDA on every line of a corpus file by splitting it into shards and",
+            "running them on several workers, and writes the verdicts to standard output.",
+            "",
+            "Options:",
+            "  --pda FILE               The saved PDA to run.",
+            "  --corpus FILE            The corpus, one input string per line.",
+            "  --workers N              The number of workers run at once (default: the number",
+            "                           of worker hosts, or the number of processors if there",
+            "                           are none).",
+            "  --shard-size N           The most input strings in each shard (default: " +
+                    DEFAULT_SHARD_SIZE + ").",
+            "  --retries N              The most times a shard is run again after its worker",
+            "                           fails (default: " + DEFAULT_RETRIES + ").",
+            "  --host HOST:PORT         A worker listening on a TCP port (see ShardWorker). This",
+            "                           can be given several times, and workers are shared out",
+            "                           between the hosts in turn. Without it, workers are",
+            "                           started as JVMs on this machine.",
+            "  --format jsonl|csv       The output format (default: jsonl).",
+            "  --help                   Shows this message.");
+    // Starts the workers
+    private final WorkerFactory workerFactory;
+    // The number of workers run at once
+    private final int workers;
+    // The most input strings in each shard
+    private final int shardSize;
+    // The most times a shard is run before the run fails
+    private final int maxAttempts;
+
+    /**
+     * A worker that runs shards of input strings.
+     */
+    public interface Worker extends Closeable {
+        /**
+         * Loads the PDA that the following shards are run on.
+         *
+         * @param pda The PDA, in the format it is saved in or the format of PDA.toString().
+         * @throws IOException If the worker fails or cannot load the PDA.
+         */
+        void loadPDA(String pda) throws IOException;
+
+        /**
+         * Runs the PDA on a shard of input strings.
+         *
+         * @param inputStrings The input strings.
+         * @return The verdicts, each "accepted" or "rejected", in the same order as the input
+         * strings.
+         * @throws IOException If the worker fails.
+         */
+        List<String> run(List<String> inputStrings) throws IOException;
+    }
+
+    /**
+     * Receives the verdicts of a run shard by shard, in the order of the corpus.
+     */
+    @FunctionalInterface
+    public interface VerdictListener {
+        /**
+         * Receives the verdicts of a shard, once the verdicts of every shard before it have been
+         * received.
+         *
+         * @param start    The position of the first input string of the shard in the corpus.
+         * @param verdicts The verdicts of the shard, each "accepted" or "rejected".
+         */
+        void verdictsReady(int start, List<String> verdicts);
+    }
+
+    /**
+     * Starts new workers, both at the beginning of a run and in place of workers that failed.
+     */
+    @FunctionalInterface
+    public interface WorkerFactory {
+        /**
+         * Starts a new worker.
+         *
+         * @return The worker.
+         * @throws IOException If the worker cannot be started.
+         */
+        Worker start() throws IOException;
+    }
+
+    /**
+     * The verdicts and statistics of a run.
+     */
+    public static final class Report {
+        // The verdicts, in the order of the corpus
+        private final List<String> verdicts;
+        // The number of accepted input strings
+        private final int accepted;
+        // The number of shards the corpus was split into
+        private final int shards;
+        // The number of times a shard had to be run again
+        private final int retries;
+        // How long the run took in nanoseconds
+        private final long time;
+
+        private Report(List<String> verdicts, int accepted, int shards, int retries, long time) {
+            this.verdicts = verdicts;
+            this.accepted = accepted;
+            this.shards = shards;
+            this.retries = retries;
+            this.time = time;
+        }
+
+        /**
+         * Gets the verdicts of the input strings.
+         *
+         * @return A read-only list of the verdicts, each "accepted" or "rejected", in the order of
+         * the corpus.
+         */
+        public List<String> getVerdicts() {
+            return verdicts;
+        }
+
+        /**
+         * Gets the number of accepted input strings.
+         *
+         * @return The number of accepted input strings.
+         */
+        public int getAccepted() {
+            return accepted;
+        }
+
+        /**
+         * Gets the number of rejected input strings.
+         *
+         * @return The number of rejected input strings.
+         */
+        public int getRejected() {
+            return verdicts.size() - accepted;
+        }
+
+        /**
+         * Gets the number of shards the corpus was split into.
+         *
+         * @return The number of shards.
+         */
+        public int getShards() {
+            return shards;
+        }
+
+        /**
+         * Gets the number of times a shard had to be run again because a worker failed, which is
+         * also the number of workers that were started in place of failed ones.
+         *
+         * @return The number of retries.
+         */
+        public int getRetries() {
+            return retries;
+        }
+
+        /**
+         * Gets how long the run took, including starting the workers.
+         *
+         * @return The time in nanoseconds.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * Gets the number of input strings run per second across all workers.
+         *
+         * @return The throughput.
+         */
+        public double getThroughput() {
+            return time == 0 ? 0 : verdicts.size() / (time / 1e9);
+        }
+    }
+
+    /**
+     * A shard of the corpus together with the number of times it has been run.
+     */
+    private static final class Shard {
+        // The position of the first input string of the shard in the corpus
+        private final int start;
+        // The input strings of the shard
+        private final List<String> inputStrings;
+        // The number of times running the shard has failed
+        private int failures = 0;
+
+        private Shard(int start, List<String> inputStrings) {
+            this.start = start;
+            this.inputStrings = inputStrings;
+        }
+    }
+
+    /**
+     * Creates a coordinator.
+     *
+     * @param workerFactory Starts the workers.
+     * @param workers       The number of workers run at once.
+     * @param shardSize     The most input strings in each shard.
+     * @param maxAttempts   The most times a shard is run before the run fails.
+     */
+    public ShardCoordinator(WorkerFactory workerFactory, int workers, int shardSize,
+                            int maxAttempts) {
+        if (workers < 1 || shardSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("The number of workers, the shard size and the " +
+                    "number of attempts must all be at least 1");
+        }
+        this.workerFactory = workerFactory;
+        this.workers = workers;
+        this.shardSize = shardSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Runs the coordinator with the given arguments and exits with its exit status.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs the coordinator with the given arguments and streams.
+     *
+     * @param args The command line arguments.
+     * @param out  The stream the verdicts are written to.
+     * @param err  The stream errors and the summary are written to.
+     * @return 0 if every input string was run, 1 if a file could not be read, did not contain a
+     * valid PDA or the run failed and 2 if the arguments were invalid.
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        String pdaFile = null;
+        String corpusFile = null;
+        int workers = 0;
+        int shardSize = DEFAULT_SHARD_SIZE;
+        int retries = DEFAULT_RETRIES;
+        ArrayList<WorkerFactory> hosts = new ArrayList<>();
+        boolean csv = false;
+        String error = null;
+        try {
+            for (int i = 0; i < args.length && error == null; i++) {
+                if (args[i].equals("--help")) {
+                    err.println(USAGE);
+                    return EXIT_SUCCESS;
+                }
+                if (i + 1 == args.length) {
+                    error = "Missing value for " + args[i];
+                    break;
+                }
+                String value = args[++i];
+                switch (args[i - 1]) {
+                    case "--pda":
+                        pdaFile = value;
+                        break;
+                    case "--corpus":
+                        corpusFile = value;
+                        break;
+                    case "--workers":
+                        workers = CommandLineRunner.parsePositive(value);
+                        break;
+                    case "--shard-size":
+                        shardSize = CommandLineRunner.parsePositive(value);
+                        break;
+                    case "--retries":
+                        retries = parseNonNegative(value);
+                        break;
+                    case "--host":
+                        hosts.add(parseHost(value));
+                        break;
+                    case "--format":
+                        if (!value.equals("jsonl") && !value.equals("csv")) {
+                            error = "Unknown format: " + value;
+                        }
+                        csv = value.equals("csv");
+                        break;
+                    default:
+                        error = "Unknown option: " + args[i - 1];
+                }
+            }
+        } catch (NumberFormatException e) {
+            error = e.getMessage();
+        }
+        if (error == null && (pdaFile == null || corpusFile == null)) {
+            error = "The PDA and corpus must both be given";
+        }
+        if (error != null) {
+            err.println(error);
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (workers == 0) {
+            workers = hosts.isEmpty() ? Runtime.getRuntime().availableProcessors() : hosts.size();
+        }
+
+        String pda;
+        List<String> corpus;
+        try {
+            pda = new String(Files.readAllBytes(Paths.get(pdaFile)), StandardCharsets.UTF_8);
+            corpus = Files.readAllLines(Paths.get(corpusFile), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            err.println("Could not read the PDA and corpus: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+
+        ShardCoordinator coordinator = new ShardCoordinator(
+                hosts.isEmpty() ? processWorkers() : inTurn(hosts), workers, shardSize,
+                retries + 1);
+        if (csv) {
+            out.println("input,verdict");
+        }
+        boolean csvFormat = csv;
+        Report report;
+        try {
+            report = coordinator.run(pda, corpus, (start, verdicts) -> {
+                for (int i = 0; i < verdicts.size(); i++) {
+                    write(corpus.get(start + i), verdicts.get(i), out, csvFormat);
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            err.println(pdaFile + " does not contain a valid PDA: " + e.getMessage());
+            return EXIT_FAILURE;
+        } catch (IOException e) {
+            out.flush();
+            err.println("The run failed: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+        out.flush();
+        err.printf(Locale.ROOT, "%d input strings in %d shards: %d accepted, %d rejected, " +
+                        "%d retries (%.1f ms, %.0f input strings/s)%n",
+                report.getVerdicts().size(), report.getShards(), report.getAccepted(),
+                report.getRejected(), report.getRetries(), report.getTime() / 1e6,
+                report.getThroughput());
+        return EXIT_SUCCESS;
+    }
+
+    /**
+     * Writes the verdict of an input string in the chosen format.
+     *
+     * @param inputString The input string.
+     * @param verdict     The verdict.
+     * @param out         The stream the verdict is written to.
+     * @param csv         Whether to write CSV rather than JSON lines.
+     */
+    private static void write(String inputString, String verdict, PrintStream out, boolean csv) {
+        if (csv) {
+            out.println(CommandLineRunner.csvField(inputString) + "," + verdict);
+        } else {
+            out.println("{\"input\":" + CommandLineRunner.jsonString(inputString) +
+                    ",\"verdict\":\"" + verdict + "\"}");
+        }
+    }
+
+    /**
+     * Parses the value of the host option, which must be a host name or address followed by a
+     * colon and a port.
+     *
+     * @param value The value.
+     * @return A factory that connects to the worker on the host.
+     * @throws NumberFormatException If the value is not a valid host and port.
+     */
+    static WorkerFactory parseHost(String value) {
+        int colon = value.lastIndexOf(':');
+        int port;
+        try {
+            port = colon < 1 ? 0 : Integer.parseInt(value.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            port = 0;
+        }
+        if (port < 1 || port > 65535) {
+            throw new NumberFormatException("Not a valid host: " + value);
+        }
+        return remoteWorkers(value.substring(0, colon), port);
+    }
+
+    /**
+     * Parses the value of an option that must be a non-negative integer.
+     *
+     * @param value The value.
+     * @return The integer.
+     * @throws NumberFormatException If the value is not a non-negative integer.
+     */
+    static int parseNonNegative(String value) {
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            number = -1;
+        }
+        if (number < 0) {
+            throw new NumberFormatException("Not a non-negative integer: " + value);
+        }
+        return number;
+    }
+
+    /**
+     * Runs the PDA on every input string of the corpus.
+     *
+     * @param pda    The PDA, in the format it is saved in or the format of PDA.toString().
+     * @param corpus The input strings, none of which can contain a line break.
+     * @return The report of the run.
+     * @throws IllegalArgumentException If the PDA cannot be run or an input string contains a
+     *                                  line break.
+     * @throws IOException              If a shard failed the maximum number of times.
+     */
+    public Report run(String pda, List<String> corpus) throws IOException {
+        return run(pda, corpus, (start, verdicts) -> {
+        });
+    }
+
+    /**
+     * Runs the PDA on every input string of the corpus, handing the verdicts of each shard to a
+     * listener as soon as the shards before it have finished. The listener is called by the
+     * threads that run the shards, one at a time.
+     *
+     * @param pda      The PDA, in the format it is saved in or the format of PDA.toString().
+     * @param corpus   The input strings, none of which can contain a line break.
+     * @param listener Receives the verdicts in the order of the corpus.
+     * @return The report of the run.
+     * @throws IllegalArgumentException If the PDA cannot be run or an input string contains a
+     *                                  line break.
+     * @throws IOException              If a shard failed the maximum number of times.
+     */
+    public Report run(String pda, List<String> corpus, VerdictListener listener)
+            throws IOException {
+        // Check the PDA here so that an invalid PDA is not retried on every worker
+        CommandLineRunner.loadPDA(pda);
+        String pdaLine = pda.trim();
+        if (pdaLine.contains("\n") || pdaLine.contains("\r")) {
+            throw new IllegalArgumentException("The PDA must be on a single line");
+        }
+        for (String inputString : corpus) {
+            if (inputString.contains("\n") || inputString.contains("\r")) {
+                throw new IllegalArgumentException("Input strings cannot contain line breaks");
+            }
+        }
+
+        long start = System.nanoTime();
+        ArrayDeque<Shard> queue = new ArrayDeque<>();
+        for (int i = 0; i < corpus.size(); i += shardSize) {
+            queue.add(new Shard(i, corpus.subList(i, Math.min(i + shardSize, corpus.size()))));
+        }
+        int shards = queue.size();
+        String[] verdicts = new String[corpus.size()];
+        int[] retries = new int[1];
+        // Which shards have finished, and how many of the first shards the listener has received
+        boolean[] finished = new boolean[shards];
+        int[] received = new int[1];
+        Consumer<Shard> onFinished = shard -> {
+            synchronized (finished) {
+                finished[shard.start / shardSize] = true;
+                while (received[0] < shards && finished[received[0]]) {
+                    int shardStart = received[0] * shardSize;
+                    int shardEnd = Math.min(shardStart + shardSize, verdicts.length);
+                    listener.verdictsReady(shardStart, Collections.unmodifiableList(
+                            Arrays.asList(verdicts).subList(shardStart, shardEnd)));
+                    received[0]++;
+                }
+            }
+        };
+
+        int threads = Math.max(1, Math.min(workers, shards));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Shard coordinator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            ArrayList<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    runShards(pdaLine, queue, verdicts, retries, onFinished);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The run was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int accepted = 0;
+        for (String verdict : verdicts) {
+            if (verdict.equals(ACCEPTED)) {
+                accepted++;
+            }
+        }
+        return new Report(Collections.unmodifiableList(Arrays.asList(verdicts)), accepted, shards,
+                retries[0], System.nanoTime() - start);
+    }
+
+    /**
+     * Takes shards from the queue and runs them on one worker until the queue is empty, starting
+     * a new worker whenever the current one fails.
+     *
+     * @param pda        The PDA.
+     * @param queue      The shards that have not been run yet.
+     * @param verdicts   The verdicts of the corpus, which are filled in.
+     * @param retries    The number of retries so far, which is updated.
+     * @param onFinished Called with each shard once its verdicts have been filled in.
+     * @throws IOException If a shard failed the maximum number of times.
+     */
+    private void runShards(String pda, ArrayDeque<Shard> queue, String[] verdicts, int[] retries,
+                           Consumer<Shard> onFinished) throws IOException {
+        Worker worker = null;
+        try {
+            while (true) {
+                Shard shard;
+                synchronized (queue) {
+                    shard = queue.poll();
+                }
+                if (shard == null) {
+                    return;
+                }
+                try {
+                    if (worker == null) {
+                        worker = workerFactory.start();
+                        worker.loadPDA(pda);
+                    }
+                    List<String> shardVerdicts = worker.run(shard.inputStrings);
+                    if (shardVerdicts.size() != shard.inputStrings.size()) {
+                        throw new IOException("The worker returned " + shardVerdicts.size() +
+                                " verdicts for " + shard.inputStrings.size() + " input strings");
+                    }
+                    for (int i = 0; i < shardVerdicts.size(); i++) {
+                        String verdict = shardVerdicts.get(i);
+                        if (!verdict.equals(ACCEPTED) && !verdict.equals(REJECTED)) {
+                            throw new IOException("The worker returned an invalid verdict: " +
+                                    verdict);
+                        }
+                        verdicts[shard.start + i] = verdict.equals(ACCEPTED) ? ACCEPTED :
+                                REJECTED;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    closeQuietly(worker);
+                    worker = null;
+                    synchronized (queue) {
+                        shard.failures++;
+                        if (shard.failures >= maxAttempts) {
+                            // Stop the other workers from taking more shards
+                            queue.clear();
+                            throw new IOException("The shard starting at input string " +
+                                    shard.start + " failed " + shard.failures + " times", e);
+                        }
+                        retries[0]++;
+                        queue.addFirst(shard);
+                    }
+                    continue;
+                }
+                onFinished.accept(shard);
+            }
+        } finally {
+            closeQuietly(worker);
+        }
+    }
+
+    /**
+     * Stops a worker, ignoring any errors since the worker may have already failed.
+     *
+     * @param worker The worker, or null if there is none.
+     */
+    private static void closeQuietly(Worker worker) {
+        if (worker == null) {
+            return;
+        }
+        try {
+            worker.close();
+        } catch (IOException | RuntimeException e) {
+            // The worker is no longer used either way
+        }
+    }
+
+    /**
+     * Gets a factory that starts each worker as a new JVM on this machine, with the default reply
+     * timeout.
+     *
+     * @param jvmOptions Extra options for the worker JVMs, such as the heap size.
+     * @return The factory.
+     */
+    public static WorkerFactory processWorkers(String... jvmOptions) {
+        return processWorkers(DEFAULT_REPLY_TIMEOUT, jvmOptions);
+    }
+
+    /**
+     * Gets a factory that starts each worker as a new JVM on this machine, using the same Java
+     * runtime and class path as this JVM. The location the classes of the simulator were loaded
+     * from is added to the class path, in case they were not loaded from the class path itself.
+     *
+     * @param replyTimeout The number of milliseconds a worker has to reply to each request.
+     * @param jvmOptions   Extra options for the worker JVMs, such as the heap size.
+     * @return The factory.
+     */
+    public static WorkerFactory processWorkers(long replyTimeout, String... jvmOptions) {
+        return () -> {
+            ArrayList<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(Arrays.asList(jvmOptions));
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path") + File.pathSeparator +
+                    getClassLocation());
+            command.add(ShardWorker.class.getName());
+            Process process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            return new StreamWorker(process.getInputStream(), process.getOutputStream(),
+                    process::destroy, replyTimeout);
+        };
+    }
+
+    /**
+     * Gets the directory or JAR file the classes of the simulator were loaded from.
+     *
+     * @return The path of the directory or JAR file.
+     * @throws IOException If the location cannot be found.
+     */
+    private static String getClassLocation() throws IOException {
+        try {
+            return Paths.get(ShardWorker.class.getProtectionDomain().getCodeSource().getLocation()
+                    .toURI()).toString();
+        } catch (URISyntaxException | NullPointerException | SecurityException e) {
+            throw new IOException("Could not find the classes of the simulator", e);
+        }
+    }
+
+    /**
+     * Gets a factory that connects to a worker listening on a TCP port, with the default reply
+     * timeout.
+     *
+     * @param host The host the worker is running on.
+     * @param port The port the worker is listening on.
+     * @return The factory.
+     */
+    public static WorkerFactory remoteWorkers(String host, int port) {
+        return remoteWorkers(host, port, DEFAULT_REPLY_TIMEOUT);
+    }
+
+    /**
+     * Gets a factory that connects to a worker listening on a TCP port, which may be on another
+     * machine. Every worker started by the factory is a new connection to the same port.
+     *
+     * @param host         The host the worker is running on.
+     * @param port         The port the worker is listening on.
+     * @param replyTimeout The number of milliseconds a worker has to reply to each request.
+     * @return The factory.
+     */
+    public static WorkerFactory remoteWorkers(String host, int port, long replyTimeout) {
+        return () -> {
+            Socket socket = new Socket(host, port);
+            // Reads also time out on their own, in case the watchdog cannot close the socket
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, replyTimeout));
+            return new StreamWorker(socket.getInputStream(), socket.getOutputStream(), socket,
+                    replyTimeout);
+        };
+    }
+
+    /**
+     * Gets a factory that starts workers with each of the given factories in turn, so that the
+     * workers are shared out evenly between them.
+     *
+     * @param factories The factories, such as one for each worker host.
+     * @return The factory.
+     */
+    public static WorkerFactory inTurn(List<WorkerFactory> factories) {
+        List<WorkerFactory> copy = new ArrayList<>(factories);
+        AtomicInteger next = new AtomicInteger();
+        return () -> copy.get(Math.floorMod(next.getAndIncrement(), copy.size())).start();
+    }
+
+    /**
+     * Gets a factory that runs each worker on a thread of this JVM, with the default reply
+     * timeout.
+     *
+     * @return The factory.
+     */
+    public static WorkerFactory localWorkers() {
+        return localWorkers(DEFAULT_REPLY_TIMEOUT);
+    }
+
+    /**
+     * Gets a factory that runs each worker on a thread of this JVM, talking to it through the
+     * same protocol as a separate JVM. This is a stand-in for real workers when testing.
+     *
+     * @param replyTimeout The number of milliseconds a worker has to reply to each request.
+     * @return The factory.
+     */
+    public static WorkerFactory localWorkers(long replyTimeout) {
+        return () -> {
+            PipedOutputStream requests = new PipedOutputStream();
+            PipedInputStream workerIn = new PipedInputStream(requests, 1 << 16);
+            PipedOutputStream workerOut = new PipedOutputStream();
+            PipedInputStream replies = new PipedInputStream(workerOut, 1 << 16);
+            Thread thread = new Thread(() -> {
+                try (workerOut) {
+                    ShardWorker.serve(workerIn, workerOut);
+                } catch (IOException e) {
+                    // The coordinator stopped the worker
+                }
+            }, "Local shard worker");
+            thread.setDaemon(true);
+            thread.start();
+            // Closing the end the worker writes to wakes up a read waiting for a reply
+            return new StreamWorker(replies, requests, () -> {
+                requests.close();
+                workerOut.close();
+                replies.close();
+            }, replyTimeout);
+        };
+    }
+
+    /**
+     * A worker that the coordinator talks to through a pair of streams, using the protocol
+     * described in ShardWorker. Each request has a deadline, and a worker that has not replied in
+     * full by then is stopped, which makes the read waiting for its reply fail.
+     */
+    private static final class StreamWorker implements Worker {
+        // The replies of the worker
+        private final BufferedReader reader;
+        // The requests to the worker
+        private final PrintStream writer;
+        // Stops the worker once the conversation is over
+        private final Closeable stopper;
+        // The number of milliseconds the worker has to reply to each request
+        private final long replyTimeout;
+        // Whether the worker was stopped for not replying in time
+        private volatile boolean timedOut = false;
+
+        private StreamWorker(InputStream in, OutputStream out, Closeable stopper,
+                             long replyTimeout) {
+            if (replyTimeout < 1) {
+                throw new IllegalArgumentException("The reply timeout must be at least 1 ms");
+            }
+            reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            writer = new PrintStream(out, false, StandardCharsets.UTF_8);
+            this.stopper = stopper;
+            this.replyTimeout = replyTimeout;
+        }
+
+        @Override
+        public void loadPDA(String pda) throws IOException {
+            writer.println("pda " + pda);
+            writer.flush();
+            ScheduledFuture<?> deadline = startDeadline();
+            try {
+                String reply = readReply();
+                if (!reply.equals("ok")) {
+                    throw new IOException("The worker could not load the PDA: " + reply);
+                }
+            } finally {
+                deadline.cancel(false);
+            }
+        }
+
+        @Override
+        public List<String> run(List<String> inputStrings) throws IOException {
+            writer.println("shard " + inputStrings.size());
+            for (String inputString : inputStrings) {
+                writer.println(inputString);
+            }
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("The worker stopped");
+            }
+            ScheduledFuture<?> deadline = startDeadline();
+            try {
+                ArrayList<String> verdicts = new ArrayList<>(inputStrings.size());
+                for (int i = 0; i < inputStrings.size(); i++) {
+                    String reply = readReply();
+                    if (reply.startsWith("error ")) {
+                        throw new IOException("The worker could not run the shard: " + reply);
+                    }
+                    verdicts.add(reply);
+                }
+                return verdicts;
+            } finally {
+                deadline.cancel(false);
+            }
+        }
+
+        /**
+         * Schedules the worker to be stopped if it has not replied to the current request by the
+         * end of the reply timeout. The returned future must be cancelled once the reply has been
+         * read.
+         *
+         * @return The scheduled stop.
+         */
+        private ScheduledFuture<?> startDeadline() {
+            return WATCHDOG.schedule(() -> {
+                timedOut = true;
+                try {
+                    stopper.close();
+                } catch (IOException e) {
+                    // The worker has failed either way
+                }
+            }, replyTimeout, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Reads the next line the worker replied with.
+         *
+         * @return The line.
+         * @throws IOException If the worker stopped or did not reply in time.
+         */
+        private String readReply() throws IOException {
+            String reply;
+            try {
+                reply = reader.readLine();
+            } catch (SocketTimeoutException e) {
+                throw new IOException("The worker did not reply within " + replyTimeout + " ms",
+                        e);
+            } catch (IOException e) {
+                if (timedOut) {
+                    throw new IOException("The worker did not reply within " + replyTimeout +
+                            " ms", e);
+                }
+                throw e;
+            }
+            if (reply == null) {
+                throw new IOException(timedOut ? "The worker did not reply within " +
+                        replyTimeout + " ms" : "The worker stopped");
+            }
+            return reply;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                writer.println("quit");
+                writer.flush();
+            } finally {
+                stopper.close();
+            }
+        }
+    }
+}
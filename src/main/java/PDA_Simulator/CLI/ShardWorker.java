@@ -0,0 +1,219 @@
+package PDA_Simulator.CLI;
+
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.SaturationEngine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is a worker that runs shards of a corpus of input strings for a ShardCoordinator.
+ * A worker is either a separate JVM started by the coordinator, which talks to it through its
+ * standard input and output, or a JVM on another machine listening for coordinators on a TCP
+ * port. Either way, the coordinator and the worker use the same line-based protocol:
+ * <ul>
+ *     <li>"pda " followed by the PDA (in the format it is saved in or the format of
+ *     PDA.toString()) loads the PDA the following shards are run on. The worker replies "ok", or
+ *     "error " followed by a description of the problem.</li>
+ *     <li>"shard " followed by a number n, and then n lines each containing an input string, runs
+ *     the PDA on the input strings. The worker replies with n lines, each "accepted" or
+ *     "rejected", in the same order, or a single line starting with "error ".</li>
+ *     <li>"quit" ends the conversation.</li>
+ * </ul>
+ * The PDA is loaded once and kept as a snapshot, so running a shard only runs the input strings.
+ * Input strings are run with a SaturationEngine, which always gives an exact answer.
+ */
+
+public class ShardWorker {
+    // The usage message
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: ShardWorker [--port N [--bind ADDRESS]]",
+            "",
+            "Runs shards of input strings for a coordinator. Without options, the coordinator",
+            "talks to the worker through standard input and output. With --port, the worker",
+            "listens for coordinators on the given TCP port (0 to pick any free port) of the",
+            "given address (default: 127.0.0.1).");
+
+    /**
+     * Runs the worker on standard input and output, or listens for coordinators on a TCP port if
+     * one is given.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            try {
+                serve(System.in, System.out);
+            } catch (IOException e) {
+                System.err.println("The worker stopped: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+
+        int port = -1;
+        String bindAddress = null;
+        String error = null;
+        try {
+            for (int i = 0; i < args.length && error == null; i++) {
+                if (i + 1 == args.length) {
+                    error = "Missing value for " + args[i];
+                    break;
+                }
+                String value = args[++i];
+                switch (args[i - 1]) {
+                    case "--port":
+                        port = parsePort(value);
+                        break;
+                    case "--bind":
+                        bindAddress = value;
+                        break;
+                    default:
+                        error = "Unknown option: " + args[i - 1];
+                }
+            }
+        } catch (NumberFormatException e) {
+            error = e.getMessage();
+        }
+        if (error == null && port < 0) {
+            error = "No port given";
+        }
+        if (error != null) {
+            System.err.println(error);
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        try {
+            InetAddress address = bindAddress == null ? InetAddress.getLoopbackAddress() :
+                    InetAddress.getByName(bindAddress);
+            ServerSocket serverSocket = listen(address, port);
+            System.out.println("Listening on " + address.getHostAddress() + ":" +
+                    serverSocket.getLocalPort());
+        } catch (IOException e) {
+            System.err.println("Could not listen on port " + port + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parses the value of the port option, which must be a valid TCP port number or 0 for any
+     * free port.
+     *
+     * @param value The value.
+     * @return The port.
+     * @throws NumberFormatException If the value is not a valid port.
+     */
+    static int parsePort(String value) {
+        int port;
+        try {
+            port = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            port = -1;
+        }
+        if (port < 0 || port > 65535) {
+            throw new NumberFormatException("Not a valid port: " + value);
+        }
+        return port;
+    }
+
+    /**
+     * Starts listening for coordinators on a TCP port. Each coordinator that connects is served
+     * on its own thread until it quits or disconnects. Closing the returned socket stops the
+     * worker from accepting more coordinators.
+     *
+     * @param address The address to listen on.
+     * @param port    The port to listen on, or 0 for any free port.
+     * @return The socket being listened on.
+     * @throws IOException If the worker cannot listen on the port.
+     */
+    public static ServerSocket listen(InetAddress address, int port) throws IOException {
+        ServerSocket serverSocket = new ServerSocket(port, 50, address);
+        Thread acceptor = new Thread(() -> {
+            while (!serverSocket.isClosed()) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (IOException e) {
+                    // The server socket was closed
+                    return;
+                }
+                Thread connection = new Thread(() -> {
+                    try (socket) {
+                        serve(socket.getInputStream(), socket.getOutputStream());
+                    } catch (IOException e) {
+                        // The coordinator disconnected, which it may do at any time
+                    }
+                }, "Shard worker connection");
+                connection.setDaemon(true);
+                connection.start();
+            }
+        }, "Shard worker");
+        acceptor.start();
+        return serverSocket;
+    }
+
+    /**
+     * Serves a coordinator until it quits or the input ends.
+     *
+     * @param in  The stream the requests of the coordinator are read from.
+     * @param out The stream the replies are written to.
+     * @throws IOException If the requests cannot be read or the replies cannot be written.
+     */
+    public static void serve(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader =
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        PrintStream writer = new PrintStream(out, false, StandardCharsets.UTF_8);
+        PDA pda = null;
+        String line;
+        while ((line = reader.readLine()) != null && !line.equals("quit")) {
+            if (line.startsWith("pda ")) {
+                try {
+                    pda = CommandLineRunner.loadPDA(line.substring(4)).snapshot();
+                    writer.println("ok");
+                } catch (IllegalArgumentException e) {
+                    pda = null;
+                    writer.println("error " + e.getMessage());
+                }
+            } else if (line.startsWith("shard ")) {
+                int count;
+                try {
+                    count = Integer.parseInt(line.substring(6));
+                } catch (NumberFormatException e) {
+                    count = -1;
+                }
+                if (count < 0) {
+                    writer.println("error invalid shard size");
+                    writer.flush();
+                    continue;
+                }
+                String[] inputStrings = new String[count];
+                for (int i = 0; i < count; i++) {
+                    inputStrings[i] = reader.readLine();
+                    if (inputStrings[i] == null) {
+                        throw new IOException("The shard ended early");
+                    }
+                }
+                if (pda == null) {
+                    writer.println("error no PDA has been loaded");
+                } else {
+                    for (String inputString : inputStrings) {
+                        boolean accepted = new SaturationEngine(pda).accepts(inputString);
+                        writer.println(accepted ? "accepted" : "rejected");
+                    }
+                }
+            } else {
+                writer.println("error unknown request");
+            }
+            writer.flush();
+        }
+        writer.flush();
+    }
+}
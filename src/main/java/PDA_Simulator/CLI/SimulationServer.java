@@ -0,0 +1,405 @@
+package PDA_Simulator.CLI;
+
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDATransition;
+import PDA_Simulator.Backend.SaturationEngine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is a local HTTP server that runs PDAs for other tools on the same machine, so that
+ * they do not need to start a new JVM for every PDA they want to run. The server only listens on
+ * the loopback address.
+ * <p>
+ * A PDA is run by sending a POST request to /run. The first line of the body is the PDA, either
+ * as saved by the simulator or in the format of PDA.toString(), and every other line is an input
+ * string. The response has one JSON line per input string, in the same order, with the verdict
+ * and, for accepted input strings, the transitions of a shortest accepting computation as a
+ * witness. Input strings are run with a SaturationEngine, which always gives an exact answer. A
+ * time limit in milliseconds for each input string can be given with the time-limit query
+ * parameter, in which case input strings that run out of time get the verdict "unknown".
+ * <p>
+ * Requests are handled concurrently, each on its own virtual thread if the Java runtime supports
+ * them and on a pooled thread otherwise. Parsed PDAs are cached by fingerprint as immutable
+ * snapshots, so a PDA sent again in a later request reuses the snapshot, and the pop string tries
+ * and over-approximation already built for it, rather than building them again. The snapshots
+ * are also cached by the text the PDA was sent as, so a PDA sent again as the same text is not
+ * even parsed.
+ */
+
+public class SimulationServer {
+    // The default port the server listens on
+    private static final int DEFAULT_PORT = 8347;
+    // The default number of PDA snapshots kept in the cache
+    private static final int DEFAULT_CACHE_SIZE = 64;
+    // The exit status when the server could not be started
+    private static final int EXIT_FAILURE = 1;
+    // The exit status when the arguments were invalid
+    private static final int EXIT_USAGE = 2;
+    // The usage message
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: SimulationServer [options]",
+            "",
+            "Runs PDAs sent in POST requests to http://127.0.0.1:PORT/run. The first line of the",
+            "body is the PDA and every other line is an input string.",
+            "",
+            "Options:",
+            "  --port N                 The port to listen on (default: " + DEFAULT_PORT +
+                    ", 0 for any free port).",
+            "  --cache-size N           The number of PDAs kept in the cache (default: " +
+                    DEFAULT_CACHE_SIZE + ").",
+            "  --help                   Shows this message.");
+
+    // The HTTP server
+    private final HttpServer server;
+    // The executor the requests are handled on
+    private final ExecutorService executor;
+    // The executor used to stop runs that go over their time limit
+    private final ScheduledExecutorService timer;
+    // The most PDA snapshots kept in the cache
+    private final int cacheSize;
+    // The PDA snapshots, keyed by fingerprint, from least to most recently used
+    private final LinkedHashMap<Long, PDA> snapshots;
+    // The PDA snapshots, keyed by the exact text they were sent as, from least to most recently
+    // used, so that a PDA sent again as the same text is found without parsing it
+    private final LinkedHashMap<String, PDA> snapshotsByText;
+    // The number of requests whose PDA was found in the cache
+    private int cacheHits = 0;
+    // The number of requests whose PDA was not in the cache
+    private int cacheMisses = 0;
+
+    /**
+     * Creates a server listening on the given port of the loopback address. The server does not
+     * handle any requests until it is started.
+     *
+     * @param port      The port to listen on, or 0 for any free port.
+     * @param cacheSize The most PDA snapshots kept in the cache.
+     * @throws IOException If the server cannot listen on the port.
+     */
+    public SimulationServer(int port, int cacheSize) throws IOException {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("The cache size must be at least 1");
+        }
+        this.cacheSize = cacheSize;
+        snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PDA> eldest) {
+                return size() > SimulationServer.this.cacheSize;
+            }
+        };
+        snapshotsByText = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PDA> eldest) {
+                return size() > SimulationServer.this.cacheSize;
+            }
+        };
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                0);
+        executor = newRequestExecutor();
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Time limit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/run", this::handleRun);
+    }
+
+    /**
+     * Starts the server on the given port and keeps it running until the process is stopped.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        int cacheSize = DEFAULT_CACHE_SIZE;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--help")) {
+                    System.out.println(USAGE);
+                    return;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                switch (args[i]) {
+                    case "--port":
+                        port = Integer.parseInt(args[++i]);
+                        break;
+                    case "--cache-size":
+                        cacheSize = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(EXIT_USAGE);
+        }
+
+        try {
+            SimulationServer server = new SimulationServer(port, cacheSize);
+            server.start();
+            System.out.println("Listening on http://127.0.0.1:" + server.getPort() + "/run");
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not start the server: " + e.getMessage());
+            System.exit(EXIT_FAILURE);
+        }
+    }
+
+    /**
+     * Starts handling requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, waiting at most the given number of seconds for the requests being
+     * handled to finish.
+     *
+     * @param delay The most seconds to wait for.
+     */
+    public void stop(int delay) {
+        server.stop(delay);
+        executor.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    /**
+     * Gets the port the server is listening on, which is useful if it was created with port 0.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the number of requests whose PDA was already in the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public synchronized int getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Gets the number of requests whose PDA was not in the cache.
+     *
+     * @return The number of cache misses.
+     */
+    public synchronized int getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * Creates the executor the requests are handled on. Virtual threads are only available from
+     * Java 21, so they are looked up by reflection and a pool of daemon threads is used instead
+     * on older runtimes.
+     *
+     * @return The executor.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "Simulation request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Gets the cached snapshot of the PDA sent as the given text. The text is looked up first, so
+     * a PDA sent again as the same text is not parsed at all. Otherwise the text is parsed, and
+     * the snapshot of an equal PDA is used if there is one in the cache (for example, one that
+     * was saved with different positions for its states), or a new snapshot is taken and cached.
+     *
+     * @param pdaString The PDA, as saved by the simulator or in the format of PDA.toString().
+     * @return The snapshot.
+     * @throws IllegalArgumentException If the text is not a valid PDA.
+     */
+    private PDA getSnapshot(String pdaString) {
+        synchronized (this) {
+            PDA snapshot = snapshotsByText.get(pdaString);
+            if (snapshot != null) {
+                cacheHits++;
+                return snapshot;
+            }
+        }
+        // Parse the PDA without holding the lock so that other requests are not held up
+        PDA pda = CommandLineRunner.loadPDA(pdaString);
+        synchronized (this) {
+            PDA snapshot = snapshots.get(pda.getFingerprint());
+            // The PDA is compared as well in case two different PDAs have the same fingerprint
+            if (snapshot != null && snapshot.equals(pda)) {
+                cacheHits++;
+            } else {
+                cacheMisses++;
+                snapshot = pda.snapshot();
+                snapshots.put(pda.getFingerprint(), snapshot);
+            }
+            snapshotsByText.put(pdaString, snapshot);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Handles a request to run a PDA on a list of input strings.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If the request cannot be read or the response cannot be written.
+     */
+    private void handleRun(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendError(exchange, 405, "Only POST requests are supported");
+                return;
+            }
+            long timeLimit;
+            try {
+                timeLimit = getTimeLimit(exchange.getRequestURI());
+            } catch (NumberFormatException e) {
+                sendError(exchange, 400, "Invalid time limit: " + e.getMessage());
+                return;
+            }
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    exchange.getRequestBody(), StandardCharsets.UTF_8));
+            String pdaString = reader.readLine();
+            PDA pda;
+            try {
+                if (pdaString == null) {
+                    throw new IllegalArgumentException("the request has no PDA");
+                }
+                pda = getSnapshot(pdaString);
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, "Invalid PDA: " + e.getMessage());
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            PrintStream out = new PrintStream(exchange.getResponseBody(), false,
+                    StandardCharsets.UTF_8);
+            String inputString;
+            while ((inputString = reader.readLine()) != null) {
+                out.println(run(pda, inputString, timeLimit));
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Runs a PDA on an input string.
+     *
+     * @param pda         The snapshot of the PDA.
+     * @param inputString The input string.
+     * @param timeLimit   The most milliseconds the run can take, or 0 if there is no limit.
+     * @return The verdict as a JSON object.
+     */
+    private String run(PDA pda, String inputString, long timeLimit) {
+        long start = System.nanoTime();
+        SaturationEngine engine = new SaturationEngine(pda);
+        ScheduledFuture<?> deadline = timeLimit > 0 ?
+                timer.schedule(engine::cancel, timeLimit, TimeUnit.MILLISECONDS) : null;
+        String verdict;
+        String witness = "null";
+        try {
+            List<PDATransition> transitions = engine.getShortestAcceptingTransitions(inputString);
+            if (transitions == null) {
+                verdict = "rejected";
+            } else {
+                verdict = "accepted";
+                StringBuilder builder = new StringBuilder("[");
+                for (PDATransition transition : transitions) {
+                    if (builder.length() > 1) {
+                        builder.append(',');
+                    }
+                    builder.append(CommandLineRunner.jsonString(transition.toString()));
+                }
+                witness = builder.append(']').toString();
+            }
+        } catch (CancellationException e) {
+            verdict = "unknown";
+        } finally {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+        }
+        return "{\"input\":" + CommandLineRunner.jsonString(inputString) + ",\"verdict\":\"" +
+                verdict + "\",\"witness\":" + witness + ",\"timeMs\":" +
+                String.format(Locale.ROOT, "%.3f", (System.nanoTime() - start) / 1e6) + "}";
+    }
+
+    /**
+     * Reads the time-limit query parameter of a request.
+     *
+     * @param uri The URI of the request.
+     * @return The time limit in milliseconds, or 0 if there is none.
+     * @throws NumberFormatException If the time limit is not a positive integer.
+     */
+    private static long getTimeLimit(URI uri) {
+        String query = uri.getQuery();
+        if (query == null) {
+            return 0;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("time-limit=")) {
+                String value = parameter.substring("time-limit=".length());
+                long timeLimit = Long.parseLong(value);
+                if (timeLimit < 1) {
+                    throw new NumberFormatException(value);
+                }
+                return timeLimit;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Sends a plain text error response.
+     *
+     * @param exchange The request and its response.
+     * @param status   The HTTP status code.
+     * @param message  The error message.
+     * @throws IOException If the response cannot be written.
+     */
+    private static void sendError(HttpExchange exchange, int status, String message)
+            throws IOException {
+        byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package PDA_Simulator.Frontend;
+
+import PDA_Simulator.Backend.IncrementalSimulator;
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.SaturationEngine;
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.scene.control.Label;
+import javafx.util.Duration;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * This class controls the badge next to the input string TextField that shows whether the PDA
+ * accepts the input string as the user types it. Checks are debounced, so a check only starts
+ * once the input string (or the PDA) has stopped changing for a short while. Each check runs on a
+ * background thread on a snapshot of the PDA, so that the PDA can keep being edited on the JavaFX
+ * application thread. A check that is still running when something changes is cancelled, so stale
+ * results are never shown and typing is never blocked, however expensive the PDA is to run.
+ * <p>
+ * Checks are made with an IncrementalSimulator that is handed from each check that finishes to the
+ * next one, so a check after typing a few more input symbols, or after editing a transition, only
+ * simulates what changed since the previous check. A cancelled check may leave its simulator part
+ * of the way through a run, so the next check starts again with a new simulator. If the simulator
+ * rejects the input string after discarding configurations to stay within its limits, then the
+ * input string is checked again with a SaturationEngine, which always terminates and gives an
+ * exact answer.
+ */
+
+class AcceptanceIndicator {
+    // How long the input string and PDA must stay unchanged before a check starts
+    private static final Duration DEBOUNCE_DELAY = Duration.millis(300);
+    // The highest the stack of a configuration can be in the simulator
+    private static final int MAX_STACK_HEIGHT = 100;
+    // The most configurations the simulator can hold
+    private static final int MAX_CONFIGURATIONS = 100_000;
+
+    // The badge showing the result of the most recent check
+    private final Label badge;
+    // Supplies the PDA to check
+    private final Supplier<PDA> pdaSupplier;
+    // Supplies the input string to check
+    private final Supplier<String> inputStringSupplier;
+    // Whether the PDA is currently valid and can be run
+    private final BooleanSupplier pdaCanRun;
+    // Delays checks until changes stop
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE_DELAY);
+    // The check currently running, or null if there is none
+    private Task<Boolean> currentCheck = null;
+    // The engine used by the check currently running, or null if there is none
+    private SaturationEngine currentEngine = null;
+    // The simulator used by the check currently running, or null if there is none
+    private IncrementalSimulator currentSimulator = null;
+    // The simulator of the most recent check that finished, which is up to date with the input
+    // string and PDA of that check, or null if there is none
+    private IncrementalSimulator idleSimulator = null;
+
+    /**
+     * Creates an indicator for the given badge. Nothing is checked until refresh is called.
+     *
+     * @param badge               The Label used as the badge.
+     * @param pdaSupplier         Supplies the PDA to check.
+     * @param inputStringSupplier Supplies the input string to check.
+     * @param pdaCanRun           Whether the PDA is currently valid and can be run.
+     */
+    AcceptanceIndicator(Label badge, Supplier<PDA> pdaSupplier,
+                        Supplier<String> inputStringSupplier, BooleanSupplier pdaCanRun) {
+        this.badge = badge;
+        this.pdaSupplier = pdaSupplier;
+        this.inputStringSupplier = inputStringSupplier;
+        this.pdaCanRun = pdaCanRun;
+        debounce.setOnFinished(event -> startCheck());
+    }
+
+    /**
+     * Marks the current result as out of date and schedules a new check. This must be called on
+     * the JavaFX application thread whenever the input string or the PDA changes.
+     */
+    void refresh() {
+        cancelCheck();
+        showChecking();
+        debounce.playFromStart();
+    }
+
+    /**
+     * Starts checking whether the PDA accepts the input string on a background thread.
+     */
+    private void startCheck() {
+        cancelCheck();
+        if (!pdaCanRun.getAsBoolean()) {
+            badge.setId("cannotRun");
+            badge.setText("Cannot run");
+            return;
+        }
+
+        // Run a snapshot of the PDA so that it can be read on the background thread while the
+        // original is being edited
+        PDA snapshot = pdaSupplier.get().snapshot();
+        String inputString = inputStringSupplier.get();
+        // Carry on from the simulator of the previous check if there is one, so that only what
+        // changed since then is simulated
+        IncrementalSimulator simulator = idleSimulator != null ? idleSimulator :
+                new IncrementalSimulator(snapshot, MAX_STACK_HEIGHT, MAX_CONFIGURATIONS);
+        idleSimulator = null;
+        simulator.setPDA(snapshot);
+        SaturationEngine engine = new SaturationEngine(snapshot);
+
+        Task<Boolean> check = new Task<>() {
+            @Override
+            protected Boolean call() {
+                if (simulator.accepts(inputString)) {
+                    return true;
+                }
+                // The simulator's rejection is only certain if it discarded nothing
+                if (simulator.reachedStackLimit() || simulator.reachedConfigurationLimit()) {
+                    return engine.accepts(inputString);
+                }
+                return false;
+            }
+        };
+        // A check that finished just before it was cancelled can still report its result, so
+        // only the result of the latest check is shown
+        check.setOnSucceeded(event -> {
+            if (check != currentCheck) {
+                return;
+            }
+            currentCheck = null;
+            currentEngine = null;
+            currentSimulator = null;
+            // The simulator is up to date with this check, so the next check can carry on from it
+            idleSimulator = simulator;
+            showResult(check.getValue());
+        });
+        check.setOnFailed(event -> {
+            if (check != currentCheck) {
+                return;
+            }
+            currentCheck = null;
+            currentEngine = null;
+            currentSimulator = null;
+            badge.setId("cannotRun");
+            badge.setText("Check failed");
+        });
+
+        currentCheck = check;
+        currentEngine = engine;
+        currentSimulator = simulator;
+        Thread thread = new Thread(check, "Acceptance check");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Cancels the check currently running, if there is one.
+     */
+    private void cancelCheck() {
+        if (currentCheck != null) {
+            currentCheck.cancel(false);
+            currentEngine.cancel();
+            currentSimulator.cancel();
+            currentCheck = null;
+            currentEngine = null;
+            currentSimulator = null;
+        }
+    }
+
+    /**
+     * Shows that a check is pending or in progress.
+     */
+    private void showChecking() {
+        badge.setId("checking");
+        badge.setText("Checking...");
+    }
+
+    /**
+     * Shows the result of a check.
+     *
+     * @param accepted Whether the PDA accepts the input string.
+     */
+    private void showResult(boolean accepted) {
+        if (accepted) {
+            badge.setId("accepted");
+            badge.setText("Accepted");
+        } else {
+            badge.setId("rejected");
+            badge.setText("Rejected");
+        }
+    }
+}
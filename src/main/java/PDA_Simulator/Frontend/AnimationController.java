@@ -47,7 +47,7 @@ public class AnimationController {
     // This is the index of the previous configuration in the computation
     private int previousIndex = 0;
     // The computation that is to be animated
-    private ArrayList<PDAConfiguration> computation;
+    private List<PDAConfiguration> computation;
 
     // Below are all the components with fx:ids in animation-view.fxml.
     @FXML
@@ -165,7 +165,7 @@ public class AnimationController {
      *
      * @param computation The computation to animate.
      */
-    private void playAnimation(ArrayList<PDAConfiguration> computation) {
+    private void playAnimation(List<PDAConfiguration> computation) {
         // Iterate through each configuration in the computation and build up the animation
         for (int i = 0; i < computation.size(); i++) {
             PDAConfiguration configuration = computation.get(i);
@@ -356,7 +356,7 @@ public class AnimationController {
      * @param computation The computation the index is for.
      */
     private void highlightAppliedPDATransitionInTable(int index,
-                                                      ArrayList<PDAConfiguration> computation) {
+                                                      List<PDAConfiguration> computation) {
         // If index is pointing to the last configuration in the computation, there is no need to
         // do anything since no
         // transitions are applied in the final configuration.
@@ -483,7 +483,7 @@ public class AnimationController {
      *
      * @param computation The computation to be animated.
      */
-    public void setComputation(ArrayList<PDAConfiguration> computation) {
+    public void setComputation(List<PDAConfiguration> computation) {
         this.computation = computation;
     }
 
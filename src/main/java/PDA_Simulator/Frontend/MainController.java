@@ -1,10 +1,15 @@
 package PDA_Simulator.Frontend;
 
 import PDA_Simulator.Backend.AcceptanceCriteria;
+import PDA_Simulator.Backend.Computation;
+import PDA_Simulator.Backend.ComputationSearch;
 import PDA_Simulator.Backend.PDA;
 import PDA_Simulator.Backend.PDAConfiguration;
 import PDA_Simulator.Backend.PDATransition;
+import PDA_Simulator.Backend.RunGovernor;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -25,7 +30,6 @@ import javafx.scene.text.Font;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
-import javafx.util.Pair;
 
 import java.io.File;
 import java.io.IOException;
@@ -33,7 +37,8 @@ import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.Stack;
 
 /**
@@ -60,14 +65,24 @@ public class MainController {
     private static final int DEFAULT_MAX_STEPS = 50;
     // The maximum number of total steps that the PDA can run for by default
     private static final int DEFAULT_MAX_TOTAL_STEPS = 5000;
+    // The number of accepting computations fetched at a time for the accepting computations dialog
+    private static final int COMPUTATION_PAGE_SIZE = 20;
     // The underlying PDA object
     private static PDA pda;
+    // The observable lists and properties that mirror the PDA object
+    private static PDAObservables pdaObservables;
+    // The badge next to the input string TextField showing whether the PDA accepts it
+    private static AcceptanceIndicator acceptanceIndicator;
     // The current maximum number of steps a computation can run for
     private static int currentMaxSteps = DEFAULT_MAX_STEPS;
     // The current maximum number of steps the PDA can run for
     private static int currentMaxTotalSteps = DEFAULT_MAX_TOTAL_STEPS;
-    // An ArrayList to store all accepting computations that were found
-    private static ArrayList<ArrayList<PDAConfiguration>> acceptingComputations = new ArrayList<>();
+    // The page of accepting computations currently loaded into the accepting computations dialog
+    private static ArrayList<Computation> acceptingComputations = new ArrayList<>();
+    // The position (in order of length) of the first computation in acceptingComputations
+    private static int acceptingComputationsPageStart = 0;
+    // The number of accepting computations that can be viewed in the accepting computations dialog
+    private static int acceptingComputationCount = 0;
     // The dialog to specify the initial stack symbol
     private final TextInputDialog initialStackSymbolDialog = new TextInputDialog();
     // A list of all PDAStateNodes
@@ -93,8 +108,18 @@ public class MainController {
     private TransitionFunction selectedTransitionFunction = TransitionFunction.SYMBOL_AND_SYMBOL;
     // The file currently opened by the user
     private File file = null;
+    // The fingerprint of the PDA when it was last saved to or opened from the file
+    private long savedFingerprint = 0;
     // This index stores the current index of the accepting computations dialog
     private int index = 0;
+    // The search started by the most recent quick run. It is resumed if the user chooses to raise
+    // one of the limits.
+    private ComputationSearch quickRunSearch = null;
+    // The number of total steps the quick run search had taken when the step limit was last
+    // raised. The total step limit applies to the steps taken after this.
+    private int quickRunTotalStepsOffset = 0;
+    // The search whose accepting computations are shown in the accepting computations dialog
+    private ComputationSearch displayedSearch = null;
     // The x coordinate of the mouse.
     private double x;
     // The y coordinate of the mouse.
@@ -153,6 +178,8 @@ public class MainController {
     @FXML
     private TextField inputString;
     @FXML
+    private Label acceptanceBadge;
+    @FXML
     private TextArea notes;
 
     /**
@@ -165,6 +192,11 @@ public class MainController {
         createWarningAlert();
         initialiseTextFields();
         createAcceptingComputationsDialog();
+        // Check whether the PDA accepts the input string whenever it changes. The checks happen
+        // in the background, so they never block typing.
+        acceptanceIndicator = new AcceptanceIndicator(acceptanceBadge, () -> pda,
+                inputString::getText, () -> !pdaCannotRun(false));
+        inputString.textProperty().addListener(observable -> acceptanceIndicator.refresh());
         // Use the reset method to create the PDA, initialise the PDAStateNodeController, create
         // the PDAStateNode for the initial state and set the content of the transition table
         reset(true);
@@ -458,6 +490,7 @@ public class MainController {
                 getAndStoreSimulatorState();
 
                 pda.setInitialStackSymbol(textField.getText());
+                acceptanceIndicator.refresh();
             }
             // Hide the error label upon closure, so it is not visible when the dialog is reopened
             errorLabel.setVisible(false);
@@ -662,7 +695,7 @@ public class MainController {
             // Display the animation window and give the computation at the current index of
             // acceptingComputations so that it can be animated.
             //See section 4.12 of the report for further details.
-            showAnimationWindow(acceptingComputations.get(index));
+            showAnimationWindow(getAcceptingComputation(index));
         });
 
         Button prev = (Button) dialogPane.lookupButton(ButtonType.PREVIOUS);
@@ -672,7 +705,7 @@ public class MainController {
             event.consume();
             // Set the position of the vertical scroll bar of the ScrollPane to the top
             scrollPane.setVvalue(0);
-            int size = acceptingComputations.size();
+            int size = acceptingComputationCount;
             // Only increment index and display the next computation if it will be within the
             // bounds of the ArrayList
             if (index + 1 < size) {
@@ -682,8 +715,9 @@ public class MainController {
                 prev.setDisable(false);
                 // Update the title of the dialog
                 acceptingComputationsDialog.setTitle("Computation " + (index + 1) + " of " + size);
-                // Display the accepting computation at the specified index of acceptingComputations
-                displayComputation(acceptingComputations.get(index));
+                // Display the accepting computation at the specified index, fetching the next page
+                // of computations if it has not been loaded yet
+                displayComputation(getAcceptingComputation(index));
                 // Disable the next button if there are no more computations left after this one
                 if (index + 1 >= size) {
                     next.setDisable(true);
@@ -695,12 +729,12 @@ public class MainController {
         prev.addEventFilter(ActionEvent.ACTION, event -> {
             event.consume();
             scrollPane.setVvalue(0);
-            int size = acceptingComputations.size();
+            int size = acceptingComputationCount;
             if (index - 1 >= 0) {
                 index--;
                 next.setDisable(false);
                 acceptingComputationsDialog.setTitle("Computation " + (index + 1) + " of " + size);
-                displayComputation(acceptingComputations.get(index));
+                displayComputation(getAcceptingComputation(index));
 
                 if (index - 1 < 0) {
                     prev.setDisable(true);
@@ -747,9 +781,10 @@ public class MainController {
         stackMenu.getToggles().get(0).setSelected(true);
 
         pda = new PDA();
+        pdaObservables = new PDAObservables(pda);
         // Set the content of the transition table to the observable list of PDATransitions.
         // Additions and removals to this list are automatically made to the transition table.
-        transitionTable.setItems(pda.getTransitions());
+        transitionTable.setItems(pdaObservables.getTransitions());
         initialisePDAStateNodeController();
         // Add the listeners to the PDA before creating the initial state (if required) so that
         // the listener for the states ObservableList will fire
@@ -786,13 +821,13 @@ public class MainController {
     }
 
     /**
-     * Adds four different listeners to the PDA object so that changes to the PDA object result
-     * in automatic changes in the frontend.
+     * Adds four different listeners to the observables of the PDA object so that changes to the
+     * PDA object result in automatic changes in the frontend.
      */
     private void addListenersToPDA() {
         // This listener is responsible for updating the visual appearance of the determinismButton
         // whenever the determinism of the PDA changes by changing the text and the CSS ID.
-        pda.addDeterministicPropertyListener((observable, oldValue, newValue) -> {
+        pdaObservables.deterministicProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue) {
                 determinismButton.setId("deterministic");
                 determinismButton.setText("Deterministic");
@@ -804,7 +839,7 @@ public class MainController {
 
         // Decide which node should be displayed as the initial state whenever the initialState
         // Property changes.
-        pda.addInitialStatePropertyListener((observable, oldValue, newValue) -> {
+        pdaObservables.initialStateProperty().addListener((observable, oldValue, newValue) -> {
             for (PDAStateNode pdaStateNode : stateNodes) {
                 if (newValue == null) {
                     pdaStateNode.makeNotInitialState();
@@ -818,7 +853,7 @@ public class MainController {
 
         // A listener for changes to the list of states. There is no need to do anything if a
         // state is renamed since the PDAStatNode class already handles that.
-        pda.addStatesListener(change -> {
+        pdaObservables.getStates().addListener((ListChangeListener<String>) change -> {
             while (change.next()) {
                 // If a state is created, create a new PDAStateNode and add it to the canvas and
                 // the stateNodes list
@@ -841,7 +876,8 @@ public class MainController {
         });
 
         // A listener for changes to the list of transitions.
-        pda.addTransitionsListener(change -> {
+        ObservableList<PDATransition> transitions = pdaObservables.getTransitions();
+        transitions.addListener((ListChangeListener<PDATransition>) change -> {
             while (change.next()) {
                 if (change.wasAdded()) {
                     // Make the PDAStateNodeController create the newly created transition
@@ -858,6 +894,15 @@ public class MainController {
                 }
             }
         });
+
+        // Any change to the states, transitions or initial state may change whether the input
+        // string is accepted
+        pdaObservables.getStates().addListener((ListChangeListener<String>) change ->
+                acceptanceIndicator.refresh());
+        pdaObservables.getTransitions().addListener((ListChangeListener<PDATransition>) change ->
+                acceptanceIndicator.refresh());
+        pdaObservables.initialStateProperty().addListener((observable, oldValue, newValue) ->
+                acceptanceIndicator.refresh());
     }
 
     /**
@@ -969,7 +1014,8 @@ public class MainController {
      * by comparing the String for a newly created PDA with the String returned from the
      * generateString method. If file is not null, then compare the String returned from the
      * generateString method to the string in the file. If they are different, then there are
-     * unsaved changes. See subsection 4.7.1 of the report for further details.
+     * unsaved changes. The file is only read if the fingerprint of the PDA is the same as when it
+     * was saved or opened. See subsection 4.7.1 of the report for further details.
      *
      * @return True if there are any unsaved changes and false otherwise.
      */
@@ -987,6 +1033,11 @@ public class MainController {
                     "SYMBOL_AND_SYMBOL]}\n";
             return !initialPDAString.equals(currentPDAString);
         } else {
+            // If the PDA itself has changed since it was saved or opened, there is no need to
+            // read the file. Otherwise, the positions of the state nodes may still have changed.
+            if (pda.getFingerprint() != savedFingerprint) {
+                return true;
+            }
             try {
                 String currentlySavedString =
                         new String(Files.readAllBytes(Paths.get(file.toString())));
@@ -1058,6 +1109,9 @@ public class MainController {
                 fileChooser.setInitialDirectory(file.getParentFile());
                 String fullString = new String(Files.readAllBytes(Paths.get(file.toString())));
                 loadPDAFromString(fullString, file);
+                if (this.file == file) {
+                    savedFingerprint = pda.getFingerprint();
+                }
                 // Clear the undo and redo stacks now that a PDA has been loaded
                 clearStacks();
             } catch (IOException e) {
@@ -1123,7 +1177,7 @@ public class MainController {
             // means all the listeners added to the pda object will fire, thus creating
             // PDAStateNodes and transition arrows, updating the determinism of the PDA, etc.
             pda.loadPDAFromString(pdaString);
-            ArrayList<String> acceptingStates = pda.getAcceptingStates();
+            List<String> acceptingStates = pda.getAcceptingStates();
 
             int openSquareBracketIndex = frontendString.indexOf("[");
             String stateNodesString = frontendString.substring(1, openSquareBracketIndex);
@@ -1331,6 +1385,7 @@ public class MainController {
             PrintWriter writer = new PrintWriter(file);
             writer.print(completePDA);
             writer.close();
+            savedFingerprint = pda.getFingerprint();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -1400,6 +1455,7 @@ public class MainController {
         // Create a save of the simulator state before the change so the change can be undone
         getAndStoreSimulatorState();
         pda.changeAcceptanceCriteria(AcceptanceCriteria.ACCEPTING_STATE);
+        acceptanceIndicator.refresh();
     }
 
     /**
@@ -1409,6 +1465,7 @@ public class MainController {
     private void onEmptyStackAcceptanceClick() {
         getAndStoreSimulatorState();
         pda.changeAcceptanceCriteria(AcceptanceCriteria.EMPTY_STACK);
+        acceptanceIndicator.refresh();
     }
 
     /**
@@ -1418,6 +1475,7 @@ public class MainController {
     private void onBothAcceptanceClick() {
         getAndStoreSimulatorState();
         pda.changeAcceptanceCriteria(AcceptanceCriteria.BOTH);
+        acceptanceIndicator.refresh();
     }
 
     /**
@@ -1428,6 +1486,7 @@ public class MainController {
         // Create a save of the simulator state before the change so the change can be undone
         getAndStoreSimulatorState();
         pda.setInitialStackSymbol(null);
+        acceptanceIndicator.refresh();
     }
 
     /**
@@ -1470,6 +1529,8 @@ public class MainController {
         pdaStateNodeController.setPushTextFormatter(symbolTextFormatter());
         currentState.setCellFactory(param -> new TransitionTableCell());
         pdaStateNodeController.transitionFunctionChanged();
+        // The transition function decides whether the transitions are valid
+        acceptanceIndicator.refresh();
     }
 
     /**
@@ -1490,6 +1551,8 @@ public class MainController {
         pdaStateNodeController.setPushTextFormatter(stringTextFormatter());
         currentState.setCellFactory(param -> new TransitionTableCell());
         pdaStateNodeController.transitionFunctionChanged();
+        // The transition function decides whether the transitions are valid
+        acceptanceIndicator.refresh();
     }
 
     /**
@@ -1510,6 +1573,8 @@ public class MainController {
         pdaStateNodeController.setPushTextFormatter(stringTextFormatter());
         currentState.setCellFactory(param -> new TransitionTableCell());
         pdaStateNodeController.transitionFunctionChanged();
+        // The transition function decides whether the transitions are valid
+        acceptanceIndicator.refresh();
     }
 
     /**
@@ -1687,7 +1752,7 @@ public class MainController {
         // If nondeterminismHighlighted is true, then highlight the nondeterministic transitions
         // and otherwise unhighlight them.
         if (nondeterminismHighlighted) {
-            HashSet<PDATransition> transitions = pda.getNondeterministicTransitions();
+            Set<PDATransition> transitions = pda.getNondeterministicTransitions();
             for (PDATransition transition : transitions) {
                 pdaStateNodeController.highlightTransition(transition);
             }
@@ -1804,11 +1869,12 @@ public class MainController {
      * This method checks if all the transitions abide by the selected transition function. If
      * the selected transition function allows popping and pushing of strings (i.e. it is
      * TransitionFunction.STRING_AND_STRING), then all transitions are automatically valid. If there
-     * are any invalid transitions, create and display an error Alert.
+     * are any invalid transitions and showErrors is true, create and display an error Alert.
      *
+     * @param showErrors Whether to display an error Alert if there are invalid transitions.
      * @return True if all transitions are valid and false otherwise.
      */
-    private boolean transitionsAreValid() {
+    private boolean transitionsAreValid(boolean showErrors) {
         String title = "Transition function error";
         if (selectedTransitionFunction == TransitionFunction.SYMBOL_AND_SYMBOL) {
             for (PDATransition transition : pda.getTransitions()) {
@@ -1818,7 +1884,9 @@ public class MainController {
                     String contentText = "The selected transition function does not allow for " +
                             "popping or pushing of strings of stack symbols. Please select " +
                             "another transition function or edit any invalid transitions.";
-                    createAndDisplayErrorAlert(title, contentText);
+                    if (showErrors) {
+                        createAndDisplayErrorAlert(title, contentText);
+                    }
                     return false;
                 }
             }
@@ -1831,7 +1899,9 @@ public class MainController {
                     String contentText = "The selected transition function does not allow for " +
                             "popping of strings of stack symbols. Please select another " +
                             "transition function or edit any invalid transitions.";
-                    createAndDisplayErrorAlert(title, contentText);
+                    if (showErrors) {
+                        createAndDisplayErrorAlert(title, contentText);
+                    }
                     return false;
                 }
             }
@@ -1843,17 +1913,30 @@ public class MainController {
     /**
      * Check if the PDA is unable to run. It cannot run if it is missing an initial state, if the
      * acceptance criteria requires there to be at least one accepting state but has none or if any
-     * transitions are invalid.
+     * transitions are invalid. If so, an error Alert explaining why is displayed.
      *
      * @return True if the PDA is invalid and therefore cannot be run and false otherwise.
      */
     private boolean pdaCannotRun() {
+        return pdaCannotRun(true);
+    }
+
+    /**
+     * Check if the PDA is unable to run, optionally without displaying an error Alert explaining
+     * why.
+     *
+     * @param showErrors Whether to display an error Alert if the PDA cannot be run.
+     * @return True if the PDA is invalid and therefore cannot be run and false otherwise.
+     */
+    private boolean pdaCannotRun(boolean showErrors) {
         if (pda.getInitialState() == null) {
             String title = "Missing initial state";
             String contentText = "The PDA needs an initial state in order to be ran. Please " +
                     "create an initial state by right-clicking on a state and selecting the" +
                     " checkbox.";
-            createAndDisplayErrorAlert(title, contentText);
+            if (showErrors) {
+                createAndDisplayErrorAlert(title, contentText);
+            }
             return true;
         }
         if (pda.getAcceptanceCriteria() != AcceptanceCriteria.EMPTY_STACK) {
@@ -1864,26 +1947,28 @@ public class MainController {
                         "Please create at least one accepting state by ticking the checkbox " +
                         "within a state or use the Empty stack acceptance criteria instead, if " +
                         "appropriate.";
-                createAndDisplayErrorAlert(title, contentText);
+                if (showErrors) {
+                    createAndDisplayErrorAlert(title, contentText);
+                }
                 return true;
             }
         }
 
-        return !transitionsAreValid();
+        return !transitionsAreValid(showErrors);
     }
 
     /**
      * Tries to display all accepting computations for the given input. It first checks if the PDA
      * is able to run and if so, it attempts to find the accepting computations for the provided
-     * input string. If getAcceptingComputations in the PDA class returns null, then there are no
-     * accepting computations for the input string of any length, so inform the user with an Alert.
-     * If the return value is not null, then the first element of the Pair is the ArrayList of
-     * discovered accepting computations. If this is empty, then that means either the length limit
+     * input string using a resumable ComputationSearch. If the search finds nothing without
+     * reaching a limit, then there are no accepting computations for the input string of any
+     * length, so inform the user with an Alert.
+     * If the search finds nothing but a limit was reached, then that means either the length limit
      * was reached by at least one computation or the overall step limit was reached. In either
-     * case, the user is asked if they want to try again with double the limit. This process can
-     * happen repeatedly. If the acceptingComputations field is non-empty, a dialog is shown to the
-     * user with all discovered accepting computations within the length limit. See section 4.10 of
-     * the report for further details.
+     * case, the user is asked if they want to continue with double the limit. This process can
+     * happen repeatedly. If accepting computations were found, a dialog is shown to the user with
+     * all discovered accepting computations within the length limit, shortest first. See section
+     * 4.10 of the report for further details.
      */
     @FXML
     private void onQuickRunButtonClicked() {
@@ -1891,16 +1976,153 @@ public class MainController {
             return;
         }
 
-        // Since the PDA can run, attempt to find the accepting computations for the input string.
-        Pair<ArrayList<ArrayList<PDAConfiguration>>, Boolean> pair;
-        pair = pda.getAcceptingComputations(inputString.getText(), currentMaxSteps,
-                currentMaxTotalSteps);
+        // Since the PDA can run, start a search for the accepting computations for the input
+        // string. The search runs on a snapshot of the PDA since it runs on a background thread.
+        quickRunSearch = pda.snapshot().startSearch(inputString.getText());
+        quickRunTotalStepsOffset = 0;
+        runQuickRunSearch();
+    }
+
+    /**
+     * Runs the search started by the most recent quick run with the current limits on a background
+     * thread, so that the user interface stays responsive, and then shows the results. While the
+     * search runs, a dialog shows its progress and lets the user cancel it, in which case the
+     * accepting computations found so far are shown. If a limit is reached and the user chooses
+     * to double it, the search is resumed from where it stopped rather than starting again from
+     * scratch, so only the part of the computation tree that the larger limit allows is explored.
+     */
+    private void runQuickRunSearch() {
+        ComputationSearch search = quickRunSearch;
+        int maxSteps = currentMaxSteps;
+        // The total step limit is bounded by a governor, which also stops the search if it uses
+        // up most of the memory that is still available, so that a large search ends with
+        // partial results rather than running out of memory
+        RunGovernor governor = RunGovernor.ofConfigurations(
+                (long) quickRunTotalStepsOffset + currentMaxTotalSteps - search.getTotalSteps());
+        Runtime runtime = Runtime.getRuntime();
+        long availableMemory = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        governor.setMemoryLimit(availableMemory / 4 * 3);
+        long startTime = System.nanoTime();
+
+        Task<Boolean> task = new Task<>() {
+            @Override
+            protected Boolean call() {
+                // The progress is passed on to the JavaFX application thread through the
+                // message of the task
+                search.setProgressListener((totalSteps, acceptingComputations, depth) ->
+                        updateMessage(getQuickRunProgressMessage(totalSteps,
+                                acceptingComputations, depth, System.nanoTime() - startTime)));
+                return search.advance(maxSteps, governor);
+            }
+        };
+
+        // The progress dialog is modal, so the PDA cannot be changed while the search is running
+        Alert progressAlert = new Alert(Alert.AlertType.INFORMATION);
+        progressAlert.setTitle("Quick run in progress");
+        progressAlert.setHeaderText(null);
+        DialogPane progressPane = progressAlert.getDialogPane();
+        Label progressLabel = new Label(getQuickRunProgressMessage(search.getTotalSteps(),
+                search.getAcceptingComputationCount(), 0, 0));
+        task.messageProperty().addListener((observable, oldMessage, newMessage) ->
+                progressLabel.setText(newMessage));
+        progressPane.setContent(progressLabel);
+        progressPane.getButtonTypes().setAll(ButtonType.CANCEL);
+        Stage progressStage = (Stage) progressPane.getScene().getWindow();
+        progressStage.getIcons().add(APPLICATION_ICON);
+        // Cancelling only asks the search to stop. The dialog is closed once the task finishes,
+        // which is when the partial results are available.
+        progressPane.lookupButton(ButtonType.CANCEL).addEventFilter(ActionEvent.ACTION, event -> {
+            event.consume();
+            search.cancel();
+        });
+        // Closing the window also cancels the search rather than leaving it running unseen
+        progressStage.setOnCloseRequest(event -> {
+            event.consume();
+            search.cancel();
+        });
+
+        task.setOnSucceeded(event -> {
+            search.setProgressListener(null);
+            progressStage.close();
+            showQuickRunResults(task.getValue(), governor.getExhaustedBudget());
+        });
+        task.setOnFailed(event -> {
+            search.setProgressListener(null);
+            progressStage.close();
+            Alert error = new Alert(Alert.AlertType.ERROR);
+            error.setTitle("Quick run failed");
+            error.setHeaderText(null);
+            error.setContentText("The quick run stopped because of an error: " +
+                    task.getException());
+            Stage errorStage = (Stage) error.getDialogPane().getScene().getWindow();
+            errorStage.getIcons().add(APPLICATION_ICON);
+            error.show();
+        });
+
+        Thread thread = new Thread(task, "Quick run");
+        thread.setDaemon(true);
+        thread.start();
+        progressAlert.show();
+    }
+
+    /**
+     * Creates the text shown in the progress dialog of a quick run.
+     *
+     * @param totalSteps            The number of configurations explored so far.
+     * @param acceptingComputations The number of accepting computations found so far.
+     * @param depth                 The length of the computation currently being explored.
+     * @param elapsedNanos          The time the search has been running for, in nanoseconds.
+     * @return The progress text.
+     */
+    private static String getQuickRunProgressMessage(int totalSteps, int acceptingComputations,
+                                                     int depth, long elapsedNanos) {
+        return String.format("Configurations explored: %d%nAccepting computations found: %d%n" +
+                        "Current depth: %d%nElapsed time: %.1f s", totalSteps,
+                acceptingComputations, depth, elapsedNanos / 1e9);
+    }
+
+    /**
+     * Shows the results of the most recent run of the quick run search.
+     *
+     * @param limitReached Null if no limit was reached, true if the step limit was reached or
+     *                     false if the total step limit was reached or the search was cancelled.
+     * @param budget       The budget of the run governor that stopped the search, if any.
+     */
+    private void showQuickRunResults(Boolean limitReached, RunGovernor.Budget budget) {
+        int count = quickRunSearch.getAcceptingComputationCount();
+
+        // If the search was cancelled before anything was found, there is nothing to show
+        if (quickRunSearch.wasCancelled() && count == 0) {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Quick run cancelled");
+            alert.setHeaderText(null);
+            alert.getDialogPane().setContent(new Label("The quick run was cancelled before any " +
+                    "accepting computations were found."));
+            Stage stage = (Stage) alert.getDialogPane().getScene().getWindow();
+            stage.getIcons().add(APPLICATION_ICON);
+            alert.show();
+            currentMaxSteps = DEFAULT_MAX_STEPS;
+            return;
+        }
 
-        if (pair != null) {
-            acceptingComputations = pair.getKey();
+        // If the search ran low on memory before anything was found, raising the limits will not
+        // help, so just tell the user
+        if (budget == RunGovernor.Budget.MEMORY && count == 0) {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Quick run stopped");
+            alert.setHeaderText(null);
+            alert.getDialogPane().setContent(new Label("The quick run was stopped because it was " +
+                    "running out of memory before any accepting computations were found."));
+            Stage stage = (Stage) alert.getDialogPane().getScene().getWindow();
+            stage.getIcons().add(APPLICATION_ICON);
+            alert.show();
+            currentMaxSteps = DEFAULT_MAX_STEPS;
+            return;
         }
-        // If pair is null, then there are no accepting computations irrespective of the two limits
-        else {
+
+        // If no limit was reached and nothing was found, then there are no accepting computations
+        // irrespective of the two limits
+        if (limitReached == null && count == 0) {
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
             alert.setTitle("Input string rejected");
             alert.setHeaderText(null);
@@ -1914,10 +2136,10 @@ public class MainController {
             return;
         }
 
-        // If acceptingComputations is empty, then one of the two limits was reached. This may be
-        // the reason why no accepting computations were discovered so ask the user if they want to
-        // try again with a larger limit.
-        if (acceptingComputations.isEmpty()) {
+        // If no accepting computations were found, then one of the two limits was reached. This
+        // may be the reason why no accepting computations were discovered so ask the user if they
+        // want to try again with a larger limit.
+        if (count == 0) {
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
             alert.setTitle("No accepting computations found");
             alert.setHeaderText(null);
@@ -1931,40 +2153,42 @@ public class MainController {
             stage.getIcons().add(APPLICATION_ICON);
 
             dialogPane.getButtonTypes().addAll(ButtonType.YES, ButtonType.NO);
-            // If the second element of the pair is true, then the length limit for an individual
+            // If limitReached is true, then the length limit for an individual
             // computation was reached. Ask the user if they wish to continue searching with double
             // the computation length limit.
-            if (pair.getValue()) {
+            if (limitReached) {
                 // Ask the user if they want to run for double the number of steps.
                 label.setText("There are no accepting computations for the input string of length" +
                         " " + currentMaxSteps + " or less.\nWould you like to try again with a" +
                         " computation length limit of " + (2 * currentMaxSteps) + "?");
 
-                // Double the maximum number of steps and run the PDA again using this method so the
-                // process can repeat
+                // Double the maximum number of steps and resume the search using this method so
+                // the process can repeat. The total step limit applies afresh to the newly allowed
+                // part of the search.
                 dialogPane.lookupButton(ButtonType.YES).addEventFilter(ActionEvent.ACTION, event -> {
                     currentMaxSteps *= 2;
+                    quickRunTotalStepsOffset = quickRunSearch.getTotalSteps();
                     alert.close();
-                    onQuickRunButtonClicked();
+                    runQuickRunSearch();
                 });
                 // Reset the currentMaxSteps if the user selects the No button
                 dialogPane.lookupButton(ButtonType.NO).addEventFilter(ActionEvent.ACTION, event ->
                         currentMaxSteps = DEFAULT_MAX_STEPS);
             }
             else {
-                // If the second element of the pair is false, then the upper limit on the total
-                // number of steps across all computations was reached. Ask the user if they wish to
-                // run the PDA again with double the total steps limit.
+                // If limitReached is false, then the upper limit on the total number of steps
+                // across all computations was reached. Ask the user if they wish to run the PDA
+                // again with double the total steps limit.
                 label.setText("No accepting computations were found with a limit of " +
                         currentMaxTotalSteps + " total steps.\nWould you like to try again " +
                         "with a total step limit of " + (2 * currentMaxTotalSteps) + "?");
 
-                // Double the maximum number of allowed total steps and run the PDA again using
-                // this method so the  process can repeat
+                // Double the maximum number of allowed total steps and resume the search using
+                // this method so the process can repeat
                 dialogPane.lookupButton(ButtonType.YES).addEventFilter(ActionEvent.ACTION, event -> {
                     currentMaxTotalSteps *= 2;
                     alert.close();
-                    onQuickRunButtonClicked();
+                    runQuickRunSearch();
                 });
                 // Reset the currentMaxTotalSteps if the user selects the No button
                 dialogPane.lookupButton(ButtonType.NO).addEventFilter(ActionEvent.ACTION, event ->
@@ -1978,12 +2202,20 @@ public class MainController {
         // If this is reached, there is at least one accepting computation, so display the
         // accepting computation(s)
 
+        // Only the first page of the shortest computations is fetched now. Later pages are
+        // fetched as the user reaches them.
+        displayedSearch = quickRunSearch;
+        acceptingComputationCount = count;
+        acceptingComputations = displayedSearch.getShortestAcceptingComputations(
+                COMPUTATION_PAGE_SIZE);
+        acceptingComputationsPageStart = 0;
+
         // Reset the index
         index = 0;
         // Display the first computation in the list and update the title of the dialog accordingly
-        displayComputation(acceptingComputations.get(index));
+        displayComputation(getAcceptingComputation(index));
         acceptingComputationsDialog.setTitle("Computation " + (index + 1) + " of " +
-                acceptingComputations.size());
+                acceptingComputationCount);
 
         DialogPane dialogPane = acceptingComputationsDialog.getDialogPane();
 
@@ -1994,7 +2226,7 @@ public class MainController {
 
         // Next button should be disabled if there is only one computation in the list
         Button next = (Button) dialogPane.lookupButton(ButtonType.NEXT);
-        next.setDisable(acceptingComputations.size() == 1);
+        next.setDisable(acceptingComputationCount == 1);
 
         acceptingComputationsDialog.show();
 
@@ -2002,14 +2234,34 @@ public class MainController {
         currentMaxSteps = DEFAULT_MAX_STEPS;
     }
 
+    /**
+     * Gets an accepting computation of the search shown in the accepting computations dialog. If
+     * the computation is not on the currently loaded page, the page containing it is fetched from
+     * the search first, so only the computations the user actually views are ever sorted.
+     *
+     * @param position The position of the computation when the accepting computations are ordered
+     *                 from shortest to longest.
+     * @return The accepting computation at that position.
+     */
+    private Computation getAcceptingComputation(int position) {
+        if (position < acceptingComputationsPageStart ||
+                position >= acceptingComputationsPageStart + acceptingComputations.size()) {
+            acceptingComputationsPageStart = position - position % COMPUTATION_PAGE_SIZE;
+            acceptingComputations = displayedSearch.getAcceptingComputationPage(
+                    acceptingComputationsPageStart, COMPUTATION_PAGE_SIZE);
+        }
+        return acceptingComputations.get(position - acceptingComputationsPageStart);
+    }
+
     /**
      * This method displays the given PDA computation in the VBox of the acceptingComputationsDialog
      * by adding a VBox for each configuration in the computation to the outer
-     * acceptingComputationsDialogVBox.
+     * acceptingComputationsDialogVBox. Accepting computations only store their transitions, so
+     * the configurations are reconstructed one at a time as they are displayed.
      *
      * @param computation The accepting PDA computation that needs to be displayed.
      */
-    private void displayComputation(ArrayList<PDAConfiguration> computation) {
+    private void displayComputation(List<PDAConfiguration> computation) {
         // Start by clearing the previous computation
         acceptingComputationsDialogVBox.getChildren().clear();
 
@@ -2039,7 +2291,7 @@ public class MainController {
         stack.setFont(new Font(15));
         HBox input = new HBox();
 
-        String inputString = PDAConfiguration.getInputString();
+        String inputString = configuration.getFullInputString();
         int inputStringIndex = configuration.getIndex();
 
         Label consumedInput = new Label();
@@ -2175,7 +2427,7 @@ public class MainController {
      *
      * @param computation The computation the animation is for.
      */
-    private void showAnimationWindow(ArrayList<PDAConfiguration> computation) {
+    private void showAnimationWindow(List<PDAConfiguration> computation) {
         SplitPane root = initialiseAnimationController(inputString.getText(), computation);
         Stage animationStage = new Stage();
         // Set the initOwner to the main stage and the initModality to Modality.WINDOW_MODAL so
@@ -2203,7 +2455,7 @@ public class MainController {
      * @return The root of the fxml document
      */
     private SplitPane initialiseAnimationController(String inputString,
-                                                    ArrayList<PDAConfiguration> computation) {
+                                                    List<PDAConfiguration> computation) {
         FXMLLoader fxmlLoader = new FXMLLoader(PDASimulator.class.getResource("/FXML/" +
                 "animation-view.fxml"));
         try {
@@ -2247,7 +2499,7 @@ public class MainController {
      * @return The PDATransitions.
      */
     public static ObservableList<PDATransition> getTransitions() {
-        return pda.getTransitions();
+        return pdaObservables.getTransitions();
     }
 
     /**
@@ -2282,9 +2534,9 @@ public class MainController {
     /**
      * Gets the list of all accepting states from the PDA object.
      *
-     * @return An ArrayList of all accepting states.
+     * @return A List of all accepting states.
      */
-    public static ArrayList<String> getAcceptingStates() {
+    public static List<String> getAcceptingStates() {
         return pda.getAcceptingStates();
     }
 
@@ -2307,6 +2559,7 @@ public class MainController {
      */
     public static void changeAcceptingState(String state) {
         pda.changeAcceptingState(state);
+        acceptanceIndicator.refresh();
     }
 
     /**
@@ -0,0 +1,157 @@
+package PDA_Simulator.Frontend;
+
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDAListener;
+import PDA_Simulator.Backend.PDATransition;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * This class adapts a PDA to the observable lists and properties that the frontend binds to. The
+ * PDA itself only uses plain Java collections and reports its changes to PDAListeners, so this
+ * class listens to the PDA and mirrors its states, transitions, initial state and determinism.
+ * The transition table uses the observable list of transitions as its items, and MainController
+ * adds its listeners to the observable lists and properties, so they are notified of changes to
+ * the PDA in the same way as if the PDA were made of observables itself.
+ */
+
+class PDAObservables implements PDAListener {
+    // The transitions of the PDA
+    private final ObservableList<PDATransition> transitions = FXCollections.observableArrayList();
+    // The states of the PDA
+    private final ObservableList<String> states = FXCollections.observableArrayList();
+    // The initial state of the PDA
+    private final SimpleStringProperty initialState = new SimpleStringProperty(null);
+    // Whether the PDA is deterministic
+    private final SimpleBooleanProperty deterministic = new SimpleBooleanProperty(true);
+
+    /**
+     * Creates the observables for the given PDA, starting with its current contents, and starts
+     * listening to it.
+     *
+     * @param pda The PDA.
+     */
+    PDAObservables(PDA pda) {
+        transitions.setAll(pda.getTransitions());
+        states.setAll(pda.getStates());
+        initialState.set(pda.getInitialState());
+        deterministic.set(pda.getDeterministic());
+        pda.addListener(this);
+    }
+
+    /**
+     * Gets the observable list of the transitions of the PDA.
+     *
+     * @return The transitions ObservableList.
+     */
+    ObservableList<PDATransition> getTransitions() {
+        return transitions;
+    }
+
+    /**
+     * Gets the observable list of the states of the PDA.
+     *
+     * @return The states ObservableList.
+     */
+    ObservableList<String> getStates() {
+        return states;
+    }
+
+    /**
+     * Gets the property containing the initial state of the PDA.
+     *
+     * @return The initial state property.
+     */
+    SimpleStringProperty initialStateProperty() {
+        return initialState;
+    }
+
+    /**
+     * Gets the property containing whether the PDA is deterministic.
+     *
+     * @return The deterministic property.
+     */
+    SimpleBooleanProperty deterministicProperty() {
+        return deterministic;
+    }
+
+    /**
+     * Adds the new state to the states ObservableList.
+     *
+     * @param index The position of the new state in the list of states.
+     * @param state The name of the new state.
+     */
+    @Override
+    public void stateAdded(int index, String state) {
+        states.add(index, state);
+    }
+
+    /**
+     * Removes the state from the states ObservableList.
+     *
+     * @param index The position the state had in the list of states.
+     * @param state The name of the removed state.
+     */
+    @Override
+    public void stateRemoved(int index, String state) {
+        states.remove(state);
+    }
+
+    /**
+     * Replaces the old name of the state with the new name in the states ObservableList.
+     *
+     * @param index   The position of the state in the list of states.
+     * @param oldName The old name of the state.
+     * @param newName The new name of the state.
+     */
+    @Override
+    public void stateRenamed(int index, String oldName, String newName) {
+        states.set(index, newName);
+    }
+
+    /**
+     * Adds the new transition to the transitions ObservableList.
+     *
+     * @param index      The position of the new transition in the list of transitions.
+     * @param transition The new transition.
+     */
+    @Override
+    public void transitionAdded(int index, PDATransition transition) {
+        transitions.add(index, transition);
+    }
+
+    /**
+     * Removes the transition from the transitions ObservableList. The transition is found by
+     * value rather than by position in case the list has been sorted by the transition table.
+     *
+     * @param index      The position the transition had in the list of transitions.
+     * @param transition The removed transition.
+     */
+    @Override
+    public void transitionRemoved(int index, PDATransition transition) {
+        transitions.remove(transition);
+    }
+
+    /**
+     * Updates the initial state property.
+     *
+     * @param oldState The old initial state, or null if there was none.
+     * @param newState The new initial state, or null if there is none.
+     */
+    @Override
+    public void initialStateChanged(String oldState, String newState) {
+        initialState.set(newState);
+    }
+
+    /**
+     * Updates the deterministic property.
+     *
+     * @param deterministic Whether the PDA is now deterministic.
+     */
+    @Override
+    public void deterministicChanged(boolean deterministic) {
+        this.deterministic.set(deterministic);
+    }
+}
@@ -1,19 +1,44 @@
 package PDA_Simulator;
 
+import PDA_Simulator.CLI.CommandLineRunner;
+import PDA_Simulator.CLI.GradingPipeline;
+import PDA_Simulator.CLI.ShardCoordinator;
+import PDA_Simulator.CLI.ShardWorker;
+import PDA_Simulator.CLI.SimulationServer;
 import PDA_Simulator.Frontend.PDASimulator;
 
+import java.util.Arrays;
+
 /**
- * This class was just needed to create a .jar file and is otherwise completely unused.
+ * This class is the entry point of the .jar file. It starts the application, the command line
+ * runner if the first argument is --headless, the simulation server if it is --serve, a shard
+ * worker if it is --worker, the shard coordinator if it is --shard or the grading pipeline if it
+ * is --grade.
  *
  * @author Savraj Bassi
  */
 
 public class Main {
     /**
-     * Invokes the Main method of the PDASimulatorClass to start the application.
+     * Invokes the main method of the PDASimulator class to start the application, or the main
+     * method of the CommandLineRunner, SimulationServer, ShardWorker, ShardCoordinator or
+     * GradingPipeline class with the remaining arguments if the first argument is --headless,
+     * --serve, --worker, --shard or --grade respectively.
      * @param args The command line arguments.
      */
     public static void main(String[] args) {
-        PDASimulator.main(args);
+        if (args.length > 0 && args[0].equals("--headless")) {
+            CommandLineRunner.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals("--serve")) {
+            SimulationServer.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals("--worker")) {
+            ShardWorker.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals("--shard")) {
+            ShardCoordinator.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals("--grade")) {
+            GradingPipeline.main(Arrays.copyOfRange(args, 1, args.length));
+        } else {
+            PDASimulator.main(args);
+        }
     }
 }
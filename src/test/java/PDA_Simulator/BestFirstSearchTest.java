@@ -0,0 +1,130 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.AcceptanceCriteria;
+import PDA_Simulator.Backend.BestFirstSearch;
+import PDA_Simulator.Backend.Computation;
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDAConfiguration;
+import PDA_Simulator.Backend.PDATransition;
+import PDA_Simulator.Backend.SearchHeuristic;
+import PDA_Simulator.Backend.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Stack;
+
+import static PDA_Simulator.Samples.createSample1PDA;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BestFirstSearchTest {
+
+    /**
+     * The PDA that sample 1 contains accepts the language a^n b^n over the alphabet {a, b}. The
+     * best-first search finds the same accepting computations as the depth-first search.
+     */
+    @Test
+    void runSample1PDA() {
+        PDA pda = createSample1PDA();
+        BestFirstSearch search =
+                new BestFirstSearch(pda, SearchHeuristic.distanceToAcceptance(pda));
+
+        assertNull(search.getAcceptingComputations("aab", 50, 5000));
+        assertNull(search.getFirstAcceptingComputation("abab", 50, 5000));
+
+        Pair<ArrayList<Computation>, Boolean> pair =
+                search.getAcceptingComputations("aabb", 50, 5000);
+        assertEquals(pair.getKey(), pda.getAcceptingComputations("aabb", 50, 5000).getKey());
+        assertNull(pair.getValue());
+        assertEquals(search.getFirstAcceptingComputation("aabb", 50, 5000).size(), 6);
+
+        // The computation is longer than the step limit
+        pair = search.getAcceptingComputations("aaaaabbbbb", 10, 5000);
+        assertEquals(pair.getKey().size(), 0);
+        assertTrue(pair.getValue());
+    }
+
+    /**
+     * Tests that the shortest accepting computation is found first even when the depth-first
+     * search would find a much longer one first.
+     */
+    @Test
+    void getFirstAcceptingComputation() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q1");
+        // A short way to the accepting state and a long detour through q2
+        pda.addTransition(new PDATransition("q0", "", "", "", "q1"));
+        pda.addTransition(new PDATransition("q0", "", "", "A", "q2"));
+        pda.addTransition(new PDATransition("q2", "", "", "", "q1"));
+        pda.addTransition(new PDATransition("q2", "", "", "A", "q2"));
+
+        // The depth-first search explores the detour until it reaches the step limit
+        assertEquals(pda.getFirstAcceptingComputation("", 20, 5000).size(), 20);
+        BestFirstSearch search =
+                new BestFirstSearch(pda, SearchHeuristic.distanceToAcceptance(pda));
+        assertEquals(search.getFirstAcceptingComputation("", 20, 5000).size(), 2);
+        search = new BestFirstSearch(pda, SearchHeuristic.remainingInputAndStackHeight());
+        assertEquals(search.getFirstAcceptingComputation("", 20, 5000).size(), 2);
+    }
+
+    /**
+     * Tests that a bounded frontier drops the least promising configurations and reports that the
+     * search was cut short.
+     */
+    @Test
+    void beamSearch() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q3");
+        // The configuration in q1 looks the most promising since its stack is smallest, but only
+        // the one in q2 leads to acceptance
+        pda.addTransition(new PDATransition("q0", "", "", "", "q1"));
+        pda.addTransition(new PDATransition("q0", "", "", "AB", "q2"));
+        pda.addTransition(new PDATransition("q1", "", "", "", "q1"));
+        pda.addTransition(new PDATransition("q2", "", "AB", "", "q3"));
+
+        SearchHeuristic heuristic = SearchHeuristic.remainingInputAndStackHeight();
+        Pair<ArrayList<Computation>, Boolean> pair =
+                new BestFirstSearch(pda, heuristic, 1).getAcceptingComputations("", 10, 5000);
+        assertEquals(pair.getKey().size(), 0);
+        assertFalse(pair.getValue());
+
+        pair = new BestFirstSearch(pda, heuristic, 2).getAcceptingComputations("", 10, 5000);
+        assertEquals(pair.getKey().size(), 1);
+        assertEquals(pair.getKey().get(0).size(), 3);
+        assertTrue(pair.getValue());
+
+        assertThrows(IllegalArgumentException.class, () -> new BestFirstSearch(pda, heuristic, 0));
+    }
+
+    /**
+     * Tests the estimates made by the heuristic based on a static analysis of the PDA.
+     */
+    @Test
+    void distanceToAcceptance() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q2");
+        pda.addTransition(new PDATransition("q0", "", "", "", "q1"));
+        pda.addTransition(new PDATransition("q1", "", "AB", "", "q2"));
+        pda.addTransition(new PDATransition("q3", "", "", "", "q3"));
+        PDAConfiguration.setInputString("ab");
+        Stack<String> stack = new Stack<>();
+        stack.push("A");
+        stack.push("A");
+        stack.push("A");
+
+        SearchHeuristic heuristic = SearchHeuristic.distanceToAcceptance(pda);
+        // Two input symbols are left, which outweighs the distance of 1 to the accepting state
+        assertEquals(heuristic.estimate(new PDAConfiguration(stack, "q1", 0)), 2);
+        assertEquals(heuristic.estimate(new PDAConfiguration(stack, "q0", 2)), 2);
+        assertEquals(heuristic.estimate(new PDAConfiguration(stack, "q3", 2)),
+                SearchHeuristic.UNREACHABLE);
+
+        // At most two symbols are popped at a time, so emptying a stack of three takes two steps
+        pda.changeAcceptanceCriteria(AcceptanceCriteria.EMPTY_STACK);
+        heuristic = SearchHeuristic.distanceToAcceptance(pda);
+        assertEquals(heuristic.estimate(new PDAConfiguration(stack, "q3", 2)), 2);
+        assertEquals(heuristic.estimate(new PDAConfiguration(new Stack<>(), "q3", 2)), 0);
+    }
+}
@@ -0,0 +1,122 @@
+package PDA_Simulator;
+
+import PDA_Simulator.CLI.CommandLineRunner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static PDA_Simulator.Samples.SAMPLE_1;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandLineRunnerTest {
+    // The contents of a file containing the PDA that sample 1 contains, followed by its layout
+    private static final String SAMPLE_1_FILE = SAMPLE_1 + "{(q0,50.0,50.0), (q1,250.0,50.0), " +
+            "(q2,450.0,50.0) [transition function = SYMBOL_AND_STRING]}\n";
+    // The output stream of the most recent run
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // The error stream of the most recent run
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    /**
+     * Runs the command line runner with the given arguments and standard input.
+     *
+     * @param input The contents of standard input.
+     * @param args  The command line arguments.
+     * @return The exit status.
+     */
+    private int run(String input, String... args) {
+        out.reset();
+        err.reset();
+        return CommandLineRunner.run(args,
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    /**
+     * Gets the lines written to the output stream with the times removed.
+     *
+     * @return The lines.
+     */
+    private String[] outputLines() {
+        return out.toString().replaceAll("(?m)(\"timeMs\":|,)[0-9.]+(}?)\\r?$", "$1T$2")
+                .split("\\r?\\n");
+    }
+
+    /**
+     * Tests that verdicts are written as JSON lines in the order of the input strings, whatever
+     * order they finish in.
+     */
+    @Test
+    void jsonLines(@TempDir Path directory) throws IOException {
+        Path pdaFile = directory.resolve("sample1.txt");
+        Files.write(pdaFile, SAMPLE_1_FILE.getBytes(StandardCharsets.UTF_8));
+        StringBuilder inputs = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            inputs.append("a".repeat(i)).append("b".repeat(i % 2 == 0 ? i : i + 1)).append("\n");
+        }
+        Path inputsFile = directory.resolve("inputs.txt");
+        Files.write(inputsFile, inputs.toString().getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(run("", "--pda", pdaFile.toString(), "--inputs", inputsFile.toString(),
+                "--threads", "4"), 0);
+        String[] lines = outputLines();
+        assertEquals(lines.length, 50);
+        assertEquals(lines[0], "{\"input\":\"\",\"verdict\":\"rejected\",\"stoppedBy\":null," +
+                "\"timeMs\":T}");
+        assertEquals(lines[1], "{\"input\":\"abb\",\"verdict\":\"rejected\",\"stoppedBy\":null," +
+                "\"timeMs\":T}");
+        assertEquals(lines[2], "{\"input\":\"aabb\",\"verdict\":\"accepted\",\"stoppedBy\":" +
+                "null,\"timeMs\":T}");
+        assertTrue(lines[48].startsWith("{\"input\":\"" + "a".repeat(48) + "b".repeat(48) +
+                "\",\"verdict\":\"accepted\""));
+        assertTrue(err.toString().startsWith("50 input strings: 24 accepted, 26 rejected, " +
+                "0 unknown"));
+    }
+
+    /**
+     * Tests that verdicts are written as CSV, that input strings are read from standard input
+     * and that the search reports the limit that stopped it.
+     */
+    @Test
+    void csvAndSearch(@TempDir Path directory) throws IOException {
+        Path pdaFile = directory.resolve("sample1.txt");
+        Files.write(pdaFile, SAMPLE_1_FILE.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(run("ab\na,b\naaaabbbb\n", "--pda", pdaFile.toString(), "--format",
+                "csv", "--engine", "search", "--max-steps", "5"), 0);
+        String[] lines = outputLines();
+        assertEquals(lines.length, 4);
+        assertEquals(lines[0], "input,verdict,stopped_by,time_ms");
+        assertEquals(lines[1], "ab,accepted,,T");
+        assertEquals(lines[2], "\"a,b\",rejected,,T");
+        assertEquals(lines[3], "aaaabbbb,unknown,steps,T");
+    }
+
+    /**
+     * Tests that invalid arguments and files are reported with the right exit status.
+     */
+    @Test
+    void invalidArguments(@TempDir Path directory) throws IOException {
+        assertEquals(run("", "--help"), 0);
+        assertTrue(err.toString().startsWith("Usage"));
+        assertEquals(run(""), 2);
+        assertTrue(err.toString().startsWith("No PDA file given"));
+        assertEquals(run("", "--pda", "x", "--threads", "0"), 2);
+        assertTrue(err.toString().startsWith("Not a positive integer: 0"));
+        assertEquals(run("", "--pda", "x", "--format", "xml"), 2);
+        assertEquals(run("", "--pda", "x", "--engine"), 2);
+
+        assertEquals(run("", "--pda", directory.resolve("missing.txt").toString()), 1);
+        Path pdaFile = directory.resolve("invalid.txt");
+        Files.write(pdaFile, "not a PDA".getBytes(StandardCharsets.UTF_8));
+        assertEquals(run("", "--pda", pdaFile.toString()), 1);
+        assertTrue(err.toString().contains("does not contain a valid PDA"));
+    }
+}
@@ -0,0 +1,178 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.AcceptanceCriteria;
+import PDA_Simulator.Backend.Computation;
+import PDA_Simulator.Backend.ComputationSearch;
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDATransition;
+import PDA_Simulator.Backend.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static PDA_Simulator.Samples.createSample1PDA;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComputationSearchTest {
+
+    /**
+     * Tests that raising the total step limit continues the search from where it stopped and
+     * gives the same result as running the search from scratch with the larger limit.
+     */
+    @Test
+    void raiseTotalStepLimit() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q1");
+        pda.addTransition(new PDATransition("q0", "", "", "", "q0"));
+        pda.addTransition(new PDATransition("q0", "", "", "", "q1"));
+        pda.addTransition(new PDATransition("q1", "", "", "", "q0"));
+
+        ComputationSearch search = pda.startSearch("");
+        Pair<ArrayList<Computation>, Boolean> pair = search.run(20, 100);
+        assertFalse(pair.getValue());
+        assertFalse(search.isFinished());
+        int found = pair.getKey().size();
+
+        pair = search.run(20, 300);
+        assertFalse(pair.getValue());
+        assertTrue(pair.getKey().size() > found);
+        assertEquals(pair.getKey(), pda.getAcceptingComputations("", 20, 300).getKey());
+
+        // Running with the same limits again does not explore anything else
+        int totalSteps = search.getTotalSteps();
+        pair = search.run(20, 300);
+        assertEquals(search.getTotalSteps(), totalSteps);
+        assertEquals(pair.getKey(), pda.getAcceptingComputations("", 20, 300).getKey());
+    }
+
+    /**
+     * Tests that raising the step limit only explores the computations that were cut off by the
+     * old step limit.
+     */
+    @Test
+    void raiseStepLimit() {
+        PDA pda = createSample1PDA();
+        String inputString = "aaaaaaaaaaaaaaaaaaaaaaaaabbbbbbbbbbbbbbbbbbbbbbbbb";
+
+        ComputationSearch search = pda.startSearch(inputString);
+        Pair<ArrayList<Computation>, Boolean> pair = search.run(50, 5000);
+        assertEquals(pair.getKey().size(), 0);
+        assertTrue(pair.getValue());
+        assertTrue(search.isFinished());
+        int stepsBefore = search.getTotalSteps();
+
+        pair = search.run(100, 5000);
+        assertEquals(pair.getKey().size(), 1);
+        assertEquals(pair.getKey().get(0).size(), 52);
+        assertNull(pair.getValue());
+        assertEquals(pair.getKey(), pda.getAcceptingComputations(inputString, 100, 5000).getKey());
+
+        // Only the configurations below the one cut off by the old step limit were explored, with
+        // the cut off configuration being explored a second time
+        ComputationSearch freshSearch = pda.startSearch(inputString);
+        freshSearch.run(100, 5000);
+        assertEquals(search.getTotalSteps(), freshSearch.getTotalSteps() + 1);
+        assertTrue(search.getTotalSteps() - stepsBefore < freshSearch.getTotalSteps());
+
+        assertThrows(IllegalArgumentException.class, () -> search.run(50, 5000));
+    }
+
+    /**
+     * Tests that a search for an input string the PDA definitely rejects returns null.
+     */
+    @Test
+    void rejectedInputString() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.setInitialStackSymbol("#");
+        pda.changeAcceptanceCriteria(AcceptanceCriteria.EMPTY_STACK);
+        pda.addTransition(new PDATransition("q0", "a", "", "A", "q0"));
+
+        ComputationSearch search = pda.startSearch("aa");
+        assertNull(search.run(50, 5000));
+        assertTrue(search.isFinished());
+        assertEquals(search.getInputString(), "aa");
+        assertNull(search.run(100, 10000));
+    }
+
+    /**
+     * Tests that the pages of accepting computations match the corresponding parts of the fully
+     * sorted list of accepting computations.
+     */
+    @Test
+    void acceptingComputationPages() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q1");
+        pda.addTransition(new PDATransition("q0", "", "", "", "q0"));
+        pda.addTransition(new PDATransition("q0", "", "", "", "q1"));
+        pda.addTransition(new PDATransition("q1", "", "", "", "q0"));
+
+        ComputationSearch search = pda.startSearch("");
+        assertTrue(search.advance(12, 100000));
+        ArrayList<Computation> sorted = pda.getAcceptingComputations("", 12, 100000).getKey();
+        int count = search.getAcceptingComputationCount();
+        assertEquals(count, sorted.size());
+
+        assertEquals(search.getShortestAcceptingComputations(7), sorted.subList(0, 7));
+        for (int first = 0; first < count; first += 25) {
+            assertEquals(search.getAcceptingComputationPage(first, 25),
+                    sorted.subList(first, Math.min(first + 25, count)));
+        }
+        assertEquals(search.getShortestAcceptingComputations(count + 10), sorted);
+        assertTrue(search.getAcceptingComputationPage(count, 10).isEmpty());
+        assertTrue(search.getShortestAcceptingComputations(0).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> search.getAcceptingComputationPage(-1, 10));
+
+        // The computations found after resuming the search are merged into the sorted order
+        assertTrue(search.advance(16, 100000));
+        sorted = pda.getAcceptingComputations("", 16, 100000).getKey();
+        count = search.getAcceptingComputationCount();
+        assertEquals(count, sorted.size());
+        for (int first = 0; first < count; first += 25) {
+            assertEquals(search.getAcceptingComputationPage(first, 25),
+                    sorted.subList(first, Math.min(first + 25, count)));
+        }
+    }
+
+    /**
+     * Tests that a cancelled search stops early, keeps what it has found and can be resumed, and
+     * that progress is reported while it runs.
+     */
+    @Test
+    void cancelAndProgress() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q1");
+        pda.addTransition(new PDATransition("q0", "", "", "", "q0"));
+        pda.addTransition(new PDATransition("q0", "", "", "", "q1"));
+        pda.addTransition(new PDATransition("q1", "", "", "", "q0"));
+
+        ComputationSearch search = pda.startSearch("");
+        ArrayList<Integer> reportedSteps = new ArrayList<>();
+        search.setProgressListener((totalSteps, acceptingComputations, depth) -> {
+            reportedSteps.add(totalSteps);
+            assertTrue(depth <= 30);
+        });
+
+        // Cancelling before the search runs stops it at the first check for cancellation
+        search.cancel();
+        assertFalse(search.advance(30, 1000000));
+        assertTrue(search.wasCancelled());
+        assertFalse(search.isFinished());
+        int stepsWhenCancelled = search.getTotalSteps();
+        assertTrue(stepsWhenCancelled < 1000000);
+        assertTrue(search.getAcceptingComputationCount() > 0);
+        assertEquals(reportedSteps.get(reportedSteps.size() - 1), stepsWhenCancelled);
+
+        // Resuming the search carries on from where it was cancelled
+        assertFalse(search.advance(30, 5000));
+        assertFalse(search.wasCancelled());
+        assertEquals(search.getShortestAcceptingComputations(search.getAcceptingComputationCount()),
+                pda.getAcceptingComputations("", 30, 5000).getKey());
+        assertEquals(reportedSteps.get(reportedSteps.size() - 1), search.getTotalSteps());
+        assertTrue(reportedSteps.size() > 2);
+    }
+}
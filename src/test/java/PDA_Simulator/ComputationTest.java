@@ -0,0 +1,69 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.Computation;
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDAConfiguration;
+import PDA_Simulator.Backend.PDATransition;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComputationTest {
+
+    /**
+     * Tests that the configurations of a computation are reconstructed correctly from the
+     * transitions, whichever order they are asked for in.
+     */
+    @Test
+    void getConfigurations() {
+        PDA pda = new PDA();
+        pda.setInitialStackSymbol("#");
+        PDATransition t1 = new PDATransition("q0", "a", "", "AB", "q1");
+        PDATransition t2 = new PDATransition("q1", "", "A", "", "q1");
+        PDATransition t3 = new PDATransition("q1", "b", "B#", "C", "q2");
+
+        PDAConfiguration initialConfiguration = pda.getInitialConfiguration("ab");
+        Computation computation = new Computation(initialConfiguration, List.of(t1, t2, t3));
+        // The same computation stored as a full list of configurations
+        ArrayList<PDAConfiguration> expected = new ArrayList<>();
+        expected.add(initialConfiguration);
+        for (PDATransition transition : List.of(t1, t2, t3)) {
+            expected.add(pda.applyTransition(expected.get(expected.size() - 1), transition));
+        }
+
+        assertEquals(computation.size(), 4);
+        assertEquals(computation.get(3), expected.get(3));
+        assertEquals(computation.get(3).getStack().peek(), "C");
+        assertEquals(computation.get(1), expected.get(1));
+        assertEquals(computation.get(0), initialConfiguration);
+        assertEquals(computation.get(2).getIndex(), 1);
+        assertEquals(computation, expected);
+        assertEquals(expected, computation);
+        assertEquals(computation.hashCode(), expected.hashCode());
+
+        assertEquals(computation.getInitialConfiguration(), initialConfiguration);
+        assertEquals(computation.getTransition(1), t2);
+        assertEquals(computation.getTransitions(), List.of(t1, t2, t3));
+        assertThrows(UnsupportedOperationException.class,
+                () -> computation.getTransitions().clear());
+        assertThrows(UnsupportedOperationException.class, () -> computation.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> computation.get(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> computation.get(-1));
+    }
+
+    /**
+     * Tests that a computation with no transitions only contains its initial configuration.
+     */
+    @Test
+    void emptyComputation() {
+        PDA pda = new PDA();
+        PDAConfiguration initialConfiguration = pda.getInitialConfiguration("");
+        Computation computation = new Computation(initialConfiguration, new ArrayList<>());
+        assertEquals(computation.size(), 1);
+        assertEquals(computation.get(0), initialConfiguration);
+        assertTrue(computation.getTransitions().isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.CorpusRunner;
+import PDA_Simulator.Backend.PDA;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static PDA_Simulator.Samples.createSample1PDA;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorpusRunnerTest {
+    /**
+     * Tests that every input string gets the right verdict, in the order the input strings first
+     * appear, and that shared prefixes are only simulated once.
+     */
+    @Test
+    void sharedPrefixes() {
+        CorpusRunner runner = new CorpusRunner(createSample1PDA(), 100);
+        List<String> corpus = Arrays.asList("aaab", "aaabb", "aaabbb", "", "ab", "aaabb");
+        LinkedHashMap<String, Boolean> verdicts = runner.run(corpus);
+
+        assertEquals(verdicts.size(), 5);
+        assertEquals(verdicts.keySet().toString(), "[aaab, aaabb, aaabbb, , ab]");
+        assertFalse(verdicts.get("aaab"));
+        assertFalse(verdicts.get("aaabb"));
+        assertTrue(verdicts.get("aaabbb"));
+        assertFalse(verdicts.get(""));
+        assertTrue(verdicts.get("ab"));
+        // The trie has the prefixes a, aa, aaa, aaab, aaabb, aaabbb and ab
+        assertEquals(runner.getSimulatedSymbols(), 7);
+        assertFalse(runner.reachedStackLimit("aaabbb"));
+    }
+
+    /**
+     * Tests that the input strings below a prefix that no configuration survives are rejected
+     * without being simulated.
+     */
+    @Test
+    void deadPrefixes() {
+        CorpusRunner runner = new CorpusRunner(createSample1PDA(), 100);
+        LinkedHashMap<String, Boolean> verdicts =
+                runner.run(Arrays.asList("ba", "bab", "babb", "aabb"));
+        assertFalse(verdicts.get("ba"));
+        assertFalse(verdicts.get("bab"));
+        assertFalse(verdicts.get("babb"));
+        assertTrue(verdicts.get("aabb"));
+        // Only b, a, aa, aab and aabb are simulated
+        assertEquals(runner.getSimulatedSymbols(), 5);
+    }
+
+    /**
+     * Tests that the input strings whose simulation discarded configurations because of the stack
+     * height limit are reported, including those below a prefix that nothing survived.
+     */
+    @Test
+    void stackHeightLimit() {
+        PDA pda = new PDA();
+        pda.loadPDAFromString("{states=[q0, q1], transitions=[{(q0,a,) -> (AA,q0)}, " +
+                "{(q0,b,A) -> (,q1)}], initialState=q0, acceptingStates=[q1], " +
+                "initialStackSymbol=null, acceptanceCriteria=ACCEPTING_STATE}");
+        CorpusRunner runner = new CorpusRunner(pda, 4);
+        LinkedHashMap<String, Boolean> verdicts =
+                runner.run(Arrays.asList("ab", "aab", "aaab", "aaabb"));
+        assertTrue(verdicts.get("ab"));
+        assertTrue(verdicts.get("aab"));
+        assertFalse(verdicts.get("aaab"));
+        assertFalse(runner.reachedStackLimit("ab"));
+        assertFalse(runner.reachedStackLimit("aab"));
+        assertTrue(runner.reachedStackLimit("aaab"));
+        assertTrue(runner.reachedStackLimit("aaabb"));
+    }
+}
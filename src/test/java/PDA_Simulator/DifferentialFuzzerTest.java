@@ -0,0 +1,122 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.DifferentialFuzzer;
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDATransition;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static PDA_Simulator.Samples.SAMPLE_1;
+import static PDA_Simulator.Samples.createPDA;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifferentialFuzzerTest {
+    // A PDA that also accepts input strings with more b's than a's, such as abb and abbb
+    private static final String MORE_BS = SAMPLE_1.replace("{(q1,b,A) -> (,q1)}",
+            "{(q1,b,A) -> (,q1)}, {(q1,b,#) -> (#,q1)}");
+
+    /**
+     * Tests that PDAs accepting the same language never disagree, and that every transition of
+     * sample 1 is covered.
+     */
+    @Test
+    void equivalentPDAs() {
+        PDA renamed = createPDA(SAMPLE_1.replace("q", "p"));
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(createPDA(SAMPLE_1), renamed, 100, 2);
+        assertEquals(fuzzer.getAlphabet(), List.of('a', 'b'));
+
+        DifferentialFuzzer.Report report = fuzzer.fuzz(1, 8, 2000, Long.MAX_VALUE);
+        assertEquals(report.getInputs(), 2000);
+        assertEquals(report.getDisagreements(), 0);
+        assertEquals(report.getCounterexamples(), List.of());
+        assertEquals(report.getFirstCoverage(),
+                new HashSet<>(createPDA(SAMPLE_1).getTransitions()));
+        assertEquals(report.getFirstCoverageRatio(), 100.0);
+        assertEquals(report.getSecondCoverageRatio(), 100.0);
+        assertTrue(report.getThroughput() > 0);
+    }
+
+    /**
+     * Tests that the input strings the PDAs disagree on are shrunk to a minimal counterexample,
+     * and that a campaign limited by the number of input strings gives the same report whatever
+     * the number of threads.
+     */
+    @Test
+    void shrinking() {
+        DifferentialFuzzer.Report report = new DifferentialFuzzer(createPDA(SAMPLE_1),
+                createPDA(MORE_BS), 100, 1).fuzz(42, 30, 500, Long.MAX_VALUE);
+        assertTrue(report.getDisagreements() > 0);
+        // Every input string in a^n b^m with m > n > 0 shrinks to abb, since removing any single
+        // input symbol from a longer one leaves an input string that is still a counterexample
+        assertEquals(report.getCounterexamples(), List.of("abb"));
+
+        for (int threads = 2; threads <= 4; threads++) {
+            DifferentialFuzzer.Report parallel = new DifferentialFuzzer(createPDA(SAMPLE_1),
+                    createPDA(MORE_BS), 100, threads).fuzz(42, 30, 500, Long.MAX_VALUE);
+            assertEquals(parallel.getInputs(), 500);
+            assertEquals(parallel.getDisagreements(), report.getDisagreements());
+            assertEquals(parallel.getCounterexamples(), report.getCounterexamples());
+        }
+    }
+
+    /**
+     * Tests that transitions that are never applied are left out of the coverage.
+     */
+    @Test
+    void coverage() {
+        // The state q3 can never be reached
+        PDA unreachable = createPDA(SAMPLE_1.replace("q2]", "q2, q3]")
+                .replace("{(q1,b,A) -> (,q1)}", "{(q1,b,A) -> (,q1)}, {(q3,a,) -> (,q3)}"));
+        DifferentialFuzzer.Report report = new DifferentialFuzzer(createPDA(SAMPLE_1),
+                unreachable, 100, 2).fuzz(7, 8, 2000, Long.MAX_VALUE);
+        assertEquals(report.getDisagreements(), 0);
+        assertEquals(report.getSecondCoverage().size(), 4);
+        PDATransition never = new PDATransition("q3", "a", "", "", "q3");
+        assertTrue(unreachable.getTransitions().contains(never));
+        assertFalse(report.getSecondCoverage().contains(never));
+        assertEquals(report.getSecondCoverageRatio(), 80.0);
+
+        // The new transition can only be applied once the stack holds #AA, which is higher than
+        // the limit, so it is never applied to a configuration that is kept
+        PDA tall = createPDA(SAMPLE_1.replace("{(q1,b,A) -> (,q1)}",
+                "{(q1,b,A) -> (,q1)}, {(q0,c,AA) -> (AAC,q0)}"));
+        report = new DifferentialFuzzer(createPDA(SAMPLE_1), tall, 2, 2)
+                .fuzz(7, 6, 2000, Long.MAX_VALUE);
+        assertEquals(report.getDisagreements(), 0);
+        assertFalse(report.getSecondCoverage()
+                .contains(new PDATransition("q0", "c", "AA", "AAC", "q0")));
+        assertEquals(report.getSecondCoverageRatio(), 80.0);
+
+        // The only accepted input string is aab, which needs a stack higher than the limit, so
+        // its verdict and the coverage of the transition reading b come from the fallback
+        String deep = "{states=[q0, q1, q2], transitions=[{(q0,a,) -> (A,q0)}, " +
+                "{(q0,b,AA) -> (,q1)}, {(q1,,#) -> (,q2)}], initialState=q0, " +
+                "acceptingStates=[], initialStackSymbol=#, acceptanceCriteria=EMPTY_STACK}";
+        report = new DifferentialFuzzer(createPDA(deep), createPDA(deep.replace("q", "p")), 2, 2)
+                .fuzz(7, 4, 2000, Long.MAX_VALUE);
+        assertEquals(report.getDisagreements(), 0);
+        assertEquals(report.getFirstCoverageRatio(), 100.0);
+        assertEquals(report.getSecondCoverageRatio(), 100.0);
+    }
+
+    /**
+     * Tests that a campaign stops at its time limit, and that invalid limits are rejected.
+     */
+    @Test
+    void limits() {
+        DifferentialFuzzer fuzzer =
+                new DifferentialFuzzer(createPDA(SAMPLE_1), createPDA(MORE_BS), 100, 2);
+        DifferentialFuzzer.Report report = fuzzer.fuzz(3, 20, Long.MAX_VALUE, 200);
+        assertTrue(report.getInputs() > 0);
+        assertTrue(report.getTime() < 10_000_000_000L);
+        assertEquals(report.getCounterexamples(), List.of("abb"));
+
+        assertEquals(fuzzer.fuzz(3, 20, 0, Long.MAX_VALUE).getInputs(), 0);
+        assertThrows(IllegalArgumentException.class, () -> fuzzer.fuzz(3, -1, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> fuzzer.fuzz(3, 5, -1, 10));
+        assertThrows(IllegalArgumentException.class, () ->
+                new DifferentialFuzzer(createPDA(SAMPLE_1), createPDA(SAMPLE_1), 100, 0));
+    }
+}
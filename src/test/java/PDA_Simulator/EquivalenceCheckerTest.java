@@ -0,0 +1,125 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.EquivalenceChecker;
+import PDA_Simulator.Backend.PDA;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static PDA_Simulator.Samples.SAMPLE_1;
+import static PDA_Simulator.Samples.createPDA;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquivalenceCheckerTest {
+    /**
+     * Tests that a PDA is equivalent to a copy of itself with its states renamed, and that the
+     * input strings below prefixes neither PDA survives are skipped.
+     */
+    @Test
+    void equivalentPDAs() {
+        PDA renamed = createPDA(SAMPLE_1.replace("q", "p"));
+        EquivalenceChecker checker = new EquivalenceChecker(createPDA(SAMPLE_1), renamed, 100, 2);
+        assertEquals(checker.getAlphabet(), Arrays.asList('a', 'b'));
+
+        EquivalenceChecker.Result result = checker.check(6);
+        assertTrue(result.isEquivalent());
+        assertNull(result.getCounterexample());
+        assertEquals(result.getMaxLength(), 6);
+        // There are 127 input strings up to length 6, but every input string starting with b or
+        // with an a after a b is skipped
+        assertTrue(result.getCheckedStrings() < 127);
+        assertTrue(result.getCheckedStrings() > 6);
+    }
+
+    /**
+     * Tests that the shortest counterexample is found, together with which PDA accepts it.
+     */
+    @Test
+    void shortestCounterexample() {
+        // This PDA also accepts input strings with more b's than a's, such as abb and abbb
+        PDA moreBs = createPDA(SAMPLE_1.replace("{(q1,b,A) -> (,q1)}",
+                "{(q1,b,A) -> (,q1)}, {(q1,b,#) -> (#,q1)}"));
+        for (int threads = 1; threads <= 4; threads++) {
+            EquivalenceChecker.Result result =
+                    new EquivalenceChecker(createPDA(SAMPLE_1), moreBs, 100, threads).check(8);
+            assertFalse(result.isEquivalent());
+            assertEquals(result.getCounterexample(), "abb");
+            assertFalse(result.isAcceptedByFirst());
+            // The check stops after the input strings of length 3, of which there are at most 15
+            // up to that length, however high the maximum length is
+            EquivalenceChecker.Result deep =
+                    new EquivalenceChecker(createPDA(SAMPLE_1), moreBs, 100, threads).check(60);
+            assertEquals(deep.getCounterexample(), "abb");
+            assertTrue(deep.getCheckedStrings() <= 15);
+        }
+
+        // Too short a maximum length misses the counterexample
+        assertTrue(new EquivalenceChecker(createPDA(SAMPLE_1), moreBs, 100, 2).check(2)
+                .isEquivalent());
+
+        // The empty input string is checked first
+        EquivalenceChecker.Result result = new EquivalenceChecker(
+                createPDA(SAMPLE_1.replace("acceptingStates=[]", "acceptingStates=[q0]")
+                        .replace("EMPTY_STACK", "ACCEPTING_STATE")),
+                createPDA(SAMPLE_1), 100, 2).check(5);
+        assertEquals(result.getCounterexample(), "");
+        assertTrue(result.isAcceptedByFirst());
+    }
+
+    /**
+     * Tests that the counterexample is the first of the shortest ones in alphabetical order, even
+     * when it is in a different subtree to the others.
+     */
+    @Test
+    void alphabeticalCounterexample() {
+        // Both ab and ba are counterexamples between a PDA accepting {ab, ba} and one accepting
+        // nothing
+        PDA both = createPDA("{states=[q0, q1, q2, q3], transitions=[{(q0,a,) -> (,q1)}, " +
+                "{(q1,b,) -> (,q3)}, {(q0,b,) -> (,q2)}, {(q2,a,) -> (,q3)}], " +
+                "initialState=q0, acceptingStates=[q3], initialStackSymbol=, " +
+                "acceptanceCriteria=ACCEPTING_STATE}");
+        PDA none = createPDA("{states=[q0], transitions=[{(q0,a,) -> (,q0)}, " +
+                "{(q0,b,) -> (,q0)}], initialState=q0, acceptingStates=[], " +
+                "initialStackSymbol=, acceptanceCriteria=ACCEPTING_STATE}");
+        for (int i = 0; i < 10; i++) {
+            EquivalenceChecker.Result result = new EquivalenceChecker(none, both, 100, 2).check(4);
+            assertEquals(result.getCounterexample(), "ab");
+            assertFalse(result.isAcceptedByFirst());
+        }
+    }
+
+    /**
+     * Tests that input strings whose simulation reaches the stack limit are still given exact
+     * verdicts.
+     */
+    @Test
+    void stackLimit() {
+        // The epsilon transition can push X forever, but a configuration with X on top of the
+        // stack can never read b, so the language is still a^n b^n
+        PDA pushing = createPDA(SAMPLE_1.replace("{(q0,a,) -> (A,q0)}",
+                "{(q0,a,) -> (A,q0)}, {(q0,,) -> (X,q0)}"));
+        EquivalenceChecker checker = new EquivalenceChecker(createPDA(SAMPLE_1), pushing, 3, 2);
+        assertTrue(checker.check(6).isEquivalent());
+
+        // The language is no longer a^n b^n if X can be popped again
+        PDA popping = createPDA(SAMPLE_1.replace("{(q0,a,) -> (A,q0)}",
+                "{(q0,a,) -> (A,q0)}, {(q0,,) -> (X,q0)}, {(q0,b,X) -> (,q0)}"));
+        EquivalenceChecker.Result result =
+                new EquivalenceChecker(createPDA(SAMPLE_1), popping, 3, 2).check(6);
+        assertFalse(result.isEquivalent());
+        assertEquals(result.getCounterexample(), "abb");
+        assertFalse(result.isAcceptedByFirst());
+    }
+
+    /**
+     * Tests that invalid arguments are rejected.
+     */
+    @Test
+    void invalidArguments() {
+        PDA pda = createPDA(SAMPLE_1);
+        assertThrows(IllegalArgumentException.class, () -> new EquivalenceChecker(pda, pda, 10, 0));
+        assertThrows(IllegalArgumentException.class, () ->
+                new EquivalenceChecker(pda, pda, 10, 1).check(-1));
+        assertTrue(new EquivalenceChecker(pda, pda, 10, 1).check(0).isEquivalent());
+    }
+}
@@ -0,0 +1,225 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDATransition;
+import PDA_Simulator.Backend.VerdictCache;
+import PDA_Simulator.CLI.CommandLineRunner;
+import PDA_Simulator.CLI.GradingPipeline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static PDA_Simulator.Samples.SAMPLE_1;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradingPipelineTest {
+    // A wrong answer that also accepts the empty input string and strings with more b's than a's
+    private static final String WRONG = "{states=[q0, q1], transitions=[{(q0,a,) -> (A,q0)}, " +
+            "{(q0,,) -> (,q1)}, {(q1,b,A) -> (,q1)}, {(q1,b,#) -> (#,q1)}, {(q1,,#) -> (,q1)}], " +
+            "initialState=q0, acceptingStates=[], initialStackSymbol=#, " +
+            "acceptanceCriteria=EMPTY_STACK}";
+    // The test suite
+    private static final List<String> TESTS = List.of("", "ab", "aabb", "abb", "ba", "aab");
+    // The folder the files of each test are written to
+    @TempDir
+    Path folder;
+
+    /**
+     * Writes the reference, the test suite and three submissions to the folder.
+     */
+    private void writeFiles() throws IOException {
+        Files.writeString(folder.resolve("reference.txt"), SAMPLE_1);
+        Files.write(folder.resolve("tests.txt"), TESTS);
+        Path submissions = Files.createDirectory(folder.resolve("submissions"));
+        Files.writeString(submissions.resolve("a-correct.txt"), SAMPLE_1);
+        Files.writeString(submissions.resolve("b-wrong.txt"), WRONG);
+        Files.writeString(submissions.resolve("c-invalid.txt"), "not a PDA");
+    }
+
+    /**
+     * Creates a PDA that can be loaded but has more stack symbols than the engine can run.
+     *
+     * @return The PDA in the format of PDA.toString().
+     */
+    private static String tooLargePDA() {
+        StringBuilder pop = new StringBuilder();
+        for (char symbol = 0x100; pop.length() < 4095; symbol++) {
+            pop.append(symbol);
+        }
+        PDA pda = CommandLineRunner.loadPDA(SAMPLE_1);
+        pda.addTransition(new PDATransition("q1", "b", pop.toString(), "", "q1"));
+        return pda.toString();
+    }
+
+    /**
+     * Runs the grading pipeline.
+     *
+     * @param args The command line arguments.
+     * @return The exit status, followed by the output, followed by the error output.
+     */
+    private static String[] run(String... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = GradingPipeline.run(args,
+                new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+        return new String[]{String.valueOf(status), out.toString(StandardCharsets.UTF_8),
+                err.toString(StandardCharsets.UTF_8)};
+    }
+
+    /**
+     * Gets the arguments that grade the files written by writeFiles.
+     *
+     * @param options Extra options.
+     * @return The arguments.
+     */
+    private String[] arguments(String... options) {
+        ArrayList<String> args = new ArrayList<>(List.of(
+                "--reference", folder.resolve("reference.txt").toString(),
+                "--submissions", folder.resolve("submissions").toString(),
+                "--tests", folder.resolve("tests.txt").toString()));
+        args.addAll(List.of(options));
+        return args.toArray(new String[0]);
+    }
+
+    /**
+     * Tests that a submission is scored on the input strings it gives the same verdict for as the
+     * reference, with the first few of the others as counterexamples.
+     */
+    @Test
+    void gradeSubmission() throws IOException {
+        ArrayList<String> tests = new ArrayList<>(TESTS);
+        tests.add("abbb");
+        tests.add("aabbb");
+        GradingPipeline pipeline = new GradingPipeline(CommandLineRunner.loadPDA(SAMPLE_1),
+                tests, new VerdictCache(8), 1);
+
+        GradingPipeline.SubmissionReport report = pipeline.gradeSubmission("wrong", WRONG);
+        assertEquals(report.getName(), "wrong");
+        assertEquals(report.getPassed(), 4);
+        assertEquals(report.getTotal(), 8);
+        assertEquals(report.getScore(), 50.0);
+        assertEquals(report.getCounterexamples(), List.of("", "abb", "abbb"));
+        assertNull(report.getError());
+
+        report = pipeline.gradeSubmission("correct", SAMPLE_1);
+        assertEquals(report.getPassed(), 8);
+        assertEquals(report.getCounterexamples(), List.of());
+
+        report = pipeline.gradeSubmission("invalid", "not a PDA");
+        assertEquals(report.getPassed(), 0);
+        assertEquals(report.getScore(), 0.0);
+        assertTrue(report.getError().startsWith("not a valid PDA"));
+
+        report = pipeline.gradeSubmission("too large", tooLargePDA());
+        assertEquals(report.getPassed(), 0);
+        assertEquals(report.getScore(), 0.0);
+        assertEquals(report.getCounterexamples(), List.of());
+        assertTrue(report.getError().startsWith("could not be run: "));
+    }
+
+    /**
+     * Tests that the reports are written as JSON lines in the order of the file names.
+     */
+    @Test
+    void jsonLines() throws IOException {
+        writeFiles();
+        String[] result = run(arguments("--threads", "2"));
+        assertEquals(result[0], "0");
+        String n = System.lineSeparator();
+        assertTrue(result[1].startsWith(
+                "{\"submission\":\"a-correct.txt\",\"passed\":6,\"total\":6,\"score\":100.0," +
+                        "\"counterexamples\":[],\"error\":null}" + n +
+                "{\"submission\":\"b-wrong.txt\",\"passed\":4,\"total\":6,\"score\":66.7," +
+                        "\"counterexamples\":[\"\",\"abb\"],\"error\":null}" + n +
+                "{\"submission\":\"c-invalid.txt\",\"passed\":0,\"total\":6,\"score\":0.0," +
+                        "\"counterexamples\":[],\"error\":\"not a valid PDA: "));
+        assertTrue(result[2].startsWith("3 submissions graded on 6 input strings: " +
+                "mean score 55.6%, 1 invalid"));
+    }
+
+    /**
+     * Tests that the reports can be written as CSV.
+     */
+    @Test
+    void csv() throws IOException {
+        writeFiles();
+        String[] result = run(arguments("--format", "csv"));
+        assertEquals(result[0], "0");
+        String[] lines = result[1].split("\\R");
+        assertEquals(lines.length, 4);
+        assertEquals(lines[0], "submission,passed,total,score,counterexamples,error");
+        assertEquals(lines[1], "a-correct.txt,6,6,100.0,,");
+        assertEquals(lines[2], "b-wrong.txt,4,6,66.7,ε abb,");
+        assertTrue(lines[3].startsWith("c-invalid.txt,0,6,0.0,,"));
+    }
+
+    /**
+     * Tests that the verdicts of the reference are kept in the cache directory and give the same
+     * reports when they are used again.
+     */
+    @Test
+    void referenceCache() throws IOException {
+        writeFiles();
+        Path cache = folder.resolve("cache");
+        String[] first = run(arguments("--cache", cache.toString()));
+        assertEquals(first[0], "0");
+        assertTrue(Files.isDirectory(cache));
+        try (var files = Files.list(cache)) {
+            assertTrue(files.findAny().isPresent());
+        }
+        String[] second = run(arguments("--cache", cache.toString()));
+        assertEquals(second[1], first[1]);
+    }
+
+    /**
+     * Tests that a submission the engine cannot run is reported as invalid without stopping the
+     * other submissions from being graded, and that such a reference fails the run.
+     */
+    @Test
+    void engineFailures() throws IOException {
+        writeFiles();
+        Files.writeString(folder.resolve("submissions").resolve("d-too-large.txt"),
+                tooLargePDA());
+        String[] result = run(arguments("--format", "csv"));
+        assertEquals(result[0], "0");
+        String[] lines = result[1].split("\\r?\\n");
+        assertEquals(lines.length, 5);
+        assertEquals(lines[1], "a-correct.txt,6,6,100.0,,");
+        assertTrue(lines[4].startsWith("d-too-large.txt,0,6,0.0,,could not be run: "));
+        assertTrue(result[2].contains("2 invalid"));
+
+        Files.writeString(folder.resolve("reference.txt"), tooLargePDA());
+        result = run(arguments());
+        assertEquals(result[0], "1");
+        assertTrue(result[2].contains("could not be run"));
+    }
+
+    /**
+     * Tests that invalid arguments and files are reported with the right exit status.
+     */
+    @Test
+    void invalidArguments() throws IOException {
+        writeFiles();
+        assertEquals(run("--help")[0], "0");
+        assertEquals(run()[0], "2");
+        assertEquals(run(arguments("--format", "xml"))[0], "2");
+        assertEquals(run(arguments("--threads", "0"))[0], "2");
+        assertEquals(run(arguments("--unknown", "1"))[0], "2");
+        assertEquals(run(arguments("--threads"))[0], "2");
+
+        Files.writeString(folder.resolve("reference.txt"), "not a PDA");
+        assertEquals(run(arguments())[0], "1");
+        Files.writeString(folder.resolve("reference.txt"), SAMPLE_1);
+        Files.delete(folder.resolve("tests.txt"));
+        assertEquals(run(arguments())[0], "1");
+    }
+}
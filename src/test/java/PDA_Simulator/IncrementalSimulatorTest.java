@@ -0,0 +1,225 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.AcceptanceCriteria;
+import PDA_Simulator.Backend.IncrementalSimulator;
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDATransition;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+
+import static PDA_Simulator.Samples.createSample1PDA;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalSimulatorTest {
+    /**
+     * Tests that appending symbols to the input string only simulates the new symbols.
+     */
+    @Test
+    void appendSymbols() {
+        IncrementalSimulator simulator = new IncrementalSimulator(createSample1PDA(), 100);
+        assertFalse(simulator.accepts("aaab"));
+        assertEquals(simulator.getSimulatedPositions(), 5);
+        assertFalse(simulator.accepts("aaabb"));
+        assertEquals(simulator.getSimulatedPositions(), 1);
+        assertTrue(simulator.accepts("aaabbb"));
+        assertEquals(simulator.getSimulatedPositions(), 1);
+        assertFalse(simulator.accepts("aaabbbb"));
+        assertEquals(simulator.getSimulatedPositions(), 1);
+        assertFalse(simulator.reachedStackLimit());
+    }
+
+    /**
+     * Tests that editing the input string in the middle only simulates the symbols from the edit
+     * onwards, and that going back to a prefix does not simulate anything.
+     */
+    @Test
+    void editMiddleOfInput() {
+        IncrementalSimulator simulator = new IncrementalSimulator(createSample1PDA(), 100);
+        assertTrue(simulator.accepts("aaaabbbb"));
+        assertFalse(simulator.accepts("aaababbb"));
+        assertEquals(simulator.getSimulatedPositions(), 5);
+        assertTrue(simulator.accepts("aabb"));
+        assertEquals(simulator.getSimulatedPositions(), 2);
+        assertFalse(simulator.accepts(""));
+        assertEquals(simulator.getSimulatedPositions(), 0);
+        assertEquals(simulator.getFrontierSize(0), 1);
+    }
+
+    /**
+     * Tests that changing the acceptance criteria does not change the graph at all, and that
+     * changing the transitions only updates the affected part of it.
+     */
+    @Test
+    void pdaChanges() {
+        PDA pda = createSample1PDA();
+        IncrementalSimulator simulator = new IncrementalSimulator(pda, 100);
+        assertFalse(simulator.accepts("aabbb"));
+
+        pda.changeAcceptanceCriteria(AcceptanceCriteria.ACCEPTING_STATE);
+        pda.changeAcceptingState("q1");
+        assertTrue(simulator.accepts("aabbb".substring(0, 3)));
+        assertEquals(simulator.getSimulatedPositions(), 0);
+        assertEquals(simulator.getExploredConfigurations(), 0);
+
+        pda.addTransition(new PDATransition("q1", "b", "#", "#", "q1"));
+        assertTrue(simulator.accepts("aabbb"));
+        assertEquals(simulator.getSimulatedPositions(), 2);
+    }
+
+    /**
+     * Tests that adding and removing transitions gives the same results as simulating from
+     * scratch while only exploring the configurations the transitions affect.
+     */
+    @Test
+    void transitionEdits() {
+        PDA pda = createSample1PDA();
+        String inputString = "aaaaaaaaaaaaaaaaaaaabbbbbbbbbbbbbbbbbbbb";
+        IncrementalSimulator simulator = new IncrementalSimulator(pda, 100);
+        assertTrue(simulator.accepts(inputString));
+        int fullCost = simulator.getExploredConfigurations();
+
+        // This transition only applies to the configuration at the very end
+        PDATransition transition = new PDATransition("q2", "", "", "X", "q0");
+        pda.addTransition(transition);
+        assertTrue(simulator.accepts(inputString));
+        assertTrue(simulator.getExploredConfigurations() < fullCost / 4);
+        assertEquals(simulator.getFrontierSize(inputString.length()), 3);
+
+        pda.deleteTransition(transition);
+        assertTrue(simulator.accepts(inputString));
+        assertTrue(simulator.getExploredConfigurations() < fullCost / 4);
+        assertEquals(simulator.getFrontierSize(inputString.length()), 2);
+
+        // Removing the transition that pops the initial stack symbol makes the input rejected,
+        // and adding it back makes it accepted again
+        PDATransition popInitial = new PDATransition("q1", "", "#", "", "q2");
+        pda.deleteTransition(popInitial);
+        assertFalse(simulator.accepts(inputString));
+        assertEquals(simulator.getFrontierSize(inputString.length()), 1);
+        assertTrue(simulator.getExploredConfigurations() < fullCost);
+        pda.addTransition(popInitial);
+        assertTrue(simulator.accepts(inputString));
+        assertTrue(simulator.getExploredConfigurations() < fullCost);
+
+        IncrementalSimulator fresh = new IncrementalSimulator(pda, 100);
+        assertTrue(fresh.accepts(inputString));
+        for (int position = 0; position <= inputString.length(); position++) {
+            assertEquals(simulator.getFrontierSize(position), fresh.getFrontierSize(position));
+        }
+    }
+
+    /**
+     * Tests that a cycle of epsilon transitions that pushes to the stack is cut off at the stack
+     * height limit and reported.
+     */
+    @Test
+    void stackHeightLimit() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q1");
+        pda.addTransition(new PDATransition("q0", "", "", "A", "q0"));
+        pda.addTransition(new PDATransition("q0", "a", "AAAAAAAAAA", "", "q1"));
+
+        IncrementalSimulator simulator = new IncrementalSimulator(pda, 5);
+        assertFalse(simulator.accepts("a"));
+        assertTrue(simulator.reachedStackLimit());
+
+        simulator = new IncrementalSimulator(pda, 20);
+        assertTrue(simulator.accepts("a"));
+        assertTrue(simulator.reachedStackLimit());
+        assertEquals(simulator.getFrontierSize(0), 21);
+    }
+
+    /**
+     * Tests that a run stops exploring at the configuration limit and that the next run starts
+     * again from scratch.
+     */
+    @Test
+    void configurationLimit() {
+        // Every stack of A's and B's up to the stack height limit is reachable, but the input
+        // symbol can only be read with ten B's on the stack
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q1");
+        pda.addTransition(new PDATransition("q0", "", "", "A", "q0"));
+        pda.addTransition(new PDATransition("q0", "", "", "B", "q0"));
+        pda.addTransition(new PDATransition("q0", "a", "BBBBBBBBBB", "", "q1"));
+
+        IncrementalSimulator simulator = new IncrementalSimulator(pda, 12, 1000);
+        assertFalse(simulator.accepts("a"));
+        assertTrue(simulator.reachedConfigurationLimit());
+        // The last configuration explored can add two more after the limit is reached
+        assertTrue(simulator.getFrontierSize(0) <= 1002);
+        assertFalse(simulator.accepts("a"));
+        assertEquals(simulator.getSimulatedPositions(), 2);
+
+        simulator = new IncrementalSimulator(pda, 12, 100_000);
+        assertTrue(simulator.accepts("a"));
+        assertFalse(simulator.reachedConfigurationLimit());
+    }
+
+    /**
+     * Tests that successive snapshots of a PDA reuse the graph, and that a run cancelled before
+     * it starts leaves the graph as it was.
+     */
+    @Test
+    void snapshotsAndCancel() {
+        PDA pda = createSample1PDA();
+        String inputString = "aaaaaaaaaaaaaaaaaaaabbbbbbbbbbbbbbbbbbbb";
+        IncrementalSimulator simulator = new IncrementalSimulator(pda.snapshot(), 100);
+        assertTrue(simulator.accepts(inputString));
+        int fullCost = simulator.getExploredConfigurations();
+
+        pda.addTransition(new PDATransition("q2", "", "", "X", "q0"));
+        simulator.setPDA(pda.snapshot());
+        assertTrue(simulator.accepts(inputString));
+        assertTrue(simulator.getExploredConfigurations() < fullCost / 4);
+        assertEquals(simulator.getFrontierSize(inputString.length()), 3);
+
+        simulator.cancel();
+        assertThrows(CancellationException.class, () -> simulator.accepts(inputString + "b"));
+        assertFalse(simulator.accepts(inputString + "b"));
+        assertEquals(simulator.getSimulatedPositions(), 1);
+    }
+
+    /**
+     * Tests that editing a transition between snapshots, as the acceptance badge does after every
+     * edit, only checks the part of the graph the edit affects.
+     */
+    @Test
+    void transitionEditsBetweenSnapshots() {
+        PDA pda = createSample1PDA();
+        String inputString = "aaaaaaaaaaaaaaaaaaaabbbbbbbbbbbbbbbbbbbb";
+        IncrementalSimulator simulator = new IncrementalSimulator(pda.snapshot(), 100);
+        assertTrue(simulator.accepts(inputString));
+        int fullCost = simulator.getExploredConfigurations();
+
+        // These transitions only apply to the configuration at the very end
+        PDATransition pushX = new PDATransition("q2", "", "", "X", "q0");
+        PDATransition pushY = new PDATransition("q2", "", "", "Y", "q0");
+        pda.addTransition(pushX);
+        simulator.setPDA(pda.snapshot());
+        assertTrue(simulator.accepts(inputString));
+        pda.editTransition(pushX, pushY);
+        simulator.setPDA(pda.snapshot());
+        assertTrue(simulator.accepts(inputString));
+        assertTrue(simulator.getExploredConfigurations() < fullCost / 4);
+        assertEquals(simulator.getSimulatedPositions(), 0);
+        assertEquals(simulator.getFrontierSize(inputString.length()), 3);
+
+        // Editing the transition that pops the initial stack symbol makes the input rejected
+        PDATransition popInitial = new PDATransition("q1", "", "#", "", "q2");
+        PDATransition keepInitial = new PDATransition("q1", "", "#", "#", "q2");
+        pda.editTransition(popInitial, keepInitial);
+        simulator.setPDA(pda.snapshot());
+        assertFalse(simulator.accepts(inputString));
+        assertEquals(simulator.getSimulatedPositions(), 0);
+
+        IncrementalSimulator fresh = new IncrementalSimulator(pda, 100);
+        assertFalse(fresh.accepts(inputString));
+        for (int position = 0; position <= inputString.length(); position++) {
+            assertEquals(simulator.getFrontierSize(position), fresh.getFrontierSize(position));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.Computation;
+import PDA_Simulator.Backend.MutableConfiguration;
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDAConfiguration;
+import PDA_Simulator.Backend.PDATransition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutableConfigurationTest {
+    private PDA pda;
+    private final PDATransition t1 = new PDATransition("q0", "a", "", "AB", "q0");
+    private final PDATransition t2 = new PDATransition("q0", "b", "A", "", "q1");
+    private final PDATransition t3 = new PDATransition("q1", "", "B#", "C", "q1");
+
+    /**
+     * Creates a PDA with an initial stack symbol and three transitions that push, pop and replace
+     * strings of stack symbols.
+     */
+    @BeforeEach
+    void setUp() {
+        pda = new PDA();
+        pda.addState();
+        pda.setInitialStackSymbol("#");
+        pda.addTransition(t1);
+        pda.addTransition(t2);
+        pda.addTransition(t3);
+        pda.changeAcceptingState("q1");
+    }
+
+    /**
+     * Applying transitions to a MutableConfiguration gives the same configurations as
+     * applyTransition in the PDA class and undoing them restores the previous configurations.
+     */
+    @Test
+    void applyAndUndo() {
+        PDAConfiguration initialConfiguration = pda.getInitialConfiguration("ab");
+        MutableConfiguration configuration = new MutableConfiguration(initialConfiguration, "ab");
+        assertEquals(configuration.toPDAConfiguration(), initialConfiguration);
+        assertEquals(configuration.getInputSymbol(), "a");
+
+        PDAConfiguration expected = pda.applyTransition(initialConfiguration, t1);
+        configuration.apply(t1);
+        assertEquals(configuration.toPDAConfiguration(), expected);
+        assertEquals(configuration.getInputSymbol(), "b");
+        // The top of the stack is the last element of the list
+        assertEquals(configuration.getStack().get(2), "A");
+
+        expected = pda.applyTransition(expected, t2);
+        configuration.apply(t2);
+        assertEquals(configuration.toPDAConfiguration(), expected);
+        assertNull(configuration.getInputSymbol());
+
+        PDAConfiguration last = pda.applyTransition(expected, t3);
+        configuration.apply(t3);
+        assertEquals(configuration.toPDAConfiguration(), last);
+        assertEquals(configuration.getStepCount(), 3);
+        assertEquals(configuration.getAppliedTransition(1), t2);
+
+        // Undo the transitions in reverse order
+        assertEquals(configuration.undo(), t3);
+        assertEquals(configuration.toPDAConfiguration(), expected);
+        assertEquals(configuration.undo(), t2);
+        assertEquals(configuration.undo(), t1);
+        assertEquals(configuration.toPDAConfiguration(), initialConfiguration);
+        assertEquals(configuration.getStepCount(), 0);
+
+        // There is nothing left to undo
+        assertThrows(IllegalStateException.class, configuration::undo);
+        assertThrows(IndexOutOfBoundsException.class, () -> configuration.getAppliedTransition(0));
+    }
+
+    /**
+     * The computation of a MutableConfiguration contains every configuration from the starting
+     * configuration to the current one and does not change the configuration.
+     */
+    @Test
+    void getComputation() {
+        PDAConfiguration initialConfiguration = pda.getInitialConfiguration("ab");
+        MutableConfiguration configuration = new MutableConfiguration(initialConfiguration, "ab");
+        configuration.apply(t1);
+        configuration.apply(t2);
+        configuration.apply(t3);
+
+        Computation computation = configuration.getComputation();
+        assertEquals(computation.size(), 4);
+        assertEquals(computation.get(0), initialConfiguration);
+        assertEquals(computation.get(3), configuration.toPDAConfiguration());
+        assertEquals(configuration.getStepCount(), 3);
+        // The computation is one of the accepting computations of the PDA
+        assertTrue(pda.getAcceptingComputations("ab", 50, 5000).getKey().contains(computation));
+    }
+
+    /**
+     * The PDA can find applicable transitions and check for acceptance using a
+     * MutableConfiguration.
+     */
+    @Test
+    void runWithPDA() {
+        MutableConfiguration configuration =
+                new MutableConfiguration(pda.getInitialConfiguration("ab"), "ab");
+        ArrayList<PDATransition> applicableTransitions = new ArrayList<>();
+
+        pda.getApplicableTransitions(configuration, applicableTransitions);
+        assertEquals(applicableTransitions.size(), 1);
+        assertEquals(applicableTransitions.get(0), t1);
+        configuration.apply(t1);
+
+        // The list is cleared before it is reused
+        pda.getApplicableTransitions(configuration, applicableTransitions);
+        assertEquals(applicableTransitions.size(), 1);
+        assertEquals(applicableTransitions.get(0), t2);
+        configuration.apply(t2);
+        // In an accepting state with all input consumed
+        assertTrue(pda.isAcceptingConfiguration(configuration));
+
+        configuration.undo();
+        assertFalse(pda.isAcceptingConfiguration(configuration));
+    }
+}
@@ -1,6 +1,8 @@
 package PDA_Simulator;
 
+import PDA_Simulator.Backend.PDA;
 import PDA_Simulator.Backend.PDAConfiguration;
+import PDA_Simulator.Backend.PDATransition;
 
 import java.util.Stack;
 
@@ -45,6 +47,7 @@ public class PDAConfigurationTest {
         // For a non-empty string and an index within the input string, the correct input symbol
         // is returned
         PDAConfiguration.setInputString("a");
+        configuration = new PDAConfiguration(new Stack<>(), "q0", 0);
         assertEquals(configuration.getInputSymbol(), "a");
 
         // When the index is past the end of the input string, null is returned
@@ -65,6 +68,29 @@ public class PDAConfigurationTest {
         assertNull(configuration.getInputSymbol());
     }
 
+    /**
+     * Tests that a configuration keeps the input string of its run, even if the input string used
+     * by configurations created without one changes, and that the configurations created from it
+     * share that input string.
+     */
+    @Test
+    void inputStringOfRun() {
+        PDAConfiguration configuration = new PDAConfiguration(new Stack<>(), "q0", 0, "ab");
+        PDAConfiguration.setInputString("ba");
+        assertEquals(configuration.getInputSymbol(), "a");
+        assertEquals(configuration.getFullInputString(), "ab");
+        assertEquals(configuration.getRemainingInputLength(), 2);
+        assertEquals(PDAConfiguration.getInputString(), "ba");
+
+        PDA pda = new PDA();
+        pda.addState();
+        pda.addTransition(new PDATransition("q0", "a", "", "", "q0"));
+        configuration = pda.applyTransition(configuration, pda.getTransitions().get(0));
+        assertEquals(configuration.getInputSymbol(), "b");
+        assertEquals(configuration.getFullInputString(), "ab");
+        assertEquals(configuration.getRemainingInputLength(), 1);
+    }
+
     /**
      * Tests for PDAConfiguration equality.
      */
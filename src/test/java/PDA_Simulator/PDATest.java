@@ -1,15 +1,25 @@
 package PDA_Simulator;
 
 import PDA_Simulator.Backend.AcceptanceCriteria;
+import PDA_Simulator.Backend.BestFirstSearch;
 import PDA_Simulator.Backend.PDA;
 import PDA_Simulator.Backend.PDAConfiguration;
+import PDA_Simulator.Backend.PDAListener;
 import PDA_Simulator.Backend.PDATransition;
+import PDA_Simulator.Backend.SaturationEngine;
+import PDA_Simulator.Backend.SearchHeuristic;
+import PDA_Simulator.Backend.TransitionStatistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Stack;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import static PDA_Simulator.Samples.createSample1PDA;
 import static org.junit.jupiter.api.Assertions.*;
 
 class PDATest {
@@ -543,22 +553,21 @@ class PDATest {
     }
 
     /**
-     * Test that a listener can be added that fires whenever the deterministic Property of the
-     * PDA changes.
+     * Test that a PDAListener can be added that is notified whenever the determinism of the PDA
+     * changes.
      */
     @Test
-    void addDeterministicPropertyListener() {
+    void deterministicChangedListener() {
         // transitions: [{(q0,a,) -> (A,q1)}]
         assertTrue(pda.getDeterministic());
         // Initial stack symbol is null to begin with
         assertNull(pda.getInitialStackSymbol());
         // This listener will change the initial stack symbol of the pda to "#" if it is null and
         // if it is not null, it will set it back to null
-        pda.addDeterministicPropertyListener((observableValue, oldValue, newValue) -> {
-            if (pda.getInitialStackSymbol() == null) {
-                pda.setInitialStackSymbol("#");
-            } else {
-                pda.setInitialStackSymbol(null);
+        pda.addListener(new PDAListener() {
+            @Override
+            public void deterministicChanged(boolean deterministic) {
+                toggleInitialStackSymbol();
             }
         });
 
@@ -579,21 +588,22 @@ class PDATest {
     }
 
     /**
-     * Test that a listener can be added that fires whenever the initial state Property of the
-     * PDA changes.
+     * Test that a PDAListener can be added that is notified whenever the initial state of the
+     * PDA changes, and only when it actually changes.
      */
     @Test
-    void addInitialStatePropertyListener() {
+    void initialStateChangedListener() {
         assertEquals(pda.getInitialState(), "q0");
         // Initial stack symbol is null to begin with
         assertNull(pda.getInitialStackSymbol());
+        ArrayList<String> changes = new ArrayList<>();
         // This listener will change the initial stack symbol of the pda to "#" if it is null and
         // if it is not null, it will set it back to null
-        pda.addInitialStatePropertyListener((observableValue, oldValue, newValue) -> {
-            if (pda.getInitialStackSymbol() == null) {
-                pda.setInitialStackSymbol("#");
-            } else {
-                pda.setInitialStackSymbol(null);
+        pda.addListener(new PDAListener() {
+            @Override
+            public void initialStateChanged(String oldState, String newState) {
+                changes.add(oldState + "->" + newState);
+                toggleInitialStackSymbol();
             }
         });
 
@@ -603,75 +613,137 @@ class PDATest {
         // required
         assertEquals(pda.getInitialStackSymbol(), "#");
 
+        // Making the initial state the state it already is does not notify the listener
+        pda.changeInitialState("q1");
+        assertEquals(pda.getInitialStackSymbol(), "#");
+
         pda.changeInitialState("q0");
         assertEquals(pda.getInitialState(), "q0");
         // Initial stack symbol is null again which means the listener fired again
         assertNull(pda.getInitialStackSymbol());
+        assertEquals(changes.toString(), "[q0->q1, q1->q0]");
     }
 
     /**
-     * Test that a listener can be added that fires whenever the ObservableList of PDATransitions
-     * changes.
+     * Test that a PDAListener can be added that is notified whenever a transition is added to or
+     * removed from the PDA.
      */
     @Test
-    void addTransitionsListener() {
+    void transitionListener() {
         // Initial stack symbol is null to begin with
         assertNull(pda.getInitialStackSymbol());
+        ArrayList<String> changes = new ArrayList<>();
         // This listener will change the initial stack symbol of the pda to "#" if it is null and
         // if it is not null, it will set it back to null
-        pda.addTransitionsListener(change -> {
-            if (pda.getInitialStackSymbol() == null) {
-                pda.setInitialStackSymbol("#");
-            } else {
-                pda.setInitialStackSymbol(null);
+        pda.addListener(new PDAListener() {
+            @Override
+            public void transitionAdded(int index, PDATransition transition) {
+                changes.add("+" + index + transition);
+                toggleInitialStackSymbol();
+            }
+
+            @Override
+            public void transitionRemoved(int index, PDATransition transition) {
+                changes.add("-" + index + transition);
+                toggleInitialStackSymbol();
             }
         });
 
-        // Adding a transition causes the transitions ObservableList to change and thus the
-        // listener fires
+        // Adding a transition notifies the listener
         PDATransition t1 = new PDATransition("q0", "a", "", "", "q1");
         pda.addTransition(t1);
         // The initial stack symbol of the PDA was changed which means the listener fired, as
         // required
         assertEquals(pda.getInitialStackSymbol(), "#");
 
-        // Deleting the transition changes the ObservableList again
+        // Deleting the transition notifies the listener again
         pda.deleteTransition(t1);
         // Initial stack symbol is null again which means the listener fired again
         assertNull(pda.getInitialStackSymbol());
+        assertEquals(changes.toString(), "[+1{(q0,a,) -> (,q1)}, -1{(q0,a,) -> (,q1)}]");
     }
 
     /**
-     * Test that a listener can be added that fires whenever the ObservableList of states changes.
+     * Test that a PDAListener can be added that is notified whenever a state is added to or
+     * removed from the PDA.
      */
     @Test
-    void addStatesListener() {
+    void stateListener() {
         // Initial stack symbol is null to begin with
         assertNull(pda.getInitialStackSymbol());
         // This listener will change the initial stack symbol of the pda to "#" if it is null and
         // if it is not null, it will set it back to null
-        pda.addStatesListener(change -> {
-            if (pda.getInitialStackSymbol() == null) {
-                pda.setInitialStackSymbol("#");
-            } else {
-                pda.setInitialStackSymbol(null);
+        pda.addListener(new PDAListener() {
+            @Override
+            public void stateAdded(int index, String state) {
+                toggleInitialStackSymbol();
+            }
+
+            @Override
+            public void stateRemoved(int index, String state) {
+                toggleInitialStackSymbol();
             }
         });
 
-        // Adding a state causes the transitions ObservableList to change and thus the listener
-        // fires
+        // Adding a state notifies the listener
         pda.addState();
         // The initial stack symbol of the PDA was changed which means the listener fired, as
         // required
         assertEquals(pda.getInitialStackSymbol(), "#");
 
-        // Deleting a state causes the transitions ObservableList to change again
+        // Deleting a state notifies the listener again
         pda.deleteState("q2");
         // The initial stack symbol of the PDA was changed which means the listener fired, as
         // required
         assertNull(pda.getInitialStackSymbol());
     }
 
+    /**
+     * Test that deleting a state notifies a PDAListener of the removal of each transition using
+     * the state before the removal of the state itself, and that removed listeners are no longer
+     * notified.
+     */
+    @Test
+    void deleteStateListenerEvents() {
+        // transitions: [{(q0,a,) -> (A,q1)}, {(q1,b,A) -> (,q1)}, {(q0,b,) -> (,q0)}]
+        pda.addTransition(new PDATransition("q1", "b", "A", "", "q1"));
+        pda.addTransition(new PDATransition("q0", "b", "", "", "q0"));
+        ArrayList<String> events = new ArrayList<>();
+        PDAListener listener = new PDAListener() {
+            @Override
+            public void stateRemoved(int index, String state) {
+                events.add("state -" + index + state);
+            }
+
+            @Override
+            public void transitionRemoved(int index, PDATransition transition) {
+                events.add("transition -" + index + transition);
+            }
+        };
+        pda.addListener(listener);
+
+        pda.deleteState("q1");
+        assertEquals(events.toString(), "[transition -0{(q0,a,) -> (A,q1)}, " +
+                "transition -0{(q1,b,A) -> (,q1)}, state -1q1]");
+        assertEquals(pda.getTransitions().size(), 1);
+
+        pda.removeListener(listener);
+        pda.deleteState("q0");
+        assertEquals(events.size(), 3);
+    }
+
+    /**
+     * Changes the initial stack symbol of the PDA to "#" if it is null and back to null if it is
+     * not, so that tests can tell how many times a listener fired.
+     */
+    private void toggleInitialStackSymbol() {
+        if (pda.getInitialStackSymbol() == null) {
+            pda.setInitialStackSymbol("#");
+        } else {
+            pda.setInitialStackSymbol(null);
+        }
+    }
+
     /**
      * Test the toString method for a freshly created PDA with an initial state
      */
@@ -783,6 +855,183 @@ class PDATest {
         assertFalse(pda.equals(null));
     }
 
+    /**
+     * Tests that the fingerprint changes with every change to the PDA, returns to its old value
+     * when a change is undone, does not depend on the order things were added in and agrees with
+     * the hash code.
+     */
+    @Test
+    void fingerprint() {
+        long fingerprint = pda.getFingerprint();
+        PDA pda2 = new PDA();
+        pda2.loadPDAFromString(pda.toString());
+        assertEquals(pda2.getFingerprint(), fingerprint);
+        assertEquals(pda2.hashCode(), pda.hashCode());
+
+        pda.addState();
+        assertNotEquals(pda.getFingerprint(), fingerprint);
+        pda.deleteState("q2");
+        assertEquals(pda.getFingerprint(), fingerprint);
+
+        PDATransition t2 = new PDATransition("q1", "b", "A", "", "q1");
+        pda.addTransition(t2);
+        long withT2 = pda.getFingerprint();
+        assertNotEquals(withT2, fingerprint);
+        assertTrue(pda.editTransition(t2, new PDATransition("q1", "b", "A", "", "q0")));
+        assertNotEquals(pda.getFingerprint(), withT2);
+        assertTrue(pda.editTransition(new PDATransition("q1", "b", "A", "", "q0"), t2));
+        assertEquals(pda.getFingerprint(), withT2);
+
+        pda.changeAcceptingState("q1");
+        long accepting = pda.getFingerprint();
+        assertNotEquals(accepting, withT2);
+        assertTrue(pda.renameState("q1", "q5"));
+        assertNotEquals(pda.getFingerprint(), accepting);
+        assertTrue(pda.renameState("q5", "q1"));
+        assertEquals(pda.getFingerprint(), accepting);
+
+        pda.changeInitialState("q1");
+        assertNotEquals(pda.getFingerprint(), accepting);
+        pda.changeInitialState("q0");
+        pda.setInitialStackSymbol("#");
+        assertNotEquals(pda.getFingerprint(), accepting);
+        pda.setInitialStackSymbol(null);
+        pda.changeAcceptanceCriteria(AcceptanceCriteria.BOTH);
+        assertNotEquals(pda.getFingerprint(), accepting);
+        pda.changeAcceptanceCriteria(AcceptanceCriteria.ACCEPTING_STATE);
+        assertEquals(pda.getFingerprint(), accepting);
+
+        // The same PDA built in a different order has the same fingerprint but is not equal,
+        // since the order of the states and transitions is part of the PDA
+        PDA reordered = new PDA();
+        reordered.loadPDAFromString("{states=[q1, q0], transitions=[{(q1,b,A) -> (,q1)}, " +
+                "{(q0,a,) -> (A,q1)}], initialState=q0, acceptingStates=[q1], " +
+                "initialStackSymbol=null, acceptanceCriteria=ACCEPTING_STATE}");
+        assertEquals(reordered.getFingerprint(), pda.getFingerprint());
+        assertNotEquals(reordered, pda);
+        // Swapping the names of the two states changes the fingerprint
+        reordered.renameState("q0", "q2");
+        reordered.renameState("q1", "q0");
+        reordered.renameState("q2", "q1");
+        assertNotEquals(reordered.getFingerprint(), pda.getFingerprint());
+    }
+
+    /**
+     * Tests that a snapshot is equal to the PDA it was taken of, is shared until the PDA changes
+     * and is not affected by later changes to the PDA.
+     */
+    @Test
+    void snapshot() {
+        PDA snapshot = pda.snapshot();
+        assertTrue(snapshot.isSnapshot());
+        assertFalse(pda.isSnapshot());
+        assertEquals(snapshot, pda);
+        assertEquals(snapshot.getFingerprint(), pda.getFingerprint());
+        assertEquals(snapshot.toString(), pda.toString());
+        assertEquals(snapshot.getDeterministic(), pda.getDeterministic());
+        // The same snapshot is returned until the PDA changes, and a snapshot of a snapshot is
+        // itself
+        assertSame(pda.snapshot(), snapshot);
+        assertSame(snapshot.snapshot(), snapshot);
+
+        pda.addTransition(new PDATransition("q0", "a", "", "", "q1"));
+        PDA newSnapshot = pda.snapshot();
+        assertNotSame(newSnapshot, snapshot);
+        assertEquals(newSnapshot, pda);
+        assertFalse(newSnapshot.getDeterministic());
+        // The old snapshot still has only the original transition
+        assertEquals(snapshot.getTransitions().size(), 1);
+        assertTrue(snapshot.getDeterministic());
+        assertNotEquals(snapshot, pda);
+
+        // Changes that do not go through the transitions also give a new snapshot
+        pda.changeAcceptingState("q1");
+        assertNotSame(pda.snapshot(), newSnapshot);
+        assertTrue(pda.snapshot().getAcceptingStates().contains("q1"));
+        assertFalse(newSnapshot.getAcceptingStates().contains("q1"));
+    }
+
+    /**
+     * Tests that every method that would change a snapshot throws an IllegalStateException.
+     */
+    @Test
+    void snapshotCannotBeChanged() {
+        PDA snapshot = pda.snapshot();
+        PDATransition t2 = new PDATransition("q1", "b", "A", "", "q1");
+        assertThrows(IllegalStateException.class, () -> snapshot.addTransition(t2));
+        assertThrows(IllegalStateException.class, () -> snapshot.deleteTransition(t1));
+        assertThrows(IllegalStateException.class, () -> snapshot.editTransition(t1, t2));
+        assertThrows(IllegalStateException.class, () -> snapshot.getTransitions().clear());
+        assertThrows(IllegalStateException.class, () -> snapshot.getTransitions().add(t2));
+        assertThrows(IllegalStateException.class, snapshot::addState);
+        assertThrows(IllegalStateException.class, () -> snapshot.deleteState("q1"));
+        assertThrows(IllegalStateException.class, () -> snapshot.renameState("q1", "q2"));
+        assertThrows(IllegalStateException.class, () -> snapshot.changeInitialState("q1"));
+        assertThrows(IllegalStateException.class, () -> snapshot.changeAcceptingState("q1"));
+        assertThrows(IllegalStateException.class, () -> snapshot.setInitialStackSymbol("#"));
+        assertThrows(IllegalStateException.class, () ->
+                snapshot.changeAcceptanceCriteria(AcceptanceCriteria.EMPTY_STACK));
+        assertThrows(IllegalStateException.class, () ->
+                snapshot.setTransitionStatistics(new TransitionStatistics()));
+        assertThrows(UnsupportedOperationException.class, () ->
+                snapshot.getAcceptingStates().add("q1"));
+        assertThrows(UnsupportedOperationException.class, () ->
+                snapshot.getNondeterministicTransitions().add(t2));
+        assertThrows(IllegalStateException.class, () -> snapshot.loadPDAFromString(
+                "{states=[], transitions=[], initialState=null, acceptingStates=[], " +
+                        "initialStackSymbol=null, acceptanceCriteria=ACCEPTING_STATE}"));
+        assertEquals(snapshot, pda);
+    }
+
+    /**
+     * Tests that several threads can run the same snapshot at once while the original PDA keeps
+     * being changed.
+     */
+    @Test
+    void snapshotRunsConcurrently() throws Exception {
+        // The PDA accepts a^n b^n for n >= 1 by accepting state
+        pda.addTransition(new PDATransition("q0", "a", "", "A", "q0"));
+        pda.addTransition(new PDATransition("q0", "b", "A", "", "q1"));
+        pda.addTransition(new PDATransition("q1", "b", "A", "", "q1"));
+        pda.deleteTransition(t1);
+        pda.addState();
+        pda.addTransition(new PDATransition("q1", "", "", "", "q2"));
+        pda.changeAcceptingState("q2");
+        PDA snapshot = pda.snapshot();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // Each input string is run by one of the engines, which create configurations with
+            // different input strings on different threads at once
+            ArrayList<Future<Boolean>> results = new ArrayList<>();
+            for (int n = 0; n < 240; n++) {
+                String inputString = "a".repeat(n % 10) + "b".repeat(n % 10 + n / 120);
+                int engine = n % 3;
+                results.add(executor.submit(() -> {
+                    if (engine == 0) {
+                        return new SaturationEngine(snapshot).accepts(inputString);
+                    } else if (engine == 1) {
+                        return new BestFirstSearch(snapshot, SearchHeuristic.remainingInput())
+                                .getFirstAcceptingComputation(inputString, 100, 100000) != null;
+                    }
+                    return snapshot.getFirstAcceptingComputation(inputString, 100, 100000) !=
+                            null;
+                }));
+            }
+            // Changing the original PDA while the snapshot runs does not affect the snapshot
+            pda.changeAcceptingState("q2");
+            pda.deleteState("q1");
+            for (int n = 0; n < 240; n++) {
+                boolean expected = n % 10 > 0 && n / 120 == 0;
+                assertEquals(results.get(n).get(10, TimeUnit.SECONDS), expected);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(snapshot.getTransitions().size(), 4);
+        assertEquals(pda.getTransitions().size(), 1);
+    }
+
     /**
      * Test that a PDA can be correctly loaded from a string.
      */
@@ -833,7 +1082,7 @@ class PDATest {
         // Configuration uses the initial state of the PDA
         assertEquals(initialConfiguration.getState(), "q0");
         // The inputString has been correctly set
-        assertEquals(PDAConfiguration.getInputString(), "abc");
+        assertEquals(initialConfiguration.getFullInputString(), "abc");
         // Index is 0 as required
         assertEquals(initialConfiguration.getIndex(), 0);
         // The inputSymbol for the configuration is the first character of the string
@@ -848,7 +1097,7 @@ class PDATest {
         // The state of the configuration is now the new initial state of the PDA
         assertEquals(initialConfiguration.getState(), "q1");
         // The inputString has been updated
-        assertEquals(PDAConfiguration.getInputString(), "aaa");
+        assertEquals(initialConfiguration.getFullInputString(), "aaa");
         assertEquals(initialConfiguration.getIndex(), 0);
         // The stack is no longer empty - it has a single element which is the initial stack
         // symbol of the PDA
@@ -958,6 +1207,62 @@ class PDATest {
         assertEquals(applicableTransitions.size(), 3);
     }
 
+    /**
+     * Tests that transitions with pop strings of different lengths are all found when they match
+     * the top of the stack and that they are returned in the order they were defined in.
+     */
+    @Test
+    void getApplicableTransitionsPopStrings() {
+        pda.getTransitions().clear();
+        PDATransition t2 = new PDATransition("q0", "", "AB", "", "q0");
+        PDATransition t3 = new PDATransition("q0", "a", "", "", "q1");
+        PDATransition t4 = new PDATransition("q0", "", "B", "", "q0");
+        PDATransition t5 = new PDATransition("q0", "", "A", "", "q1");
+        PDATransition t6 = new PDATransition("q0", "b", "A", "", "q1");
+        PDATransition t7 = new PDATransition("q0", "", "ABCD", "", "q0");
+        PDATransition t8 = new PDATransition("q1", "", "A", "", "q0");
+
+        pda.addTransition(t2);
+        pda.addTransition(t3);
+        pda.addTransition(t4);
+        pda.addTransition(t5);
+        pda.addTransition(t6);
+        pda.addTransition(t7);
+        pda.addTransition(t8);
+
+        Stack<String> stack = new Stack<>();
+        stack.push("C");
+        stack.push("B");
+        stack.push("A");
+        PDAConfiguration.setInputString("a");
+        PDAConfiguration configuration = new PDAConfiguration(stack, "q0", 0);
+
+        // Transitions popping "AB", "" and "A" match. "B" is not on the top of the stack, "ABCD"
+        // is longer than the stack, t6 reads the wrong input symbol and t8 belongs to q1.
+        ArrayList<PDATransition> applicableTransitions =
+                pda.getApplicableTransitions(configuration);
+        assertEquals(applicableTransitions.size(), 3);
+        assertEquals(applicableTransitions.get(0), t2);
+        assertEquals(applicableTransitions.get(1), t3);
+        assertEquals(applicableTransitions.get(2), t5);
+
+        // The applicable transitions are updated after the transitions of the PDA change
+        PDATransition t9 = new PDATransition("q0", "", "ABC", "", "q0");
+        pda.addTransition(t9);
+        pda.deleteTransition(t3);
+        applicableTransitions = pda.getApplicableTransitions(configuration);
+        assertEquals(applicableTransitions.size(), 3);
+        assertEquals(applicableTransitions.get(0), t2);
+        assertEquals(applicableTransitions.get(1), t5);
+        assertEquals(applicableTransitions.get(2), t9);
+
+        // Renaming the state moves its transitions to the new name
+        pda.renameState("q0", "q2");
+        assertEquals(pda.getApplicableTransitions(configuration).size(), 0);
+        configuration = new PDAConfiguration(stack, "q2", 0);
+        assertEquals(pda.getApplicableTransitions(configuration).size(), 3);
+    }
+
     /**
      * Tests for the applyTransition method with various configurations.
      */
@@ -974,7 +1279,7 @@ class PDATest {
         // element ("A"), a state of "q1" and an index of 1.
         assertEquals(newConfiguration.getState(), "q1");
         // The input string remains unchanged in the new configuration
-        assertEquals(PDAConfiguration.getInputString(), "abc");
+        assertEquals(newConfiguration.getFullInputString(), "abc");
         assertEquals(newConfiguration.getIndex(), 1);
         // Index of 1 means the current input symbol for this configuration is "b" - the "a" has
         // been consumed
@@ -989,7 +1294,7 @@ class PDATest {
         // to q2 and increase the index.
         newConfiguration = pda.applyTransition(newConfiguration, applicableTransitions.get(0));
         assertEquals(newConfiguration.getState(), "q2");
-        assertEquals(PDAConfiguration.getInputString(), "abc");
+        assertEquals(newConfiguration.getFullInputString(), "abc");
         assertEquals(newConfiguration.getIndex(), 2);
         // Index of 2 means the current input symbol for this configuration is "c" - the "ab" has
         // been consumed
@@ -1005,7 +1310,7 @@ class PDATest {
         // containing "ABC", a state of "q3" and the same index of 2.
         newConfiguration = pda.applyTransition(newConfiguration, applicableTransitions.get(0));
         assertEquals(newConfiguration.getState(), "q3");
-        assertEquals(PDAConfiguration.getInputString(), "abc");
+        assertEquals(newConfiguration.getFullInputString(), "abc");
         assertEquals(newConfiguration.getIndex(), 2);
         // Index remains at 2 since this transition does not consume any input symbols
         assertEquals(newConfiguration.getStack().size(), 3);
@@ -1024,7 +1329,7 @@ class PDATest {
         // ends up as "DEC". This is because we push in reverse order.
         newConfiguration = pda.applyTransition(newConfiguration, applicableTransitions.get(0));
         assertEquals(newConfiguration.getState(), "q3");
-        assertEquals(PDAConfiguration.getInputString(), "abc");
+        assertEquals(newConfiguration.getFullInputString(), "abc");
         assertEquals(newConfiguration.getIndex(), 3);
         // Index increased to 3 since this transition consumes the "c" from the tape.
         assertEquals(newConfiguration.getStack().size(), 3);
@@ -1202,15 +1507,15 @@ class PDATest {
         assertEquals(pda2.getAcceptingComputations("", 50, 5000).getKey().size(), 50);
         // 100 accepting computations for the empty string and a step limit of 100
         assertEquals(pda2.getAcceptingComputations("", 100, 5000).getKey().size(), 100);
-        // No accepting computations found for the input string "a"
-        assertEquals(pda2.getAcceptingComputations("a", 50, 5000).getKey().size(), 0);
+        // The input string "a" can never be read, so it is rejected outright
+        assertNull(pda2.getAcceptingComputations("a", 50, 5000));
 
         pda2.addTransition(new PDATransition("q0", "", "", "", "q1"));
         pda2.changeAcceptingState("q1");
         // 99 accepting computations for the empty string and a step limit of 50
         assertEquals(pda2.getAcceptingComputations("", 50, 5000).getKey().size(), 99);
-        // No accepting computations found for the input string "a"
-        assertEquals(pda2.getAcceptingComputations("a", 50, 5000).getKey().size(), 0);
+        // The input string "a" can never be read, so it is rejected outright
+        assertNull(pda2.getAcceptingComputations("a", 50, 5000));
     }
 
     /**
@@ -1266,8 +1571,9 @@ class PDATest {
 
     /**
      * This PDA has no accepting computations and also has an epsilon transition cycle. However, the
-     * getAcceptingComputations method should still terminate and produce false as the value of the
-     * Pair object since the total step limit is reached.
+     * getAcceptingComputations method should still terminate. Since no transition ever pops the
+     * initial stack symbol, the over-approximation rejects the input string without the total step
+     * limit being reached.
      */
     @Test
     void getAcceptingComputations3() {
@@ -1278,9 +1584,47 @@ class PDATest {
         pda2.addTransition(new PDATransition("q0", "", "", "", "q0"));
         pda2.addTransition(new PDATransition("q0", "", "", "", "q1"));
         pda2.addTransition(new PDATransition("q1", "", "", "", "q0"));
+        assertNull(pda2.getAcceptingComputations("", 50, 5000));
+
+        // The over-approximation only knows the top of the stack, so it cannot tell that this
+        // transition is never applicable. The empty string is no longer rejected outright and the
+        // total step limit is reached instead.
+        pda2.addTransition(new PDATransition("q1", "", "#A", "", "q1"));
         assertFalse(pda2.getAcceptingComputations("", 50, 5000).getValue());
     }
 
+    /**
+     * Tests the over-approximation that getAcceptingComputations uses to reject input strings
+     * without searching through the computations of the PDA.
+     */
+    @Test
+    void mayAccept() {
+        PDA pda2 = createSample1PDA();
+
+        assertTrue(pda2.mayAccept("ab"));
+        assertTrue(pda2.mayAccept("aaabbb"));
+        // The initial stack symbol is on the top of the stack, so b cannot be read first
+        assertFalse(pda2.mayAccept("ba"));
+        // No transition of q1 reads a
+        assertFalse(pda2.mayAccept("abab"));
+        // Nothing can empty the stack before the first b is read
+        assertFalse(pda2.mayAccept("aaa"));
+        // The over-approximation cannot count, so it does not reject strings with too few bs
+        assertTrue(pda2.mayAccept("aab"));
+        assertNull(pda2.getAcceptingComputations("aab", 50, 5000));
+
+        // Changes to the acceptance criteria are taken into account
+        pda2.changeAcceptanceCriteria(AcceptanceCriteria.ACCEPTING_STATE);
+        assertFalse(pda2.mayAccept("ab"));
+        pda2.changeAcceptingState("q2");
+        assertTrue(pda2.mayAccept("ab"));
+        // As are changes to the transitions
+        pda2.addTransition(new PDATransition("q0", "c", "", "", "q2"));
+        assertTrue(pda2.mayAccept("c"));
+        assertTrue(pda2.mayAccept("aac"));
+        assertEquals(pda2.getAcceptingComputations("aac", 50, 5000).getKey().size(), 1);
+    }
+
     /**
      * The PDA that sample 1 contains accepts the language a^n b^n over the alphabet {a, b}.
      */
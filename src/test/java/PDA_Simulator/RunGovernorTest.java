@@ -0,0 +1,94 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.Computation;
+import PDA_Simulator.Backend.ComputationSearch;
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDATransition;
+import PDA_Simulator.Backend.RunGovernor;
+import PDA_Simulator.Backend.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunGovernorTest {
+
+    /**
+     * Creates a PDA with an epsilon loop between an accepting and a non-accepting state, so that
+     * the computation tree for any input string is infinite.
+     *
+     * @return The PDA.
+     */
+    private PDA createLoopingPDA() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q1");
+        pda.addTransition(new PDATransition("q0", "", "", "", "q0"));
+        pda.addTransition(new PDATransition("q0", "", "", "", "q1"));
+        pda.addTransition(new PDATransition("q1", "", "", "", "q0"));
+        return pda;
+    }
+
+    /**
+     * Tests that a configuration budget behaves the same as the equivalent total step limit and is
+     * reported as the budget that stopped the search.
+     */
+    @Test
+    void configurationBudget() {
+        PDA pda = createLoopingPDA();
+        RunGovernor governor = RunGovernor.ofConfigurations(300);
+        Pair<ArrayList<Computation>, Boolean> pair = pda.getAcceptingComputations("", 20,
+                governor);
+        assertFalse(pair.getValue());
+        assertEquals(governor.getExhaustedBudget(), RunGovernor.Budget.CONFIGURATIONS);
+        assertEquals(pair.getKey(), pda.getAcceptingComputations("", 20, 300).getKey());
+
+        // A search that finishes within its budgets is not stopped by any of them
+        pair = pda.getAcceptingComputations("", 6, governor);
+        assertTrue(pair.getValue());
+        assertNull(governor.getExhaustedBudget());
+    }
+
+    /**
+     * Tests that a time budget stops a search that would otherwise run for a very long time, and
+     * that the search keeps what it found and can be resumed.
+     */
+    @Test
+    void timeBudget() {
+        PDA pda = createLoopingPDA();
+        ComputationSearch search = pda.startSearch("");
+        RunGovernor governor = new RunGovernor();
+        governor.setTimeLimit(50);
+        assertEquals(governor.getConfigurationLimit(), Long.MAX_VALUE);
+
+        assertFalse(search.advance(200, governor));
+        assertEquals(governor.getExhaustedBudget(), RunGovernor.Budget.TIME);
+        assertFalse(search.isFinished());
+        int found = search.getAcceptingComputationCount();
+        assertTrue(found > 0);
+
+        int totalSteps = search.getTotalSteps();
+        assertFalse(search.advance(200, governor));
+        assertTrue(search.getTotalSteps() > totalSteps);
+        assertTrue(search.getAcceptingComputationCount() >= found);
+    }
+
+    /**
+     * Tests that a memory budget stops a search before it uses more memory than allowed.
+     */
+    @Test
+    void memoryBudget() {
+        PDA pda = createLoopingPDA();
+        RunGovernor governor = new RunGovernor();
+        governor.setMemoryLimit(1024 * 1024);
+        governor.setTimeLimit(60000);
+
+        // Every accepting computation found is kept, so the heap keeps growing
+        Pair<ArrayList<Computation>, Boolean> pair = pda.getAcceptingComputations("", 100,
+                governor);
+        assertFalse(pair.getValue());
+        assertEquals(governor.getExhaustedBudget(), RunGovernor.Budget.MEMORY);
+        assertFalse(pair.getKey().isEmpty());
+    }
+}
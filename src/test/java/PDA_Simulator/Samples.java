@@ -0,0 +1,38 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.PDA;
+
+/**
+ * The PDAs shared by the tests.
+ */
+final class Samples {
+    // The PDA that sample 1 contains, which accepts the language a^n b^n over the alphabet {a, b},
+    // in the format of PDA.toString()
+    static final String SAMPLE_1 = "{states=[q0, q1, q2], transitions=[{(q0,a,) -> (A,q0)}, " +
+            "{(q0,b,A) -> (,q1)}, {(q1,,#) -> (,q2)}, {(q1,b,A) -> (,q1)}], initialState=q0, " +
+            "acceptingStates=[], initialStackSymbol=#, acceptanceCriteria=EMPTY_STACK}";
+
+    private Samples() {
+    }
+
+    /**
+     * Creates a PDA from the format of PDA.toString().
+     *
+     * @param pda The PDA as a string.
+     * @return The PDA.
+     */
+    static PDA createPDA(String pda) {
+        PDA result = new PDA();
+        result.loadPDAFromString(pda);
+        return result;
+    }
+
+    /**
+     * Creates the PDA that sample 1 contains.
+     *
+     * @return The PDA.
+     */
+    static PDA createSample1PDA() {
+        return createPDA(SAMPLE_1);
+    }
+}
@@ -0,0 +1,151 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.AcceptanceCriteria;
+import PDA_Simulator.Backend.Computation;
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDATransition;
+import PDA_Simulator.Backend.SaturationEngine;
+import PDA_Simulator.Backend.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+
+import static PDA_Simulator.Samples.createSample1PDA;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaturationEngineTest {
+
+    /**
+     * The PDA that sample 1 contains accepts the language a^n b^n over the alphabet {a, b}. The
+     * saturation engine agrees with the depth-first search and finds the same computation.
+     */
+    @Test
+    void runSample1PDA() {
+        PDA pda = createSample1PDA();
+        SaturationEngine engine = new SaturationEngine(pda);
+
+        assertNull(engine.getShortestAcceptingComputation("a"));
+        assertNull(engine.getShortestAcceptingComputation("ba"));
+        assertNull(engine.getShortestAcceptingComputation("abab"));
+        assertFalse(engine.accepts("aab"));
+        assertTrue(engine.accepts("aabb"));
+
+        Computation computation = engine.getShortestAcceptingComputation("ab");
+        assertEquals(computation, pda.getAcceptingComputations("ab", 50, 5000).getKey().get(0));
+
+        // The computation for 25 as followed by 25 bs is longer than the step limit, so there are
+        // no accepting computations within the limit, the same as for the depth-first search.
+        String inputString = "aaaaaaaaaaaaaaaaaaaaaaaaabbbbbbbbbbbbbbbbbbbbbbbbb";
+        Pair<ArrayList<Computation>, Boolean> pair =
+                engine.getAcceptingComputations(inputString, 50, 5000);
+        assertEquals(pair.getKey().size(), 0);
+        assertTrue(pair.getValue());
+        // With a larger step limit, the computation is found
+        pair = engine.getAcceptingComputations(inputString, 100, 5000);
+        assertEquals(pair.getKey().size(), 1);
+        assertEquals(pair.getKey().get(0).size(), 52);
+        assertNull(pair.getValue());
+    }
+
+    /**
+     * Saturation terminates and rejects input strings even when there are epsilon transition
+     * cycles.
+     */
+    @Test
+    void epsilonCycles() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.setInitialStackSymbol("#");
+        pda.changeAcceptanceCriteria(AcceptanceCriteria.EMPTY_STACK);
+        pda.addTransition(new PDATransition("q0", "", "", "", "q0"));
+        pda.addTransition(new PDATransition("q0", "", "", "", "q1"));
+        pda.addTransition(new PDATransition("q1", "", "", "", "q0"));
+        assertNull(new SaturationEngine(pda).getAcceptingComputations("", 50, 5000));
+
+        // An epsilon cycle that keeps pushing to the stack makes the set of reachable
+        // configurations infinite. The only way to accept is to pop the initial stack symbol
+        // straight away after reading the input.
+        pda = new PDA();
+        pda.addState();
+        pda.setInitialStackSymbol("#");
+        pda.changeAcceptanceCriteria(AcceptanceCriteria.EMPTY_STACK);
+        pda.addTransition(new PDATransition("q0", "", "", "A", "q0"));
+        pda.addTransition(new PDATransition("q0", "a", "", "", "q1"));
+        pda.addTransition(new PDATransition("q1", "", "#", "", "q1"));
+        SaturationEngine engine = new SaturationEngine(pda);
+        assertTrue(engine.accepts("a"));
+        assertEquals(engine.getShortestAcceptingComputation("a").size(), 3);
+        assertFalse(engine.accepts("aa"));
+        assertFalse(engine.accepts("b"));
+    }
+
+    /**
+     * Pop strings and push strings of several symbols are simulated correctly and the shortest
+     * computation is returned when there are several accepting computations.
+     */
+    @Test
+    void stringsOfStackSymbols() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q1");
+        // A long way round that pushes one symbol at a time and a short cut that pushes them all
+        pda.addTransition(new PDATransition("q0", "", "", "C", "q2"));
+        pda.addTransition(new PDATransition("q2", "", "", "B", "q3"));
+        pda.addTransition(new PDATransition("q3", "", "", "A", "q4"));
+        pda.addTransition(new PDATransition("q0", "", "", "ABC", "q4"));
+        pda.addTransition(new PDATransition("q4", "a", "ABC", "", "q1"));
+
+        SaturationEngine engine = new SaturationEngine(pda);
+        Computation computation = engine.getShortestAcceptingComputation("a");
+        assertEquals(computation.size(), 3);
+        assertEquals(computation.get(1).getStack().size(), 3);
+        assertEquals(computation.get(1).getStack().peek(), "A");
+        assertTrue(computation.get(2).getStack().isEmpty());
+        assertTrue(pda.isAcceptingConfiguration(computation.get(2)));
+        assertNull(engine.getShortestAcceptingComputation("aa"));
+
+        // Accepting by both criteria requires the stack to also be empty
+        pda.changeAcceptanceCriteria(AcceptanceCriteria.BOTH);
+        pda.addTransition(new PDATransition("q0", "a", "", "Z", "q1"));
+        assertEquals(engine.getShortestAcceptingComputation("a").size(), 3);
+        pda.changeAcceptanceCriteria(AcceptanceCriteria.ACCEPTING_STATE);
+        assertEquals(engine.getShortestAcceptingComputation("a").size(), 2);
+    }
+
+    /**
+     * Tests that cancelling the engine stops its next run with a CancellationException and that
+     * the run after that is unaffected.
+     */
+    @Test
+    void cancel() {
+        PDA pda = createSample1PDA();
+        SaturationEngine engine = new SaturationEngine(pda);
+        engine.cancel();
+        assertThrows(CancellationException.class, () -> engine.accepts("aabb"));
+        assertTrue(engine.accepts("aabb"));
+        assertFalse(engine.accepts("aab"));
+    }
+
+    /**
+     * Tests that a PDA with more stack symbols than the automaton transitions can be keyed by is
+     * rejected rather than run with keys that collide.
+     */
+    @Test
+    void tooManyStackSymbols() {
+        StringBuilder pop = new StringBuilder();
+        for (char symbol = 0x100; pop.length() < 4094; symbol++) {
+            pop.append(symbol);
+        }
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q1");
+        pda.addTransition(new PDATransition("q0", "a", "", "", "q1"));
+        pda.addTransition(new PDATransition("q1", "b", pop.toString(), "", "q1"));
+        assertTrue(new SaturationEngine(pda).accepts("a"));
+        assertFalse(new SaturationEngine(pda).accepts("ab"));
+
+        pda.addTransition(new PDATransition("q1", "b", "Z", "", "q1"));
+        assertThrows(IllegalArgumentException.class, () -> new SaturationEngine(pda).accepts("a"));
+    }
+}
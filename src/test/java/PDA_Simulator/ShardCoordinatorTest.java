@@ -0,0 +1,285 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.SaturationEngine;
+import PDA_Simulator.CLI.CommandLineRunner;
+import PDA_Simulator.CLI.ShardCoordinator;
+import PDA_Simulator.CLI.ShardWorker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static PDA_Simulator.Samples.SAMPLE_1;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardCoordinatorTest {
+    /**
+     * Creates a corpus of input strings over the alphabet {a, b}.
+     *
+     * @param size The number of input strings.
+     * @return The corpus.
+     */
+    private static List<String> corpus(int size) {
+        ArrayList<String> corpus = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            corpus.add("a".repeat(i % 7) + "b".repeat(i % 5));
+        }
+        return corpus;
+    }
+
+    /**
+     * Runs sample 1 on the corpus in a single JVM to find the verdicts the workers should give.
+     *
+     * @param corpus The corpus.
+     * @return The verdicts.
+     */
+    private static List<String> expectedVerdicts(List<String> corpus) {
+        PDA pda = CommandLineRunner.loadPDA(SAMPLE_1);
+        ArrayList<String> verdicts = new ArrayList<>();
+        for (String inputString : corpus) {
+            verdicts.add(new SaturationEngine(pda).accepts(inputString) ? "accepted" : "rejected");
+        }
+        return verdicts;
+    }
+
+    /**
+     * Tests that the verdicts of the shards are merged in the order of the corpus.
+     */
+    @Test
+    void localWorkers() throws IOException {
+        List<String> corpus = corpus(203);
+        ShardCoordinator coordinator =
+                new ShardCoordinator(ShardCoordinator.localWorkers(), 4, 10, 1);
+        ShardCoordinator.Report report = coordinator.run(SAMPLE_1, corpus);
+        assertEquals(report.getVerdicts(), expectedVerdicts(corpus));
+        assertEquals(report.getShards(), 21);
+        assertEquals(report.getRetries(), 0);
+        assertEquals(report.getAccepted() + report.getRejected(), 203);
+        assertTrue(report.getAccepted() > 0);
+        assertTrue(report.getThroughput() > 0);
+
+        // An empty corpus needs no workers
+        assertEquals(coordinator.run(SAMPLE_1, new ArrayList<>()).getVerdicts().size(), 0);
+    }
+
+    /**
+     * Tests that shards run by workers that crash are run again on new workers, and that a run
+     * fails once a shard has failed the maximum number of times.
+     */
+    @Test
+    void crashedWorkersAreReplaced() throws IOException {
+        List<String> corpus = corpus(100);
+        // The shards in the order they were first run. The coordinator runs the same list again
+        // when it retries a shard, so the shards are told apart by identity.
+        Map<List<String>, Integer> shards = new IdentityHashMap<>();
+        AtomicInteger started = new AtomicInteger();
+        // Every other shard crashes the worker running it the first time it is run
+        ShardCoordinator.WorkerFactory flaky = () -> {
+            started.incrementAndGet();
+            ShardCoordinator.Worker worker = ShardCoordinator.localWorkers().start();
+            return new ShardCoordinator.Worker() {
+                @Override
+                public void loadPDA(String pda) throws IOException {
+                    worker.loadPDA(pda);
+                }
+
+                @Override
+                public List<String> run(List<String> inputStrings) throws IOException {
+                    boolean firstRun;
+                    int shard;
+                    synchronized (shards) {
+                        firstRun = !shards.containsKey(inputStrings);
+                        shard = shards.computeIfAbsent(inputStrings, key -> shards.size());
+                    }
+                    if (firstRun && shard % 2 == 0) {
+                        throw new IOException("crashed");
+                    }
+                    return worker.run(inputStrings);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    worker.close();
+                }
+            };
+        };
+        ShardCoordinator.Report report =
+                new ShardCoordinator(flaky, 3, 7, 3).run(SAMPLE_1, corpus);
+        assertEquals(report.getVerdicts(), expectedVerdicts(corpus));
+        // 100 input strings make 15 shards, and the 8 with even numbers crashed once each
+        assertEquals(report.getShards(), 15);
+        assertEquals(report.getRetries(), 8);
+        assertEquals(started.get(), report.getRetries() + Math.min(3, report.getShards()));
+
+        // A worker that always crashes fails the run after the given number of attempts
+        AtomicInteger attempts = new AtomicInteger();
+        ShardCoordinator.WorkerFactory broken = () -> {
+            attempts.incrementAndGet();
+            throw new IOException("cannot start");
+        };
+        IOException e = assertThrows(IOException.class, () ->
+                new ShardCoordinator(broken, 1, 10, 2).run(SAMPLE_1, corpus));
+        assertTrue(e.getMessage().contains("failed 2 times"));
+        assertEquals(attempts.get(), 2);
+    }
+
+    /**
+     * Tests that invalid PDAs and input strings are rejected before any worker is started.
+     */
+    @Test
+    void invalidRuns() {
+        ShardCoordinator.WorkerFactory unused = () -> {
+            throw new AssertionError("No worker should be started");
+        };
+        ShardCoordinator coordinator = new ShardCoordinator(unused, 2, 10, 1);
+        assertThrows(IllegalArgumentException.class, () ->
+                coordinator.run("not a PDA", List.of("ab")));
+        assertThrows(IllegalArgumentException.class, () ->
+                coordinator.run(SAMPLE_1, List.of("a\nb")));
+    }
+
+    /**
+     * Tests that shards can be run by a worker listening on a TCP port, with a connection for
+     * each worker.
+     */
+    @Test
+    void remoteWorkers() throws IOException {
+        List<String> corpus = corpus(50);
+        try (ServerSocket serverSocket = ShardWorker.listen(InetAddress.getLoopbackAddress(), 0)) {
+            ShardCoordinator coordinator = new ShardCoordinator(
+                    ShardCoordinator.remoteWorkers("127.0.0.1", serverSocket.getLocalPort()), 2,
+                    8, 1);
+            assertEquals(coordinator.run(SAMPLE_1, corpus).getVerdicts(),
+                    expectedVerdicts(corpus));
+        }
+    }
+
+    /**
+     * Tests that a worker that never replies is treated as failed once the reply timeout is up,
+     * rather than blocking the run forever.
+     */
+    @Test
+    void silentWorkers() throws IOException {
+        // The connections are queued by the server socket but never accepted, so no request is
+        // ever answered
+        try (ServerSocket silent = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            ShardCoordinator coordinator = new ShardCoordinator(
+                    ShardCoordinator.remoteWorkers("127.0.0.1", silent.getLocalPort(), 200), 1,
+                    10, 2);
+            long start = System.nanoTime();
+            IOException e = assertThrows(IOException.class, () ->
+                    coordinator.run(SAMPLE_1, corpus(5)));
+            assertTrue(e.getCause().getMessage().contains("did not reply within 200 ms"));
+            assertTrue(System.nanoTime() - start < 10_000_000_000L);
+        }
+    }
+
+    /**
+     * Tests that shards can be run by worker JVMs started by the coordinator.
+     */
+    @Test
+    void processWorkers() throws IOException {
+        List<String> corpus = corpus(40);
+        ShardCoordinator coordinator =
+                new ShardCoordinator(ShardCoordinator.processWorkers("-Xmx64m"), 2, 10, 1);
+        ShardCoordinator.Report report = coordinator.run(SAMPLE_1, corpus);
+        assertEquals(report.getVerdicts(), expectedVerdicts(corpus));
+        assertEquals(report.getRetries(), 0);
+    }
+
+    /**
+     * Tests that the listener receives the verdicts of every shard once, in the order of the
+     * corpus, whichever order the shards finish in.
+     */
+    @Test
+    void verdictsInOrder() throws IOException {
+        List<String> corpus = corpus(95);
+        ShardCoordinator coordinator =
+                new ShardCoordinator(ShardCoordinator.localWorkers(), 4, 10, 1);
+        ArrayList<String> received = new ArrayList<>();
+        ShardCoordinator.Report report = coordinator.run(SAMPLE_1, corpus, (start, verdicts) -> {
+            assertEquals(start, received.size());
+            received.addAll(verdicts);
+        });
+        assertEquals(received, report.getVerdicts());
+        assertEquals(received, expectedVerdicts(corpus));
+    }
+
+    /**
+     * Tests that the command line entry point runs a PDA file on a corpus file with workers on
+     * several hosts, and writes the verdicts in the order of the corpus followed by the
+     * throughput.
+     */
+    @Test
+    void commandLine(@TempDir Path directory) throws IOException {
+        Path pdaFile = directory.resolve("sample1.txt");
+        Files.write(pdaFile, SAMPLE_1.getBytes(StandardCharsets.UTF_8));
+        Path corpusFile = directory.resolve("corpus.txt");
+        List<String> corpus = corpus(30);
+        Files.write(corpusFile, corpus, StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        try (ServerSocket first = ShardWorker.listen(InetAddress.getLoopbackAddress(), 0);
+             ServerSocket second = ShardWorker.listen(InetAddress.getLoopbackAddress(), 0)) {
+            assertEquals(ShardCoordinator.run(new String[]{"--pda", pdaFile.toString(),
+                    "--corpus", corpusFile.toString(), "--shard-size", "4", "--retries", "0",
+                    "--host", "127.0.0.1:" + first.getLocalPort(),
+                    "--host", "127.0.0.1:" + second.getLocalPort(), "--format", "csv"},
+                    new PrintStream(out, true), new PrintStream(err, true)), 0);
+        }
+        String[] lines = out.toString().split("\\r?\\n");
+        assertEquals(lines.length, 31);
+        assertEquals(lines[0], "input,verdict");
+        List<String> verdicts = expectedVerdicts(corpus);
+        for (int i = 0; i < corpus.size(); i++) {
+            assertEquals(lines[i + 1], corpus.get(i) + "," + verdicts.get(i));
+        }
+        assertTrue(err.toString().startsWith("30 input strings in 8 shards: "));
+        assertTrue(err.toString().contains("input strings/s"));
+    }
+
+    /**
+     * Tests that the command line entry point rejects invalid arguments and files.
+     */
+    @Test
+    void invalidCommandLines(@TempDir Path directory) throws IOException {
+        Path pdaFile = directory.resolve("invalid.txt");
+        Files.write(pdaFile, "not a PDA".getBytes(StandardCharsets.UTF_8));
+        Path corpusFile = directory.resolve("corpus.txt");
+        Files.write(corpusFile, corpus(3), StandardCharsets.UTF_8);
+        PrintStream out = new PrintStream(new ByteArrayOutputStream(), true);
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream errStream = new PrintStream(err, true);
+
+        assertEquals(ShardCoordinator.run(new String[]{"--help"}, out, errStream), 0);
+        assertEquals(ShardCoordinator.run(new String[]{"--pda", "x"}, out, errStream), 2);
+        assertEquals(ShardCoordinator.run(new String[]{"--pda", "x", "--corpus", "y",
+                "--retries", "-1"}, out, errStream), 2);
+        assertEquals(ShardCoordinator.run(new String[]{"--pda", "x", "--corpus", "y",
+                "--host", "localhost"}, out, errStream), 2);
+        assertEquals(ShardCoordinator.run(new String[]{"--pda", "x", "--corpus", "y",
+                "--host", "localhost:0"}, out, errStream), 2);
+        assertEquals(ShardCoordinator.run(new String[]{"--pda", "x", "--corpus", "y",
+                "--workers"}, out, errStream), 2);
+        assertEquals(ShardCoordinator.run(new String[]{"--pda",
+                directory.resolve("missing.txt").toString(), "--corpus", corpusFile.toString()},
+                out, errStream), 1);
+        err.reset();
+        assertEquals(ShardCoordinator.run(new String[]{"--pda", pdaFile.toString(), "--corpus",
+                corpusFile.toString(), "--host", "127.0.0.1:1"}, out, errStream), 1);
+        assertTrue(err.toString().contains("does not contain a valid PDA"));
+    }
+}
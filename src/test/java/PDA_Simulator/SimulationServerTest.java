@@ -0,0 +1,147 @@
+package PDA_Simulator;
+
+import PDA_Simulator.CLI.SimulationServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static PDA_Simulator.Samples.SAMPLE_1;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationServerTest {
+    // The server being tested
+    private SimulationServer server;
+
+    /**
+     * Starts a server on a free port with room for two PDAs in its cache.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new SimulationServer(0, 2);
+        server.start();
+    }
+
+    /**
+     * Stops the server.
+     */
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Sends a request to the server and gets the response with the times removed.
+     *
+     * @param method The HTTP method.
+     * @param query  The query string, or an empty string if there is none.
+     * @param body   The body of the request, or null if there is none.
+     * @return The status code followed by the lines of the response.
+     */
+    private String request(String method, String query, String body) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + server.getPort() + "/run" + query);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() :
+                connection.getErrorStream();
+        String response = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        in.close();
+        return status + "\n" + response.replaceAll("\"timeMs\":[0-9.]+", "\"timeMs\":T");
+    }
+
+    /**
+     * Tests that the verdicts are returned in the order of the input strings, with a shortest
+     * accepting computation as the witness for accepted input strings.
+     */
+    @Test
+    void verdictsAndWitnesses() throws IOException {
+        assertEquals(request("POST", "", SAMPLE_1 + "\nab\naab\n\nba\n"), "200\n" +
+                "{\"input\":\"ab\",\"verdict\":\"accepted\",\"witness\":[\"{(q0,a,) -> " +
+                "(A,q0)}\",\"{(q0,b,A) -> (,q1)}\",\"{(q1,,#) -> (,q2)}\"],\"timeMs\":T}\n" +
+                "{\"input\":\"aab\",\"verdict\":\"rejected\",\"witness\":null,\"timeMs\":T}\n" +
+                "{\"input\":\"\",\"verdict\":\"rejected\",\"witness\":null,\"timeMs\":T}\n" +
+                "{\"input\":\"ba\",\"verdict\":\"rejected\",\"witness\":null,\"timeMs\":T}\n");
+    }
+
+    /**
+     * Tests that a PDA sent again is found in the cache, even if it was saved with the positions
+     * of its states, and that the least recently used PDA is evicted when the cache is full.
+     */
+    @Test
+    void snapshotCache() throws IOException {
+        request("POST", "", SAMPLE_1 + "\nab\n");
+        request("POST", "", SAMPLE_1 + "{(q0,50.0,50.0), (q1,250.0,50.0), (q2,450.0,50.0) " +
+                "[transition function = SYMBOL_AND_STRING]}\naabb\n");
+        assertEquals(server.getCacheMisses(), 1);
+        assertEquals(server.getCacheHits(), 1);
+        // The same text again is found without being parsed
+        request("POST", "", SAMPLE_1 + "\nb\n");
+        assertEquals(server.getCacheMisses(), 1);
+        assertEquals(server.getCacheHits(), 2);
+
+        // Two other PDAs fill the cache and evict sample 1
+        request("POST", "", SAMPLE_1.replace("EMPTY_STACK", "ACCEPTING_STATE") + "\nab\n");
+        request("POST", "", SAMPLE_1.replace("initialStackSymbol=#", "initialStackSymbol=B") +
+                "\nab\n");
+        request("POST", "", SAMPLE_1 + "\nab\n");
+        assertEquals(server.getCacheMisses(), 4);
+        assertEquals(server.getCacheHits(), 2);
+    }
+
+    /**
+     * Tests that invalid requests are rejected with an error status.
+     */
+    @Test
+    void invalidRequests() throws IOException {
+        assertTrue(request("GET", "", null).startsWith("405\n"));
+        assertTrue(request("POST", "", "").startsWith("400\nInvalid PDA"));
+        assertTrue(request("POST", "", "not a PDA\nab\n").startsWith("400\nInvalid PDA"));
+        assertTrue(request("POST", "?time-limit=0", SAMPLE_1 + "\nab\n")
+                .startsWith("400\nInvalid time limit"));
+        assertTrue(request("POST", "?time-limit=1000", SAMPLE_1 + "\nab\n")
+                .startsWith("200\n{\"input\":\"ab\",\"verdict\":\"accepted\""));
+    }
+
+    /**
+     * Tests that many requests can be handled at once and all get the right verdicts.
+     */
+    @Test
+    void concurrentRequests() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            ArrayList<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String inputString = "a".repeat(i % 8) + "b".repeat(i % 8 + i / 16);
+                responses.add(clients.submit(() -> request("POST", "",
+                        SAMPLE_1 + "\n" + inputString + "\n")));
+            }
+            for (int i = 0; i < 32; i++) {
+                String response = responses.get(i).get(30, TimeUnit.SECONDS);
+                boolean accepted = i % 8 > 0 && i / 16 == 0;
+                assertTrue(response.startsWith("200\n"));
+                assertEquals(response.contains("\"verdict\":\"accepted\""), accepted);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        assertEquals(server.getCacheHits() + server.getCacheMisses(), 32);
+    }
+}
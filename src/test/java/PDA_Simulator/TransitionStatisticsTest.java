@@ -0,0 +1,119 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.Computation;
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDATransition;
+import PDA_Simulator.Backend.TransitionStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransitionStatisticsTest {
+
+    /**
+     * Tests that attempts and successes are recorded while the PDA searches for accepting
+     * computations and that the success rate is estimated from them.
+     */
+    @Test
+    void recordStatistics() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q2");
+        PDATransition good = new PDATransition("q0", "a", "", "", "q2");
+        PDATransition dead = new PDATransition("q0", "a", "", "", "q1");
+        pda.addTransition(good);
+        pda.addTransition(dead);
+
+        TransitionStatistics statistics = new TransitionStatistics();
+        // Transitions that have never been tried have a success rate of one half
+        assertEquals(statistics.getSuccessRate(good), 0.5);
+
+        statistics.train(pda, List.of("a", "a", "b"), 50, 5000);
+        assertEquals(pda.getTransitionStatistics(), statistics);
+        assertEquals(statistics.getAttempts(good), 2);
+        assertEquals(statistics.getSuccesses(good), 2);
+        assertEquals(statistics.getAttempts(dead), 2);
+        assertEquals(statistics.getSuccesses(dead), 0);
+        assertEquals(statistics.getSuccessRate(good), 0.75);
+        assertEquals(statistics.getSuccessRate(dead), 0.25);
+
+        // Statistics are shared between transitions that are equal
+        assertEquals(statistics.getAttempts(new PDATransition("q0", "a", "", "", "q2")), 2);
+
+        statistics.clear();
+        assertEquals(statistics.getAttempts(good), 0);
+        assertEquals(statistics.getSuccessRate(dead), 0.5);
+    }
+
+    /**
+     * Tests that once the statistics have been trained, the transition that leads to acceptance is
+     * tried first and the search stops before trying the other one.
+     */
+    @Test
+    void getFirstAcceptingComputation() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q2");
+        PDATransition good = new PDATransition("q0", "a", "", "", "q2");
+        PDATransition dead = new PDATransition("q0", "a", "", "A", "q1");
+        pda.addTransition(good);
+        pda.addTransition(dead);
+        pda.addTransition(new PDATransition("q1", "", "", "A", "q1"));
+
+        // Without statistics, the first accepting computation is still found
+        Computation computation = pda.getFirstAcceptingComputation("a", 50, 5000);
+        assertEquals(computation.size(), 2);
+        assertEquals(computation.get(1).getState(), "q2");
+        assertNull(pda.getFirstAcceptingComputation("b", 50, 5000));
+
+        TransitionStatistics statistics = new TransitionStatistics();
+        statistics.train(pda, List.of("a"), 50, 5000);
+        // The transitions are explored from the last one defined, so the dead end was tried first
+        assertEquals(statistics.getAttempts(dead), 1);
+        assertEquals(statistics.getAttempts(good), 1);
+
+        // Now that the good transition has a higher success rate, it is tried first and the search
+        // stops without trying the dead end again
+        computation = pda.getFirstAcceptingComputation("a", 50, 5000);
+        assertEquals(computation.get(1).getState(), "q2");
+        assertEquals(statistics.getAttempts(dead), 1);
+        assertEquals(statistics.getAttempts(good), 2);
+        assertEquals(statistics.getSuccesses(good), 2);
+
+        // Detaching the statistics goes back to the order the transitions were defined in
+        pda.setTransitionStatistics(null);
+        pda.getFirstAcceptingComputation("a", 50, 5000);
+        assertEquals(statistics.getAttempts(dead), 1);
+    }
+
+    /**
+     * Tests that snapshots share the statistics of their PDA, so that searches on a snapshot use
+     * the trained order and keep training the statistics.
+     */
+    @Test
+    void snapshotsShareStatistics() {
+        PDA pda = new PDA();
+        pda.addState();
+        pda.changeAcceptingState("q2");
+        PDATransition good = new PDATransition("q0", "a", "", "", "q2");
+        PDATransition dead = new PDATransition("q0", "a", "", "A", "q1");
+        pda.addTransition(good);
+        pda.addTransition(dead);
+        pda.addTransition(new PDATransition("q1", "", "", "A", "q1"));
+        TransitionStatistics statistics = new TransitionStatistics();
+        statistics.train(pda, List.of("a"), 50, 5000);
+
+        PDA snapshot = pda.snapshot();
+        assertSame(snapshot.getTransitionStatistics(), statistics);
+        // The good transition is tried first on the snapshot too, and the attempt is recorded
+        assertNotNull(snapshot.getFirstAcceptingComputation("a", 50, 5000));
+        assertEquals(statistics.getAttempts(dead), 1);
+        assertEquals(statistics.getAttempts(good), 2);
+
+        // Detaching the statistics from the PDA gives a new snapshot without them
+        pda.setTransitionStatistics(null);
+        assertNull(pda.snapshot().getTransitionStatistics());
+    }
+}
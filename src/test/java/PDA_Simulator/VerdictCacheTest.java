@@ -0,0 +1,164 @@
+package PDA_Simulator;
+
+import PDA_Simulator.Backend.PDA;
+import PDA_Simulator.Backend.PDATransition;
+import PDA_Simulator.Backend.VerdictCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static PDA_Simulator.Samples.createSample1PDA;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerdictCacheTest {
+    /**
+     * Tests that the fingerprint ignores the order of the transitions and the states that no
+     * transition uses, but changes with anything that can change the verdicts.
+     */
+    @Test
+    void fingerprint() {
+        PDA pda = createSample1PDA();
+        PDA reordered = new PDA();
+        reordered.loadPDAFromString("{states=[q2, q1, q0, q3], transitions=[{(q1,b,A) -> (," +
+                "q1)}, {(q1,,#) -> (,q2)}, {(q0,b,A) -> (,q1)}, {(q0,a,) -> (A,q0)}], " +
+                "initialState=q0, acceptingStates=[], initialStackSymbol=#, " +
+                "acceptanceCriteria=EMPTY_STACK}");
+        String fingerprint = VerdictCache.fingerprint(pda);
+        assertEquals(fingerprint.length(), 64);
+        assertEquals(VerdictCache.fingerprint(reordered), fingerprint);
+
+        pda.setInitialStackSymbol("A");
+        assertNotEquals(VerdictCache.fingerprint(pda), fingerprint);
+        pda.setInitialStackSymbol("#");
+        assertEquals(VerdictCache.fingerprint(pda), fingerprint);
+        pda.changeAcceptingState("q2");
+        assertNotEquals(VerdictCache.fingerprint(pda), fingerprint);
+        pda.changeAcceptingState("q2");
+        pda.deleteTransition(new PDATransition("q1", "", "#", "", "q2"));
+        assertNotEquals(VerdictCache.fingerprint(pda), fingerprint);
+    }
+
+    /**
+     * Tests that verdicts are only computed once, that the witness is a shortest accepting
+     * computation and that the least recently used verdict is evicted first.
+     */
+    @Test
+    void memoryTier() throws IOException {
+        PDA pda = createSample1PDA();
+        VerdictCache cache = new VerdictCache(2);
+        VerdictCache.Verdict verdict = cache.getVerdict(pda, "aabb");
+        assertTrue(verdict.isAccepted());
+        assertEquals(verdict.getWitness(pda, "aabb").size(), 6);
+        assertFalse(cache.accepts(pda, "aab"));
+        assertNull(cache.getVerdict(pda, "aab").getWitness(pda, "aab"));
+        assertTrue(cache.accepts(pda, "aabb"));
+        assertEquals(cache.getMisses(), 2);
+        assertEquals(cache.getMemoryHits(), 2);
+
+        // aab is now the least recently used verdict, so it is evicted
+        assertTrue(cache.accepts(pda, "ab"));
+        assertEquals(cache.getMemorySize(), 2);
+        assertFalse(cache.accepts(pda, "aab"));
+        assertEquals(cache.getMisses(), 4);
+        assertEquals(cache.getDiskHits(), 0);
+
+        // Changing the PDA changes the fingerprint, so the old verdicts are not used
+        pda.deleteTransition(new PDATransition("q1", "", "#", "", "q2"));
+        assertFalse(cache.accepts(pda, "aabb"));
+        // Changing it back gives the old fingerprint, so the verdict is found in memory again
+        pda.addTransition(new PDATransition("q1", "", "#", "", "q2"));
+        int memoryHits = cache.getMemoryHits();
+        assertFalse(cache.accepts(pda, "aab"));
+        assertEquals(cache.getMemoryHits(), memoryHits + 1);
+        assertThrows(IllegalArgumentException.class, () -> new VerdictCache(0));
+    }
+
+    /**
+     * Tests that verdicts persisted on disk are found by a new cache, including the witnesses and
+     * input strings that need escaping.
+     */
+    @Test
+    void diskTier(@TempDir Path directory) throws IOException {
+        PDA pda = createSample1PDA();
+        VerdictCache cache = new VerdictCache(10, directory);
+        assertTrue(cache.accepts(pda, "aaabbb"));
+        assertFalse(cache.accepts(pda, "a\tb\\n"));
+        assertFalse(cache.accepts(pda, ""));
+
+        VerdictCache newCache = new VerdictCache(10, directory);
+        VerdictCache.Verdict verdict = newCache.getVerdict(createSample1PDA(), "aaabbb");
+        assertTrue(verdict.isAccepted());
+        assertEquals(verdict.getWitnessTransitions().size(), 7);
+        assertEquals(verdict.getWitnessTransitions().get(6),
+                new PDATransition("q1", "", "#", "", "q2"));
+        assertFalse(newCache.accepts(pda, "a\tb\\n"));
+        assertNull(newCache.getVerdict(pda, "").getWitnessTransitions());
+        assertEquals(newCache.getDiskHits(), 3);
+        assertEquals(newCache.getMisses(), 0);
+    }
+
+    /**
+     * Tests that the files of PDAs on disk are only read when their verdicts are looked up, and
+     * that the least recently used files are dropped from the index once it holds more verdicts
+     * than the memory tier.
+     */
+    @Test
+    void diskIndexEviction(@TempDir Path directory) throws IOException {
+        PDA pda = createSample1PDA();
+        PDA otherPDA = createSample1PDA();
+        otherPDA.deleteTransition(new PDATransition("q1", "", "#", "", "q2"));
+        VerdictCache cache = new VerdictCache(2, directory);
+        assertTrue(cache.accepts(pda, "ab"));
+        assertTrue(cache.accepts(pda, "aabb"));
+        assertFalse(cache.accepts(otherPDA, "ab"));
+
+        VerdictCache newCache = new VerdictCache(1, directory);
+        assertTrue(newCache.accepts(pda, "ab"));
+        assertEquals(newCache.getDiskHits(), 1);
+        // Reading the file of the other PDA drops the file of the first one from the index, so
+        // once that file is gone, its verdicts are computed again
+        assertFalse(newCache.accepts(otherPDA, "ab"));
+        assertEquals(newCache.getDiskHits(), 2);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+        assertTrue(newCache.accepts(pda, "aabb"));
+        assertEquals(newCache.getDiskHits(), 2);
+        assertEquals(newCache.getMisses(), 1);
+    }
+
+    /**
+     * Tests that threads looking up the same verdicts at once compute each verdict only once.
+     */
+    @Test
+    void concurrentLookups() throws Exception {
+        PDA snapshot = createSample1PDA().snapshot();
+        VerdictCache cache = new VerdictCache(100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            ArrayList<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String inputString = "a".repeat(i % 10) + "b".repeat(i % 10);
+                results.add(executor.submit(() -> cache.accepts(snapshot, inputString)));
+            }
+            for (int i = 0; i < 200; i++) {
+                assertEquals(results.get(i).get(), i % 10 != 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(cache.getMisses(), 10);
+        assertEquals(cache.getMemoryHits(), 190);
+    }
+}